@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication;
+
+import android.app.usage.UsageEvents;
+import android.app.usage.UsageStatsManager;
+import android.content.Context;
+import android.os.Handler;
+import android.util.Log;
+
+/**
+ * Reports which app is in the foreground, from the usage events of the system.
+ *
+ * Needs the usage access the user grants in the system settings; without it no app is ever
+ * reported. The events are polled on the UI thread while the watcher is started.
+ */
+public class ForegroundAppWatcher {
+
+    private static final String TAG = "ForegroundAppWatcher";
+
+    private static final long POLL_INTERVAL_MS = 1000;
+    // How far back the first poll looks for the app that is already in the foreground.
+    private static final long INITIAL_LOOKBACK_MS = 10 * 60 * 1000L;
+
+    public interface Listener {
+        /**
+         * Called on the UI thread when another app moved to the foreground.
+         */
+        void onForegroundApp(String packageName);
+    }
+
+    private final UsageStatsManager mUsageStats;
+    private final Listener mListener;
+    private final Handler mHandler = new Handler();
+    private final UsageEvents.Event mEvent = new UsageEvents.Event();
+    private boolean mRunning = false;
+    private long mLastQueryMs;
+    private String mForegroundApp;
+
+    private final Runnable mPoll = new Runnable() {
+        @Override
+        public void run() {
+            poll();
+        }
+    };
+
+    public ForegroundAppWatcher(Context context, Listener listener) {
+        mUsageStats = (UsageStatsManager) context.getSystemService(Context.USAGE_STATS_SERVICE);
+        mListener = listener;
+    }
+
+    public void start() {
+        if (mRunning) {
+            return;
+        }
+        mRunning = true;
+        mLastQueryMs = System.currentTimeMillis() - INITIAL_LOOKBACK_MS;
+        poll();
+    }
+
+    public void stop() {
+        mRunning = false;
+        mHandler.removeCallbacks(mPoll);
+    }
+
+    /**
+     * Returns the app last reported in the foreground, or null if none is known.
+     */
+    public String getForegroundApp() {
+        return mForegroundApp;
+    }
+
+    private void poll() {
+        long nowMs = System.currentTimeMillis();
+        String foreground = null;
+        try {
+            UsageEvents events = mUsageStats.queryEvents(mLastQueryMs, nowMs);
+            while (events.hasNextEvent()) {
+                events.getNextEvent(mEvent);
+                if (mEvent.getEventType() == UsageEvents.Event.MOVE_TO_FOREGROUND) {
+                    foreground = mEvent.getPackageName();
+                }
+            }
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Failed to query usage events", e);
+        }
+        mLastQueryMs = nowMs;
+        if (foreground != null && !foreground.equals(mForegroundApp)) {
+            mForegroundApp = foreground;
+            mListener.onForegroundApp(foreground);
+        }
+        if (mRunning) {
+            mHandler.postDelayed(mPoll, POLL_INTERVAL_MS);
+        }
+    }
+}
@@ -8,159 +8,456 @@
 package example.com.myapplication;
 
 import android.content.Context;
-import android.hardware.Camera;
+import android.content.SharedPreferences;
+import android.content.res.Configuration;
+import android.os.Handler;
+import android.os.SystemClock;
+import android.preference.PreferenceManager;
 import android.util.Log;
-import android.content.pm.ActivityInfo;
 import android.view.SurfaceView;
 import android.view.WindowManager;
 
+import example.com.myapplication.camera.Camera2Source;
 import example.com.myapplication.camera.CameraManager;
-import example.com.myapplication.camera.CameraManager.CameraFrameListener;
+import example.com.myapplication.core.DetectionScheduler;
+import example.com.myapplication.core.FaceBatch;
+import example.com.myapplication.core.FaceTracker;
+import example.com.myapplication.core.FrameSource;
+import example.com.myapplication.core.LatencyTracker;
+import example.com.myapplication.core.MotionGate;
+import example.com.myapplication.core.Orientation;
+import example.com.myapplication.core.OrientationEngine;
+import example.com.myapplication.core.OrientationPipeline;
+import example.com.myapplication.core.camera.FrameRateController;
 
 /**
  * Implements the Face Detection Rotation Display logic:
- *   - Turns on the camera if screen is on.
+ *   - Turns on the camera in short bursts while the screen is on, backing off while the
+ *     orientation stays the same.
  *   - Performs face detection on camera frames.
  *   - Rotate the screen to a correct position if a face is detected.
  */
 public class MyFDRotationDisplay
-        implements CameraFrameListener {
+        implements FrameSource.Listener {
 
     private enum State {
         IDLE,
         WAIT_FOR_OBJECT,
-        WAIT_FOR_FRAME
+        WAIT_FOR_FRAME,
+        // Camera is off until the next detection burst.
+        BACKOFF
     }
 
     private static final String TAG = "MyFDRotationDisplay";
     private static final boolean DbgVerbose = false;
 
+    // Shared preference selecting the camera API: "auto" (default) uses Camera2 unless the
+    // device only wraps Camera1 in it, "camera1" forces the old API.
+    public static final String PREF_CAMERA_API = "camera_api";
+    public static final String CAMERA_API_AUTO = "auto";
+    public static final String CAMERA_API_1 = "camera1";
+
+    // Shared preference: true (default) to let all faces in a frame vote on the orientation,
+    // false to follow the first face only.
+    public static final String PREF_CONSENSUS = "consensus";
+
+    // Shared preference: true (default) to stream the Camera1 preview into an offscreen
+    // texture, false to show it in a 1x1 overlay window.
+    public static final String PREF_OFFSCREEN_PREVIEW = "offscreen_preview";
+
+    // Time between two face detections while a tracked face is locked.
+    private static final long LOCKED_DETECTION_INTERVAL_MS = 1000;
+
+    // Time a forced rotation gets to reach the display before its outcome is reported.
+    private static final long ROTATION_SETTLE_MS = 800;
+
+    public interface RotationListener {
+        /**
+         * Called on the UI thread after a forced rotation between portrait and landscape.
+         *
+         * @param followed true if the display took the forced orientation, false if the
+         *                 foreground app kept its own
+         */
+        void onRotationSettled(boolean followed);
+    }
+
     private State mState;
     private final Context mContext;
-    private final CameraManager mCameraManager;
+    private final FrameSource mFrameSource;
     private final ScreenRotationOverlay mScreenRotationOverlay;
-    private final OverlayPixel mOverlayLayout;
+    // Hosts the Camera1 preview when it is shown in a window, else null.
+    private OverlayPixel mOverlayLayout;
     private final WindowManager mWindowManager;
+    // Votes over recent decisions so a single noisy frame does not relayout the screen.
+    private final OrientationPipeline mPipeline = new OrientationPipeline();
+    private final DetectionScheduler mScheduler = new DetectionScheduler();
+    private final LatencyTracker mLatency = new LatencyTracker();
+    // Lets detection run at a low rate while the same face stays in view.
+    private final FaceTracker mTracker = new FaceTracker();
+    private boolean mDetectionThrottled = false;
+    // Runs the preview fast while the orientation is uncertain and slow once it settled.
+    private final FrameRateController mFrameRate = new FrameRateController();
+    // When the display was created, and when the frame source was last resumed, until the
+    // first faces arrive; -1 after.
+    private long mCreatedNs;
+    private long mResumedNs = -1;
+    // When the screen last turned on, until the first faces after it arrive; -1 after.
+    private long mScreenOnNs = -1;
+    private final Handler mHandler = new Handler();
+    private MotionGate mMotionGate;
+    private RotationListener mRotationListener;
+    // Configuration orientation the last forced rotation should lead to.
+    private int mExpectedConfiguration;
+
+    private final Runnable mBeginBurst = new Runnable() {
+        @Override
+        public void run() {
+            onBurstDue();
+        }
+    };
+
+    private final Runnable mEndBurst = new Runnable() {
+        @Override
+        public void run() {
+            endBurst();
+        }
+    };
+
+    private final Runnable mCheckRotation = new Runnable() {
+        @Override
+        public void run() {
+            if (mRotationListener != null) {
+                mRotationListener.onRotationSettled(
+                        getConfigurationOrientation() == mExpectedConfiguration);
+            }
+        }
+    };
+
+    // Notices a lost face while detection is throttled and no results arrive.
+    private final Runnable mCheckTrack = new Runnable() {
+        @Override
+        public void run() {
+            mTracker.expire(System.nanoTime() / 1000000L);
+            updateDetectionRate();
+        }
+    };
 
     /**
      * Creates the MyFDRotationDisplay instance and starts operation.
      */
     public MyFDRotationDisplay(Context context) {
         mContext = context;
+        mCreatedNs = System.nanoTime();
 
-        mOverlayLayout = new OverlayPixel(context, 0);
         mWindowManager = (WindowManager)context.getSystemService(Context.WINDOW_SERVICE);
-        mWindowManager.addView(mOverlayLayout, mOverlayLayout.getLayoutParams());
-
-        SurfaceView surfaceView = new SurfaceView(context);
-        mOverlayLayout.addView(surfaceView);
 
-        mCameraManager = new CameraManager(surfaceView, this, mContext);
+        mFrameSource = createFrameSource();
+        mPipeline.getEngine().setConsensus(PreferenceManager.getDefaultSharedPreferences(context)
+                .getBoolean(PREF_CONSENSUS, true), OrientationEngine.DEFAULT_MIN_CONSENSUS);
         mScreenRotationOverlay = new ScreenRotationOverlay(mContext);
 
         mState = State.IDLE;
     }
 
+    /**
+     * Creates the camera backend selected by {@link #PREF_CAMERA_API}, falling back to
+     * Camera1 if Camera2 is not usable.
+     */
+    private FrameSource createFrameSource() {
+        SharedPreferences prefs = PreferenceManager.getDefaultSharedPreferences(mContext);
+        String api = prefs.getString(PREF_CAMERA_API, CAMERA_API_AUTO);
+        if (!CAMERA_API_1.equals(api)) {
+            FrameSource source = Camera2Source.create(mContext, this, mLatency);
+            if (source != null) {
+                Log.d(TAG, "using Camera2");
+                return source;
+            }
+        }
+
+        if (prefs.getBoolean(PREF_OFFSCREEN_PREVIEW, true)) {
+            Log.d(TAG, "using Camera1 with an offscreen preview");
+            return new CameraManager(null, this, mLatency, mContext);
+        }
+
+        // Camera1 needs a preview surface, hosted in the overlay window.
+        Log.d(TAG, "using Camera1");
+        mOverlayLayout = new OverlayPixel(mContext, 0);
+        mWindowManager.addView(mOverlayLayout, mOverlayLayout.getLayoutParams());
+        SurfaceView surfaceView = new SurfaceView(mContext);
+        mOverlayLayout.addView(surfaceView);
+        return new CameraManager(surfaceView, this, mLatency, mContext);
+    }
+
     /**
      * Cleans up the MyFDRotationDisplay instance.
      */
     public void destroy() {
         Log.d(TAG, "destroy()");
+        mHandler.removeCallbacks(mBeginBurst);
+        mHandler.removeCallbacks(mEndBurst);
+        mHandler.removeCallbacks(mCheckTrack);
+        mHandler.removeCallbacks(mCheckRotation);
         mState = State.IDLE;
-        mCameraManager.pause();
-        mCameraManager.destroy();
-        mWindowManager.removeView(mOverlayLayout);
+        mFrameSource.pause();
+        mFrameSource.destroy();
+        if (mOverlayLayout != null) {
+            mWindowManager.removeView(mOverlayLayout);
+        }
         mScreenRotationOverlay.destroy();
     }
 
     @Override
-    public void onCameraError() {
-        Log.d(TAG, "onCameraError()");
-    }
-
-    private int getOrientationByFace(Camera.Face face, boolean hasFaceID) {
-        if(hasFaceID) {
-            if (face.rightEye.x > face.mouth.x && face.rightEye.y > face.mouth.y) {
-                return ActivityInfo.SCREEN_ORIENTATION_PORTRAIT;
-            } else if (face.rightEye.x > face.mouth.x && face.rightEye.y < face.mouth.y) {
-                return ActivityInfo.SCREEN_ORIENTATION_LANDSCAPE;
-            } else if (face.rightEye.x < face.mouth.x && face.rightEye.y < face.mouth.y) {
-                return ActivityInfo.SCREEN_ORIENTATION_REVERSE_PORTRAIT;
-            } else if (face.rightEye.x < face.mouth.x && face.rightEye.y > face.mouth.y) {
-                return ActivityInfo.SCREEN_ORIENTATION_REVERSE_LANDSCAPE;
-            } else {
-                return ActivityInfo.SCREEN_ORIENTATION_UNSPECIFIED;
+    public void onSourceError() {
+        Log.d(TAG, "onSourceError()");
+    }
+
+    @Override
+    public void onFaces(FaceBatch faces, long timestampNs) {
+        if(DbgVerbose) Log.d(TAG, faces.getCount() + " faces are found!");
+        if (mResumedNs >= 0) {
+            onFirstFaces();
+        }
+
+        long timestampMs = timestampNs / 1000000L;
+        mTracker.update(faces, timestampMs);
+        updateDetectionRate();
+        int orientation = mPipeline.onFaces(faces, timestampMs);
+        if (mFrameRate.update(mPipeline.isSettled(), timestampMs)) {
+            if(DbgVerbose) Log.d(TAG, "target frame rate " + mFrameRate.getTargetFps());
+            mFrameSource.setTargetFrameRate(mFrameRate.getTargetFps());
+        }
+        long decidedNs = System.nanoTime();
+        mLatency.record(LatencyTracker.FRAME_TO_DECISION, timestampNs, decidedNs);
+        if(orientation != Orientation.UNSPECIFIED) {
+            if(DbgVerbose) Log.d(TAG, "start to rotate screen to value " + orientation + "...");
+            int configuration = getConfigurationOrientation();
+            if (mScreenRotationOverlay.rotateScreen(orientation)) {
+                checkRotation(configuration, orientation);
+                long layoutNs = System.nanoTime();
+                mLatency.record(LatencyTracker.DECISION_TO_LAYOUT, decidedNs, layoutNs);
+                mLatency.record(LatencyTracker.FRAME_TO_LAYOUT, timestampNs, layoutNs);
             }
-        } else {
-            // to do ... analyze by rect info
-            return ActivityInfo.SCREEN_ORIENTATION_UNSPECIFIED;
         }
+        mScheduler.onOrientation(mPipeline.getApplied());
     }
 
-    @Override
-    public void onFaceDetection(Camera.Face[] faces) {
-        if (faces.length <= 0) {
-            Log.d(TAG, "no face detected...");
-            return;
+    /**
+     * Records the cold start latency when the first faces arrive after the frame source was
+     * resumed, and logs it once for the start of the service.
+     */
+    private void onFirstFaces() {
+        long nowNs = System.nanoTime();
+        mLatency.record(LatencyTracker.START_TO_FIRST_FACE, mResumedNs, nowNs);
+        mResumedNs = -1;
+        if (mScreenOnNs >= 0) {
+            mLatency.record(LatencyTracker.SCREEN_ON_TO_FIRST_FACE, mScreenOnNs, nowNs);
+            if(DbgVerbose) Log.d(TAG, "first faces " + (nowNs - mScreenOnNs) / 1000000L
+                    + " ms after screen on");
+            mScreenOnNs = -1;
+        }
+        if (mCreatedNs >= 0) {
+            Log.d(TAG, "first faces " + (nowNs - mCreatedNs) / 1000000L
+                    + " ms after service start");
+            mCreatedNs = -1;
         }
+    }
 
-        if(DbgVerbose) Log.d(TAG, faces.length + " faces are found!");
+    /**
+     * Schedules the report of whether a forced rotation reached the display. Only rotations
+     * between portrait and landscape tell whether the foreground app follows them.
+     */
+    private void checkRotation(int configuration, int orientation) {
+        int expected = orientation == Orientation.PORTRAIT
+                || orientation == Orientation.REVERSE_PORTRAIT
+                ? Configuration.ORIENTATION_PORTRAIT : Configuration.ORIENTATION_LANDSCAPE;
+        if (mRotationListener == null || expected == configuration) {
+            return;
+        }
+        mExpectedConfiguration = expected;
+        mHandler.removeCallbacks(mCheckRotation);
+        mHandler.postDelayed(mCheckRotation, ROTATION_SETTLE_MS);
+    }
 
-        int faceIndex = -1;
-        boolean hasFaceID = false;
+    private int getConfigurationOrientation() {
+        return mContext.getResources().getConfiguration().orientation;
+    }
 
-        for (int i = 0; i < faces.length; i++) {
-                if(faces[i].rect != null ) {
-                    faceIndex = i;
-                    if(DbgVerbose) Log.d(TAG, "rect left, top, right, bottom are " + faces[i].rect.left +
-                            ", " + faces[i].rect.top + ", " + faces[i].rect.right +
-                            ", " + faces[i].rect.bottom);
-                    break;
-                }
+    /**
+     * Sets the listener told whether forced rotations reach the display, or null. Must be
+     * called from the UI thread.
+     */
+    public void setRotationListener(RotationListener listener) {
+        mRotationListener = listener;
+    }
 
-                if(faces[i].id < 0 || faces[i].leftEye == null ||
-                        faces[i].rightEye == null || faces[i].mouth == null)
-                    Log.d(TAG, "face id or eyes/mouth coordinates are not supported");
-                else {
-                    faceIndex = i;
-                    hasFaceID = true;
-                    if(DbgVerbose) Log.d(TAG, "Face ID[" + faces[i].id
-                            + "]: L " + faces[i].leftEye
-                            + ", R " + faces[i].rightEye
-                            + ", M " + faces[i].mouth);
-                }
+    /**
+     * Drops the face detection rate while a tracked face is locked and ramps it back up once
+     * the track is lost.
+     */
+    private void updateDetectionRate() {
+        boolean locked = mTracker.getLockedTrack() >= 0;
+        if (locked != mDetectionThrottled) {
+            mDetectionThrottled = locked;
+            if(DbgVerbose) Log.d(TAG, (locked ? "face locked" : "face lost") + ", " + mTracker);
+            mFrameSource.setDetectionInterval(locked ? LOCKED_DETECTION_INTERVAL_MS : 0);
         }
-
-        int orientation = ActivityInfo.SCREEN_ORIENTATION_UNSPECIFIED;
-        if(faceIndex >=0) {
-            orientation = getOrientationByFace(faces[faceIndex], hasFaceID);
+        mHandler.removeCallbacks(mCheckTrack);
+        if (locked) {
+            mHandler.postDelayed(mCheckTrack, FaceTracker.DEFAULT_MAX_COAST_MS);
         }
+    }
 
-        if(orientation != ActivityInfo.SCREEN_ORIENTATION_UNSPECIFIED) {
-            if(DbgVerbose) Log.d(TAG, "start to rotate screen to value " + orientation + "...");
-            mScreenRotationOverlay.rotateScreen(orientation);
+    /**
+     * Ends all face tracks, e.g. when the camera is turned off.
+     */
+    private void resetTracking() {
+        mTracker.reset(System.nanoTime() / 1000000L);
+        updateDetectionRate();
+        if (mFrameRate.reset()) {
+            mFrameSource.setTargetFrameRate(mFrameRate.getTargetFps());
         }
     }
 
+    /**
+     * Sets how much the camera may cost, a QualityGovernor tier.
+     */
+    public void setQualityTier(int tier) {
+        mFrameSource.setQualityTier(tier);
+    }
+
+    /**
+     * Returns the tracker that follows faces across detections, for its statistics.
+     */
+    public FaceTracker getFaceTracker() {
+        return mTracker;
+    }
+
+    /**
+     * Returns the controller of the preview frame rate, for its statistics.
+     */
+    public FrameRateController getFrameRateController() {
+        return mFrameRate;
+    }
+
+    /**
+     * Returns the source of preview frames, for its statistics.
+     */
+    public FrameSource getFrameSource() {
+        return mFrameSource;
+    }
+
+    /**
+     * Returns the per-stage latency histograms of the frame to rotation path.
+     */
+    public LatencyTracker getLatencyTracker() {
+        return mLatency;
+    }
+
+    /**
+     * Called on the UI thread when the screen turned on, before detection is started, to
+     * measure the screen on to first face latency.
+     */
+    public void onScreenOn() {
+        mScreenOnNs = System.nanoTime();
+    }
+
     public void startDetection() {
         Log.d(TAG, "startDetection() in state "+mState);
         if (mState == State.IDLE ) {
-            mState = State.WAIT_FOR_FRAME;
-            mCameraManager.resume();
+            beginBurst();
         }
     }
 
     public void stopDetection() {
-        Log.d(TAG, "stopDetection()");
+        stopDetection(false);
+    }
+
+    /**
+     * @param keepWarm true when detection stops because the screen turned off; the source
+     *                 may then keep the camera ready for the next screen on
+     */
+    public void stopDetection(boolean keepWarm) {
+        Log.d(TAG, "stopDetection() " + mPipeline);
+        mHandler.removeCallbacks(mBeginBurst);
+        mHandler.removeCallbacks(mEndBurst);
+        mPipeline.reset();
+        resetTracking();
+        mScreenOnNs = -1;
         switch (mState) {
             case WAIT_FOR_OBJECT:
                 break;
             case WAIT_FOR_FRAME:
-                mCameraManager.pause();
+                if (keepWarm) {
+                    mFrameSource.suspend();
+                } else {
+                    mFrameSource.pause();
+                }
                 break;
             default:
                 break;
         }
+        mScheduler.stop(SystemClock.uptimeMillis());
+        Log.d(TAG, "camera was on for " + mScheduler.getCameraOnMs(SystemClock.uptimeMillis())
+                + " ms in " + mScheduler.getBurstCount() + " bursts, " + mTracker);
         mState = State.IDLE;
     }
+
+    /**
+     * Sets the gate consulted before each scheduled detection burst, or null to always run
+     * them. Must be called from the UI thread.
+     */
+    public void setMotionGate(MotionGate gate) {
+        mMotionGate = gate;
+    }
+
+    /**
+     * Called on the UI thread when the device was moved; starts a burst right away if the
+     * camera is currently backing off.
+     */
+    public void onMotion() {
+        if (mState == State.BACKOFF) {
+            if(DbgVerbose) Log.d(TAG, "motion detected, starting detection burst");
+            mHandler.removeCallbacks(mBeginBurst);
+            mScheduler.resetBackoff();
+            beginBurst();
+        }
+    }
+
+    /**
+     * Called when the next scheduled burst is due. The camera stays closed if the device has
+     * not moved since the last burst.
+     */
+    private void onBurstDue() {
+        if (mMotionGate != null && !mMotionGate.shouldActivate()) {
+            long gapMs = mScheduler.skipBurst();
+            if(DbgVerbose) Log.d(TAG, "device is still, skipping burst for " + gapMs + " ms");
+            mHandler.postDelayed(mBeginBurst, gapMs);
+            return;
+        }
+        beginBurst();
+    }
+
+    /**
+     * Turns the camera on for one detection burst.
+     */
+    private void beginBurst() {
+        mState = State.WAIT_FOR_FRAME;
+        mScheduler.beginBurst(SystemClock.uptimeMillis());
+        mResumedNs = System.nanoTime();
+        mFrameSource.resume();
+        mHandler.postDelayed(mEndBurst, mScheduler.getBurstMs());
+    }
+
+    /**
+     * Turns the camera off and schedules the next burst.
+     */
+    private void endBurst() {
+        mFrameSource.pause();
+        mPipeline.reset();
+        resetTracking();
+        long gapMs = mScheduler.endBurst(SystemClock.uptimeMillis());
+        if(DbgVerbose) Log.d(TAG, "next detection burst in " + gapMs + " ms, " + mScheduler);
+        mState = State.BACKOFF;
+        mHandler.postDelayed(mBeginBurst, gapMs);
+    }
 }
@@ -6,20 +6,124 @@
 
 package example.com.myapplication;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import android.app.Service;
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.os.BatteryManager;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.PowerManager;
+import android.os.SystemClock;
+import android.util.AtomicFile;
 import android.util.Log;
 import android.os.Binder;
 import android.os.IBinder;
 
+import example.com.myapplication.core.LatencyTracker;
+import example.com.myapplication.core.LowPassMotionGate;
+import example.com.myapplication.core.MotionGate;
+import example.com.myapplication.core.OrientationPolicyCache;
+import example.com.myapplication.core.camera.QualityGovernor;
+
 public class MyFDRotationService extends Service {
     public static final String TAG = "MyFDRotationService";
 
+    // Learned orientation policies of the foreground apps, in the app's private files.
+    private static final String POLICY_FILE = "orientation_policy.bin";
+
+    // Time dump waits for the main thread to describe the state it owns.
+    private static final long DUMP_TIMEOUT_MS = 1000;
+
+    private final Handler mHandler = new Handler();
+
     private static boolean mIsDetecting = false;
     private MyFDRotationDisplay mMyFDRotationDisplay = null;
+    private SensorManager mSensorManager = null;
+    private final MotionGate mMotionGate = new LowPassMotionGate();
+
+    // Keeps the camera off while the foreground app is known to ignore forced rotations.
+    private final OrientationPolicyCache mPolicyCache = new OrientationPolicyCache();
+    private AtomicFile mPolicyFile;
+    private ForegroundAppWatcher mAppWatcher;
+    private boolean mScreenOn = true;
+    private boolean mSuspended = false;
+
+    // Lowers the camera cost on a low battery, in power save mode or when the device is warm.
+    // The battery temperature stands in for the thermal status, which this API level lacks.
+    private QualityGovernor mGovernor;
+    private PowerManager mPowerManager;
+    private int mBatteryPercent = -1;
+    private boolean mCharging = false;
+    private int mBatteryTemperature = Integer.MIN_VALUE;
+
+    private final BroadcastReceiver mPowerReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            if (Intent.ACTION_BATTERY_CHANGED.equals(intent.getAction())) {
+                int level = intent.getIntExtra(BatteryManager.EXTRA_LEVEL, -1);
+                int scale = intent.getIntExtra(BatteryManager.EXTRA_SCALE, -1);
+                mBatteryPercent = level >= 0 && scale > 0 ? level * 100 / scale : -1;
+                mCharging = intent.getIntExtra(BatteryManager.EXTRA_PLUGGED, 0) != 0;
+                mBatteryTemperature = intent.getIntExtra(BatteryManager.EXTRA_TEMPERATURE,
+                        Integer.MIN_VALUE);
+            }
+            updateQualityTier();
+        }
+    };
+
+    private final ForegroundAppWatcher.Listener mAppListener =
+            new ForegroundAppWatcher.Listener() {
+        @Override
+        public void onForegroundApp(String packageName) {
+            Log.d(TAG, "foreground app " + packageName);
+            updateDetection();
+        }
+    };
+
+    private final MyFDRotationDisplay.RotationListener mRotationListener =
+            new MyFDRotationDisplay.RotationListener() {
+        @Override
+        public void onRotationSettled(boolean followed) {
+            String app = mAppWatcher.getForegroundApp();
+            if (app == null) {
+                return;
+            }
+            Log.d(TAG, app + (followed ? " followed" : " ignored") + " a forced rotation");
+            mPolicyCache.onRotation(app, followed, System.currentTimeMillis());
+            updateDetection();
+        }
+    };
+
+    // Keeps the camera closed while the device lies still, see MyFDRotationDisplay.onMotion().
+    private final SensorEventListener mSensorListener = new SensorEventListener() {
+        @Override
+        public void onSensorChanged(SensorEvent event) {
+            if (mMotionGate.onSample(event.values[0], event.values[1], event.values[2],
+                    event.timestamp) && mMyFDRotationDisplay != null) {
+                mMyFDRotationDisplay.onMotion();
+            }
+        }
+
+        @Override
+        public void onAccuracyChanged(Sensor sensor, int accuracy) {
+        }
+    };
 
     private BroadcastReceiver mReceiver = new BroadcastReceiver() {
         @Override
@@ -38,31 +142,132 @@ public class MyFDRotationService extends Service {
 
             if (action.equals(Intent.ACTION_SCREEN_ON)) {
                 Log.d(TAG, "display is on, start face detection!");
-                if (mMyFDRotationDisplay != null && !mIsDetecting) {
-                    mMyFDRotationDisplay.startDetection();
-                    Log.d(TAG, "face detection is started!");
-                    mIsDetecting = true;
-                }
+                mScreenOn = true;
+                mMyFDRotationDisplay.onScreenOn();
+                mAppWatcher.start();
+                updateDetection();
             } else if (action.equals(Intent.ACTION_SCREEN_OFF)) {
                 Log.d(TAG, "display is off, stop face detection!");
-                if (mMyFDRotationDisplay != null && mIsDetecting) {
-                    mMyFDRotationDisplay.stopDetection();
-                    Log.d(TAG, "face detection is stopped!");
-                    mIsDetecting = false;
-                }
+                mScreenOn = false;
+                mAppWatcher.stop();
+                updateDetection();
+                savePolicies();
             }
         }
     };
 
+    /**
+     * Runs detection while the screen is on, unless the foreground app is known to ignore
+     * forced rotations.
+     */
+    private void updateDetection() {
+        String app = mAppWatcher.getForegroundApp();
+        boolean suspended = mScreenOn && app != null
+                && mPolicyCache.shouldSuspend(app, System.currentTimeMillis());
+        if (suspended != mSuspended) {
+            mSuspended = suspended;
+            Log.d(TAG, (suspended ? "suspending" : "resuming") + " face detection for " + app
+                    + ", " + mPolicyCache);
+        }
+        boolean detect = mScreenOn && !suspended;
+        if (mMyFDRotationDisplay == null || detect == mIsDetecting) {
+            return;
+        }
+        if (detect) {
+            mMyFDRotationDisplay.startDetection();
+            Log.d(TAG, "face detection is started!");
+            mIsDetecting = true;
+            motionRegister();
+        } else {
+            motionUnregister();
+            // Burst ends and suspended apps close the camera; only a screen off keeps it
+            // warm for the next screen on.
+            mMyFDRotationDisplay.stopDetection(!mScreenOn);
+            Log.d(TAG, "face detection is stopped!");
+            mIsDetecting = false;
+        }
+    }
+
+    private void updateQualityTier() {
+        long nowMs = SystemClock.elapsedRealtime();
+        if (!mGovernor.update(mBatteryPercent, mCharging, mPowerManager.isPowerSaveMode(),
+                mBatteryTemperature, nowMs)) {
+            return;
+        }
+        Log.d(TAG, "battery " + mBatteryPercent + "%" + (mCharging ? " charging" : "")
+                + ", temperature " + mBatteryTemperature + ", power save "
+                + mPowerManager.isPowerSaveMode() + ": " + mGovernor.toString(nowMs));
+        if (mMyFDRotationDisplay != null) {
+            mMyFDRotationDisplay.setQualityTier(mGovernor.getTier());
+        }
+    }
+
+    private void loadPolicies() {
+        try {
+            DataInputStream in = new DataInputStream(mPolicyFile.openRead());
+            try {
+                mPolicyCache.read(in);
+            } finally {
+                in.close();
+            }
+            Log.d(TAG, "loaded " + mPolicyCache);
+        } catch (IOException e) {
+            // Nothing learned yet, or a truncated file.
+        }
+    }
+
+    private void savePolicies() {
+        if (!mPolicyCache.isDirty()) {
+            return;
+        }
+        FileOutputStream out = null;
+        try {
+            out = mPolicyFile.startWrite();
+            DataOutputStream data = new DataOutputStream(out);
+            mPolicyCache.write(data);
+            data.flush();
+            mPolicyFile.finishWrite(out);
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to save orientation policies", e);
+            if (out != null) {
+                mPolicyFile.failWrite(out);
+            }
+        }
+    }
+
     private void eventRegister() {
         IntentFilter intentFilter = new IntentFilter();
         intentFilter.addAction(Intent.ACTION_SCREEN_OFF);
         intentFilter.addAction(Intent.ACTION_SCREEN_ON);
         registerReceiver(mReceiver, intentFilter);
+
+        // The battery state is sticky and delivered right away.
+        IntentFilter powerFilter = new IntentFilter();
+        powerFilter.addAction(Intent.ACTION_BATTERY_CHANGED);
+        powerFilter.addAction(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED);
+        registerReceiver(mPowerReceiver, powerFilter);
     }
 
     private void eventUnregister() {
         unregisterReceiver(mReceiver);
+        unregisterReceiver(mPowerReceiver);
+    }
+
+    private void motionRegister() {
+        Sensor accelerometer = mSensorManager.getDefaultSensor(Sensor.TYPE_ACCELEROMETER);
+        if (accelerometer == null) {
+            Log.w(TAG, "no accelerometer, detection bursts are not motion gated");
+            return;
+        }
+        mMotionGate.reset();
+        mSensorManager.registerListener(mSensorListener, accelerometer,
+                SensorManager.SENSOR_DELAY_UI);
+    }
+
+    private void motionUnregister() {
+        mSensorManager.unregisterListener(mSensorListener);
+        Log.d(TAG, "motion gate: " + mMotionGate.getTriggerCount() + " triggers, "
+                + mMotionGate.getAvoidedCount() + " camera activations avoided");
     }
 
     @Override
@@ -70,14 +275,21 @@ public class MyFDRotationService extends Service {
         super.onCreate();
         Log.d(TAG, "onCreate");
 
+        mSensorManager = (SensorManager) getSystemService(Context.SENSOR_SERVICE);
+        mPowerManager = (PowerManager) getSystemService(Context.POWER_SERVICE);
+        mGovernor = new QualityGovernor(SystemClock.elapsedRealtime());
+        mPolicyFile = new AtomicFile(new File(getFilesDir(), POLICY_FILE));
+        loadPolicies();
+        mAppWatcher = new ForegroundAppWatcher(this, mAppListener);
         if (mMyFDRotationDisplay == null) {
             mMyFDRotationDisplay = new MyFDRotationDisplay(this);
+            mMyFDRotationDisplay.setMotionGate(mMotionGate);
+            mMyFDRotationDisplay.setRotationListener(mRotationListener);
         }
 
-        if (!mIsDetecting) {
-            mMyFDRotationDisplay.startDetection();
-            mIsDetecting = true;
-        }
+        mScreenOn = true;
+        mAppWatcher.start();
+        updateDetection();
 
         eventRegister();
     }
@@ -87,8 +299,12 @@ public class MyFDRotationService extends Service {
         super.onDestroy();
         Log.d(TAG, "onDestroy");
         eventUnregister();
+        mAppWatcher.stop();
+        Log.d(TAG, mGovernor.toString(SystemClock.elapsedRealtime()));
+        savePolicies();
 
         if (mMyFDRotationDisplay != null && mIsDetecting) {
+            motionUnregister();
             mMyFDRotationDisplay.stopDetection();
             mIsDetecting = false;
         }
@@ -99,6 +315,77 @@ public class MyFDRotationService extends Service {
         }
     }
 
+    /**
+     * Prints the frame to rotation latency histograms:
+     *   adb shell dumpsys activity service example.com.myapplication/.MyFDRotationService
+     * With the "reset" argument the histograms are cleared instead.
+     */
+    @Override
+    protected void dump(FileDescriptor fd, PrintWriter pw, String[] args) {
+        MyFDRotationDisplay display = mMyFDRotationDisplay;
+        if (display == null) {
+            pw.println("not running");
+            return;
+        }
+        LatencyTracker latency = display.getLatencyTracker();
+        if (args != null && args.length > 0 && "reset".equals(args[0])) {
+            latency.reset();
+            pw.println("latency histograms reset");
+            return;
+        }
+        pw.println("Latency (detecting " + mIsDetecting + "):");
+        latency.dump(pw);
+        pw.println(display.getFrameSource());
+        String snapshot = snapshotMainThreadState();
+        pw.println(snapshot != null ? snapshot : "main thread busy, no snapshot");
+    }
+
+    /**
+     * Called on the binder thread of dump to describe the state only the main thread may
+     * read: the face tracker, frame rate controller and quality governor, which are not
+     * thread safe, and the policy cache, whose lookups reorder it. Returns null if the main
+     * thread did not get to it within DUMP_TIMEOUT_MS.
+     */
+    private String snapshotMainThreadState() {
+        if (Looper.myLooper() == mHandler.getLooper()) {
+            return describeMainThreadState();
+        }
+        final String[] snapshot = new String[1];
+        final CountDownLatch done = new CountDownLatch(1);
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                snapshot[0] = describeMainThreadState();
+                done.countDown();
+            }
+        });
+        try {
+            if (!done.await(DUMP_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        return snapshot[0];
+    }
+
+    /**
+     * Called on the main thread.
+     */
+    private String describeMainThreadState() {
+        StringBuilder sb = new StringBuilder();
+        MyFDRotationDisplay display = mMyFDRotationDisplay;
+        if (display != null) {
+            sb.append(display.getFaceTracker()).append('\n');
+            sb.append(display.getFrameRateController()).append('\n');
+        }
+        sb.append(mGovernor.toString(SystemClock.elapsedRealtime())).append('\n');
+        sb.append(mPolicyCache).append(mSuspended ? ", suspended for " : ", foreground ")
+                .append(mAppWatcher.getForegroundApp());
+        return sb.toString();
+    }
+
     public class MyFDRotationBinder extends Binder {
         /*
         MyFDRotationService getService() {
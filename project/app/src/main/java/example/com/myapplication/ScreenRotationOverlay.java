@@ -52,12 +52,18 @@ public class ScreenRotationOverlay {
         mWindowManager.removeView(mOrientationChanger);
     }
 
-    public void rotateScreen(int orientation) {
+    /**
+     * Returns true if the window layout was updated, false if the screen already had the
+     * requested orientation.
+     */
+    public boolean rotateScreen(int orientation) {
         if (orientation != 0xF && mOrientationLayout.screenOrientation != orientation) {
             Log.d(TAG, "rotate screen to "+orientation);
             mOrientationLayout.screenOrientation = orientation;/*ActivityInfo.SCREEN_ORIENTATION_LANDSCAPE;*/
             mWindowManager.updateViewLayout(mOrientationChanger, mOrientationLayout);
             mOrientationChanger.setVisibility(View.VISIBLE);
+            return true;
         }
+        return false;
     }
 }
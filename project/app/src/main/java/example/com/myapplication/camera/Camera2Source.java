@@ -0,0 +1,885 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.camera;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import android.content.Context;
+import android.graphics.ImageFormat;
+import android.graphics.Point;
+import android.graphics.Rect;
+import android.hardware.camera2.CameraAccessException;
+import android.hardware.camera2.CameraCaptureSession;
+import android.hardware.camera2.CameraCharacteristics;
+import android.hardware.camera2.CameraDevice;
+import android.hardware.camera2.CaptureRequest;
+import android.hardware.camera2.CaptureResult;
+import android.hardware.camera2.TotalCaptureResult;
+import android.hardware.camera2.params.Face;
+import android.hardware.camera2.params.StreamConfigurationMap;
+import android.media.Image;
+import android.media.ImageReader;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.SystemClock;
+import android.preference.PreferenceManager;
+import android.util.Log;
+import android.util.Range;
+import android.util.Size;
+
+import example.com.myapplication.core.FaceBatch;
+import example.com.myapplication.core.FrameSource;
+import example.com.myapplication.core.LatencyTracker;
+import example.com.myapplication.core.LatestValueMailbox;
+import example.com.myapplication.core.RectOrientationEstimator;
+import example.com.myapplication.core.camera.CameraPort;
+import example.com.myapplication.core.camera.CameraSessionMachine;
+import example.com.myapplication.core.camera.FrameRateController;
+import example.com.myapplication.core.camera.QualityGovernor;
+import example.com.myapplication.core.camera.WarmResumePolicy;
+import example.com.myapplication.core.detect.SoftwareFaceDetector;
+import example.com.myapplication.core.frame.FrameAnalysisWorker;
+
+/**
+ * A {@link FrameSource} on the Camera2 API: faces come from the capture result statistics and
+ * frames from a small YUV_420_888 ImageReader, so no preview surface is needed.
+ *
+ * The session life cycle is run by a {@link CameraSessionMachine}; this class is its
+ * {@link CameraPort}. Everything camera related happens on a dedicated thread, the listener
+ * is called on the UI thread.
+ *
+ * The camera thread only copies the Y plane of the frames that are needed into a small pool
+ * of buffers and queues them for a {@link FrameAnalysisWorker}, which runs the software
+ * detector and estimates the orientation of faces the HAL reports with a rect only.
+ */
+public class Camera2Source implements FrameSource, CameraPort, CameraSessionMachine.Listener {
+
+    private static final String TAG = "Camera2Source";
+    private static final String CAMERA_HANDLER_THREAD_NAME = "Camera2";
+    private static final String ANALYSIS_THREAD_NAME = "Camera2 Analysis";
+
+    // The smallest frame that still gives the rect estimator enough pixels per face.
+    private static final int MIN_FRAME_WIDTH = 320;
+    private static final int MIN_FRAME_HEIGHT = 240;
+
+    // Only the latest frame is read; the second image lets the HAL fill one meanwhile.
+    private static final int MAX_IMAGES = 2;
+
+    // Minimum time between two software detection passes when the HAL detects no faces.
+    private static final long SOFTWARE_DETECTION_INTERVAL_MS = 200;
+
+    // Luma buffers: one held by the analysis, one being filled, the rest queued for it.
+    private static final int NUM_LUMA_BUFFERS = 4;
+
+    // How long closing the camera waits for the analysis worker to finish its frame.
+    private static final long ANALYSIS_STOP_TIMEOUT_MS = 1000;
+
+    private final android.hardware.camera2.CameraManager mCameraService;
+    private final FrameSource.Listener mListener;
+    private final LatencyTracker mLatency;
+    private final String mCameraId;
+    private final Rect mActiveArray;
+    private final int mFaceDetectMode;
+    private final Size mFrameSize;
+    // May be null if the HAL does not list its AE target FPS ranges.
+    private final Range<Integer>[] mFpsRanges;
+    // The same ranges times 1000, as FrameRateController takes them, and their highest
+    // upper bound.
+    private final List<int[]> mFpsRangesX1000 = new ArrayList<int[]>();
+    private final int mMaxFps;
+
+    private final HandlerThread mCameraThread;
+    private final Handler mCameraHandler;
+    private final Handler mUiHandler;
+    private final CameraSessionMachine mMachine;
+    // Camera thread. Whether pauses leave the session warm, see CameraSessionMachine.
+    private final WarmResumePolicy mWarmResume;
+    // Runs mReleaseWarm at the end of the hold time.
+    private final WarmReleaseAlarm mWarmReleaseAlarm;
+    private final ImageReader mImageReader;
+
+    // Camera thread state.
+    private CameraDevice mDevice;
+    private CameraCaptureSession mSession;
+    // Luma buffers neither queued for nor held by the worker.
+    private final byte[][] mFreeLuma = new byte[NUM_LUMA_BUFFERS][];
+    private int mFreeLumaCount;
+    // Timestamp of the latest frame, or -1 before the first one.
+    private long mLatestFrameNs = -1;
+    private long mLastSoftwareDetectionMs;
+
+    private final FrameAnalysisWorker mAnalysis;
+    // Worker thread state, also touched by the camera thread while the worker is stopped. The
+    // Y plane of the latest queued frame without its row padding, or null.
+    private byte[] mLuma;
+    private long mLumaTimestampNs = -1;
+    private final RectOrientationEstimator mRectEstimator = new RectOrientationEstimator();
+    private final SoftwareFaceDetector mSoftwareDetector;
+
+    // Latest detection result, filled on the camera thread and drained on the UI thread. A
+    // result the UI thread had no time for is replaced instead of queued.
+    private final LatestValueMailbox<FaceResult> mFaceResults =
+            new LatestValueMailbox<FaceResult>(new FaceResult(), new FaceResult(),
+                    new FaceResult());
+
+    private final Runnable mDeliverFaces = new Runnable() {
+        @Override
+        public void run() {
+            deliverFaces();
+        }
+    };
+
+    // Faces reported by the HAL, filled on the camera thread and drained on the worker
+    // thread.
+    private final LatestValueMailbox<FaceResult> mDetectedFaces =
+            new LatestValueMailbox<FaceResult>(new FaceResult(), new FaceResult(),
+                    new FaceResult());
+
+    // Called on the worker thread.
+    private final FrameAnalysisWorker.Analyzer mAnalyzer = new FrameAnalysisWorker.Analyzer() {
+        @Override
+        public byte[] onFrame(byte[] frame, long timestampNs) {
+            byte[] done = mLuma;
+            mLuma = frame;
+            mLumaTimestampNs = timestampNs;
+            if (mSoftwareDetector != null) {
+                detectFacesInSoftware();
+            }
+            return done;
+        }
+
+        @Override
+        public void onSignal() {
+            FaceResult detected = mDetectedFaces.drain();
+            if (detected == null) {
+                return;
+            }
+            FaceResult result = mFaceResults.getWriteSlot();
+            result.mFaces.copyFrom(detected.mFaces);
+            estimateRectOrientations(result.mFaces);
+            publish(result, detected.mFrameNs, detected.mCallbackNs);
+        }
+    };
+
+    private final Runnable mStart = new Runnable() {
+        @Override
+        public void run() {
+            mWarmReleaseAlarm.cancel();
+            // The release alarm may be due but not delivered yet.
+            if (mWarmResume.isExpired(SystemClock.elapsedRealtime())) {
+                mMachine.release();
+            }
+            mWarmResume.onResume();
+            mMachine.start();
+        }
+    };
+
+    private final Runnable mStop = new Runnable() {
+        @Override
+        public void run() {
+            // Also closes a session left warm by a suspend.
+            mMachine.setKeepWarm(false);
+            mMachine.release();
+        }
+    };
+
+    private final Runnable mSuspend = new Runnable() {
+        @Override
+        public void run() {
+            boolean open = mMachine.getState() != CameraSessionMachine.STATE_CLOSED;
+            mMachine.setKeepWarm(open
+                    && mWarmResume.onPause(true, SystemClock.elapsedRealtime()));
+            mMachine.stop();
+            if (mMachine.isKeepWarm()) {
+                mWarmReleaseAlarm.schedule(mWarmResume.getHoldMs());
+            }
+        }
+    };
+
+    private final Runnable mReleaseWarm = new Runnable() {
+        @Override
+        public void run() {
+            Log.d(TAG, "releasing warm camera " + mMachine);
+            mMachine.release();
+        }
+    };
+
+    private final Runnable mResumeFaceDetection = new Runnable() {
+        @Override
+        public void run() {
+            resumeFaceDetection();
+        }
+    };
+
+    private final Runnable mApplyPreviewCaps = new Runnable() {
+        @Override
+        public void run() {
+            if (mSession != null
+                    && mMachine.getState() == CameraSessionMachine.STATE_STREAMING) {
+                setRepeatingRequest(mFaceDetectionPaused
+                        ? CaptureRequest.STATISTICS_FACE_DETECT_MODE_OFF : mFaceDetectMode);
+                Log.d(TAG, "quality tier " + QualityGovernor.getTierName(mQualityTier)
+                        + ", target fps " + mTargetFps);
+            }
+        }
+    };
+
+    // Minimum time between two detections, 0 for every frame. Set from any thread.
+    private volatile long mDetectionIntervalMs = 0;
+    // QualityGovernor tier, set from any thread. Caps the FPS range and the detection rate;
+    // the frame size is fixed by the ImageReader.
+    private volatile int mQualityTier = QualityGovernor.TIER_FULL;
+    // Frame rate times 1000 the AE range has to reach, 0 for the HAL's choice. Set from any
+    // thread.
+    private volatile int mTargetFps = 0;
+    // Camera thread: the repeating request has face detection off until the next one is due.
+    private boolean mFaceDetectionPaused = false;
+    private long mDetectionPauses;
+
+    /**
+     * Returns a source on the front camera, or null if there is none or it is a LEGACY
+     * device, where Camera2 runs on top of the old API and buys nothing.
+     */
+    public static Camera2Source create(Context context, FrameSource.Listener listener,
+            LatencyTracker latency) {
+        android.hardware.camera2.CameraManager service =
+                (android.hardware.camera2.CameraManager) context.getSystemService(
+                        Context.CAMERA_SERVICE);
+        try {
+            for (String id : service.getCameraIdList()) {
+                CameraCharacteristics chars = service.getCameraCharacteristics(id);
+                Integer facing = chars.get(CameraCharacteristics.LENS_FACING);
+                if (facing == null || facing != CameraCharacteristics.LENS_FACING_FRONT) {
+                    continue;
+                }
+                Integer level = chars.get(CameraCharacteristics.INFO_SUPPORTED_HARDWARE_LEVEL);
+                if (level == null
+                        || level == CameraCharacteristics.INFO_SUPPORTED_HARDWARE_LEVEL_LEGACY) {
+                    Log.d(TAG, "front camera " + id + " is LEGACY, not using Camera2");
+                    return null;
+                }
+                Size frameSize = chooseFrameSize(chars);
+                if (frameSize == null) {
+                    Log.d(TAG, "front camera " + id + " has no usable YUV size");
+                    return null;
+                }
+                boolean warmResume = PreferenceManager.getDefaultSharedPreferences(context)
+                        .getBoolean(CameraManager.PREF_WARM_RESUME, true);
+                return new Camera2Source(context, service, id, chars, frameSize, listener,
+                        latency, new WarmResumePolicy(warmResume));
+            }
+        } catch (CameraAccessException e) {
+            Log.w(TAG, "can not query cameras", e);
+        }
+        return null;
+    }
+
+    private static Size chooseFrameSize(CameraCharacteristics chars) {
+        StreamConfigurationMap map = chars.get(
+                CameraCharacteristics.SCALER_STREAM_CONFIGURATION_MAP);
+        if (map == null) {
+            return null;
+        }
+        Size target = null;
+        int minDiff = Integer.MAX_VALUE;
+        for (Size size : map.getOutputSizes(ImageFormat.YUV_420_888)) {
+            if (size.getWidth() >= MIN_FRAME_WIDTH && size.getHeight() >= MIN_FRAME_HEIGHT) {
+                int diff = (size.getWidth() - MIN_FRAME_WIDTH)
+                        + (size.getHeight() - MIN_FRAME_HEIGHT);
+                if (diff < minDiff) {
+                    minDiff = diff;
+                    target = size;
+                }
+            }
+        }
+        return target;
+    }
+
+    private static int chooseFaceDetectMode(CameraCharacteristics chars) {
+        int[] modes = chars.get(CameraCharacteristics.STATISTICS_INFO_AVAILABLE_FACE_DETECT_MODES);
+        int best = CaptureRequest.STATISTICS_FACE_DETECT_MODE_OFF;
+        if (modes != null) {
+            for (int mode : modes) {
+                if (mode == CaptureRequest.STATISTICS_FACE_DETECT_MODE_FULL
+                        || (mode == CaptureRequest.STATISTICS_FACE_DETECT_MODE_SIMPLE
+                        && best == CaptureRequest.STATISTICS_FACE_DETECT_MODE_OFF)) {
+                    best = mode;
+                }
+            }
+        }
+        return best;
+    }
+
+    private Camera2Source(Context context, android.hardware.camera2.CameraManager service,
+            String cameraId, CameraCharacteristics chars, Size frameSize,
+            FrameSource.Listener listener, LatencyTracker latency, WarmResumePolicy warmResume) {
+        mCameraService = service;
+        mWarmResume = warmResume;
+        mLatency = latency;
+        mCameraId = cameraId;
+        mListener = listener;
+        mActiveArray = chars.get(CameraCharacteristics.SENSOR_INFO_ACTIVE_ARRAY_SIZE);
+        mFaceDetectMode = chooseFaceDetectMode(chars);
+        mFrameSize = frameSize;
+        mFpsRanges = chars.get(CameraCharacteristics.CONTROL_AE_AVAILABLE_TARGET_FPS_RANGES);
+        int maxFps = 0;
+        if (mFpsRanges != null) {
+            for (Range<Integer> range : mFpsRanges) {
+                mFpsRangesX1000.add(new int[] {
+                        range.getLower() * 1000, range.getUpper() * 1000});
+                maxFps = Math.max(maxFps, range.getUpper() * 1000);
+            }
+        }
+        mMaxFps = maxFps;
+        for (int i = 0; i < NUM_LUMA_BUFFERS; i++) {
+            mFreeLuma[mFreeLumaCount++] = new byte[frameSize.getWidth() * frameSize.getHeight()];
+        }
+        mAnalysis = new FrameAnalysisWorker(ANALYSIS_THREAD_NAME, NUM_LUMA_BUFFERS - 2,
+                NUM_LUMA_BUFFERS, mAnalyzer);
+        if (mFaceDetectMode == CaptureRequest.STATISTICS_FACE_DETECT_MODE_OFF) {
+            mSoftwareDetector = new SoftwareFaceDetector();
+            mSoftwareDetector.setVerifier(new PlatformFaceVerifier());
+            mSoftwareDetector.configure(frameSize.getWidth(), frameSize.getHeight());
+        } else {
+            mSoftwareDetector = null;
+        }
+        Log.d(TAG, "camera " + cameraId + ": " + frameSize + " frames, face detect mode "
+                + mFaceDetectMode + ", active array " + mActiveArray);
+
+        mUiHandler = new Handler();
+        mCameraThread = new HandlerThread(CAMERA_HANDLER_THREAD_NAME);
+        mCameraThread.start();
+        mCameraHandler = new Handler(mCameraThread.getLooper());
+        mWarmReleaseAlarm = new WarmReleaseAlarm(context, TAG, mCameraHandler, mReleaseWarm);
+        mMachine = new CameraSessionMachine(this, this);
+        mImageReader = ImageReader.newInstance(frameSize.getWidth(), frameSize.getHeight(),
+                ImageFormat.YUV_420_888, MAX_IMAGES);
+        mImageReader.setOnImageAvailableListener(mImageListener, mCameraHandler);
+    }
+
+    /**
+     * Must be called from the UI thread.
+     */
+    @Override
+    public void resume() {
+        mCameraHandler.removeCallbacks(mStop);
+        mCameraHandler.removeCallbacks(mSuspend);
+        mCameraHandler.post(mStart);
+    }
+
+    /**
+     * Must be called from the UI thread.
+     */
+    @Override
+    public void pause() {
+        mCameraHandler.removeCallbacks(mStart);
+        mCameraHandler.post(mStop);
+    }
+
+    /**
+     * Like {@link #pause}, but leaves the session warm for a while, see WarmResumePolicy.
+     * Must be called from the UI thread.
+     */
+    @Override
+    public void suspend() {
+        mCameraHandler.removeCallbacks(mStart);
+        mCameraHandler.post(mSuspend);
+    }
+
+    @Override
+    public void setDetectionInterval(long intervalMs) {
+        mDetectionIntervalMs = intervalMs;
+        if (intervalMs == 0) {
+            // Ramp back up right away rather than after the pause in progress.
+            mCameraHandler.removeCallbacks(mResumeFaceDetection);
+            mCameraHandler.post(mResumeFaceDetection);
+        }
+    }
+
+    @Override
+    public void setQualityTier(int tier) {
+        mQualityTier = tier;
+        mCameraHandler.removeCallbacks(mApplyPreviewCaps);
+        mCameraHandler.post(mApplyPreviewCaps);
+    }
+
+    @Override
+    public void setTargetFrameRate(int fps) {
+        mTargetFps = fps;
+        mCameraHandler.removeCallbacks(mApplyPreviewCaps);
+        mCameraHandler.post(mApplyPreviewCaps);
+    }
+
+    /**
+     * Called on the camera thread.
+     */
+    private long getDetectionIntervalMs() {
+        return Math.max(mDetectionIntervalMs,
+                QualityGovernor.getDetectionIntervalMs(mQualityTier));
+    }
+
+    /**
+     * Returns the cheapest AE target FPS range that reaches the target frame rate within the
+     * quality tier, see {@link FrameRateController#chooseRange}, or null to leave the choice
+     * to the HAL.
+     */
+    private Range<Integer> chooseFpsRange() {
+        if (mMaxFps <= 0) {
+            return null;
+        }
+        int maxFps = QualityGovernor.getMaxFps(mQualityTier);
+        maxFps = maxFps > 0 ? Math.min(maxFps, mMaxFps) : mMaxFps;
+        int targetFps = mTargetFps > 0 ? Math.min(mTargetFps, maxFps) : maxFps;
+        if (maxFps == mMaxFps && targetFps == mMaxFps) {
+            return null;
+        }
+        int[] range = FrameRateController.chooseRange(mFpsRangesX1000, targetFps, maxFps);
+        return range == null ? null : mFpsRanges[mFpsRangesX1000.indexOf(range)];
+    }
+
+    @Override
+    public void destroy() {
+        pause();
+        mCameraHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                mMachine.release();
+                mAnalysis.quit();
+                mWarmReleaseAlarm.destroy();
+                mImageReader.close();
+                mCameraThread.quitSafely();
+            }
+        });
+    }
+
+    // CameraPort, called on the camera thread.
+
+    @Override
+    public void open() {
+        try {
+            mCameraService.openCamera(mCameraId, mDeviceCallback, mCameraHandler);
+        } catch (CameraAccessException e) {
+            Log.w(TAG, "can not open camera " + mCameraId, e);
+            mMachine.onOpenFailed();
+        } catch (SecurityException e) {
+            Log.w(TAG, "no permission to open camera " + mCameraId, e);
+            mMachine.onOpenFailed();
+        }
+    }
+
+    @Override
+    public void configure() {
+        try {
+            mDevice.createCaptureSession(Collections.singletonList(mImageReader.getSurface()),
+                    mSessionCallback, mCameraHandler);
+        } catch (CameraAccessException e) {
+            Log.w(TAG, "can not create capture session", e);
+            mMachine.onConfigureFailed();
+        } catch (IllegalStateException e) {
+            Log.w(TAG, "can not create capture session", e);
+            mMachine.onConfigureFailed();
+        }
+    }
+
+    @Override
+    public boolean startRepeating() {
+        mFaceDetectionPaused = false;
+        return setRepeatingRequest(mFaceDetectMode);
+    }
+
+    /**
+     * Called on the camera thread to (re)start the repeating request with the given face
+     * detect mode.
+     */
+    private boolean setRepeatingRequest(int faceDetectMode) {
+        try {
+            CaptureRequest.Builder builder = mDevice.createCaptureRequest(
+                    CameraDevice.TEMPLATE_PREVIEW);
+            builder.addTarget(mImageReader.getSurface());
+            builder.set(CaptureRequest.CONTROL_MODE, CaptureRequest.CONTROL_MODE_AUTO);
+            builder.set(CaptureRequest.STATISTICS_FACE_DETECT_MODE, faceDetectMode);
+            Range<Integer> fpsRange = chooseFpsRange();
+            if (fpsRange != null) {
+                builder.set(CaptureRequest.CONTROL_AE_TARGET_FPS_RANGE, fpsRange);
+            }
+            mSession.setRepeatingRequest(builder.build(), mCaptureCallback, mCameraHandler);
+            return true;
+        } catch (CameraAccessException e) {
+            Log.w(TAG, "can not start repeating request", e);
+        } catch (IllegalStateException e) {
+            Log.w(TAG, "can not start repeating request", e);
+        }
+        return false;
+    }
+
+    @Override
+    public void stopRepeating() {
+        try {
+            mSession.stopRepeating();
+        } catch (CameraAccessException e) {
+            Log.w(TAG, "can not stop repeating request", e);
+        } catch (IllegalStateException e) {
+            Log.w(TAG, "can not stop repeating request", e);
+        }
+        stopAnalysis();
+    }
+
+    @Override
+    public void close() {
+        mCameraHandler.removeCallbacks(mResumeFaceDetection);
+        mWarmReleaseAlarm.cancel();
+        mWarmResume.onReleased();
+        mFaceDetectionPaused = false;
+        if (mSession != null) {
+            mSession.close();
+            mSession = null;
+        }
+        if (mDevice != null) {
+            mDevice.close();
+            mDevice = null;
+        }
+        stopAnalysis();
+        mLatestFrameNs = -1;
+    }
+
+    /**
+     * Called on the camera thread once streaming started.
+     */
+    private void startAnalysis() {
+        // Faces of the last session are not worth an estimate.
+        mDetectedFaces.drain();
+        mAnalysis.start();
+    }
+
+    /**
+     * Called on the camera thread once no more frames arrive. Takes the buffers back from a
+     * parked worker, so the next session starts without a stale frame.
+     */
+    private void stopAnalysis() {
+        if (!mAnalysis.isRunning()) {
+            return;
+        }
+        if (!mAnalysis.stop(ANALYSIS_STOP_TIMEOUT_MS)) {
+            // Rather than block the camera thread; the buffers come back once it is done.
+            Log.w(TAG, "analysis did not stop within " + ANALYSIS_STOP_TIMEOUT_MS + " ms");
+            return;
+        }
+        reclaimLuma();
+        if (mLuma != null) {
+            mFreeLuma[mFreeLumaCount++] = mLuma;
+            mLuma = null;
+        }
+        mLumaTimestampNs = -1;
+        Log.d(TAG, "analysis stopped: " + mAnalysis);
+    }
+
+    /**
+     * Called on the camera thread to take back the buffers the worker is done with.
+     */
+    private void reclaimLuma() {
+        byte[] returned;
+        while ((returned = mAnalysis.pollReturned()) != null) {
+            mFreeLuma[mFreeLumaCount++] = returned;
+        }
+    }
+
+    // CameraSessionMachine.Listener, called on the camera thread.
+
+    @Override
+    public void onStreaming() {
+        Log.d(TAG, "camera streaming " + mMachine);
+        startAnalysis();
+    }
+
+    @Override
+    public void onClosed() {
+        Log.d(TAG, "camera closed " + mMachine + ", " + mFaceResults + ", detection paused "
+                + mDetectionPauses + " times");
+    }
+
+    @Override
+    public void onError(int reason) {
+        Log.w(TAG, "camera error " + reason + " " + mMachine);
+        mUiHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                mListener.onSourceError();
+            }
+        });
+    }
+
+    private final CameraDevice.StateCallback mDeviceCallback = new CameraDevice.StateCallback() {
+        @Override
+        public void onOpened(CameraDevice device) {
+            mDevice = device;
+            mMachine.onOpened();
+            if (mMachine.getState() == CameraSessionMachine.STATE_CLOSED) {
+                // Opened after the machine gave up on it.
+                close();
+            }
+        }
+
+        @Override
+        public void onDisconnected(CameraDevice device) {
+            if (device != mDevice) {
+                device.close();
+                return;
+            }
+            mMachine.onDisconnected();
+        }
+
+        @Override
+        public void onError(CameraDevice device, int error) {
+            Log.w(TAG, "camera device error " + error);
+            if (device != mDevice) {
+                device.close();
+                return;
+            }
+            mMachine.onDisconnected();
+        }
+    };
+
+    private final CameraCaptureSession.StateCallback mSessionCallback =
+            new CameraCaptureSession.StateCallback() {
+        @Override
+        public void onConfigured(CameraCaptureSession session) {
+            if (mDevice == null || session.getDevice() != mDevice) {
+                session.close();
+                return;
+            }
+            mSession = session;
+            mMachine.onConfigured();
+        }
+
+        @Override
+        public void onConfigureFailed(CameraCaptureSession session) {
+            if (mDevice == null || session.getDevice() != mDevice) {
+                return;
+            }
+            mMachine.onConfigureFailed();
+        }
+    };
+
+    private final ImageReader.OnImageAvailableListener mImageListener =
+            new ImageReader.OnImageAvailableListener() {
+        @Override
+        public void onImageAvailable(ImageReader reader) {
+            Image image = reader.acquireLatestImage();
+            if (image == null) {
+                return;
+            }
+            try {
+                long timestampNs = System.nanoTime();
+                mLatency.markFrame(timestampNs);
+                mLatestFrameNs = timestampNs;
+                if (isFrameNeeded()) {
+                    queueLuma(image, timestampNs);
+                }
+            } finally {
+                image.close();
+            }
+        }
+    };
+
+    private final CameraCaptureSession.CaptureCallback mCaptureCallback =
+            new CameraCaptureSession.CaptureCallback() {
+        @Override
+        public void onCaptureCompleted(CameraCaptureSession session, CaptureRequest request,
+                TotalCaptureResult result) {
+            long callbackNs = System.nanoTime();
+            if (mSoftwareDetector != null) {
+                // The worker detects faces in the frames.
+                return;
+            }
+            Face[] faces = result.get(CaptureResult.STATISTICS_FACES);
+            long frameNs = mLatestFrameNs;
+            mLatency.record(LatencyTracker.FRAME_TO_FACES, frameNs, callbackNs);
+            if (faces != null && faces.length > 0) {
+                // The worker holds the frames the rect orientation is estimated from.
+                FaceResult detected = mDetectedFaces.getWriteSlot();
+                toFaceBatch(faces, detected.mFaces);
+                detected.mFrameNs = frameNs;
+                detected.mCallbackNs = callbackNs;
+                if (mDetectedFaces.publish()) {
+                    mAnalysis.signal();
+                }
+                pauseFaceDetection();
+            }
+        }
+    };
+
+    /**
+     * Called on the camera thread to tell whether the worker has a use for the frame: the
+     * software detector is due, or the HAL may report faces in it. Frames still in flight
+     * after streaming stopped are not.
+     */
+    private boolean isFrameNeeded() {
+        if (!mAnalysis.isRunning()) {
+            return false;
+        }
+        if (mSoftwareDetector == null) {
+            return !mFaceDetectionPaused;
+        }
+        long now = SystemClock.uptimeMillis();
+        long intervalMs = Math.max(SOFTWARE_DETECTION_INTERVAL_MS, getDetectionIntervalMs());
+        if (now - mLastSoftwareDetectionMs < intervalMs) {
+            return false;
+        }
+        mLastSoftwareDetectionMs = now;
+        return true;
+    }
+
+    /**
+     * Called on the camera thread to copy the Y plane of the frame, without its row padding,
+     * into a free buffer and queue it for the worker. Skips the frame if the worker is behind.
+     */
+    private void queueLuma(Image image, long timestampNs) {
+        reclaimLuma();
+        if (mFreeLumaCount == 0) {
+            return;
+        }
+        byte[] luma = mFreeLuma[--mFreeLumaCount];
+        Image.Plane plane = image.getPlanes()[0];
+        ByteBuffer buffer = plane.getBuffer();
+        int width = mFrameSize.getWidth();
+        int rowStride = plane.getRowStride();
+        for (int y = 0; y < mFrameSize.getHeight(); y++) {
+            buffer.position(y * rowStride);
+            buffer.get(luma, y * width, width);
+        }
+        if (!mAnalysis.offer(luma, timestampNs)) {
+            mFreeLuma[mFreeLumaCount++] = luma;
+        }
+    }
+
+    /**
+     * Called on the camera thread to convert the HAL faces to driver coordinates.
+     */
+    private void toFaceBatch(Face[] faces, FaceBatch batch) {
+        batch.clear();
+        for (int i = 0; i < faces.length; i++) {
+            Face face = faces[i];
+            Rect bounds = face.getBounds();
+            int index = batch.add(toDriverX(bounds.left), toDriverY(bounds.top),
+                    toDriverX(bounds.right), toDriverY(bounds.bottom), face.getId(),
+                    face.getScore());
+            Point leftEye = face.getLeftEyePosition();
+            Point rightEye = face.getRightEyePosition();
+            Point mouth = face.getMouthPosition();
+            if (leftEye != null && rightEye != null && mouth != null) {
+                batch.setLandmarks(index, toDriverX(leftEye.x), toDriverY(leftEye.y),
+                        toDriverX(rightEye.x), toDriverY(rightEye.y),
+                        toDriverX(mouth.x), toDriverY(mouth.y));
+            }
+        }
+    }
+
+    /**
+     * Called on the worker thread to estimate the orientation of the faces the HAL reported
+     * with a rect only, from the latest frame.
+     */
+    private void estimateRectOrientations(FaceBatch batch) {
+        for (int i = 0; i < batch.getCount() && mLuma != null; i++) {
+            if (!batch.hasLandmarks(i)) {
+                // The frame covers the whole active array as long as their aspect ratios
+                // match.
+                batch.setRectOrientation(i, mRectEstimator.estimate(mLuma,
+                        mFrameSize.getWidth(), mFrameSize.getHeight(), batch.getLeft(i),
+                        batch.getTop(i), batch.getRight(i), batch.getBottom(i)));
+            }
+        }
+    }
+
+    /**
+     * Called on the camera thread after a result while detection is throttled: turns face
+     * detection off in the repeating request until the interval has passed.
+     */
+    private void pauseFaceDetection() {
+        long intervalMs = getDetectionIntervalMs();
+        if (intervalMs == 0 || mFaceDetectionPaused || mSession == null) {
+            return;
+        }
+        if (setRepeatingRequest(CaptureRequest.STATISTICS_FACE_DETECT_MODE_OFF)) {
+            mFaceDetectionPaused = true;
+            mDetectionPauses++;
+            mCameraHandler.postDelayed(mResumeFaceDetection, intervalMs);
+        }
+    }
+
+    /**
+     * Called on the camera thread to turn face detection back on.
+     */
+    private void resumeFaceDetection() {
+        if (mFaceDetectionPaused && mSession != null
+                && mMachine.getState() == CameraSessionMachine.STATE_STREAMING) {
+            mFaceDetectionPaused = !setRepeatingRequest(mFaceDetectMode);
+        }
+    }
+
+    /**
+     * Called on the worker thread with each frame when the HAL has no face detection; the
+     * camera thread only queues frames once the detection interval has passed.
+     */
+    private void detectFacesInSoftware() {
+        int count = mSoftwareDetector.detect(mLuma, mFrameSize.getWidth(),
+                mFrameSize.getHeight());
+        if (count == 0) {
+            return;
+        }
+        FaceResult result = mFaceResults.getWriteSlot();
+        mSoftwareDetector.getFaces(result.mFaces);
+        publish(result, mLumaTimestampNs, System.nanoTime());
+    }
+
+    /**
+     * Called on the worker thread to hand the filled write slot of the mailbox over to the UI
+     * thread. Only schedules a delivery if none is pending.
+     */
+    private void publish(FaceResult result, long frameNs, long callbackNs) {
+        mLatency.markFaces(callbackNs);
+        result.mFrameNs = frameNs >= 0 ? frameNs : callbackNs;
+        result.mCallbackNs = callbackNs;
+        if (mFaceResults.publish()) {
+            mUiHandler.post(mDeliverFaces);
+        }
+    }
+
+    /**
+     * Called on the UI thread to hand the newest faces from the camera thread to the listener.
+     */
+    private void deliverFaces() {
+        FaceResult result = mFaceResults.drain();
+        if (result == null) {
+            return;
+        }
+        long uiNs = System.nanoTime();
+        mLatency.record(LatencyTracker.FACES_TO_UI, result.mCallbackNs, uiNs);
+        mListener.onFaces(result.mFaces, result.mFrameNs);
+        mLatency.record(LatencyTracker.UI_TO_DECISION, uiNs, System.nanoTime());
+    }
+
+    /**
+     * Converts an active array x coordinate to the -1000..1000 range of Camera1 faces.
+     */
+    private int toDriverX(int x) {
+        return (x - mActiveArray.left) * 2000 / mActiveArray.width() - 1000;
+    }
+
+    private int toDriverY(int y) {
+        return (y - mActiveArray.top) * 2000 / mActiveArray.height() - 1000;
+    }
+
+    @Override
+    public String toString() {
+        return "Camera2Source[" + mCameraId + ", " + mMachine + ", " + mWarmResume + ", "
+                + mAnalysis + "]";
+    }
+}
@@ -7,45 +7,72 @@
 
 package example.com.myapplication.camera;
 
-import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.List;
 
 import android.content.Context;
+import android.content.SharedPreferences;
 import android.graphics.ImageFormat;
+import android.graphics.SurfaceTexture;
 import android.hardware.Camera;
 import android.hardware.Camera.CameraInfo;
 import android.hardware.Camera.Face;
 import android.hardware.Camera.FaceDetectionListener;
+import android.os.Build;
 import android.os.Environment;
 import android.os.Handler;
 import android.os.HandlerThread;
 import android.os.Message;
+import android.os.SystemClock;
+import android.preference.PreferenceManager;
+import android.util.AtomicFile;
 import android.util.Log;
 import android.view.SurfaceHolder;
 import android.view.SurfaceView;
 import android.view.View;
 
+import example.com.myapplication.core.FaceBatch;
+import example.com.myapplication.core.FrameSource;
+import example.com.myapplication.core.LatencyTracker;
+import example.com.myapplication.core.LatestValueMailbox;
+import example.com.myapplication.core.Orientation;
+import example.com.myapplication.core.RectOrientationEstimator;
+import example.com.myapplication.core.camera.CameraProfile;
+import example.com.myapplication.core.camera.FrameRateController;
+import example.com.myapplication.core.camera.PreviewCalibrator;
+import example.com.myapplication.core.camera.QualityGovernor;
+import example.com.myapplication.core.camera.WarmResumePolicy;
+import example.com.myapplication.core.detect.SoftwareFaceDetector;
+import example.com.myapplication.core.frame.FrameAnalysisWorker;
+import example.com.myapplication.core.frame.FrameBufferPool;
+import example.com.myapplication.core.frame.FrameRecorder;
+import example.com.myapplication.core.frame.FrameRing;
+import example.com.myapplication.core.frame.LumaPyramid;
+
 /**
  * Manages the camera preview functionality, including starting and stopping the camera, capturing
  * frames and providing buffers.
+ *
+ * The live {@link FrameSource}: the listener is called on the UI thread. The preview is shown in
+ * a SurfaceView, or without a view streamed into an offscreen SurfaceTexture, which needs no
+ * window and lets the camera start without waiting for a surface.
+ *
+ * The Camera thread only queues preview frames for a {@link FrameAnalysisWorker} and hands
+ * buffers back to the camera; the worker keeps the latest frames, runs the software detector
+ * and estimates the orientation of faces reported with a rect only. While calibrating or
+ * recording, which measure and copy every frame on the Camera thread, frames are analyzed
+ * there as before.
  */
-public class CameraManager implements SurfaceHolder.Callback, Camera.PreviewCallback,
-        FaceDetectionListener {
-
-    /**
-     * A callback interface for camera frame notifications.
-     */
-    public interface CameraFrameListener {
-        public void onCameraError();
-        public void onFaceDetection(Face[] faces);
-    }
+public class CameraManager implements FrameSource, SurfaceHolder.Callback,
+        Camera.PreviewCallback, FaceDetectionListener {
 
     private static final String TAG = "CameraManager";
     private static final String CAMERA_HANDLER_THREAD_NAME = "Camera";
+    private static final String ANALYSIS_THREAD_NAME = "FD Analysis";
 
     // Specifies the minimum preview image height we want to receive.
     private static final int MIN_PREVIEW_HEIGHT = 240;
@@ -53,22 +80,56 @@ public class CameraManager implements SurfaceHolder.Callback, Camera.PreviewCall
     // Specifies the minimum preview image width we want to receive.
     private static final int MIN_PREVIEW_WIDTH = 320;
 
-    // Number of preview frame buffers to allocate
-    private static final int NUM_CAMERA_BUFFERS = 1;
+    // Shared preference prefix, followed by the device model, of the calibrated preview
+    // configuration, see PreviewCalibrator.formatConfig.
+    public static final String PREF_PREVIEW_CONFIG = "preview_config_";
+
+    // Shared preference: keep the camera open and configured for a while after a pause, see
+    // WarmResumePolicy.
+    public static final String PREF_WARM_RESUME = "warm_resume";
+
+    // Default number of preview frame buffers shared with the camera
+    public static final int DEFAULT_NUM_CAMERA_BUFFERS = 5;
+
+    // Default number of latest frames kept back from the camera for analysis
+    public static final int DEFAULT_NUM_HELD_FRAMES = 1;
 
     // Amount to over-expose for face detect.
     private static final int CAMERA_EXPOSURE_COMPENSATION = 0;
 
+    // Minimum time between two software detection passes, to bound the CPU cost on devices
+    // whose camera has no face detection of its own.
+    private static final long SOFTWARE_DETECTION_INTERVAL_MS = 200;
+
+    // Minimum time before hardware face detection is started again after it failed to start,
+    // e.g. while the HAL is still busy with the previous stop.
+    private static final long DETECTION_RETRY_MS = 500;
+
+    // How long stopping the preview waits for the analysis worker to finish its frame.
+    private static final long ANALYSIS_STOP_TIMEOUT_MS = 1000;
+
+    // Frames are recorded while this file exists on the external storage.
+    private static final String RECORD_TRIGGER_FILE = "dump_rotated";
+    private static final String RECORDING_DIR = "recordings";
+    private static final String RECORDING_PREFIX = "preview";
+
+    // Texture name of the offscreen preview. The texture is never attached to a GL context;
+    // the camera only needs a consumer for the preview stream.
+    private static final int OFFSCREEN_TEXTURE_NAME = 0;
+
+    // Camera profile of the last start, in the app's private files.
+    private static final String PROFILE_FILE = "camera_profile.bin";
+
     private static final int CAME_MESSAGE_START = 0;
     private static final int CAME_MESSAGE_STOP = 1;
     private static final int CAME_MESSAGE_DESTROY = 2;
+    private static final int CAME_MESSAGE_OPEN = 3;
+    private static final int CAME_MESSAGE_SUSPEND = 4;
 
+    // Null for the offscreen preview.
     private final SurfaceView mCameraView;
-    private final CameraFrameListener mFrameListener;
-    private final CameraInfo mCameraInfo;
-    private final boolean mImageFlip;
-    private final int mImageRotation;
-    private final int mCameraId;
+    private final FrameSource.Listener mFrameListener;
+    private final LatencyTracker mLatency;
     private final HandlerThread mCameraThread;
 
     // Handler for invoking callbacks on the UI thread
@@ -82,18 +143,172 @@ public class CameraManager implements SurfaceHolder.Callback, Camera.PreviewCall
     private int mPreviewWidth = -1;
     private int mPreviewHeight = -1;
     private boolean mFDIsRunning = false;
-    private byte[][] mCameraBuffers;
+    private boolean mPreviewStarted = false;
+    // Whether the frame buffers are queued with the camera; a stopped preview may keep them.
+    private boolean mBuffersQueued = false;
+    // Camera thread. Whether pauses only stop the preview, see suspendCamera().
+    private final WarmResumePolicy mWarmResume;
+    // Runs mReleaseWarmCamera at the end of the hold time.
+    private final WarmReleaseAlarm mWarmReleaseAlarm;
+    // Created on the first start without a view, released on destroy.
+    private SurfaceTexture mPreviewTexture;
+    // Camera id, orientation and preview configuration of the last start, so that later
+    // starts, also in a new process, skip enumerating the cameras and the parameter lists.
+    // Loaded on the first open.
+    private final AtomicFile mProfileFile;
+    private final CameraProfile mProfile = new CameraProfile();
+    private boolean mProfileLoaded = false;
+    private final FrameRing mFrameRing;
+    // Timestamp of the latest preview frame, or -1 before the first one.
+    private long mLatestFrameNs = -1;
+    // Null if there are too few buffers to queue frames for it. Whether frames currently go
+    // to the worker; the ring, estimator, pyramid and software detector below then belong to
+    // the worker thread.
+    private final FrameAnalysisWorker mAnalysis;
+    private boolean mAnalysisOffloaded = false;
+    private final RectOrientationEstimator mRectEstimator = new RectOrientationEstimator();
+    // Downscaled views of the latest frame, allocated once per preview size.
+    private final LumaPyramid mLumaPyramid = new LumaPyramid();
+    // Only used when the camera reports no face detection support.
+    private final SoftwareFaceDetector mSoftwareDetector = new SoftwareFaceDetector();
+    private int mSoftwareDetectorLevel;
+    // Confirms the faces of the software detector; created when it is first configured.
+    private PlatformFaceVerifier mFaceVerifier;
+    private boolean mUseSoftwareDetector = false;
+    private long mLastSoftwareDetectionMs;
+    // Hardware detection is held off until this uptime, after a result while throttled or
+    // after it failed to start.
+    private long mNextDetectionMs;
+    private long mDetectionPauses;
+
+    // Minimum time between two detections, 0 for every frame. Set from any thread.
+    private volatile long mDetectionIntervalMs = 0;
+
+    // QualityGovernor tier and target frame rate, 0 for the base rate. Set from any thread
+    // and applied on the Camera thread.
+    private volatile int mQualityTier = QualityGovernor.TIER_FULL;
+    private volatile int mTargetFps = 0;
+    // Written on the Camera thread; the tier is also read by the analysis worker, see
+    // getDetectionIntervalMs().
+    private volatile int mAppliedTier = QualityGovernor.TIER_FULL;
+    private int mAppliedTargetFps = 0;
+    // Preview configuration chosen before the tier and frame rate caps: width, height, min
+    // and max FPS.
+    private final int[] mBaseConfig = new int[4];
+
+    private final Runnable mApplyPreviewCaps = new Runnable() {
+        @Override
+        public void run() {
+            applyPreviewCaps();
+        }
+    };
+
+    private final Runnable mReleaseWarmCamera = new Runnable() {
+        @Override
+        public void run() {
+            if (mWarmResume.isWarm()) {
+                Log.d(TAG, "releasing warm camera");
+                stopCamera();
+            }
+        }
+    };
+
+    // Preview size and FPS range found by calibration: width, height, min and max FPS.
+    private final SharedPreferences mPrefs;
+    private final String mPreviewConfigKey;
+    private final int[] mPreviewConfig = new int[4];
+    private boolean mHasPreviewConfig;
+    // Camera thread. Created on the first start without a calibrated configuration, dropped
+    // once calibration is done.
+    private PreviewCalibrator mCalibrator;
+
+    // Latest detection result, filled on the Camera thread and drained on the UI thread. A
+    // result the UI thread had no time for is replaced instead of queued.
+    private final LatestValueMailbox<FaceResult> mFaceResults =
+            new LatestValueMailbox<FaceResult>(new FaceResult(), new FaceResult(),
+                    new FaceResult());
+
+    private final Runnable mDeliverFaces = new Runnable() {
+        @Override
+        public void run() {
+            deliverFaces();
+        }
+    };
+
+    // Faces reported by the camera while frames are analyzed on the worker, filled on the
+    // Camera thread and drained on the worker thread.
+    private final LatestValueMailbox<FaceResult> mDetectedFaces =
+            new LatestValueMailbox<FaceResult>(new FaceResult(), new FaceResult(),
+                    new FaceResult());
+
+    // Called on the worker thread.
+    private final FrameAnalysisWorker.Analyzer mAnalyzer = new FrameAnalysisWorker.Analyzer() {
+        @Override
+        public byte[] onFrame(byte[] frame, long timestampNs) {
+            byte[] recycled = mFrameRing.onFrameDelivered(frame, timestampNs);
+            if (mUseSoftwareDetector) {
+                detectFacesInSoftware();
+            }
+            return recycled;
+        }
+
+        @Override
+        public void onSignal() {
+            FaceResult detected = mDetectedFaces.drain();
+            if (detected == null) {
+                return;
+            }
+            FaceResult result = mFaceResults.getWriteSlot();
+            result.mFaces.copyFrom(detected.mFaces);
+            estimateRectOrientations(result.mFaces);
+            publishFaces(result, detected.mFrameNs, detected.mCallbackNs);
+        }
+    };
+
+    // Faces last reported on the camera thread, recorded with the frames that follow them.
+    private final FaceBatch mLastFaces = new FaceBatch(FrameRecorder.MAX_FACES);
+    // Null unless recording was requested when the manager was created.
+    private final FrameRecorder mRecorder;
+
+    public CameraManager(SurfaceView cameraView, FrameSource.Listener listener,
+            LatencyTracker latency, Context context) {
+        this(cameraView, listener, latency, context, DEFAULT_NUM_CAMERA_BUFFERS,
+                DEFAULT_NUM_HELD_FRAMES);
+    }
 
-    public CameraManager(SurfaceView cameraView, CameraFrameListener listener, Context context) {
+    /**
+     * @param cameraView    the view to show the preview in, or null to stream it into an
+     *                      offscreen SurfaceTexture
+     * @param latency       receives the frame to face callback and hand-off latencies
+     * @param numBuffers    the number of preview buffers shared with the camera
+     * @param numHeldFrames the number of latest frames kept for analysis, less than
+     *                      numBuffers so the camera always has a buffer to fill; frames are
+     *                      only analyzed off the Camera thread with at least 2 more buffers
+     */
+    public CameraManager(SurfaceView cameraView, FrameSource.Listener listener,
+            LatencyTracker latency, Context context, int numBuffers, int numHeldFrames) {
         mFrameListener = listener;
-        mCameraInfo = new CameraInfo();
-        mCameraId = getCameraId();
-        mImageRotation = mCameraInfo.orientation;
-        mImageFlip = (mCameraInfo.facing == Camera.CameraInfo.CAMERA_FACING_FRONT);
+        mLatency = latency;
+        // Pool a full set per size so a preview size change never leaks buffers.
+        mFrameRing = new FrameRing(numBuffers, numHeldFrames, new FrameBufferPool(numBuffers));
+        // Frames in the queue, the one being analyzed and the held ones must leave the camera
+        // a buffer to fill, else no frame arrives to hand the analyzed ones back with.
+        int queueCapacity = numBuffers - numHeldFrames - 2;
+        mAnalysis = queueCapacity > 0 ? new FrameAnalysisWorker(ANALYSIS_THREAD_NAME,
+                queueCapacity, numBuffers, mAnalyzer) : null;
+        mProfileFile = new AtomicFile(new File(context.getFilesDir(), PROFILE_FILE));
+        mRecorder = createRecorder(context);
+        mPrefs = PreferenceManager.getDefaultSharedPreferences(context);
+        mPreviewConfigKey = PREF_PREVIEW_CONFIG + Build.MODEL;
+        mHasPreviewConfig = PreviewCalibrator.parseConfig(
+                mPrefs.getString(mPreviewConfigKey, null), mPreviewConfig);
+        mWarmResume = new WarmResumePolicy(mPrefs.getBoolean(PREF_WARM_RESUME, true));
 
         mCameraView = cameraView;
-        mCameraView.setVisibility(View.INVISIBLE);
-        mCameraView.getHolder().addCallback(this);
+        if (mCameraView != null) {
+            mCameraView.setVisibility(View.INVISIBLE);
+            mCameraView.getHolder().addCallback(this);
+        }
 
         mUiHandler = new Handler();
         mCameraThread = new HandlerThread(CAMERA_HANDLER_THREAD_NAME);
@@ -102,6 +317,10 @@ public class CameraManager implements SurfaceHolder.Callback, Camera.PreviewCall
             @Override
             public void handleMessage(Message inputMessage) {
                 switch (inputMessage.what) {
+                    case CAME_MESSAGE_OPEN:
+                        Log.d(TAG, "CAME_MESSAGE_OPEN");
+                        openCamera();
+                        break;
                     case CAME_MESSAGE_START:
                         Log.d(TAG, "CAME_MESSAGE_START");
                         startCamera();
@@ -109,10 +328,36 @@ public class CameraManager implements SurfaceHolder.Callback, Camera.PreviewCall
                     case CAME_MESSAGE_STOP:
                         Log.d(TAG, "CAME_MESSAGE_STOP");
                         stopCamera();
-                        mCameraView.setVisibility(View.INVISIBLE);
+                        if (mCameraView != null) {
+                            mCameraView.setVisibility(View.INVISIBLE);
+                        }
+                        break;
+                    case CAME_MESSAGE_SUSPEND:
+                        Log.d(TAG, "CAME_MESSAGE_SUSPEND");
+                        // Calibration uses a new configuration for every session, and a
+                        // recording is one file per session.
+                        if (mCamera != null && mWarmResume.onPause(
+                                mCalibrator == null && mRecorder == null,
+                                SystemClock.elapsedRealtime())) {
+                            suspendCamera();
+                        } else {
+                            stopCamera();
+                        }
+                        if (mCameraView != null) {
+                            mCameraView.setVisibility(View.INVISIBLE);
+                        }
                         break;
                     case CAME_MESSAGE_DESTROY:
                         Log.d(TAG, "CAME_MESSAGE_DESTROY");
+                        stopCamera();
+                        if (mAnalysis != null) {
+                            mAnalysis.quit();
+                        }
+                        mWarmReleaseAlarm.destroy();
+                        if (mPreviewTexture != null) {
+                            mPreviewTexture.release();
+                            mPreviewTexture = null;
+                        }
                         mCameraThread.quitSafely();
                         break;
                     default:
@@ -121,20 +366,49 @@ public class CameraManager implements SurfaceHolder.Callback, Camera.PreviewCall
                 }
             }
         };
+        mWarmReleaseAlarm = new WarmReleaseAlarm(context, TAG, mCameraHandler,
+                mReleaseWarmCamera);
         Log.d(TAG, "camera thread id " + mCameraThread.getThreadId() + " is created!");
     }
 
     /**
      * Start the camera and frame capture.  Must be called from the UI thread.
+     *
+     * The camera is opened and configured on the Camera thread while the preview surface is
+     * being created; the preview starts once both are done. The offscreen preview starts
+     * right away.
      */
+    @Override
     public void resume() {
+        if (mCameraView == null) {
+            mCameraHandler.obtainMessage(CAME_MESSAGE_START, null).sendToTarget();
+            return;
+        }
+        mCameraHandler.obtainMessage(CAME_MESSAGE_OPEN, null).sendToTarget();
         mCameraView.setVisibility(View.VISIBLE);
     }
 
     /**
      * Stop the camera and frame capture.  Must be called from the UI thread.
      */
+    @Override
     public void pause() {
+        stop(CAME_MESSAGE_STOP);
+    }
+
+    /**
+     * Stop the frame capture when the screen turns off.  Must be called from the UI thread.
+     *
+     * Unless disabled with {@link #PREF_WARM_RESUME}, the camera is only stopped and stays
+     * open with its parameters and preview surface for {@link WarmResumePolicy#getHoldMs},
+     * so that a resume in the meantime only restarts the preview.
+     */
+    @Override
+    public void suspend() {
+        stop(CAME_MESSAGE_SUSPEND);
+    }
+
+    private void stop(int message) {
         // Closing the camera involves two steps:
         // 1. Stop the camera.
         // 2. Close the backing SurfaceView.
@@ -152,7 +426,7 @@ public class CameraManager implements SurfaceHolder.Callback, Camera.PreviewCall
             mCamera.setPreviewCallbackWithBuffer(null);
             mCamera.setFaceDetectionListener(null);
         }
-        Message completeMessage = mCameraHandler.obtainMessage(CAME_MESSAGE_STOP, null);
+        Message completeMessage = mCameraHandler.obtainMessage(message, null);
         completeMessage.sendToTarget();
         /*
         mCameraHandler.post(new Runnable() {
@@ -175,34 +449,89 @@ public class CameraManager implements SurfaceHolder.Callback, Camera.PreviewCall
     @Override
     public void onPreviewFrame(byte[] frame, Camera camera) {
           if (mFrameListener != null) {
-            if (mPreviewWidth == -1 || mPreviewHeight == -1) {
-                Camera.Size size = camera.getParameters().getPreviewSize();
-                mPreviewWidth = size.width;
-                mPreviewHeight = size.height;
-                Log.d(TAG, "preview width = " + mPreviewWidth + ", preview height = "
-                        + mPreviewHeight);
+            if (mCalibrator != null) {
+                mCalibrator.onFrame();
             }
-
-            if(!mFDIsRunning) {
+            if (!mFDIsRunning && !mUseSoftwareDetector
+                    && SystemClock.uptimeMillis() >= mNextDetectionMs) {
                 try {
                     mCamera.setFaceDetectionListener(this);
                     mCamera.startFaceDetection();
                     mFDIsRunning = true;
                     Log.d(TAG, "face detection is started!");
                 } catch (RuntimeException e) {
+                    // Transient, e.g. right after a stop while throttled; try again later.
                     Log.e(TAG, "can not start face detection", e);
-                    throw e;
+                    mNextDetectionMs = SystemClock.uptimeMillis()
+                            + Math.max(DETECTION_RETRY_MS, getDetectionIntervalMs());
                 }
             }
 
-            /*
-            if(frame != null) {
-                dumpFiles(frame, 0);
+            long timestampNs = System.nanoTime();
+            mLatency.markFrame(timestampNs);
+            mLatestFrameNs = timestampNs;
+            if (mAnalysisOffloaded) {
+                byte[] returned;
+                while ((returned = mAnalysis.pollReturned()) != null) {
+                    addPreviewBuffer(returned);
+                }
+                // A worker that is behind skips the frame rather than hold up the camera.
+                if (frame != null && !mAnalysis.offer(frame, timestampNs)) {
+                    addPreviewBuffer(frame);
+                }
+                return;
+            }
+            if (mRecorder != null && frame != null) {
+                // Copies the frame; drops it rather than wait if the writer is behind.
+                mRecorder.record(frame, frame.length, mPreviewWidth, mPreviewHeight,
+                        ImageFormat.NV21, timestampNs, mLastFaces);
             }
-            */
 
-            addPreviewBuffer(frame);
-            mCamera.setPreviewCallbackWithBuffer(null);
+            // Keep the latest frame for faces reported with a rect only and give the oldest
+            // held one back to the camera.
+            byte[] recycled = mFrameRing.onFrameDelivered(frame, timestampNs);
+            if (recycled != null) {
+                addPreviewBuffer(recycled);
+            }
+
+            if (mUseSoftwareDetector) {
+                detectFacesInSoftware();
+            }
+        }
+    }
+
+    /**
+     * Called on the thread that analyzes frames to run the software detector on the latest
+     * preview frame and report its faces the same way the camera reports its own.
+     */
+    private void detectFacesInSoftware() {
+        long now = SystemClock.uptimeMillis();
+        long intervalMs = Math.max(SOFTWARE_DETECTION_INTERVAL_MS, getDetectionIntervalMs());
+        if (now - mLastSoftwareDetectionMs < intervalMs) {
+            return;
+        }
+        mLastSoftwareDetectionMs = now;
+        long frameNs = mFrameRing.latestTimestamp();
+        byte[] frame = mFrameRing.latest();
+        if (frame == null) {
+            return;
+        }
+        mLumaPyramid.build(frame);
+        int level = mSoftwareDetectorLevel;
+        int count = mSoftwareDetector.detect(mLumaPyramid.getPlane(level),
+                mLumaPyramid.getWidth(level), mLumaPyramid.getHeight(level));
+        // The detector already knows which way up each face is.
+        FaceResult result = mFaceResults.getWriteSlot();
+        mSoftwareDetector.getFaces(result.mFaces);
+        if (mRecorder != null) {
+            mLastFaces.copyFrom(result.mFaces);
+        }
+        long callbackNs = System.nanoTime();
+        if (mCalibrator != null) {
+            mCalibrator.onFaces(count, frameNs, callbackNs);
+        }
+        if (count > 0) {
+            publishFaces(result, frameNs, callbackNs);
         }
     }
 
@@ -232,61 +561,195 @@ public class CameraManager implements SurfaceHolder.Callback, Camera.PreviewCall
 
     @Override
     public void onFaceDetection(Face[] faces, Camera camera) {
+        long callbackNs = System.nanoTime();
+        long frameNs = mLatestFrameNs;
+        mLatency.record(LatencyTracker.FRAME_TO_FACES, frameNs, callbackNs);
+        rememberFaces(faces);
+        if (mCalibrator != null) {
+            mCalibrator.onFaces(faces.length, frameNs, callbackNs);
+        }
         if (faces.length > 0) {
-            final Face[] newFaces = faces;
-
-            mUiHandler.post(new Runnable() {
-                @Override
-                public void run() {
-                    mFrameListener.onFaceDetection(newFaces);
+            if (mAnalysisOffloaded) {
+                // The worker holds the frames the rect orientation is estimated from.
+                FaceResult detected = mDetectedFaces.getWriteSlot();
+                toFaceBatch(faces, detected.mFaces);
+                detected.mFrameNs = frameNs;
+                detected.mCallbackNs = callbackNs;
+                if (mDetectedFaces.publish()) {
+                    mAnalysis.signal();
                 }
-            });
+            } else {
+                FaceResult result = mFaceResults.getWriteSlot();
+                toFaceBatch(faces, result.mFaces);
+                estimateRectOrientations(result.mFaces);
+                publishFaces(result, frameNs, callbackNs);
+            }
+
+            long intervalMs = getDetectionIntervalMs();
+            if (intervalMs > 0) {
+                pauseFaceDetection(intervalMs);
+            }
         }
     }
 
     /**
-     * Called from the Camera thread to start the camera.
+     * Called on the Camera thread to stop hardware face detection after a result while
+     * detection is throttled. onPreviewFrame starts it again once the interval has passed.
      */
-    private void startCamera() {
+    private void pauseFaceDetection(long intervalMs) {
+        try {
+            mCamera.stopFaceDetection();
+            mFDIsRunning = false;
+            mNextDetectionMs = SystemClock.uptimeMillis() + intervalMs;
+            mDetectionPauses++;
+        } catch (RuntimeException e) {
+            Log.w(TAG, "can not stop face detection", e);
+        }
+    }
+
+    /**
+     * Called on the thread that analyzes frames to hand the filled write slot of the mailbox
+     * over to the UI thread. Only schedules a delivery if none is pending.
+     *
+     * @param frameNs    the timestamp of the latest preview frame, or -1 if unknown
+     * @param callbackNs when the faces were reported on the Camera thread
+     */
+    private void publishFaces(FaceResult result, long frameNs, long callbackNs) {
+        mLatency.markFaces(callbackNs);
+        result.mFrameNs = frameNs >= 0 ? frameNs : callbackNs;
+        result.mCallbackNs = callbackNs;
+        if (mFaceResults.publish()) {
+            mUiHandler.post(mDeliverFaces);
+        }
+    }
+
+    /**
+     * Called on the UI thread to hand the newest faces from the camera thread to the listener.
+     */
+    private void deliverFaces() {
+        FaceResult result = mFaceResults.drain();
+        if (result == null) {
+            return;
+        }
+        long uiNs = System.nanoTime();
+        mLatency.record(LatencyTracker.FACES_TO_UI, result.mCallbackNs, uiNs);
+        mFrameListener.onFaces(result.mFaces, result.mFrameNs);
+        mLatency.record(LatencyTracker.UI_TO_DECISION, uiNs, System.nanoTime());
+    }
+
+    /**
+     * Copies the HAL faces into a batch, so that none of them is kept past the callback.
+     */
+    private static void toFaceBatch(Face[] faces, FaceBatch batch) {
+        batch.clear();
+        for (int i = 0; i < faces.length; i++) {
+            Face face = faces[i];
+            int index = face.rect != null
+                    ? batch.add(face.rect.left, face.rect.top, face.rect.right,
+                            face.rect.bottom, face.id, face.score)
+                    : batch.addWithoutRect(face.id, face.score);
+
+            if (face.leftEye != null && face.rightEye != null && face.mouth != null) {
+                batch.setLandmarks(index, face.leftEye.x, face.leftEye.y, face.rightEye.x,
+                        face.rightEye.y, face.mouth.x, face.mouth.y);
+            }
+        }
+    }
+
+    /**
+     * Called on the Camera thread to keep the rects of the faces reported by the camera for
+     * the frame recorder.
+     */
+    private void rememberFaces(Face[] faces) {
+        if (mRecorder == null) {
+            return;
+        }
+        mLastFaces.clear();
+        for (int i = 0; i < faces.length && mLastFaces.getCount() < FrameRecorder.MAX_FACES;
+                i++) {
+            if (faces[i].rect != null) {
+                mLastFaces.add(faces[i].rect.left, faces[i].rect.top, faces[i].rect.right,
+                        faces[i].rect.bottom, faces[i].id, faces[i].score);
+            }
+        }
+    }
+
+    /**
+     * Called on the thread that analyzes frames to estimate the orientation of the faces that
+     * come without eyes/mouth coordinates from their rect and the latest preview frame.
+     */
+    private void estimateRectOrientations(FaceBatch faces) {
+        byte[] frame = mFrameRing.latest();
+        for (int i = 0; i < faces.getCount(); i++) {
+            int orientation = Orientation.UNSPECIFIED;
+            if (frame != null && faces.hasRect(i) && !faces.hasLandmarks(i)) {
+                orientation = mRectEstimator.estimate(frame, mPreviewWidth, mPreviewHeight,
+                        faces.getLeft(i), faces.getTop(i), faces.getRight(i),
+                        faces.getBottom(i));
+            }
+            faces.setRectOrientation(i, orientation);
+        }
+    }
+
+    /**
+     * Called from the Camera thread to open and configure the camera, if not done yet. Does
+     * not need the preview surface.
+     */
+    private void openCamera() {
+        if (mCamera != null) {
+            return;
+        }
         /*
          * In addition to a RuntimeException if the Camera cannot be opened (if it is busy), we may
          * still get RuntimeExceptions while configuring the camera if the service crashes or if the
          * UI thread hides the camera during startup.
          */
         try {
-            mCamera = Camera.open(mCameraId);
+            if (!mProfileLoaded) {
+                loadProfile();
+            }
+            if (mProfile.cameraId < 0) {
+                throw new RuntimeException("no front camera");
+            }
+            mCamera = Camera.open(mProfile.cameraId);
 
-            int degrees = mImageRotation;
-            if (mImageFlip) {
+            int degrees = mProfile.orientation;
+            if (mProfile.facing == CameraInfo.CAMERA_FACING_FRONT) {
                 degrees = (360 - degrees) % 360;
             }
             mCamera.setDisplayOrientation(degrees);
-            try {
-                mCamera.setPreviewDisplay(mCameraView.getHolder());
-            } catch (IOException e) {
-                Log.e(TAG, "Error settings camera preview", e);
-                return;
-            }
 
             Camera.Parameters params = mCamera.getParameters();
-            List<Camera.Size> sizes = params.getSupportedPreviewSizes();
-            int maxDiff = Integer.MAX_VALUE;
-            Camera.Size target = null;
-            for (Camera.Size size : sizes) {
-                if (size.width >= MIN_PREVIEW_WIDTH && size.height >= MIN_PREVIEW_HEIGHT) {
-                    int diff = (size.width - MIN_PREVIEW_WIDTH)
-                            + (size.height - MIN_PREVIEW_HEIGHT);
-                    if (diff < maxDiff) {
-                        maxDiff = diff;
-                        target = size;
-                    }
-                }
+            int maxFaces;
+            if (hasProfiledPreview()) {
+                // Same configuration as last time: no need to walk the supported lists.
+                params.setPreviewSize(mProfile.previewWidth, mProfile.previewHeight);
+                params.setPreviewFpsRange(mProfile.minFps, mProfile.maxFps);
+                maxFaces = mProfile.maxFaces;
+            } else {
+                choosePreviewConfig(params);
+                maxFaces = params.getMaxNumDetectedFaces();
             }
-            if (target != null) {
-                params.setPreviewSize(target.width, target.height);
+            Camera.Size baseSize = params.getPreviewSize();
+            mBaseConfig[0] = baseSize.width;
+            mBaseConfig[1] = baseSize.height;
+            int[] fpsRange = new int[2];
+            params.getPreviewFpsRange(fpsRange);
+            mBaseConfig[2] = fpsRange[Camera.Parameters.PREVIEW_FPS_MIN_INDEX];
+            mBaseConfig[3] = fpsRange[Camera.Parameters.PREVIEW_FPS_MAX_INDEX];
+            // Calibration measures the configurations as they are.
+            if (mCalibrator == null) {
+                mAppliedTier = mQualityTier;
+                mAppliedTargetFps = mTargetFps;
+                capPreviewConfig(params, mAppliedTier, mAppliedTargetFps);
+            } else {
+                mAppliedTier = QualityGovernor.TIER_FULL;
+                mAppliedTargetFps = 0;
             }
 
-            Log.d(TAG, "the max number of detected faces is "+params.getMaxNumDetectedFaces());
+            Log.d(TAG, "the max number of detected faces is " + maxFaces);
+            mUseSoftwareDetector = maxFaces == 0;
+            int frameSize = configureAnalysis(params);
 
             int exposureCompensation = Math.max(params.getMinExposureCompensation(), Math.min(
                     params.getMaxExposureCompensation(), CAMERA_EXPOSURE_COMPENSATION));
@@ -294,19 +757,77 @@ public class CameraManager implements SurfaceHolder.Callback, Camera.PreviewCall
             params.setExposureCompensation(exposureCompensation);
             params.setPreviewFormat(ImageFormat.NV21);
             mCamera.setParameters(params);
-            mCamera.setPreviewCallbackWithBuffer(this);
-            if (mCameraBuffers == null) {
-                mCameraBuffers = new byte[NUM_CAMERA_BUFFERS][];
-                for (int i = 0; i < NUM_CAMERA_BUFFERS; i++) {
-                    mCameraBuffers[i] = new byte[getFrameSize()];
-                }
+            mCamera.setErrorCallback(mErrorCallback);
+            // Buffers are only reallocated when the frame size changes.
+            mFrameRing.configure(frameSize);
+            mLatestFrameNs = -1;
+            queueBuffers();
+
+            if (mRecorder != null) {
+                mLastFaces.clear();
+                mRecorder.configure(frameSize);
+                mRecorder.start();
             }
-            for (int i = 0; i < NUM_CAMERA_BUFFERS; i++) {
-                mCamera.addCallbackBuffer(mCameraBuffers[i]);
+            // Calibration sessions use a different configuration each time.
+            if (mCalibrator == null) {
+                saveProfile(maxFaces);
+            }
+            Log.d(TAG, "camera opened!");
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Failed to open camera", e);
+            stopCamera();
+            notifyFailed();
+        }
+    }
+
+    /**
+     * Called from the Camera thread to start the preview once the surface exists, opening the
+     * camera first if that did not happen yet.
+     */
+    private void startCamera() {
+        if (mCamera != null && mPreviewStarted) {
+            return;
+        }
+        mWarmReleaseAlarm.cancel();
+        // The release alarm may be due but not delivered yet.
+        if (mWarmResume.isExpired(SystemClock.elapsedRealtime())) {
+            Log.d(TAG, "warm camera expired");
+            stopCamera();
+        }
+        boolean warm = mWarmResume.onResume();
+        openCamera();
+        if (mCamera == null || mPreviewStarted) {
+            return;
+        }
+        try {
+            if (!mBuffersQueued) {
+                // The camera dropped all buffers when it stopped, also the ones the ring
+                // still held; forget those so none is queued twice.
+                mFrameRing.configure(mFrameRing.getFrameSize());
+                mLatestFrameNs = -1;
+                queueBuffers();
+            }
+            try {
+                if (mCameraView != null) {
+                    mCamera.setPreviewDisplay(mCameraView.getHolder());
+                } else {
+                    if (mPreviewTexture == null) {
+                        mPreviewTexture = new SurfaceTexture(OFFSCREEN_TEXTURE_NAME);
+                    }
+                    mCamera.setPreviewTexture(mPreviewTexture);
+                }
+            } catch (IOException e) {
+                Log.e(TAG, "Error settings camera preview", e);
+                return;
             }
 
             mCamera.startPreview();
-            Log.d(TAG, "camera started!");
+            mPreviewStarted = true;
+            startAnalysis();
+            if (mCalibrator != null) {
+                mCalibrator.beginSession(System.currentTimeMillis());
+            }
+            Log.d(TAG, warm ? "camera started warm!" : "camera started!");
         } catch (RuntimeException e) {
             Log.w(TAG, "Failed to start camera", e);
             stopCamera();
@@ -315,29 +836,515 @@ public class CameraManager implements SurfaceHolder.Callback, Camera.PreviewCall
     }
 
     /**
-     * Called from the Camera thread to stop the camera.
+     * Returns true if the profile has the preview configuration this start would choose, so
+     * it can be applied without checking the supported sizes and FPS ranges again.
      */
-    private void stopCamera() {
-        if (mCamera != null) {
+    private boolean hasProfiledPreview() {
+        return mHasPreviewConfig && mCalibrator == null && mProfile.hasPreview()
+                && mProfile.previewWidth == mPreviewConfig[0]
+                && mProfile.previewHeight == mPreviewConfig[1]
+                && mProfile.minFps == mPreviewConfig[2]
+                && mProfile.maxFps == mPreviewConfig[3];
+    }
+
+    /**
+     * Called from the Camera thread to load the camera profile, or to look up the front
+     * camera if there is none for this build.
+     */
+    private void loadProfile() {
+        mProfileLoaded = true;
+        try {
+            DataInputStream in = new DataInputStream(mProfileFile.openRead());
+            try {
+                if (mProfile.read(in, Build.FINGERPRINT)) {
+                    Log.d(TAG, "loaded " + mProfile);
+                    return;
+                }
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            // No profile yet, or a truncated one.
+        }
+        mProfile.set(new CameraProfile());
+        CameraInfo info = new CameraInfo();
+        mProfile.cameraId = getCameraId(info);
+        mProfile.orientation = info.orientation;
+        mProfile.facing = info.facing;
+    }
+
+    /**
+     * Called from the Camera thread to size the frame analysis for the preview size set in
+     * params. Returns the size of a preview frame in bytes.
+     */
+    private int configureAnalysis(Camera.Parameters params) {
+        Camera.Size previewSize = params.getPreviewSize();
+        mPreviewWidth = previewSize.width;
+        mPreviewHeight = previewSize.height;
+        Log.d(TAG, "preview width = " + mPreviewWidth + ", preview height = "
+                + mPreviewHeight);
+
+        mLumaPyramid.configure(mPreviewWidth, mPreviewHeight);
+        if (mUseSoftwareDetector) {
+            Log.d(TAG, "no face detection in the camera, detecting in software on "
+                    + mLumaPyramid);
+            // Let the pyramid do most of the downscaling the detector needs.
+            mSoftwareDetectorLevel = mLumaPyramid.levelForWidth(
+                    SoftwareFaceDetector.WORKING_WIDTH);
+            mSoftwareDetector.configure(mLumaPyramid.getWidth(mSoftwareDetectorLevel),
+                    mLumaPyramid.getHeight(mSoftwareDetectorLevel));
+            if (mFaceVerifier == null) {
+                mFaceVerifier = new PlatformFaceVerifier();
+                mSoftwareDetector.setVerifier(mFaceVerifier);
+            }
+        }
+        return getFrameSize(mPreviewWidth, mPreviewHeight);
+    }
+
+    private static int getFrameSize(int width, int height) {
+        return width * height * ImageFormat.getBitsPerPixel(ImageFormat.NV21) / 8;
+    }
+
+    /**
+     * Called from the Camera thread to lower the preview size in params to the largest
+     * supported one a quality tier allows, and the FPS range to the cheapest one that reaches
+     * the target frame rate within the tier. Neither goes above the base configuration in
+     * params, and sizes below MIN_PREVIEW_WIDTH x MIN_PREVIEW_HEIGHT are not used.
+     *
+     * @param targetFps the frame rate to reach, times 1000, or 0 for the base rate
+     */
+    private static void capPreviewConfig(Camera.Parameters params, int tier, int targetFps) {
+        int maxPixels = QualityGovernor.getMaxPreviewPixels(tier);
+        Camera.Size current = params.getPreviewSize();
+        if (maxPixels > 0 && current.width * current.height > maxPixels) {
+            Camera.Size target = null;
+            for (Camera.Size size : params.getSupportedPreviewSizes()) {
+                int pixels = size.width * size.height;
+                if (size.width >= MIN_PREVIEW_WIDTH && size.height >= MIN_PREVIEW_HEIGHT
+                        && pixels <= maxPixels
+                        && (target == null || pixels > target.width * target.height)) {
+                    target = size;
+                }
+            }
+            if (target != null) {
+                params.setPreviewSize(target.width, target.height);
+            }
+        }
+
+        int[] fpsRange = new int[2];
+        params.getPreviewFpsRange(fpsRange);
+        int baseMaxFps = fpsRange[Camera.Parameters.PREVIEW_FPS_MAX_INDEX];
+        int maxFps = QualityGovernor.getMaxFps(tier);
+        maxFps = maxFps > 0 ? Math.min(maxFps, baseMaxFps) : baseMaxFps;
+        int target = targetFps > 0 ? Math.min(targetFps, maxFps) : maxFps;
+        if (maxFps == baseMaxFps && target == baseMaxFps) {
+            // The base range is what is asked for; no need to walk the supported list.
+            return;
+        }
+        int[] range = FrameRateController.chooseRange(params.getSupportedPreviewFpsRange(),
+                target, maxFps);
+        if (range != null) {
+            params.setPreviewFpsRange(range[Camera.Parameters.PREVIEW_FPS_MIN_INDEX],
+                    range[Camera.Parameters.PREVIEW_FPS_MAX_INDEX]);
+        }
+    }
+
+    /**
+     * Called from the Camera thread to switch the running camera to the current quality
+     * tier and target frame rate. A new FPS range is set while streaming where the HAL allows
+     * it; a new preview size restarts the preview, but not the camera.
+     */
+    private void applyPreviewCaps() {
+        int tier = mQualityTier;
+        int targetFps = mTargetFps;
+        if (mCamera == null || mCalibrator != null
+                || (tier == mAppliedTier && targetFps == mAppliedTargetFps)) {
+            return;
+        }
+        try {
+            Camera.Parameters params = mCamera.getParameters();
+            params.setPreviewSize(mBaseConfig[0], mBaseConfig[1]);
+            params.setPreviewFpsRange(mBaseConfig[2], mBaseConfig[3]);
+            capPreviewConfig(params, tier, targetFps);
+            Camera.Size size = params.getPreviewSize();
+            if (mRecorder != null) {
+                // The recording is of one frame size.
+                params.setPreviewSize(mPreviewWidth, mPreviewHeight);
+            } else if (size.width != mPreviewWidth || size.height != mPreviewHeight) {
+                restartPreview(params);
+                mAppliedTier = tier;
+                mAppliedTargetFps = targetFps;
+                Log.d(TAG, "quality tier " + QualityGovernor.getTierName(tier)
+                        + ", preview restarted at " + mPreviewWidth + "x" + mPreviewHeight);
+                return;
+            }
             try {
+                mCamera.setParameters(params);
+            } catch (RuntimeException e) {
+                // Some HALs only take a new FPS range with the preview stopped.
+                restartPreview(params);
+            }
+            mAppliedTier = tier;
+            mAppliedTargetFps = targetFps;
+            Log.d(TAG, "quality tier " + QualityGovernor.getTierName(tier) + ", target fps "
+                    + targetFps + ", fps range " + params.get("preview-fps-range"));
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Failed to apply quality tier " + tier + ", target fps " + targetFps, e);
+        }
+    }
+
+    /**
+     * Called from the Camera thread to apply parameters that need the preview stopped, and to
+     * reallocate the preview buffers if the frame size changed.
+     */
+    private void restartPreview(Camera.Parameters params) {
+        boolean started = mPreviewStarted;
+        if (mFDIsRunning) {
+            mCamera.setFaceDetectionListener(null);
+            mCamera.stopFaceDetection();
+            mFDIsRunning = false;
+        }
+        // Also drops the buffers queued with the camera.
+        mCamera.setPreviewCallbackWithBuffer(null);
+        mCamera.stopPreview();
+        mPreviewStarted = false;
+        stopAnalysis();
+        mCamera.setParameters(params);
+        mFrameRing.configure(configureAnalysis(params));
+        mLatestFrameNs = -1;
+        queueBuffers();
+        if (started) {
+            mCamera.startPreview();
+            mPreviewStarted = true;
+            startAnalysis();
+        }
+    }
+
+    /**
+     * Called from the Camera thread once the preview started to analyze its frames on the
+     * worker, unless calibrating or recording.
+     */
+    private void startAnalysis() {
+        mAnalysisOffloaded = mAnalysis != null && mCalibrator == null && mRecorder == null;
+        if (mAnalysisOffloaded) {
+            // Faces of the last session are not worth an estimate.
+            mDetectedFaces.drain();
+            mAnalysis.start();
+        }
+    }
+
+    /**
+     * Called from the Camera thread once the camera stopped streaming into the buffers. The
+     * worker is parked before the ring is touched, and forgets the frames it had queued,
+     * which the camera no longer owns either. Its thread stays for the next preview.
+     */
+    private void stopAnalysis() {
+        if (mAnalysis == null || !mAnalysis.isRunning()) {
+            mAnalysisOffloaded = false;
+            return;
+        }
+        mAnalysisOffloaded = false;
+        if (!mAnalysis.stop(ANALYSIS_STOP_TIMEOUT_MS)) {
+            // Rather than block the Camera thread; the worker parks once its frame is done.
+            Log.w(TAG, "analysis did not stop within " + ANALYSIS_STOP_TIMEOUT_MS + " ms");
+            return;
+        }
+        mAnalysis.clear();
+        Log.d(TAG, "analysis stopped: " + mAnalysis);
+    }
+
+    /**
+     * Called from the Camera thread to store the configuration the camera was opened with,
+     * before the quality tier caps, if it changed.
+     */
+    private void saveProfile(int maxFaces) {
+        CameraProfile profile = new CameraProfile();
+        profile.set(mProfile);
+        profile.previewWidth = mBaseConfig[0];
+        profile.previewHeight = mBaseConfig[1];
+        profile.minFps = mBaseConfig[2];
+        profile.maxFps = mBaseConfig[3];
+        profile.frameSize = getFrameSize(mBaseConfig[0], mBaseConfig[1]);
+        profile.maxFaces = maxFaces;
+        if (profile.equals(mProfile)) {
+            return;
+        }
+        mProfile.set(profile);
+        FileOutputStream out = null;
+        try {
+            out = mProfileFile.startWrite();
+            DataOutputStream data = new DataOutputStream(out);
+            mProfile.write(data, Build.FINGERPRINT);
+            data.flush();
+            mProfileFile.finishWrite(out);
+            Log.d(TAG, "saved " + mProfile);
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to save camera profile", e);
+            if (out != null) {
+                mProfileFile.failWrite(out);
+            }
+        }
+    }
+
+    /**
+     * Called from the Camera thread to set the preview size and FPS range: the calibrated ones
+     * if they are still supported, else the next calibration candidate, else the smallest
+     * size of at least MIN_PREVIEW_WIDTH x MIN_PREVIEW_HEIGHT.
+     */
+    private void choosePreviewConfig(Camera.Parameters params) {
+        if (mHasPreviewConfig && isSupported(params, mPreviewConfig)) {
+            params.setPreviewSize(mPreviewConfig[0], mPreviewConfig[1]);
+            params.setPreviewFpsRange(mPreviewConfig[2], mPreviewConfig[3]);
+            return;
+        }
+
+        if (mCalibrator == null) {
+            mCalibrator = createCalibrator(params);
+        }
+        int candidate = mCalibrator.getCurrent();
+        if (candidate >= 0) {
+            Log.d(TAG, "calibrating " + mCalibrator.formatConfig(candidate) + ", candidate "
+                    + (candidate + 1) + " of " + mCalibrator.getCandidateCount());
+            params.setPreviewSize(mCalibrator.getWidth(candidate),
+                    mCalibrator.getHeight(candidate));
+            params.setPreviewFpsRange(mCalibrator.getMinFps(candidate),
+                    mCalibrator.getMaxFps(candidate));
+            return;
+        }
+
+        List<Camera.Size> sizes = params.getSupportedPreviewSizes();
+        int maxDiff = Integer.MAX_VALUE;
+        Camera.Size target = null;
+        for (Camera.Size size : sizes) {
+            if (size.width >= MIN_PREVIEW_WIDTH && size.height >= MIN_PREVIEW_HEIGHT) {
+                int diff = (size.width - MIN_PREVIEW_WIDTH)
+                        + (size.height - MIN_PREVIEW_HEIGHT);
+                if (diff < maxDiff) {
+                    maxDiff = diff;
+                    target = size;
+                }
+            }
+        }
+        if (target != null) {
+            params.setPreviewSize(target.width, target.height);
+        }
+    }
+
+    /**
+     * Returns a calibrator over the supported preview sizes of at least MIN_PREVIEW_WIDTH x
+     * MIN_PREVIEW_HEIGHT and the supported FPS ranges.
+     */
+    private static PreviewCalibrator createCalibrator(Camera.Parameters params) {
+        PreviewCalibrator calibrator = new PreviewCalibrator();
+        List<int[]> fpsRanges = params.getSupportedPreviewFpsRange();
+        for (Camera.Size size : params.getSupportedPreviewSizes()) {
+            if (size.width < MIN_PREVIEW_WIDTH || size.height < MIN_PREVIEW_HEIGHT) {
+                continue;
+            }
+            for (int[] range : fpsRanges) {
+                calibrator.addCandidate(size.width, size.height,
+                        range[Camera.Parameters.PREVIEW_FPS_MIN_INDEX],
+                        range[Camera.Parameters.PREVIEW_FPS_MAX_INDEX]);
+            }
+        }
+        calibrator.prune(PreviewCalibrator.MAX_CANDIDATES);
+        return calibrator;
+    }
+
+    private static boolean isSupported(Camera.Parameters params, int[] config) {
+        boolean sizeSupported = false;
+        for (Camera.Size size : params.getSupportedPreviewSizes()) {
+            sizeSupported |= size.width == config[0] && size.height == config[1];
+        }
+        boolean fpsSupported = false;
+        for (int[] range : params.getSupportedPreviewFpsRange()) {
+            fpsSupported |= range[Camera.Parameters.PREVIEW_FPS_MIN_INDEX] == config[2]
+                    && range[Camera.Parameters.PREVIEW_FPS_MAX_INDEX] == config[3];
+        }
+        return sizeSupported && fpsSupported;
+    }
+
+    /**
+     * Called from the Camera thread when a calibration session ends. Stores the best
+     * configuration once all candidates were measured, or starts over if no candidate saw a
+     * face.
+     */
+    private void endCalibrationSession() {
+        mCalibrator.endSession(System.currentTimeMillis());
+        if (!mCalibrator.isComplete()) {
+            return;
+        }
+        Log.d(TAG, "calibration done: " + mCalibrator);
+        int best = mCalibrator.getBest();
+        if (best < 0) {
+            mCalibrator.restart();
+            return;
+        }
+        String config = mCalibrator.formatConfig(best);
+        mPrefs.edit().putString(mPreviewConfigKey, config).apply();
+        mHasPreviewConfig = PreviewCalibrator.parseConfig(config, mPreviewConfig);
+        mCalibrator = null;
+        Log.d(TAG, "using " + config + " for " + Build.MODEL + " from now on");
+    }
+
+    /**
+     * Called from the Camera thread to queue all frame buffers with the camera.
+     */
+    private void queueBuffers() {
+        mCamera.setPreviewCallbackWithBuffer(this);
+        for (int i = 0; i < mFrameRing.getBufferCount(); i++) {
+            mCamera.addCallbackBuffer(mFrameRing.getBuffer(i));
+        }
+        mBuffersQueued = true;
+    }
+
+    /**
+     * Called from the Camera thread to stop the preview but keep the camera open, with its
+     * parameters and preview surface, until the next start or the end of the hold time.
+     */
+    private void suspendCamera() {
+        try {
+            if (mFDIsRunning) {
                 mCamera.setFaceDetectionListener(null);
                 mCamera.stopFaceDetection();
                 mFDIsRunning = false;
+            }
+            // Also drops the buffers queued with the camera.
+            mCamera.setPreviewCallbackWithBuffer(null);
+            mBuffersQueued = false;
+            mCamera.stopPreview();
+            mPreviewStarted = false;
+            stopAnalysis();
+            mWarmReleaseAlarm.schedule(mWarmResume.getHoldMs());
+            Log.d(TAG, "camera kept warm, " + mWarmResume + ", " + mFrameRing + ", "
+                    + mFaceResults + ", detection paused " + mDetectionPauses + " times");
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Failed to suspend camera", e);
+            stopCamera();
+        }
+    }
+
+    // Called on the Camera thread, which opened the camera.
+    private final Camera.ErrorCallback mErrorCallback = new Camera.ErrorCallback() {
+        @Override
+        public void onError(int error, Camera camera) {
+            Log.w(TAG, "camera error " + error + (mPreviewStarted ? "" : " while warm"));
+            // The camera is unusable after an error, e.g. when it was evicted by another app.
+            boolean started = mPreviewStarted;
+            stopCamera();
+            if (started) {
+                notifyFailed();
+            }
+        }
+    };
+
+    /**
+     * Called from the Camera thread to stop the camera.
+     */
+    private void stopCamera() {
+        stopAnalysis();
+        if (mCamera != null) {
+            try {
+                if (mFDIsRunning) {
+                    mCamera.setFaceDetectionListener(null);
+                    mCamera.stopFaceDetection();
+                    mFDIsRunning = false;
+                }
 
                 mCamera.setPreviewCallbackWithBuffer(null);
                 mCamera.stopPreview();
                 mCamera.release();
                 mCamera = null;
-                Log.d(TAG, "stopCamera done!");
+                mPreviewStarted = false;
+                mBuffersQueued = false;
+                mWarmReleaseAlarm.cancel();
+                mWarmResume.onReleased();
+                if (mCalibrator != null) {
+                    endCalibrationSession();
+                }
+                Log.d(TAG, "stopCamera done! " + mFrameRing + ", " + mFaceResults
+                        + ", detection paused " + mDetectionPauses + " times, "
+                        + mWarmResume);
             } catch (RuntimeException e) {
                 Log.w(TAG, "Failed to stop camera", e);
             }
         }
+        if (mRecorder != null && mRecorder.isRunning()) {
+            // Waits for the frames still queued to be written.
+            mRecorder.stop();
+            Log.d(TAG, "recording stopped: " + mRecorder);
+            if (mRecorder.getError() != null) {
+                Log.w(TAG, "recording failed", mRecorder.getError());
+            }
+        }
+    }
+
+    /**
+     * Returns the number of preview frames received from the camera. Safe on any thread.
+     */
+    public long getFramesDelivered() {
+        return mFrameRing.getDeliveredCount();
+    }
+
+    /**
+     * Returns the number of preview frames evicted before they were analyzed.
+     */
+    public long getFramesDropped() {
+        return mFrameRing.getDroppedCount();
+    }
+
+    /**
+     * Returns the number of preview buffers handed back to the camera after being held.
+     */
+    public long getFramesRecycled() {
+        return mFrameRing.getRecycledCount();
+    }
+
+    /**
+     * Returns the analysis worker, for its queue depth, enqueue failures and utilization, or
+     * null if frames are always analyzed on the Camera thread.
+     */
+    public FrameAnalysisWorker getAnalysisWorker() {
+        return mAnalysis;
+    }
+
+    @Override
+    public void setDetectionInterval(long intervalMs) {
+        mDetectionIntervalMs = intervalMs;
+    }
+
+    @Override
+    public void setQualityTier(int tier) {
+        mQualityTier = tier;
+        mCameraHandler.removeCallbacks(mApplyPreviewCaps);
+        mCameraHandler.post(mApplyPreviewCaps);
+    }
+
+    @Override
+    public void setTargetFrameRate(int fps) {
+        mTargetFps = fps;
+        mCameraHandler.removeCallbacks(mApplyPreviewCaps);
+        mCameraHandler.post(mApplyPreviewCaps);
+    }
+
+    /**
+     * Called on the Camera thread, and on the analysis worker by detectFacesInSoftware().
+     * Detection is not throttled while calibrating, which measures the detection rate; frames
+     * are analyzed on the Camera thread then, and the calibrator is only replaced while the
+     * worker is stopped.
+     */
+    private long getDetectionIntervalMs() {
+        if (mCalibrator != null && !mCalibrator.isComplete()) {
+            return 0;
+        }
+        return Math.max(mDetectionIntervalMs,
+                QualityGovernor.getDetectionIntervalMs(mAppliedTier));
     }
 
     /**
      * Called from the client to ensure camera thread isn't leaking
      */
+    @Override
     public void destroy() {
         //mCameraThread.quitSafely();
         Message completeMessage = mCameraHandler.obtainMessage(CAME_MESSAGE_DESTROY, null);
@@ -351,38 +1358,26 @@ public class CameraManager implements SurfaceHolder.Callback, Camera.PreviewCall
         mUiHandler.post(new Runnable() {
             @Override
             public void run() {
-                mFrameListener.onCameraError();
+                mFrameListener.onSourceError();
             }
         });
     }
 
     /**
-     * Called from the constructor to retrieve the id of the front-facing camera and populate
+     * Called from the Camera thread to retrieve the id of the front-facing camera and populate
      * the CameraInfo.
      */
-    private int getCameraId() {
+    private static int getCameraId(CameraInfo cameraInfo) {
         int numCameras = Camera.getNumberOfCameras();
         for (int i=0; i < numCameras; i++) {
-            Camera.getCameraInfo(i, mCameraInfo);
-            if (mCameraInfo.facing == Camera.CameraInfo.CAMERA_FACING_FRONT) {
+            Camera.getCameraInfo(i, cameraInfo);
+            if (cameraInfo.facing == Camera.CameraInfo.CAMERA_FACING_FRONT) {
                 return i;
             }
         }
         return -1;
     }
 
-    /**
-     * Called from the Camera thread to calculate to appropriate frame buffer size.
-     */
-    private int getFrameSize() {
-        Camera.Parameters params = mCamera.getParameters();
-        int imgFormat = params.getPreviewFormat();
-        int bitsPerPixel = ImageFormat.getBitsPerPixel(imgFormat);
-        Camera.Size cameraSize = params.getPreviewSize();
-
-        return ((cameraSize.width * cameraSize.height) * bitsPerPixel) / 8;
-    }
-
     /**
      * Called from the Camera thread to provide a preview buffer for new frames to the camera.
      */
@@ -394,37 +1389,27 @@ public class CameraManager implements SurfaceHolder.Callback, Camera.PreviewCall
         }
     }
 
-    private void dumpFiles(byte[] imageData, int index) {
-        File extStore = Environment.getExternalStorageDirectory();
-        File myFile = new File(extStore.getAbsolutePath() + "/dump_rotated");
-        if(myFile.exists()) {
-            final String dumpFile = "/storage/emulated/legacy/data_"+index+".yuv";
-            BufferedOutputStream bos = null;
-            try {
-                bos = new BufferedOutputStream(new FileOutputStream(dumpFile));
-            } catch(FileNotFoundException e) {
-                Log.d(TAG, "file can not be created with error"+e);
-                return;
-            }
-
-            try {
-                bos.write(imageData);
-            } catch(IOException e) {
-                Log.d(TAG, "file can not be wrote with error"+e);
-            }
-
-            try {
-                bos.flush();
-            } catch(IOException e) {
-                Log.d(TAG, "file can not be flushed with error"+e);
-            }
-
-            try {
-                bos.close();
-            } catch(IOException e) {
-                Log.d(TAG, "file can not be closed with error"+e);
-            }
-            Log.d(TAG, "dump file "+dumpFile+" is done!");
+    /**
+     * Called from the constructor to create the frame recorder if recording was requested by
+     * creating the trigger file on the external storage.
+     */
+    private static FrameRecorder createRecorder(Context context) {
+        File trigger = new File(Environment.getExternalStorageDirectory(), RECORD_TRIGGER_FILE);
+        if (!trigger.exists()) {
+            return null;
+        }
+        File dir = context.getExternalFilesDir(RECORDING_DIR);
+        if (dir == null) {
+            Log.w(TAG, "no external storage to record frames to");
+            return null;
         }
+        Log.d(TAG, "recording preview frames to " + dir);
+        return new FrameRecorder(dir, RECORDING_PREFIX);
+    }
+
+    @Override
+    public String toString() {
+        return "CameraManager[" + mFrameRing + ", "
+                + (mAnalysis != null ? mAnalysis : "analysis on the Camera thread") + "]";
     }
 }
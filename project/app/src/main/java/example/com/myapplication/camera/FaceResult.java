@@ -0,0 +1,22 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.camera;
+
+import example.com.myapplication.core.FaceBatch;
+
+/**
+ * One detection result on its way from the camera thread to the UI thread. Instances are
+ * reused through a {@link example.com.myapplication.core.LatestValueMailbox}.
+ */
+final class FaceResult {
+
+    final FaceBatch mFaces = new FaceBatch();
+    // The frame the faces were found in, and when they were reported on the camera thread.
+    long mFrameNs;
+    long mCallbackNs;
+}
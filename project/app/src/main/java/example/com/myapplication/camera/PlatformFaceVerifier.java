@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.camera;
+
+import android.graphics.Bitmap;
+import android.media.FaceDetector;
+
+import example.com.myapplication.core.RectOrientationEstimator;
+import example.com.myapplication.core.detect.FaceVerifier;
+
+/**
+ * Confirms the faces of the software detector with the platform face detector.
+ *
+ * {@link FaceDetector} only finds upright faces. The window, with a margin for the whole
+ * head, is sampled into a small bitmap turned upright for the up direction the cascade found,
+ * and the platform detector runs on that one bitmap. The buffers are allocated once. Not
+ * thread safe; called on the thread that runs the software detector.
+ */
+final class PlatformFaceVerifier implements FaceVerifier {
+
+    // Edge length of the bitmap the platform detector runs on; it needs an even width.
+    private static final int BITMAP_SIZE = 96;
+
+    // Share of the window size added on each side.
+    private static final float MARGIN = 0.25f;
+
+    // Luma of the bitmap where the window reaches past the frame.
+    private static final int BORDER_LUMA = 128;
+
+    // Eyes closer than this, in bitmap pixels, are taken for noise.
+    private static final float MIN_EYES_DISTANCE = BITMAP_SIZE / 8f;
+
+    private final FaceDetector mDetector = new FaceDetector(BITMAP_SIZE, BITMAP_SIZE, 1);
+    private final FaceDetector.Face[] mFaces = new FaceDetector.Face[1];
+    private final Bitmap mBitmap = Bitmap.createBitmap(BITMAP_SIZE, BITMAP_SIZE,
+            Bitmap.Config.RGB_565);
+    private final int[] mPixels = new int[BITMAP_SIZE * BITMAP_SIZE];
+
+    // Offset of each bitmap row or column into the upright window, in frame pixels; reaches
+    // past the window by the margin.
+    private final int[] mOffsets = new int[BITMAP_SIZE];
+
+    @Override
+    public int verify(byte[] luma, int width, int height, int left, int top, int size,
+            int up) {
+        float half = size * (0.5f + MARGIN);
+        float step = 2f * half / BITMAP_SIZE;
+        for (int i = 0; i < BITMAP_SIZE; i++) {
+            mOffsets[i] = (int) Math.floor((i + 0.5f) * step - half + size / 2f);
+        }
+        for (int v = 0; v < BITMAP_SIZE; v++) {
+            // (a, b): position in the upright window.
+            int b = mOffsets[v];
+            for (int u = 0; u < BITMAP_SIZE; u++) {
+                int a = mOffsets[u];
+                int x;
+                int y;
+                // The inverse of the rotations in SoftwareFaceDetector.scaleRects.
+                switch (up) {
+                    case RectOrientationEstimator.UP_POSITIVE_X:
+                        x = left + size - 1 - b;
+                        y = top + a;
+                        break;
+                    case RectOrientationEstimator.UP_POSITIVE_Y:
+                        x = left + size - 1 - a;
+                        y = top + size - 1 - b;
+                        break;
+                    case RectOrientationEstimator.UP_NEGATIVE_X:
+                        x = left + b;
+                        y = top + size - 1 - a;
+                        break;
+                    default:
+                        x = left + a;
+                        y = top + b;
+                        break;
+                }
+                int value = x >= 0 && x < width && y >= 0 && y < height
+                        ? luma[y * width + x] & 0xFF : BORDER_LUMA;
+                mPixels[v * BITMAP_SIZE + u] = 0xFF000000 | value << 16 | value << 8 | value;
+            }
+        }
+        mBitmap.setPixels(mPixels, 0, BITMAP_SIZE, 0, 0, BITMAP_SIZE, BITMAP_SIZE);
+        if (mDetector.findFaces(mBitmap, mFaces) == 0) {
+            return REJECTED;
+        }
+        FaceDetector.Face face = mFaces[0];
+        return face.confidence() >= FaceDetector.Face.CONFIDENCE_THRESHOLD
+                && face.eyesDistance() >= MIN_EYES_DISTANCE ? up : REJECTED;
+    }
+}
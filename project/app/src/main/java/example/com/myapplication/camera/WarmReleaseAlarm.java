@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.camera;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Handler;
+import android.os.SystemClock;
+
+/**
+ * Releases a warm camera once its hold time is over, also while the device sleeps.
+ *
+ * The camera is kept warm after the screen turned off, when the device soon suspends and a
+ * Handler delay stops counting. The release is an ELAPSED_REALTIME_WAKEUP alarm instead,
+ * received on the camera thread; the alarm keeps the device awake until the receiver
+ * returned, i.e. until the camera is closed.
+ *
+ * Called on the camera thread only.
+ */
+final class WarmReleaseAlarm {
+
+    private static final String ACTION_PREFIX =
+            "example.com.myapplication.action.RELEASE_WARM_CAMERA.";
+
+    private final Context mContext;
+    private final AlarmManager mAlarmManager;
+    private final PendingIntent mIntent;
+    private final Runnable mRelease;
+    private boolean mScheduled = false;
+
+    private final BroadcastReceiver mReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            if (mScheduled) {
+                mScheduled = false;
+                mRelease.run();
+            }
+        }
+    };
+
+    /**
+     * @param name    tells the alarms of several sources apart
+     * @param handler the camera thread, which {@code release} is run on
+     */
+    WarmReleaseAlarm(Context context, String name, Handler handler, Runnable release) {
+        mContext = context;
+        mAlarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        mRelease = release;
+        String action = ACTION_PREFIX + name;
+        mIntent = PendingIntent.getBroadcast(context, 0,
+                new Intent(action).setPackage(context.getPackageName()), 0);
+        context.registerReceiver(mReceiver, new IntentFilter(action), null, handler);
+    }
+
+    /**
+     * Runs the release in {@code delayMs} of elapsed realtime, replacing an earlier alarm.
+     */
+    void schedule(long delayMs) {
+        mScheduled = true;
+        // The hold is far shorter than a Doze maintenance window, but the camera must not
+        // stay open through one.
+        mAlarmManager.setExactAndAllowWhileIdle(AlarmManager.ELAPSED_REALTIME_WAKEUP,
+                SystemClock.elapsedRealtime() + delayMs, mIntent);
+    }
+
+    void cancel() {
+        if (mScheduled) {
+            mScheduled = false;
+            mAlarmManager.cancel(mIntent);
+        }
+    }
+
+    /**
+     * Cancels the alarm and stops listening for it.
+     */
+    void destroy() {
+        cancel();
+        mContext.unregisterReceiver(mReceiver);
+    }
+}
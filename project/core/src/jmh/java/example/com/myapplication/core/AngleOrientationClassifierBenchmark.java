@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Compares the angle classifier with the coordinate comparisons it replaced, over eye to mouth
+ * axes spread around the circle so the branch predictor cannot learn a single quadrant.
+ */
+@State(Scope.Thread)
+public class AngleOrientationClassifierBenchmark {
+
+    private static final int AXES = 1024;
+
+    private final AngleOrientationClassifier mClassifier = new AngleOrientationClassifier();
+    private final int[] mDx = new int[AXES];
+    private final int[] mDy = new int[AXES];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < AXES; i++) {
+            double angle = random.nextDouble() * 2 * Math.PI;
+            mDx[i] = (int) Math.round(100 * Math.cos(angle));
+            mDy[i] = (int) Math.round(100 * Math.sin(angle));
+        }
+    }
+
+    // The comparisons OrientationEngine.getOrientationByFace used to make.
+    private static int quadrant(int dx, int dy) {
+        if (dx > 0 && dy > 0) {
+            return Orientation.PORTRAIT;
+        } else if (dx > 0 && dy < 0) {
+            return Orientation.LANDSCAPE;
+        } else if (dx < 0 && dy < 0) {
+            return Orientation.REVERSE_PORTRAIT;
+        } else if (dx < 0 && dy > 0) {
+            return Orientation.REVERSE_LANDSCAPE;
+        }
+        return Orientation.UNSPECIFIED;
+    }
+
+    @Benchmark
+    public int coordinateComparison() {
+        int sum = 0;
+        for (int i = 0; i < AXES; i++) {
+            sum += quadrant(mDx[i], mDy[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int angleClassifier() {
+        int sum = 0;
+        for (int i = 0; i < AXES; i++) {
+            sum += mClassifier.classify(mDx[i], mDy[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float angleClassifierConfidence() {
+        float sum = 0f;
+        for (int i = 0; i < AXES; i++) {
+            mClassifier.classify(mDx[i], mDy[i]);
+            sum += mClassifier.getLastConfidence();
+        }
+        return sum;
+    }
+}
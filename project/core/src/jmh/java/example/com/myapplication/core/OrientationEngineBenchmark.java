@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the cost of one orientation decision. Run with {@code ./gradlew :core:jmh}; the gc
+ * profiler configured in core/build.gradle reports the bytes allocated per decision.
+ */
+@State(Scope.Thread)
+public class OrientationEngineBenchmark {
+
+    // Camera HALs report at most a handful of faces; 16 is a generous upper bound.
+    private static final int MANY_FACES = 16;
+
+    private final OrientationEngine mEngine = new OrientationEngine();
+    private final OrientationEngine mConsensusEngine = new OrientationEngine();
+
+    private final FaceBatch mSingleFace = new FaceBatch();
+    private final FaceBatch mManyFaces = new FaceBatch(MANY_FACES);
+    private final FaceBatch mRectOnlyFaces = new FaceBatch(MANY_FACES);
+
+    @Setup
+    public void setUp() {
+        landmarkFace(mSingleFace, 0);
+
+        // Faces without a rect are all visited before a decision is made, which is the
+        // worst case for the selection loop.
+        for (int i = 0; i < MANY_FACES; i++) {
+            landmarkFace(mManyFaces, i);
+        }
+
+        for (int i = 0; i < MANY_FACES; i++) {
+            int index = mRectOnlyFaces.add(-200 + i, -200, 200 + i, 200, -1, 50);
+            mRectOnlyFaces.setRectOrientation(index, Orientation.PORTRAIT);
+        }
+
+        mConsensusEngine.setConsensus(true, OrientationEngine.DEFAULT_MIN_CONSENSUS);
+    }
+
+    private static void landmarkFace(FaceBatch faces, int offset) {
+        int i = faces.addWithoutRect(offset, 90);
+        faces.setLandmarks(i, -60 + offset, -40, 60 + offset, 40, offset, -80);
+    }
+
+    @Benchmark
+    public int singleFace() {
+        return mEngine.decide(mSingleFace);
+    }
+
+    @Benchmark
+    public int manyFaces() {
+        return mEngine.decide(mManyFaces);
+    }
+
+    @Benchmark
+    public int landmarkLess() {
+        return mEngine.decide(mRectOnlyFaces);
+    }
+
+    @Benchmark
+    public int manyFacesConsensus() {
+        return mConsensusEngine.decide(mManyFaces);
+    }
+
+    @Benchmark
+    public int landmarkLessConsensus() {
+        return mConsensusEngine.decide(mRectOnlyFaces);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core.detect;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Random;
+
+import example.com.myapplication.core.Fixtures;
+
+/**
+ * Measures one software detection pass at 320x240, i.e. the downscale path, with a stub
+ * verifier. "face" is the synthetic face fixture, where the cascade fires and the verifier
+ * runs once; "blotches" is a face-free texture the cascade has to scan in full. The gc
+ * profiler should report no allocation per pass.
+ */
+@State(Scope.Thread)
+public class SoftwareFaceDetectorBenchmark {
+
+    private static final int WIDTH = 320;
+    private static final int HEIGHT = 240;
+
+    // Edge length of the window the stub samples, as PlatformFaceVerifier does.
+    private static final int VERIFY_SIZE = 96;
+
+    @Param({ "face", "blotches" })
+    public String frame;
+
+    // Blackhole.consumeCPU tokens the stub burns in place of the platform detector; 0 leaves
+    // just the sampling. Set it to the measured findFaces cost of the target device.
+    @Param({ "0", "1000000" })
+    public long verifyTokens;
+
+    private final SoftwareFaceDetector mDetector = new SoftwareFaceDetector();
+
+    private byte[] mFrame;
+
+    @Setup
+    public void setUp() throws IOException {
+        mFrame = "face".equals(frame) ? Fixtures.loadFrame("face_up_pos_x_320x240.nv21")
+                : Fixtures.texture(Fixtures.BLOTCHES, WIDTH, HEIGHT, new Random(42));
+        mDetector.configure(WIDTH, HEIGHT);
+        mDetector.setVerifier(new StubVerifier(verifyTokens));
+    }
+
+    @Benchmark
+    public int detect() {
+        return mDetector.detect(mFrame, WIDTH, HEIGHT);
+    }
+
+    /**
+     * Samples the window like PlatformFaceVerifier, then burns a fixed amount of CPU and
+     * accepts it.
+     */
+    private static class StubVerifier implements FaceVerifier {
+        private final long mTokens;
+        private final byte[] mSamples = new byte[VERIFY_SIZE * VERIFY_SIZE];
+
+        StubVerifier(long tokens) {
+            mTokens = tokens;
+        }
+
+        @Override
+        public int verify(byte[] luma, int width, int height, int left, int top, int size,
+                int up) {
+            for (int v = 0; v < VERIFY_SIZE; v++) {
+                int y = Math.min(height - 1, top + v * size / VERIFY_SIZE);
+                for (int u = 0; u < VERIFY_SIZE; u++) {
+                    int x = Math.min(width - 1, left + u * size / VERIFY_SIZE);
+                    mSamples[v * VERIFY_SIZE + u] = luma[y * width + x];
+                }
+            }
+            Blackhole.consumeCPU(mTokens);
+            return up;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core.frame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Measures building the pyramid for one preview frame and reading a rotated view of it. The
+ * gc profiler should report no allocation for either.
+ */
+@State(Scope.Thread)
+public class LumaPyramidBenchmark {
+
+    @Param({ "320x240", "640x480", "1280x720" })
+    public String previewSize;
+
+    private final LumaPyramid mPyramid = new LumaPyramid();
+    private final LumaView mView = new LumaView();
+    private byte[] mFrame;
+
+    @Setup
+    public void setUp() {
+        int x = previewSize.indexOf('x');
+        int width = Integer.parseInt(previewSize.substring(0, x));
+        int height = Integer.parseInt(previewSize.substring(x + 1));
+        mFrame = new byte[width * height * 3 / 2];
+        new Random(42).nextBytes(mFrame);
+        mPyramid.configure(width, height);
+        mPyramid.build(mFrame);
+    }
+
+    @Benchmark
+    public byte[] build() {
+        mPyramid.build(mFrame);
+        return mPyramid.getPlane(mPyramid.getLevelCount() - 1);
+    }
+
+    @Benchmark
+    public int sumRotatedLevel1() {
+        LumaView view = mPyramid.view(1, LumaPyramid.ROTATE_90, mView);
+        int sum = 0;
+        for (int y = 0; y < view.getHeight(); y++) {
+            for (int x = 0; x < view.getWidth(); x++) {
+                sum += view.get(x, y);
+            }
+        }
+        return sum;
+    }
+}
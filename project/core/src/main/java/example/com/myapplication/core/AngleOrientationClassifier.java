@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core;
+
+/**
+ * Classifies the axis from the mouth to the right eye of a face into an orientation.
+ *
+ * The four orientations are the quadrants of the axis angle, as in the original coordinate
+ * comparisons: the right eye sits up and to the side of the mouth, so an upright face points
+ * along a diagonal. Axes within the dead zone of a quadrant boundary are left undecided rather
+ * than flipping between two orientations on jitter, and every decision comes with a confidence
+ * that falls from 1 on the diagonal to 0 at the dead zone.
+ *
+ * Does not allocate or call into trigonometry; not thread safe because of the last confidence.
+ */
+public class AngleOrientationClassifier {
+
+    // Degrees on each side of a quadrant boundary that are left undecided.
+    public static final float DEFAULT_DEAD_ZONE_DEG = 10f;
+
+    private static final float QUARTER_PI = (float) (Math.PI / 4);
+    // atan(z) ~ z * (pi/4 + ATAN_K * (1 - z)) on [0, 1], within 0.3 degrees.
+    private static final float ATAN_K = 0.273f;
+
+    // Indexed by (dx < 0) << 1 | (dy < 0).
+    private static final int[] QUADRANTS = {
+            Orientation.PORTRAIT, Orientation.LANDSCAPE,
+            Orientation.REVERSE_LANDSCAPE, Orientation.REVERSE_PORTRAIT
+    };
+
+    private float mDeadZoneDeg;
+    private float mTanDeadZone;
+    private float mDeadZoneRad;
+    private float mConfidenceScale;
+    private float mLastConfidence;
+
+    public AngleOrientationClassifier() {
+        this(DEFAULT_DEAD_ZONE_DEG);
+    }
+
+    public AngleOrientationClassifier(float deadZoneDeg) {
+        setDeadZone(deadZoneDeg);
+    }
+
+    /**
+     * Sets the margin, in degrees on each side of a quadrant boundary, within which no
+     * orientation is decided. 0 only leaves the exact boundaries undecided.
+     */
+    public void setDeadZone(float deadZoneDeg) {
+        if (!(deadZoneDeg >= 0f && deadZoneDeg < 45f)) {
+            throw new IllegalArgumentException("invalid dead zone " + deadZoneDeg);
+        }
+        mDeadZoneDeg = deadZoneDeg;
+        mDeadZoneRad = (float) Math.toRadians(deadZoneDeg);
+        mTanDeadZone = (float) Math.tan(mDeadZoneRad);
+        mConfidenceScale = 1f / (QUARTER_PI - mDeadZoneRad);
+    }
+
+    public float getDeadZone() {
+        return mDeadZoneDeg;
+    }
+
+    /**
+     * Returns the orientation of a face whose right eye is at (dx, dy) from its mouth, in
+     * driver coordinates, or {@link Orientation#UNSPECIFIED} within the dead zone.
+     */
+    public int classify(int dx, int dy) {
+        int ax = Math.abs(dx);
+        int ay = Math.abs(dy);
+        int max = Math.max(ax, ay);
+        // The tangent of the angle to the nearest quadrant boundary, 0 to 1.
+        float ratio = max > 0 ? (float) Math.min(ax, ay) / max : 0f;
+        if (ratio <= mTanDeadZone) {
+            mLastConfidence = 0f;
+            return Orientation.UNSPECIFIED;
+        }
+        float angle = ratio * (QUARTER_PI + ATAN_K * (1f - ratio));
+        mLastConfidence = Math.max(0f, Math.min(1f, (angle - mDeadZoneRad) * mConfidenceScale));
+        return QUADRANTS[((dx >>> 31) << 1) | (dy >>> 31)];
+    }
+
+    /**
+     * Returns the confidence of the last {@link #classify} call: 1 on the diagonal of a
+     * quadrant, down to 0 at the dead zone.
+     */
+    public float getLastConfidence() {
+        return mLastConfidence;
+    }
+}
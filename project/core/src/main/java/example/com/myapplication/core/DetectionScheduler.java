@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core;
+
+/**
+ * Decides when face detection runs: in short bursts separated by gaps that grow
+ * exponentially while the orientation stays the same, and shrink back to the minimum as soon
+ * as it changes.
+ *
+ * The scheduler only does the bookkeeping; the owner turns the camera on and off and calls
+ * back with the current time:
+ * <pre>
+ *   beginBurst(now)  -> camera on, end the burst after getBurstMs()
+ *   endBurst(now)    -> camera off, begin the next burst after the returned gap
+ * </pre>
+ * Not thread safe.
+ */
+public class DetectionScheduler {
+
+    public static final long DEFAULT_BURST_MS = 2000;
+    public static final long DEFAULT_MIN_GAP_MS = 1000;
+    public static final long DEFAULT_MAX_GAP_MS = 60000;
+    public static final int DEFAULT_BACKOFF_FACTOR = 2;
+
+    private final long mBurstMs;
+    private final long mMinGapMs;
+    private final long mMaxGapMs;
+    private final int mBackoffFactor;
+
+    private boolean mInBurst = false;
+    private long mBurstStartMs;
+    private long mGapMs;
+
+    // Orientation at the end of the previous burst and the latest one seen in this burst.
+    private int mLastBurstOrientation = Orientation.UNSPECIFIED;
+    private int mBurstOrientation = Orientation.UNSPECIFIED;
+
+    private long mCameraOnMs;
+    private long mBursts;
+    private long mSkipped;
+
+    public DetectionScheduler() {
+        this(DEFAULT_BURST_MS, DEFAULT_MIN_GAP_MS, DEFAULT_MAX_GAP_MS, DEFAULT_BACKOFF_FACTOR);
+    }
+
+    /**
+     * @param burstMs       how long the camera runs per burst
+     * @param minGapMs      the gap after a burst in which the orientation changed
+     * @param maxGapMs      the upper bound for the gap
+     * @param backoffFactor the factor the gap grows by after each stable burst
+     */
+    public DetectionScheduler(long burstMs, long minGapMs, long maxGapMs, int backoffFactor) {
+        if (burstMs <= 0 || minGapMs <= 0 || maxGapMs < minGapMs || backoffFactor < 1) {
+            throw new IllegalArgumentException("invalid schedule");
+        }
+        mBurstMs = burstMs;
+        mMinGapMs = minGapMs;
+        mMaxGapMs = maxGapMs;
+        mBackoffFactor = backoffFactor;
+        mGapMs = minGapMs;
+    }
+
+    public long getBurstMs() {
+        return mBurstMs;
+    }
+
+    /**
+     * Marks the start of a burst, i.e. the camera is being turned on.
+     */
+    public void beginBurst(long nowMs) {
+        if (mInBurst) {
+            return;
+        }
+        mInBurst = true;
+        mBurstStartMs = nowMs;
+        mBurstOrientation = mLastBurstOrientation;
+        mBursts++;
+    }
+
+    /**
+     * Records the orientation currently applied to the screen while a burst runs.
+     */
+    public void onOrientation(int orientation) {
+        if (mInBurst && orientation != Orientation.UNSPECIFIED) {
+            mBurstOrientation = orientation;
+        }
+    }
+
+    /**
+     * Marks the end of a burst and returns how long to wait before the next one.
+     */
+    public long endBurst(long nowMs) {
+        if (mInBurst) {
+            mInBurst = false;
+            mCameraOnMs += nowMs - mBurstStartMs;
+        }
+        if (mBurstOrientation != mLastBurstOrientation) {
+            mGapMs = mMinGapMs;
+        } else {
+            mGapMs = Math.min(mMaxGapMs, mGapMs * mBackoffFactor);
+        }
+        mLastBurstOrientation = mBurstOrientation;
+        return mGapMs;
+    }
+
+    /**
+     * Skips a due burst without turning the camera on, e.g. because the device did not move,
+     * and returns how long to wait before the next one. Counts as a stable burst.
+     */
+    public long skipBurst() {
+        mSkipped++;
+        mGapMs = Math.min(mMaxGapMs, mGapMs * mBackoffFactor);
+        return mGapMs;
+    }
+
+    /**
+     * Drops the back-off so the next gap is the minimum one, e.g. when something suggests
+     * the orientation may have changed.
+     */
+    public void resetBackoff() {
+        mGapMs = mMinGapMs;
+    }
+
+    /**
+     * Stops the schedule, accounting for a burst still in progress.
+     */
+    public void stop(long nowMs) {
+        if (mInBurst) {
+            mInBurst = false;
+            mCameraOnMs += nowMs - mBurstStartMs;
+        }
+        mGapMs = mMinGapMs;
+    }
+
+    public boolean isInBurst() {
+        return mInBurst;
+    }
+
+    /**
+     * Returns the total time the camera was on, including a burst still in progress.
+     */
+    public long getCameraOnMs(long nowMs) {
+        return mInBurst ? mCameraOnMs + nowMs - mBurstStartMs : mCameraOnMs;
+    }
+
+    public long getBurstCount() {
+        return mBursts;
+    }
+
+    public long getSkippedCount() {
+        return mSkipped;
+    }
+
+    @Override
+    public String toString() {
+        return "DetectionScheduler[bursts " + mBursts + ", skipped " + mSkipped
+                + ", camera on " + mCameraOnMs
+                + " ms, next gap " + mGapMs + " ms]";
+    }
+}
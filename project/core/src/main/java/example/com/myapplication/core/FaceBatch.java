@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core;
+
+/**
+ * The faces detected in one frame, kept in parallel int arrays.
+ *
+ * Coordinates use the camera driver space like {@link FaceRecord}. A batch is allocated once
+ * and refilled for every detection result; it only grows if a result has more faces than
+ * ever before. Faces are added with {@link #add} and read by index.
+ */
+public final class FaceBatch {
+
+    public static final int DEFAULT_CAPACITY = 4;
+
+    // Ints per face in mRects (left, top, right, bottom) and mLandmarks (left eye, right eye
+    // and mouth, x before y).
+    static final int RECT_INTS = 4;
+    static final int LANDMARK_INTS = 6;
+
+    // Bits of mFlags.
+    private static final int HAS_RECT = 1;
+    private static final int HAS_LANDMARKS = 2;
+
+    private int mCount;
+    private int[] mFlags;
+    private int[] mRects;
+    private int[] mLandmarks;
+    private int[] mIds;
+    private int[] mScores;
+    private int[] mRectOrientations;
+
+    public FaceBatch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public FaceBatch(int capacity) {
+        allocate(Math.max(1, capacity));
+    }
+
+    /**
+     * Removes all faces.
+     */
+    public void clear() {
+        mCount = 0;
+    }
+
+    /**
+     * Appends a face with a rect and returns its index.
+     */
+    public int add(int left, int top, int right, int bottom, int id, int score) {
+        int i = addWithoutRect(id, score);
+        mFlags[i] = HAS_RECT;
+        int base = i * RECT_INTS;
+        mRects[base] = left;
+        mRects[base + 1] = top;
+        mRects[base + 2] = right;
+        mRects[base + 3] = bottom;
+        return i;
+    }
+
+    /**
+     * Appends a face without a rect and returns its index.
+     */
+    public int addWithoutRect(int id, int score) {
+        if (mCount == mIds.length) {
+            grow();
+        }
+        int i = mCount++;
+        mFlags[i] = 0;
+        mIds[i] = id;
+        mScores[i] = score;
+        mRectOrientations[i] = Orientation.UNSPECIFIED;
+        return i;
+    }
+
+    /**
+     * Appends a copy of a record and returns its index.
+     */
+    public int add(FaceRecord face) {
+        int i = face.hasRect
+                ? add(face.left, face.top, face.right, face.bottom, face.id, face.score)
+                : addWithoutRect(face.id, face.score);
+        if (face.hasLandmarks) {
+            setLandmarks(i, face.leftEyeX, face.leftEyeY, face.rightEyeX, face.rightEyeY,
+                    face.mouthX, face.mouthY);
+        }
+        mRectOrientations[i] = face.rectOrientation;
+        return i;
+    }
+
+    public void setLandmarks(int i, int leftEyeX, int leftEyeY, int rightEyeX, int rightEyeY,
+            int mouthX, int mouthY) {
+        mFlags[i] |= HAS_LANDMARKS;
+        int base = i * LANDMARK_INTS;
+        mLandmarks[base] = leftEyeX;
+        mLandmarks[base + 1] = leftEyeY;
+        mLandmarks[base + 2] = rightEyeX;
+        mLandmarks[base + 3] = rightEyeY;
+        mLandmarks[base + 4] = mouthX;
+        mLandmarks[base + 5] = mouthY;
+    }
+
+    /**
+     * Sets the orientation estimated from the rect and the frame, for faces without landmarks.
+     */
+    public void setRectOrientation(int i, int orientation) {
+        mRectOrientations[i] = orientation;
+    }
+
+    /**
+     * Copies face i into a record.
+     */
+    public void get(int i, FaceRecord face) {
+        face.clear();
+        if (hasRect(i)) {
+            face.set(getLeft(i), getTop(i), getRight(i), getBottom(i), mIds[i], mScores[i]);
+        } else {
+            face.id = mIds[i];
+            face.score = mScores[i];
+        }
+        if (hasLandmarks(i)) {
+            face.setLandmarks(getLeftEyeX(i), getLeftEyeY(i), getRightEyeX(i), getRightEyeY(i),
+                    getMouthX(i), getMouthY(i));
+        }
+        face.rectOrientation = mRectOrientations[i];
+    }
+
+    /**
+     * Makes this batch a copy of another one.
+     */
+    public void copyFrom(FaceBatch other) {
+        if (mIds.length < other.mCount) {
+            allocate(other.mCount);
+        }
+        mCount = other.mCount;
+        System.arraycopy(other.mFlags, 0, mFlags, 0, mCount);
+        System.arraycopy(other.mRects, 0, mRects, 0, mCount * RECT_INTS);
+        System.arraycopy(other.mLandmarks, 0, mLandmarks, 0, mCount * LANDMARK_INTS);
+        System.arraycopy(other.mIds, 0, mIds, 0, mCount);
+        System.arraycopy(other.mScores, 0, mScores, 0, mCount);
+        System.arraycopy(other.mRectOrientations, 0, mRectOrientations, 0, mCount);
+    }
+
+    public int getCount() {
+        return mCount;
+    }
+
+    public int getCapacity() {
+        return mIds.length;
+    }
+
+    public boolean hasRect(int i) {
+        return (mFlags[i] & HAS_RECT) != 0;
+    }
+
+    public int getLeft(int i) {
+        return mRects[i * RECT_INTS];
+    }
+
+    public int getTop(int i) {
+        return mRects[i * RECT_INTS + 1];
+    }
+
+    public int getRight(int i) {
+        return mRects[i * RECT_INTS + 2];
+    }
+
+    public int getBottom(int i) {
+        return mRects[i * RECT_INTS + 3];
+    }
+
+    public int getWidth(int i) {
+        return getRight(i) - getLeft(i);
+    }
+
+    public int getHeight(int i) {
+        return getBottom(i) - getTop(i);
+    }
+
+    public boolean hasLandmarks(int i) {
+        return (mFlags[i] & HAS_LANDMARKS) != 0;
+    }
+
+    public int getLeftEyeX(int i) {
+        return mLandmarks[i * LANDMARK_INTS];
+    }
+
+    public int getLeftEyeY(int i) {
+        return mLandmarks[i * LANDMARK_INTS + 1];
+    }
+
+    public int getRightEyeX(int i) {
+        return mLandmarks[i * LANDMARK_INTS + 2];
+    }
+
+    public int getRightEyeY(int i) {
+        return mLandmarks[i * LANDMARK_INTS + 3];
+    }
+
+    public int getMouthX(int i) {
+        return mLandmarks[i * LANDMARK_INTS + 4];
+    }
+
+    public int getMouthY(int i) {
+        return mLandmarks[i * LANDMARK_INTS + 5];
+    }
+
+    // -1 if the face id is not supported, as in Camera.Face.
+    public int getId(int i) {
+        return mIds[i];
+    }
+
+    public int getScore(int i) {
+        return mScores[i];
+    }
+
+    public int getRectOrientation(int i) {
+        return mRectOrientations[i];
+    }
+
+    private void grow() {
+        int[] flags = mFlags;
+        int[] rects = mRects;
+        int[] landmarks = mLandmarks;
+        int[] ids = mIds;
+        int[] scores = mScores;
+        int[] rectOrientations = mRectOrientations;
+        allocate(ids.length * 2);
+        System.arraycopy(flags, 0, mFlags, 0, mCount);
+        System.arraycopy(rects, 0, mRects, 0, mCount * RECT_INTS);
+        System.arraycopy(landmarks, 0, mLandmarks, 0, mCount * LANDMARK_INTS);
+        System.arraycopy(ids, 0, mIds, 0, mCount);
+        System.arraycopy(scores, 0, mScores, 0, mCount);
+        System.arraycopy(rectOrientations, 0, mRectOrientations, 0, mCount);
+    }
+
+    private void allocate(int capacity) {
+        mFlags = new int[capacity];
+        mRects = new int[capacity * RECT_INTS];
+        mLandmarks = new int[capacity * LANDMARK_INTS];
+        mIds = new int[capacity];
+        mScores = new int[capacity];
+        mRectOrientations = new int[capacity];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("FaceBatch[");
+        for (int i = 0; i < mCount; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append("id ").append(mIds[i]).append(" score ").append(mScores[i]);
+            if (hasRect(i)) {
+                sb.append(" rect ").append(getLeft(i)).append(',').append(getTop(i))
+                        .append(',').append(getRight(i)).append(',').append(getBottom(i));
+            }
+        }
+        return sb.append(']').toString();
+    }
+}
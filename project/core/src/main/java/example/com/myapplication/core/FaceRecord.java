@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core;
+
+/**
+ * A primitive, reusable copy of a detected face.
+ *
+ * Coordinates use the camera driver space, i.e. (-1000, -1000) is the top-left and
+ * (1000, 1000) the bottom-right of the sensor field of view, exactly like
+ * android.hardware.Camera.Face. Records are meant to be allocated once and refilled with
+ * {@link #set} / {@link #setLandmarks} for every detection result.
+ */
+public final class FaceRecord {
+
+    public boolean hasRect;
+    public int left;
+    public int top;
+    public int right;
+    public int bottom;
+
+    public boolean hasLandmarks;
+    public int leftEyeX;
+    public int leftEyeY;
+    public int rightEyeX;
+    public int rightEyeY;
+    public int mouthX;
+    public int mouthY;
+
+    // -1 if the face id is not supported, as in Camera.Face.
+    public int id = -1;
+    public int score;
+
+    // Orientation estimated from the rect and the preview frame, for faces without landmarks.
+    public int rectOrientation = Orientation.UNSPECIFIED;
+
+    /**
+     * Resets the record and stores the face rectangle, id and score.
+     */
+    public void set(int left, int top, int right, int bottom, int id, int score) {
+        this.hasRect = true;
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+        this.id = id;
+        this.score = score;
+        this.hasLandmarks = false;
+        this.rectOrientation = Orientation.UNSPECIFIED;
+    }
+
+    public void setLandmarks(int leftEyeX, int leftEyeY, int rightEyeX, int rightEyeY,
+            int mouthX, int mouthY) {
+        this.hasLandmarks = true;
+        this.leftEyeX = leftEyeX;
+        this.leftEyeY = leftEyeY;
+        this.rightEyeX = rightEyeX;
+        this.rightEyeY = rightEyeY;
+        this.mouthX = mouthX;
+        this.mouthY = mouthY;
+    }
+
+    public void clear() {
+        hasRect = false;
+        hasLandmarks = false;
+        id = -1;
+        score = 0;
+        rectOrientation = Orientation.UNSPECIFIED;
+    }
+
+    public int width() {
+        return right - left;
+    }
+
+    public int height() {
+        return bottom - top;
+    }
+
+    @Override
+    public String toString() {
+        return "FaceRecord[id " + id + ", score " + score + ", rect " + left + "," + top + ","
+                + right + "," + bottom + (hasLandmarks ? ", R " + rightEyeX + "," + rightEyeY
+                + ", M " + mouthX + "," + mouthY : "") + "]";
+    }
+}
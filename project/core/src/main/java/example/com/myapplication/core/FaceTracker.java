@@ -0,0 +1,362 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core;
+
+/**
+ * Follows faces across detection results.
+ *
+ * Faces are matched to tracks by their HAL id when they have one, else by the overlap (IoU)
+ * of their rect with where the track is predicted to be, from a constant velocity model. Each
+ * track keeps an orientation hypothesis that survives detections without a usable
+ * orientation. A track is locked once it was seen and agreed on its orientation
+ * {@link #LOCK_HITS} times in a row; while a face is locked, detection can run at a low rate.
+ *
+ * Not thread safe. Does not allocate after construction.
+ */
+public class FaceTracker {
+
+    public static final int MAX_TRACKS = 8;
+    public static final float DEFAULT_MIN_IOU = 0.3f;
+    // A track not seen for this long is lost.
+    public static final long DEFAULT_MAX_COAST_MS = 1500;
+    public static final int LOCK_HITS = 3;
+
+    // Weight of a new velocity measurement against the previous estimate.
+    private static final float VELOCITY_GAIN = 0.5f;
+
+    private final float mMinIou;
+    private final long mMaxCoastMs;
+    private final OrientationEngine mEngine = new OrientationEngine();
+
+    // Live tracks are packed at the front of the arrays. Positions are rect centers and sizes
+    // in camera driver coordinates, velocities in driver units per millisecond.
+    private int mTrackCount;
+    private final int[] mIds = new int[MAX_TRACKS];
+    private final int[] mHalIds = new int[MAX_TRACKS];
+    private final float[] mCenterX = new float[MAX_TRACKS];
+    private final float[] mCenterY = new float[MAX_TRACKS];
+    private final float[] mWidth = new float[MAX_TRACKS];
+    private final float[] mHeight = new float[MAX_TRACKS];
+    private final float[] mVelocityX = new float[MAX_TRACKS];
+    private final float[] mVelocityY = new float[MAX_TRACKS];
+    private final long[] mFirstSeenMs = new long[MAX_TRACKS];
+    private final long[] mLastSeenMs = new long[MAX_TRACKS];
+    private final int[] mHits = new int[MAX_TRACKS];
+    private final int[] mOrientations = new int[MAX_TRACKS];
+    private final int[] mStableHits = new int[MAX_TRACKS];
+    private final boolean[] mTrackMatched = new boolean[MAX_TRACKS];
+    private boolean[] mFaceMatched = new boolean[FaceBatch.DEFAULT_CAPACITY];
+    private int mNextId = 1;
+
+    private boolean mLocked = false;
+    private long mLastEventMs;
+
+    private long mStarted;
+    private long mLost;
+    private long mLifetimeSumMs;
+    private long mMaxLifetimeMs;
+    private long mLockedMs;
+
+    public FaceTracker() {
+        this(DEFAULT_MIN_IOU, DEFAULT_MAX_COAST_MS);
+    }
+
+    /**
+     * @param minIou     the minimum overlap of a face with the predicted track rect to match
+     * @param maxCoastMs how long a track is kept without being seen
+     */
+    public FaceTracker(float minIou, long maxCoastMs) {
+        mMinIou = minIou;
+        mMaxCoastMs = maxCoastMs;
+    }
+
+    /**
+     * Matches the faces of one detection result to the tracks, starting tracks for new faces.
+     *
+     * @param nowMs the time of the frame the faces were found in
+     */
+    public void update(FaceBatch faces, long nowMs) {
+        expire(nowMs);
+        int count = faces.getCount();
+        if (mFaceMatched.length < count) {
+            mFaceMatched = new boolean[count];
+        }
+        for (int i = 0; i < count; i++) {
+            mFaceMatched[i] = false;
+        }
+        for (int t = 0; t < mTrackCount; t++) {
+            mTrackMatched[t] = false;
+        }
+
+        // Faces the HAL already follows keep their track.
+        for (int i = 0; i < count; i++) {
+            int halId = faces.getId(i);
+            if (halId < 0) {
+                continue;
+            }
+            for (int t = 0; t < mTrackCount; t++) {
+                if (!mTrackMatched[t] && mHalIds[t] == halId) {
+                    observe(t, faces, i, nowMs);
+                    break;
+                }
+            }
+        }
+
+        // Others go to the unmatched track they overlap most.
+        for (int i = 0; i < count; i++) {
+            if (mFaceMatched[i] || !faces.hasRect(i)) {
+                continue;
+            }
+            int best = -1;
+            float bestIou = mMinIou;
+            for (int t = 0; t < mTrackCount; t++) {
+                if (mTrackMatched[t]) {
+                    continue;
+                }
+                float iou = iouWithPrediction(t, faces, i, nowMs);
+                if (iou >= bestIou) {
+                    best = t;
+                    bestIou = iou;
+                }
+            }
+            if (best >= 0) {
+                observe(best, faces, i, nowMs);
+            }
+        }
+
+        for (int i = 0; i < count && mTrackCount < MAX_TRACKS; i++) {
+            if (!mFaceMatched[i] && faces.hasRect(i)) {
+                startTrack(faces, i, nowMs);
+            }
+        }
+        mLocked = getLockedTrack() >= 0;
+    }
+
+    /**
+     * Drops the tracks not seen for longer than the coast time and returns true if a track
+     * is still locked. Call it when no detection results arrive to notice lost faces.
+     */
+    public boolean expire(long nowMs) {
+        accountLocked(nowMs);
+        int t = 0;
+        while (t < mTrackCount) {
+            if (nowMs - mLastSeenMs[t] > mMaxCoastMs) {
+                endTrack(t);
+            } else {
+                t++;
+            }
+        }
+        mLocked = getLockedTrack() >= 0;
+        return mLocked;
+    }
+
+    /**
+     * Ends all tracks, e.g. when the camera is turned off.
+     */
+    public void reset(long nowMs) {
+        accountLocked(nowMs);
+        while (mTrackCount > 0) {
+            endTrack(mTrackCount - 1);
+        }
+        mLocked = false;
+    }
+
+    /**
+     * Returns the index of the locked track seen last, or -1 if no track is locked.
+     */
+    public int getLockedTrack() {
+        int locked = -1;
+        for (int t = 0; t < mTrackCount; t++) {
+            if (mHits[t] >= LOCK_HITS && mStableHits[t] >= LOCK_HITS
+                    && mOrientations[t] != Orientation.UNSPECIFIED
+                    && (locked < 0 || mLastSeenMs[t] > mLastSeenMs[locked])) {
+                locked = t;
+            }
+        }
+        return locked;
+    }
+
+    /**
+     * Returns the orientation hypothesis of the locked track, or UNSPECIFIED.
+     */
+    public int getLockedOrientation() {
+        int t = getLockedTrack();
+        return t >= 0 ? mOrientations[t] : Orientation.UNSPECIFIED;
+    }
+
+    public int getTrackCount() {
+        return mTrackCount;
+    }
+
+    /**
+     * Returns the id of track t; ids are never reused.
+     */
+    public int getTrackId(int t) {
+        return mIds[t];
+    }
+
+    public int getTrackHits(int t) {
+        return mHits[t];
+    }
+
+    public int getTrackOrientation(int t) {
+        return mOrientations[t];
+    }
+
+    /**
+     * Returns where the center of track t is expected to be at nowMs.
+     */
+    public float predictCenterX(int t, long nowMs) {
+        return mCenterX[t] + mVelocityX[t] * (nowMs - mLastSeenMs[t]);
+    }
+
+    public float predictCenterY(int t, long nowMs) {
+        return mCenterY[t] + mVelocityY[t] * (nowMs - mLastSeenMs[t]);
+    }
+
+    public long getStartedCount() {
+        return mStarted;
+    }
+
+    public long getLostCount() {
+        return mLost;
+    }
+
+    /**
+     * Returns the mean time between the first and the last detection of the ended tracks.
+     */
+    public long getMeanLifetimeMs() {
+        return mLost > 0 ? mLifetimeSumMs / mLost : 0;
+    }
+
+    public long getMaxLifetimeMs() {
+        return mMaxLifetimeMs;
+    }
+
+    /**
+     * Returns the time spent with a locked track, during which detection could run at a low
+     * rate.
+     */
+    public long getLockedMs() {
+        return mLockedMs;
+    }
+
+    private void observe(int t, FaceBatch faces, int i, long nowMs) {
+        mTrackMatched[t] = true;
+        mFaceMatched[i] = true;
+        mHits[t]++;
+        mHalIds[t] = faces.getId(i);
+        if (faces.hasRect(i)) {
+            float centerX = (faces.getLeft(i) + faces.getRight(i)) / 2f;
+            float centerY = (faces.getTop(i) + faces.getBottom(i)) / 2f;
+            long dt = nowMs - mLastSeenMs[t];
+            if (dt > 0) {
+                mVelocityX[t] += VELOCITY_GAIN * ((centerX - mCenterX[t]) / dt - mVelocityX[t]);
+                mVelocityY[t] += VELOCITY_GAIN * ((centerY - mCenterY[t]) / dt - mVelocityY[t]);
+            }
+            mCenterX[t] = centerX;
+            mCenterY[t] = centerY;
+            mWidth[t] = faces.getWidth(i);
+            mHeight[t] = faces.getHeight(i);
+        }
+        mLastSeenMs[t] = nowMs;
+
+        // A detection without a usable orientation keeps the hypothesis alive.
+        int orientation = orientationOf(faces, i);
+        if (orientation == Orientation.UNSPECIFIED) {
+            return;
+        }
+        if (orientation == mOrientations[t]) {
+            mStableHits[t]++;
+        } else {
+            mOrientations[t] = orientation;
+            mStableHits[t] = 1;
+        }
+    }
+
+    private void startTrack(FaceBatch faces, int i, long nowMs) {
+        int t = mTrackCount++;
+        mIds[t] = mNextId++;
+        mHalIds[t] = faces.getId(i);
+        mCenterX[t] = (faces.getLeft(i) + faces.getRight(i)) / 2f;
+        mCenterY[t] = (faces.getTop(i) + faces.getBottom(i)) / 2f;
+        mWidth[t] = faces.getWidth(i);
+        mHeight[t] = faces.getHeight(i);
+        mVelocityX[t] = 0f;
+        mVelocityY[t] = 0f;
+        mFirstSeenMs[t] = nowMs;
+        mLastSeenMs[t] = nowMs;
+        mHits[t] = 1;
+        mOrientations[t] = orientationOf(faces, i);
+        mStableHits[t] = mOrientations[t] != Orientation.UNSPECIFIED ? 1 : 0;
+        mTrackMatched[t] = true;
+        mFaceMatched[i] = true;
+        mStarted++;
+    }
+
+    /**
+     * Records the lifetime of track t and moves the last track into its place.
+     */
+    private void endTrack(int t) {
+        long lifetimeMs = mLastSeenMs[t] - mFirstSeenMs[t];
+        mLost++;
+        mLifetimeSumMs += lifetimeMs;
+        mMaxLifetimeMs = Math.max(mMaxLifetimeMs, lifetimeMs);
+
+        int last = --mTrackCount;
+        mIds[t] = mIds[last];
+        mHalIds[t] = mHalIds[last];
+        mCenterX[t] = mCenterX[last];
+        mCenterY[t] = mCenterY[last];
+        mWidth[t] = mWidth[last];
+        mHeight[t] = mHeight[last];
+        mVelocityX[t] = mVelocityX[last];
+        mVelocityY[t] = mVelocityY[last];
+        mFirstSeenMs[t] = mFirstSeenMs[last];
+        mLastSeenMs[t] = mLastSeenMs[last];
+        mHits[t] = mHits[last];
+        mOrientations[t] = mOrientations[last];
+        mStableHits[t] = mStableHits[last];
+        mTrackMatched[t] = mTrackMatched[last];
+    }
+
+    private float iouWithPrediction(int t, FaceBatch faces, int i, long nowMs) {
+        float centerX = predictCenterX(t, nowMs);
+        float centerY = predictCenterY(t, nowMs);
+        float left = Math.max(centerX - mWidth[t] / 2f, faces.getLeft(i));
+        float right = Math.min(centerX + mWidth[t] / 2f, faces.getRight(i));
+        float top = Math.max(centerY - mHeight[t] / 2f, faces.getTop(i));
+        float bottom = Math.min(centerY + mHeight[t] / 2f, faces.getBottom(i));
+        if (right <= left || bottom <= top) {
+            return 0f;
+        }
+        float intersection = (right - left) * (bottom - top);
+        float union = mWidth[t] * mHeight[t]
+                + (float) faces.getWidth(i) * faces.getHeight(i) - intersection;
+        return union > 0f ? intersection / union : 0f;
+    }
+
+    private int orientationOf(FaceBatch faces, int i) {
+        boolean hasFaceID = faces.getId(i) >= 0 && faces.hasLandmarks(i);
+        return mEngine.getOrientationByFace(faces, i, hasFaceID);
+    }
+
+    private void accountLocked(long nowMs) {
+        if (mLocked && nowMs > mLastEventMs) {
+            mLockedMs += nowMs - mLastEventMs;
+        }
+        mLastEventMs = nowMs;
+    }
+
+    @Override
+    public String toString() {
+        return "FaceTracker[tracks " + mTrackCount + ", started " + mStarted + ", lost " + mLost
+                + ", mean lifetime " + getMeanLifetimeMs() + " ms, max lifetime "
+                + mMaxLifetimeMs + " ms, locked " + mLockedMs + " ms]";
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core;
+
+/**
+ * Where preview frames and the faces found in them come from: the camera on the device, or a
+ * recording replayed from disk.
+ *
+ * Implementations must not depend on Android classes in this interface so the detection
+ * pipeline can be driven on a plain JVM.
+ */
+public interface FrameSource {
+
+    /**
+     * Receives the results of a frame source. Each implementation documents the thread it
+     * calls back on.
+     */
+    public interface Listener {
+        public void onSourceError();
+
+        /**
+         * @param faces       the faces found, at least one, valid until the next call; the
+         *                    rect orientation of a face holds the orientation estimated from
+         *                    its rect and the frame, or UNSPECIFIED
+         * @param timestampNs the time of the frame the faces were found in, on the
+         *                    System.nanoTime() clock for live sources
+         */
+        public void onFaces(FaceBatch faces, long timestampNs);
+    }
+
+    /**
+     * Starts delivering frames.
+     */
+    public void resume();
+
+    /**
+     * Stops delivering frames; {@link #resume} may be called again later.
+     */
+    public void pause();
+
+    /**
+     * Like {@link #pause}, but the source may stay ready for a fast {@link #resume} for a
+     * while, e.g. with the camera kept open while the screen is off. Sources without such a
+     * state just pause.
+     */
+    public void suspend();
+
+    /**
+     * Sets the minimum time between two face detections, or 0 to detect as often as the
+     * source can, e.g. to detect rarely while a tracked face is locked. May be called on any
+     * thread; sources that can not throttle detection ignore it.
+     */
+    public void setDetectionInterval(long intervalMs);
+
+    /**
+     * Sets how much the source may cost, one of the tiers of
+     * {@link example.com.myapplication.core.camera.QualityGovernor}. May be called on any
+     * thread; sources apply what they can of the tier's caps.
+     */
+    public void setQualityTier(int tier);
+
+    /**
+     * Sets the frame rate, times 1000, the source should still reach, or 0 for its default
+     * rate. Sources pick the cheapest configuration that reaches it, within their quality
+     * tier. May be called on any thread; sources with a fixed rate ignore it.
+     */
+    public void setTargetFrameRate(int fps);
+
+    /**
+     * Releases the source. It can not be resumed afterwards.
+     */
+    public void destroy();
+}
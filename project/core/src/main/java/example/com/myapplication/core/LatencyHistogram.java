@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of durations with fixed log-linear buckets.
+ *
+ * Durations are kept in microseconds: exact below 16 us, and above that in 8 buckets per
+ * power of two, i.e. within 12.5%. Percentiles report the upper bound of their bucket.
+ * {@link #record} may be called from any number of threads concurrently; it does not lock or
+ * allocate. Readers see a consistent enough view for reporting, not a snapshot.
+ */
+public class LatencyHistogram {
+
+    // Values below this are counted exactly, in 1 us buckets.
+    private static final int LINEAR_BUCKETS = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    // Powers of two above LINEAR_BUCKETS up to 2^40 us, about 12 days.
+    private static final int MAX_EXPONENT = 40;
+    static final int BUCKET_COUNT = LINEAR_BUCKETS
+            + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray mBuckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong mCount = new AtomicLong();
+    private final AtomicLong mMaxUs = new AtomicLong();
+
+    /**
+     * Records a duration. Negative durations, e.g. from a missing start timestamp, are
+     * ignored.
+     */
+    public void record(long durationNs) {
+        if (durationNs < 0) {
+            return;
+        }
+        long us = durationNs / 1000L;
+        mBuckets.incrementAndGet(bucketOf(us));
+        mCount.incrementAndGet();
+        long max = mMaxUs.get();
+        while (us > max && !mMaxUs.compareAndSet(max, us)) {
+            max = mMaxUs.get();
+        }
+    }
+
+    static int bucketOf(long us) {
+        if (us < LINEAR_BUCKETS) {
+            return (int) us;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(us);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS;
+        int sub = (int) (us >> shift) & (SUB_BUCKETS - 1);
+        return LINEAR_BUCKETS + (exponent - 4) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Returns the largest value, in microseconds, that falls into {@code bucket}.
+     */
+    static long upperBoundOf(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + 4;
+        int sub = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((long) (SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+
+    public long getCount() {
+        return mCount.get();
+    }
+
+    public long getMaxUs() {
+        return mMaxUs.get();
+    }
+
+    /**
+     * Returns the value, in microseconds, below which {@code fraction} (0..1] of the recorded
+     * durations fall, or 0 if nothing was recorded.
+     */
+    public long getPercentileUs(double fraction) {
+        long count = mCount.get();
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += mBuckets.get(i);
+            if (seen >= target) {
+                return Math.min(upperBoundOf(i), mMaxUs.get());
+            }
+        }
+        return mMaxUs.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            mBuckets.set(i, 0);
+        }
+        mCount.set(0);
+        mMaxUs.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "count " + getCount() + ", p50 " + formatUs(getPercentileUs(0.5))
+                + ", p90 " + formatUs(getPercentileUs(0.9))
+                + ", p99 " + formatUs(getPercentileUs(0.99))
+                + ", max " + formatUs(getMaxUs());
+    }
+
+    private static String formatUs(long us) {
+        return (us / 1000) + "." + (us % 1000 / 100) + " ms";
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core;
+
+import java.io.PrintWriter;
+
+/**
+ * One {@link LatencyHistogram} per stage of the path from a preview frame to a screen
+ * rotation, and the rates of preview frames and face results that feed it. All timestamps
+ * are System.nanoTime() values. Safe to use from any thread.
+ */
+public class LatencyTracker {
+
+    // Latest preview frame to the face callback of the camera.
+    public static final int FRAME_TO_FACES = 0;
+    // Face callback on the camera thread to the hand-off running on the UI thread.
+    public static final int FACES_TO_UI = 1;
+    // Time spent in the frame source listener on the UI thread.
+    public static final int UI_TO_DECISION = 2;
+    // Rotation decision to the window layout update returning.
+    public static final int DECISION_TO_LAYOUT = 3;
+    // Latest preview frame to the rotation decision, for every frame with faces.
+    public static final int FRAME_TO_DECISION = 4;
+    // Latest preview frame to the window layout update, for frames that rotate the screen.
+    public static final int FRAME_TO_LAYOUT = 5;
+    // Frame source resumed to the first faces delivered, i.e. the camera start.
+    public static final int START_TO_FIRST_FACE = 6;
+    // Screen turned on to the first faces delivered, including the camera resume, warm or
+    // cold.
+    public static final int SCREEN_ON_TO_FIRST_FACE = 7;
+
+    public static final int STAGE_COUNT = 8;
+
+    private static final String[] STAGE_NAMES = {
+            "frame_to_faces", "faces_to_ui", "ui_to_decision", "decision_to_layout",
+            "frame_to_decision", "frame_to_layout", "start_to_first_face",
+            "screen_on_to_first_face"
+    };
+
+    private final LatencyHistogram[] mHistograms = new LatencyHistogram[STAGE_COUNT];
+    private final RateMeter mFrameRate = new RateMeter();
+    private final RateMeter mFaceRate = new RateMeter();
+
+    public LatencyTracker() {
+        for (int i = 0; i < STAGE_COUNT; i++) {
+            mHistograms[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Records the time between two timestamps for a stage. Ignored if {@code startNs} is
+     * negative, i.e. unknown.
+     */
+    public void record(int stage, long startNs, long endNs) {
+        if (startNs >= 0) {
+            mHistograms[stage].record(endNs - startNs);
+        }
+    }
+
+    public LatencyHistogram get(int stage) {
+        return mHistograms[stage];
+    }
+
+    /**
+     * Counts a preview frame delivered by the camera. Called from the camera thread only.
+     */
+    public void markFrame(long nowNs) {
+        mFrameRate.mark(nowNs);
+    }
+
+    /**
+     * Counts a face result published by the camera or its analysis thread. Called from one
+     * thread at a time.
+     */
+    public void markFaces(long nowNs) {
+        mFaceRate.mark(nowNs);
+    }
+
+    /**
+     * Returns the effective preview frame rate, per second.
+     */
+    public float getFrameRate(long nowNs) {
+        return mFrameRate.getRate(nowNs);
+    }
+
+    /**
+     * Returns the rate of face results, per second.
+     */
+    public float getFaceRate(long nowNs) {
+        return mFaceRate.getRate(nowNs);
+    }
+
+    public static String stageToString(int stage) {
+        return STAGE_NAMES[stage];
+    }
+
+    public void reset() {
+        for (LatencyHistogram histogram : mHistograms) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Prints one line per stage.
+     */
+    public void dump(PrintWriter pw) {
+        for (int i = 0; i < STAGE_COUNT; i++) {
+            pw.println("  " + STAGE_NAMES[i] + ": " + mHistograms[i]);
+        }
+        long nowNs = System.nanoTime();
+        pw.println("  frame_rate: " + getFrameRate(nowNs) + "/s, face_rate: "
+                + getFaceRate(nowNs) + "/s");
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free single producer, single consumer mailbox that only keeps the newest value.
+ *
+ * Three preallocated holders rotate between the producer, the mailbox and the consumer
+ * (triple buffering): the producer fills {@link #getWriteSlot} and {@link #publish}es it,
+ * replacing an unread value if there is one; the consumer {@link #take}s the newest value and
+ * may read it until its next take. Nothing is allocated after construction.
+ *
+ * {@link #publish} also tells the producer whether it has to schedule the consumer, so at
+ * most one drain is ever pending however fast values are published.
+ */
+public class LatestValueMailbox<T> {
+
+    // mState holds the index of the holder in the mailbox, plus FRESH if it was not taken.
+    private static final int INDEX_MASK = 3;
+    private static final int FRESH = 4;
+
+    private final Object[] mHolders;
+    private final AtomicInteger mState = new AtomicInteger(0);
+    private final AtomicBoolean mDrainPending = new AtomicBoolean(false);
+
+    // Owned by the producer and the consumer respectively.
+    private int mWriteIndex = 1;
+    private int mReadIndex = 2;
+
+    private final AtomicLong mPublished = new AtomicLong();
+    private final AtomicLong mOverwritten = new AtomicLong();
+
+    public LatestValueMailbox(T first, T second, T third) {
+        mHolders = new Object[] { first, second, third };
+    }
+
+    /**
+     * Returns the holder the producer fills next. Producer only.
+     */
+    @SuppressWarnings("unchecked")
+    public T getWriteSlot() {
+        return (T) mHolders[mWriteIndex];
+    }
+
+    /**
+     * Makes the write slot the newest value. Producer only.
+     *
+     * @return true if the consumer must be scheduled to {@link #drain}, false if a drain is
+     *         already pending and will see this value
+     */
+    public boolean publish() {
+        int previous = mState.getAndSet(mWriteIndex | FRESH);
+        mWriteIndex = previous & INDEX_MASK;
+        mPublished.incrementAndGet();
+        if ((previous & FRESH) != 0) {
+            mOverwritten.incrementAndGet();
+        }
+        return mDrainPending.compareAndSet(false, true);
+    }
+
+    /**
+     * Returns the newest value if it was not taken yet, else null. The value stays valid
+     * until the next take. Consumer only.
+     */
+    @SuppressWarnings("unchecked")
+    public T take() {
+        if ((mState.get() & FRESH) == 0) {
+            return null;
+        }
+        int previous = mState.getAndSet(mReadIndex);
+        mReadIndex = previous & INDEX_MASK;
+        return (T) mHolders[mReadIndex];
+    }
+
+    /**
+     * Like {@link #take}, for the drain scheduled after {@link #publish} returned true: any
+     * value published from now on schedules a new drain. Consumer only.
+     */
+    public T drain() {
+        mDrainPending.set(false);
+        return take();
+    }
+
+    public long getPublishedCount() {
+        return mPublished.get();
+    }
+
+    /**
+     * Values replaced before the consumer took them.
+     */
+    public long getOverwrittenCount() {
+        return mOverwritten.get();
+    }
+
+    @Override
+    public String toString() {
+        return "LatestValueMailbox[published " + mPublished.get() + ", overwritten "
+                + mOverwritten.get() + "]";
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core;
+
+/**
+ * A {@link MotionGate} built on a low-pass filtered gravity vector.
+ *
+ * Two things count as motion: the gravity direction tilting away from where it was at the
+ * last activation by more than the tilt threshold (the device was turned), and the
+ * high-pass part of the signal exceeding the shake threshold (the device was picked up or
+ * re-gripped). Triggers are rate limited by a refractory period.
+ */
+public class LowPassMotionGate implements MotionGate {
+
+    public static final float DEFAULT_TILT_DEGREES = 20f;
+    public static final float DEFAULT_SHAKE_THRESHOLD = 1.5f;
+    public static final long DEFAULT_REFRACTORY_MS = 1000;
+
+    // Time constant of the gravity low-pass filter.
+    private static final float GRAVITY_TIME_CONSTANT_S = 0.3f;
+
+    private final float mCosTilt;
+    private final float mShakeThreshold;
+    private final long mRefractoryNs;
+
+    private boolean mHasSample = false;
+    private long mLastTimestampNs;
+    private float mGravityX;
+    private float mGravityY;
+    private float mGravityZ;
+
+    // Gravity at the last activation or trigger; tilt is measured against it.
+    private float mRefX;
+    private float mRefY;
+    private float mRefZ;
+
+    private boolean mMovedSinceActivation = false;
+    private long mLastTriggerNs;
+    private boolean mHasTriggered = false;
+
+    private long mTriggers;
+    private long mAvoided;
+
+    public LowPassMotionGate() {
+        this(DEFAULT_TILT_DEGREES, DEFAULT_SHAKE_THRESHOLD, DEFAULT_REFRACTORY_MS);
+    }
+
+    /**
+     * @param tiltDegrees    the change of the gravity direction that counts as motion
+     * @param shakeThreshold the magnitude, in m/s^2, of the non-gravity part of a sample that
+     *                       counts as motion
+     * @param refractoryMs   the minimum time between two triggers
+     */
+    public LowPassMotionGate(float tiltDegrees, float shakeThreshold, long refractoryMs) {
+        mCosTilt = (float) Math.cos(Math.toRadians(tiltDegrees));
+        mShakeThreshold = shakeThreshold;
+        mRefractoryNs = refractoryMs * 1000000L;
+    }
+
+    @Override
+    public boolean onSample(float x, float y, float z, long timestampNs) {
+        if (!mHasSample) {
+            mHasSample = true;
+            mLastTimestampNs = timestampNs;
+            mGravityX = x;
+            mGravityY = y;
+            mGravityZ = z;
+            setReference();
+            return false;
+        }
+
+        float dt = Math.max(0f, (timestampNs - mLastTimestampNs) / 1e9f);
+        mLastTimestampNs = timestampNs;
+        float alpha = dt / (GRAVITY_TIME_CONSTANT_S + dt);
+        mGravityX += alpha * (x - mGravityX);
+        mGravityY += alpha * (y - mGravityY);
+        mGravityZ += alpha * (z - mGravityZ);
+
+        float linearX = x - mGravityX;
+        float linearY = y - mGravityY;
+        float linearZ = z - mGravityZ;
+        boolean shaken = linearX * linearX + linearY * linearY + linearZ * linearZ
+                > mShakeThreshold * mShakeThreshold;
+        if (!shaken && !isTilted()) {
+            return false;
+        }
+
+        mMovedSinceActivation = true;
+        if (mHasTriggered && timestampNs - mLastTriggerNs < mRefractoryNs) {
+            return false;
+        }
+        mHasTriggered = true;
+        mLastTriggerNs = timestampNs;
+        mTriggers++;
+        setReference();
+        return true;
+    }
+
+    @Override
+    public boolean shouldActivate() {
+        if (!mHasSample || mMovedSinceActivation) {
+            mMovedSinceActivation = false;
+            setReference();
+            return true;
+        }
+        mAvoided++;
+        return false;
+    }
+
+    @Override
+    public void reset() {
+        mHasSample = false;
+        mHasTriggered = false;
+        mMovedSinceActivation = false;
+    }
+
+    @Override
+    public long getTriggerCount() {
+        return mTriggers;
+    }
+
+    @Override
+    public long getAvoidedCount() {
+        return mAvoided;
+    }
+
+    private boolean isTilted() {
+        float dot = mGravityX * mRefX + mGravityY * mRefY + mGravityZ * mRefZ;
+        float norms = (float) Math.sqrt(
+                (mGravityX * mGravityX + mGravityY * mGravityY + mGravityZ * mGravityZ)
+                * (mRefX * mRefX + mRefY * mRefY + mRefZ * mRefZ));
+        return norms > 0f && dot < mCosTilt * norms;
+    }
+
+    private void setReference() {
+        mRefX = mGravityX;
+        mRefY = mGravityY;
+        mRefZ = mGravityZ;
+    }
+
+    @Override
+    public String toString() {
+        return "LowPassMotionGate[triggers " + mTriggers + ", avoided " + mAvoided + "]";
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core;
+
+/**
+ * Decides from accelerometer samples whether it is worth turning the camera on.
+ *
+ * Implementations are fed by a SensorEventListener on the device and by recorded traces in
+ * tests, so they must not depend on Android classes.
+ */
+public interface MotionGate {
+
+    /**
+     * Feeds one accelerometer sample, in m/s^2 on the device axes.
+     *
+     * @return true if the device was just moved or re-gripped and a detection burst should
+     *         start right away
+     */
+    public boolean onSample(float x, float y, float z, long timestampNs);
+
+    /**
+     * Asked before a scheduled detection burst.
+     *
+     * @return true if the device moved since the last allowed activation (or if there is no
+     *         motion data at all), false if the camera should stay closed
+     */
+    public boolean shouldActivate();
+
+    /**
+     * Forgets the motion history, e.g. when the sensor is unregistered.
+     */
+    public void reset();
+
+    /**
+     * Returns the number of times {@link #onSample} asked for a burst.
+     */
+    public long getTriggerCount();
+
+    /**
+     * Returns the number of scheduled activations {@link #shouldActivate} turned down.
+     */
+    public long getAvoidedCount();
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core;
+
+/**
+ * Screen orientation values produced by the orientation engine.
+ *
+ * The values are identical to the android.content.pm.ActivityInfo SCREEN_ORIENTATION_*
+ * constants so they can be handed to the WindowManager without translation, while keeping
+ * this module free of any Android dependency.
+ */
+public final class Orientation {
+
+    public static final int UNSPECIFIED = -1;
+    public static final int LANDSCAPE = 0;
+    public static final int PORTRAIT = 1;
+    public static final int REVERSE_LANDSCAPE = 8;
+    public static final int REVERSE_PORTRAIT = 9;
+
+    private Orientation() {
+    }
+
+    public static String toString(int orientation) {
+        switch (orientation) {
+            case LANDSCAPE:
+                return "LANDSCAPE";
+            case PORTRAIT:
+                return "PORTRAIT";
+            case REVERSE_LANDSCAPE:
+                return "REVERSE_LANDSCAPE";
+            case REVERSE_PORTRAIT:
+                return "REVERSE_PORTRAIT";
+            default:
+                return "UNSPECIFIED";
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core;
+
+/**
+ * Turns a set of detected faces into a screen orientation.
+ *
+ * This is the decision logic formerly embedded in MyFDRotationDisplay, expressed over
+ * a {@link FaceBatch} so that it can be tested and benchmarked on a plain JVM. It does not
+ * allocate; the only state it keeps is which face the last decision was based on.
+ *
+ * By default the decision follows the first face with a rect, as the original logic did. In
+ * consensus mode every face votes instead, weighted by its size, score and closeness to the
+ * center of the frame, and frames whose faces disagree are rejected.
+ */
+public class OrientationEngine {
+
+    // Share of the total vote weight the winning orientation needs in consensus mode.
+    public static final float DEFAULT_MIN_CONSENSUS = 0.7f;
+
+    // Weight left to a face in the corner of the frame, relative to one in the center.
+    private static final float CORNER_WEIGHT = 0.5f;
+    private static final float MAX_CENTER_DISTANCE = (float) Math.sqrt(2) * 1000f;
+
+    private boolean mConsensus = false;
+    private float mMinConsensus = DEFAULT_MIN_CONSENSUS;
+
+    private final AngleOrientationClassifier mClassifier = new AngleOrientationClassifier();
+
+    private int mLastFaceIndex = -1;
+    private float mLastWeight;
+    private float mLastConfidence;
+    private long mConflicts;
+
+    // Consensus scratch, indexed like RotationFilter.ORIENTATIONS.
+    private final float[] mSlotWeights = new float[RotationFilter.ORIENTATIONS.length];
+    private final float[] mSlotBestWeights = new float[RotationFilter.ORIENTATIONS.length];
+    private final int[] mSlotBestFaces = new int[RotationFilter.ORIENTATIONS.length];
+
+    /**
+     * Switches between following the first usable face (false, the default) and a weighted
+     * vote of all faces (true).
+     *
+     * @param minConsensus the share of the vote weight the winner needs, else the frame is
+     *                     rejected as conflicting
+     */
+    public void setConsensus(boolean consensus, float minConsensus) {
+        mConsensus = consensus;
+        mMinConsensus = minConsensus;
+    }
+
+    public boolean isConsensus() {
+        return mConsensus;
+    }
+
+    /**
+     * Returns the classifier of faces with landmarks, e.g. to change its dead zone.
+     */
+    public AngleOrientationClassifier getClassifier() {
+        return mClassifier;
+    }
+
+    /**
+     * Returns the orientation for the faces of one frame, or {@link Orientation#UNSPECIFIED}
+     * if none can be determined.
+     *
+     * @param faces the faces detected in one frame
+     */
+    public int decide(FaceBatch faces) {
+        if (mConsensus) {
+            return decideByConsensus(faces);
+        }
+        int faceIndex = -1;
+        boolean hasFaceID = false;
+
+        int count = faces.getCount();
+        for (int i = 0; i < count; i++) {
+            if (faces.hasRect(i)) {
+                faceIndex = i;
+                hasFaceID = faces.getId(i) >= 0 && faces.hasLandmarks(i);
+                break;
+            }
+
+            if (faces.getId(i) >= 0 && faces.hasLandmarks(i)) {
+                faceIndex = i;
+                hasFaceID = true;
+            }
+        }
+
+        mLastFaceIndex = faceIndex;
+        if (faceIndex < 0) {
+            mLastWeight = 0f;
+            return Orientation.UNSPECIFIED;
+        }
+        int orientation = getOrientationByFace(faces, faceIndex, hasFaceID);
+        mLastWeight = RotationFilter.weightOf(faces, faceIndex) * mLastConfidence;
+        return orientation;
+    }
+
+    /**
+     * Lets every face vote for its orientation in one pass and returns the orientation with
+     * the most weight, if it has at least the minimum consensus.
+     */
+    private int decideByConsensus(FaceBatch faces) {
+        for (int slot = 0; slot < mSlotWeights.length; slot++) {
+            mSlotWeights[slot] = 0f;
+            mSlotBestWeights[slot] = 0f;
+            mSlotBestFaces[slot] = -1;
+        }
+
+        float total = 0f;
+        int count = faces.getCount();
+        for (int i = 0; i < count; i++) {
+            boolean hasFaceID = faces.getId(i) >= 0 && faces.hasLandmarks(i);
+            int slot = RotationFilter.slotOf(getOrientationByFace(faces, i, hasFaceID));
+            if (slot < 0) {
+                continue;
+            }
+            float weight = RotationFilter.weightOf(faces, i) * centerWeightOf(faces, i)
+                    * mLastConfidence;
+            mSlotWeights[slot] += weight;
+            total += weight;
+            if (weight > mSlotBestWeights[slot]) {
+                mSlotBestWeights[slot] = weight;
+                mSlotBestFaces[slot] = i;
+            }
+        }
+
+        int winner = 0;
+        for (int slot = 1; slot < mSlotWeights.length; slot++) {
+            if (mSlotWeights[slot] > mSlotWeights[winner]) {
+                winner = slot;
+            }
+        }
+        if (total <= 0f) {
+            mLastFaceIndex = -1;
+            mLastWeight = 0f;
+            return Orientation.UNSPECIFIED;
+        }
+
+        mLastFaceIndex = mSlotBestFaces[winner];
+        if (mSlotWeights[winner] < mMinConsensus * total) {
+            mConflicts++;
+            mLastWeight = 0f;
+            return Orientation.UNSPECIFIED;
+        }
+        mLastWeight = mSlotWeights[winner];
+        return RotationFilter.ORIENTATIONS[winner];
+    }
+
+    /**
+     * Returns 1 for a face in the center of the frame, down to CORNER_WEIGHT in a corner.
+     * Faces without a rect count as centered.
+     */
+    private static float centerWeightOf(FaceBatch faces, int i) {
+        if (!faces.hasRect(i)) {
+            return 1f;
+        }
+        // The center of the driver coordinate space is (0, 0).
+        float x = (faces.getLeft(i) + faces.getRight(i)) / 2f;
+        float y = (faces.getTop(i) + faces.getBottom(i)) / 2f;
+        float distance = Math.min(1f, (float) Math.sqrt(x * x + y * y) / MAX_CENTER_DISTANCE);
+        return 1f - (1f - CORNER_WEIGHT) * distance;
+    }
+
+    /**
+     * Returns the index of the face the last {@link #decide} call was based on, or -1 if
+     * none. In consensus mode, this is the heaviest face of the winning orientation.
+     */
+    public int getLastFaceIndex() {
+        return mLastFaceIndex;
+    }
+
+    /**
+     * Returns how much the last decision should count, see {@link RotationFilter#weightOf},
+     * scaled by the confidence of the classifier for faces with landmarks.
+     * In consensus mode, this is the summed weight of the faces of the winning orientation.
+     */
+    public float getLastWeight() {
+        return mLastWeight;
+    }
+
+    /**
+     * Frames rejected in consensus mode because their faces disagreed.
+     */
+    public long getConflictCount() {
+        return mConflicts;
+    }
+
+    /**
+     * Returns the orientation for face i of a batch.
+     *
+     * @param hasFaceID true if the id and the eyes/mouth coordinates of the face are valid;
+     *                  otherwise the orientation estimated from the face rect is used
+     */
+    public int getOrientationByFace(FaceBatch faces, int i, boolean hasFaceID) {
+        if (hasFaceID) {
+            int orientation = mClassifier.classify(faces.getRightEyeX(i) - faces.getMouthX(i),
+                    faces.getRightEyeY(i) - faces.getMouthY(i));
+            mLastConfidence = mClassifier.getLastConfidence();
+            return orientation;
+        } else {
+            // Filled in by the camera thread from the preview frame, see
+            // RectOrientationEstimator.
+            mLastConfidence = 1f;
+            return faces.getRectOrientation(i);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core;
+
+/**
+ * The path from the faces of one frame to a screen rotation: an {@link OrientationEngine}
+ * decision per frame, voted on by a {@link RotationFilter}.
+ *
+ * Not thread safe. Does not allocate.
+ */
+public class OrientationPipeline {
+
+    private final OrientationEngine mEngine;
+    private final RotationFilter mFilter;
+
+    private long mFrames;
+    private long mDecisions;
+
+    public OrientationPipeline() {
+        this(new RotationFilter());
+    }
+
+    public OrientationPipeline(RotationFilter filter) {
+        this(new OrientationEngine(), filter);
+    }
+
+    public OrientationPipeline(OrientationEngine engine, RotationFilter filter) {
+        mEngine = engine;
+        mFilter = filter;
+    }
+
+    /**
+     * Processes the faces of one frame and returns the orientation to rotate the screen to,
+     * or UNSPECIFIED to leave it as it is.
+     */
+    public int onFaces(FaceBatch faces, long timestampMs) {
+        mFrames++;
+        int orientation = mEngine.decide(faces);
+        float weight = mEngine.getLastWeight();
+        if (orientation != Orientation.UNSPECIFIED) {
+            mDecisions++;
+        }
+        return mFilter.offer(orientation, weight, timestampMs);
+    }
+
+    /**
+     * Returns the orientation the screen was last rotated to, or UNSPECIFIED.
+     */
+    public int getApplied() {
+        return mFilter.getApplied();
+    }
+
+    /**
+     * Returns true if the recent decisions confirm the applied orientation, see
+     * {@link RotationFilter#isSettled}.
+     */
+    public boolean isSettled() {
+        return mFilter.isSettled();
+    }
+
+    /**
+     * Forgets the votes, e.g. when detection pauses, but keeps the applied orientation.
+     */
+    public void reset() {
+        mFilter.reset();
+    }
+
+    public OrientationEngine getEngine() {
+        return mEngine;
+    }
+
+    public RotationFilter getFilter() {
+        return mFilter;
+    }
+
+    /**
+     * Frames with at least one face.
+     */
+    public long getFrameCount() {
+        return mFrames;
+    }
+
+    /**
+     * Frames for which the engine decided on an orientation.
+     */
+    public long getDecisionCount() {
+        return mDecisions;
+    }
+
+    @Override
+    public String toString() {
+        return "OrientationPipeline[frames " + mFrames + ", decisions " + mDecisions
+                + ", conflicts " + mEngine.getConflictCount() + ", " + mFilter + "]";
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers, per foreground app, whether forcing the screen orientation has any effect.
+ *
+ * Many apps lock their orientation; rotating the screen for them is pointless, and so is
+ * running the camera. The owner reports the outcome of every forced rotation with
+ * {@link #onRotation}: an app that ignored several in a row without following any is
+ * learned as {@link #POLICY_IGNORES} and {@link #shouldSuspend} returns true for it until the
+ * verdict is rechecked. The cache keeps the most recently used apps only and can be written
+ * to and read from a small binary stream to survive restarts.
+ *
+ * Not thread safe.
+ */
+public class OrientationPolicyCache {
+
+    public static final int POLICY_UNKNOWN = 0;
+    // Forced rotations change the display rotation.
+    public static final int POLICY_FOLLOWS = 1;
+    // The app keeps its own orientation whatever is forced.
+    public static final int POLICY_IGNORES = 2;
+
+    public static final int DEFAULT_CAPACITY = 64;
+    // Ignored rotations in a row before an app is learned as ignoring them.
+    public static final int DEFAULT_IGNORED_TO_SUSPEND = 3;
+    // An app learned as ignoring rotations gets the camera back after this long, in case it
+    // was updated or only locked one of its screens.
+    public static final long DEFAULT_RECHECK_MS = 24 * 60 * 60 * 1000L;
+
+    private static final int MAGIC = 0x464f5043; // "FOPC"
+    private static final int VERSION = 1;
+
+    private static final class Verdict {
+        int policy = POLICY_UNKNOWN;
+        int ignoredInARow;
+        // Wall clock time of the last verdict.
+        long decidedMs;
+    }
+
+    private final int mCapacity;
+    private final int mIgnoredToSuspend;
+    private final long mRecheckMs;
+    private final LinkedHashMap<String, Verdict> mEntries;
+
+    private long mHits;
+    private long mMisses;
+    private long mEvictions;
+    private boolean mDirty;
+
+    public OrientationPolicyCache() {
+        this(DEFAULT_CAPACITY, DEFAULT_IGNORED_TO_SUSPEND, DEFAULT_RECHECK_MS);
+    }
+
+    /**
+     * @param capacity         the number of apps remembered, least recently used first out
+     * @param ignoredToSuspend ignored rotations in a row that make an app ignoring
+     * @param recheckMs        how long an ignoring verdict holds
+     */
+    public OrientationPolicyCache(int capacity, int ignoredToSuspend, long recheckMs) {
+        if (capacity < 1 || ignoredToSuspend < 1 || recheckMs <= 0) {
+            throw new IllegalArgumentException("invalid policy cache config");
+        }
+        mCapacity = capacity;
+        mIgnoredToSuspend = ignoredToSuspend;
+        mRecheckMs = recheckMs;
+        mEntries = new LinkedHashMap<String, Verdict>(16, 0.75f, /* accessOrder */ true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Verdict> eldest) {
+                if (size() > mCapacity) {
+                    mEvictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the learned policy of an app. Counts a hit if the app has a verdict, else a
+     * miss.
+     *
+     * @param nowMs the wall clock time, as verdicts are persisted
+     */
+    public int getPolicy(String packageName, long nowMs) {
+        Verdict verdict = mEntries.get(packageName);
+        if (verdict == null || verdict.policy == POLICY_UNKNOWN) {
+            mMisses++;
+            return POLICY_UNKNOWN;
+        }
+        if (verdict.policy == POLICY_IGNORES && nowMs - verdict.decidedMs >= mRecheckMs) {
+            verdict.policy = POLICY_UNKNOWN;
+            verdict.ignoredInARow = 0;
+            mDirty = true;
+            mMisses++;
+            return POLICY_UNKNOWN;
+        }
+        mHits++;
+        return verdict.policy;
+    }
+
+    /**
+     * Returns true if detection is pointless while the app is in the foreground.
+     */
+    public boolean shouldSuspend(String packageName, long nowMs) {
+        return getPolicy(packageName, nowMs) == POLICY_IGNORES;
+    }
+
+    /**
+     * Reports the outcome of a forced rotation while the app was in the foreground.
+     *
+     * @param followed true if the display took the forced orientation
+     */
+    public void onRotation(String packageName, boolean followed, long nowMs) {
+        Verdict verdict = mEntries.get(packageName);
+        if (verdict == null) {
+            verdict = new Verdict();
+            mEntries.put(packageName, verdict);
+        }
+        int policy = verdict.policy;
+        if (followed) {
+            verdict.ignoredInARow = 0;
+            verdict.policy = POLICY_FOLLOWS;
+        } else if (++verdict.ignoredInARow >= mIgnoredToSuspend) {
+            verdict.policy = POLICY_IGNORES;
+        }
+        if (verdict.policy != policy) {
+            verdict.decidedMs = nowMs;
+        }
+        mDirty = true;
+    }
+
+    public int size() {
+        return mEntries.size();
+    }
+
+    public long getHitCount() {
+        return mHits;
+    }
+
+    public long getMissCount() {
+        return mMisses;
+    }
+
+    public long getEvictionCount() {
+        return mEvictions;
+    }
+
+    /**
+     * Returns true if the cache changed since it was last written or read.
+     */
+    public boolean isDirty() {
+        return mDirty;
+    }
+
+    /**
+     * Writes the apps with their verdicts, least recently used first.
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(mEntries.size());
+        for (Map.Entry<String, Verdict> e : mEntries.entrySet()) {
+            Verdict verdict = e.getValue();
+            out.writeUTF(e.getKey());
+            out.writeByte(verdict.policy);
+            out.writeByte(Math.min(verdict.ignoredInARow, Byte.MAX_VALUE));
+            out.writeLong(verdict.decidedMs);
+        }
+        mDirty = false;
+    }
+
+    /**
+     * Replaces the cache content with a stream written by {@link #write}. Returns false,
+     * leaving the cache empty, if the data is of another format version.
+     */
+    public boolean read(DataInput in) throws IOException {
+        mEntries.clear();
+        mDirty = false;
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            return false;
+        }
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String packageName = in.readUTF();
+            Verdict verdict = new Verdict();
+            verdict.policy = in.readByte();
+            verdict.ignoredInARow = in.readByte();
+            verdict.decidedMs = in.readLong();
+            if (verdict.policy < POLICY_UNKNOWN || verdict.policy > POLICY_IGNORES) {
+                mEntries.clear();
+                return false;
+            }
+            mEntries.put(packageName, verdict);
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        int ignoring = 0;
+        for (Verdict verdict : mEntries.values()) {
+            if (verdict.policy == POLICY_IGNORES) {
+                ignoring++;
+            }
+        }
+        return "OrientationPolicyCache[" + mEntries.size() + " apps, " + ignoring
+                + " ignoring rotations, " + mHits + " hits, " + mMisses + " misses, "
+                + mEvictions + " evictions]";
+    }
+}
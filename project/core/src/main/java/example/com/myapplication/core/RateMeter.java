@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core;
+
+/**
+ * Counts events, e.g. preview frames, and reports their rate over the last completed window.
+ *
+ * {@link #mark} must be called from one thread at a time; the rate may be read from any
+ * thread. Once events stop for longer than a window, the rate reads 0.
+ */
+public class RateMeter {
+
+    public static final long DEFAULT_WINDOW_NS = 1000000000L;
+
+    private final long mWindowNs;
+
+    // Writer state.
+    private long mWindowStartNs = -1;
+    private int mWindowCount;
+
+    private volatile float mRate;
+    private volatile long mLastMarkNs = -1;
+
+    public RateMeter() {
+        this(DEFAULT_WINDOW_NS);
+    }
+
+    public RateMeter(long windowNs) {
+        mWindowNs = windowNs;
+    }
+
+    public void mark(long nowNs) {
+        if (mWindowStartNs < 0 || nowNs - mWindowStartNs >= 2 * mWindowNs) {
+            // First event, or after a gap: the events before say nothing about the rate.
+            mWindowStartNs = nowNs;
+            mWindowCount = 0;
+            mRate = 0f;
+        } else if (nowNs - mWindowStartNs >= mWindowNs) {
+            mRate = mWindowCount * 1e9f / (nowNs - mWindowStartNs);
+            mWindowStartNs = nowNs;
+            mWindowCount = 0;
+        }
+        mWindowCount++;
+        mLastMarkNs = nowNs;
+    }
+
+    /**
+     * Returns the events per second in the last completed window, or 0 if there was none or
+     * no event arrived for longer than a window.
+     */
+    public float getRate(long nowNs) {
+        long lastNs = mLastMarkNs;
+        if (lastNs < 0 || nowNs - lastNs > mWindowNs) {
+            return 0f;
+        }
+        return mRate;
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core;
+
+/**
+ * Estimates the orientation of a face from its bounding rect and the luma plane of a preview
+ * frame, for HALs that only report Camera.Face#rect.
+ *
+ * The face rect is box-filtered down to a small crop, which is reduced to a row and a column
+ * intensity profile. Each profile is read in both directions and scored for the pattern of a
+ * dark eye band followed by a brighter nose band and a darker mouth band; the best of the four
+ * readings gives the up direction of the face. Eyes (with the brows) are darker than the mouth,
+ * which is what separates the two readings of the same profile.
+ *
+ * All buffers are allocated in the constructor, so {@link #estimate} does not allocate. An
+ * instance is not thread safe; it is meant to be owned by the camera thread.
+ */
+public class RectOrientationEstimator {
+
+    // Up directions of the face in sensor image coordinates.
+    public static final int UP_UNKNOWN = -1;
+    public static final int UP_POSITIVE_X = 0;
+    public static final int UP_NEGATIVE_X = 1;
+    public static final int UP_POSITIVE_Y = 2;
+    public static final int UP_NEGATIVE_Y = 3;
+
+    // Default edge length of the downscaled face crop.
+    public static final int DEFAULT_CROP_SIZE = 32;
+
+    // Faces smaller than this (in preview pixels) carry too little structure to analyze.
+    private static final int MIN_FACE_PIXELS = 16;
+
+    // Minimum spread of the winning profile, in luma levels, below which the crop is flat.
+    private static final int MIN_CONTRAST = 12;
+
+    private static final float DEFAULT_MIN_CONFIDENCE = 0.25f;
+
+    // Band boundaries along the up axis, in 1/100 of the face height, measured from the top.
+    private static final int EYE_BAND_START = 20;
+    private static final int EYE_BAND_END = 45;
+    private static final int NOSE_BAND_END = 62;
+    private static final int MOUTH_BAND_END = 85;
+
+    private final int mCropSize;
+    private final int[] mRowProfile;
+    private final int[] mColumnProfile;
+    private final int[] mRowCounts;
+    private final int[] mColumnCounts;
+    private float mMinConfidence = DEFAULT_MIN_CONFIDENCE;
+
+    private int mLastUpDirection = UP_UNKNOWN;
+    private float mLastConfidence;
+
+    public RectOrientationEstimator() {
+        this(DEFAULT_CROP_SIZE);
+    }
+
+    public RectOrientationEstimator(int cropSize) {
+        if (cropSize < 8) {
+            throw new IllegalArgumentException("crop size too small: " + cropSize);
+        }
+        mCropSize = cropSize;
+        mRowProfile = new int[cropSize];
+        mColumnProfile = new int[cropSize];
+        mRowCounts = new int[cropSize];
+        mColumnCounts = new int[cropSize];
+    }
+
+    /**
+     * Sets the minimum confidence, in [0, 1], below which the estimate is UNSPECIFIED.
+     */
+    public void setMinConfidence(float minConfidence) {
+        mMinConfidence = minConfidence;
+    }
+
+    /**
+     * Estimates the orientation of a face given in camera driver coordinates
+     * (-1000..1000 on both axes, see Camera.Face#rect).
+     *
+     * @param luma the luma plane, e.g. the first {@code width * height} bytes of an NV21 frame
+     * @return one of the {@link Orientation} values
+     */
+    public int estimate(byte[] luma, int width, int height,
+            int left, int top, int right, int bottom) {
+        return estimatePixels(luma, width, width, height,
+                toPixel(left, width), toPixel(top, height),
+                toPixel(right, width), toPixel(bottom, height));
+    }
+
+    /**
+     * Estimates the orientation of a face given in preview pixel coordinates.
+     *
+     * @param stride the distance in bytes between two rows of {@code luma}
+     * @return one of the {@link Orientation} values
+     */
+    public int estimatePixels(byte[] luma, int stride, int width, int height,
+            int left, int top, int right, int bottom) {
+        mLastUpDirection = UP_UNKNOWN;
+        mLastConfidence = 0f;
+
+        left = Math.max(0, left);
+        top = Math.max(0, top);
+        right = Math.min(width, right);
+        bottom = Math.min(height, bottom);
+        int faceWidth = right - left;
+        int faceHeight = bottom - top;
+        if (luma == null || faceWidth < MIN_FACE_PIXELS || faceHeight < MIN_FACE_PIXELS) {
+            return Orientation.UNSPECIFIED;
+        }
+
+        int columns = Math.min(mCropSize, faceWidth);
+        int rows = Math.min(mCropSize, faceHeight);
+        buildProfiles(luma, stride, left, top, faceWidth, faceHeight, columns, rows);
+
+        // Score the four readings; the row profile carries the vertical up directions.
+        int upNegY = scoreProfile(mRowProfile, rows, false);
+        int upPosY = scoreProfile(mRowProfile, rows, true);
+        int upNegX = scoreProfile(mColumnProfile, columns, false);
+        int upPosX = scoreProfile(mColumnProfile, columns, true);
+
+        int best = UP_NEGATIVE_Y;
+        int bestScore = upNegY;
+        int second;
+        if (upPosY > bestScore) {
+            second = bestScore;
+            best = UP_POSITIVE_Y;
+            bestScore = upPosY;
+        } else {
+            second = upPosY;
+        }
+        if (upNegX > bestScore) {
+            second = bestScore;
+            best = UP_NEGATIVE_X;
+            bestScore = upNegX;
+        } else if (upNegX > second) {
+            second = upNegX;
+        }
+        if (upPosX > bestScore) {
+            second = bestScore;
+            best = UP_POSITIVE_X;
+            bestScore = upPosX;
+        } else if (upPosX > second) {
+            second = upPosX;
+        }
+
+        boolean vertical = (best == UP_NEGATIVE_Y || best == UP_POSITIVE_Y);
+        int contrast = vertical ? spread(mRowProfile, rows) : spread(mColumnProfile, columns);
+        if (contrast < MIN_CONTRAST || bestScore <= 0) {
+            return Orientation.UNSPECIFIED;
+        }
+
+        // How far ahead the winning reading is of the runner-up, relative to its own score.
+        float confidence = Math.min(1f, (bestScore - second) / (float) bestScore);
+        mLastConfidence = confidence;
+        if (confidence < mMinConfidence) {
+            return Orientation.UNSPECIFIED;
+        }
+        mLastUpDirection = best;
+        return toOrientation(best);
+    }
+
+    /**
+     * Returns the up direction found by the last {@link #estimate} call, or UP_UNKNOWN.
+     */
+    public int getLastUpDirection() {
+        return mLastUpDirection;
+    }
+
+    /**
+     * Returns the confidence, in [0, 1], of the last {@link #estimate} call.
+     */
+    public float getLastConfidence() {
+        return mLastConfidence;
+    }
+
+    /**
+     * Maps the up direction of a face in sensor coordinates to a screen orientation.
+     *
+     * The mapping is the one implied by {@link OrientationEngine#getOrientationByFace}: for
+     * PORTRAIT the right eye lies on the +x side of the mouth, for LANDSCAPE on the -y side,
+     * for REVERSE_PORTRAIT on the -x side and for REVERSE_LANDSCAPE on the +y side.
+     */
+    public static int toOrientation(int upDirection) {
+        switch (upDirection) {
+            case UP_POSITIVE_X:
+                return Orientation.PORTRAIT;
+            case UP_NEGATIVE_Y:
+                return Orientation.LANDSCAPE;
+            case UP_NEGATIVE_X:
+                return Orientation.REVERSE_PORTRAIT;
+            case UP_POSITIVE_Y:
+                return Orientation.REVERSE_LANDSCAPE;
+            default:
+                return Orientation.UNSPECIFIED;
+        }
+    }
+
+    private static int toPixel(int driverCoordinate, int size) {
+        return (driverCoordinate + 1000) * size / 2000;
+    }
+
+    /**
+     * Box-filters the face rect into rows x columns cells and accumulates the per-row and
+     * per-column mean luma (scaled by 16 to keep some precision in integer arithmetic).
+     */
+    private void buildProfiles(byte[] luma, int stride, int left, int top, int faceWidth,
+            int faceHeight, int columns, int rows) {
+        for (int i = 0; i < rows; i++) {
+            mRowProfile[i] = 0;
+            mRowCounts[i] = 0;
+        }
+        for (int i = 0; i < columns; i++) {
+            mColumnProfile[i] = 0;
+            mColumnCounts[i] = 0;
+        }
+
+        for (int y = 0; y < faceHeight; y++) {
+            int row = y * rows / faceHeight;
+            int offset = (top + y) * stride + left;
+            int rowSum = 0;
+            for (int x = 0; x < faceWidth; x++) {
+                int value = luma[offset + x] & 0xFF;
+                rowSum += value;
+                mColumnProfile[x * columns / faceWidth] += value;
+            }
+            mRowProfile[row] += rowSum;
+            mRowCounts[row] += faceWidth;
+        }
+        for (int x = 0; x < faceWidth; x++) {
+            mColumnCounts[x * columns / faceWidth] += faceHeight;
+        }
+
+        for (int i = 0; i < rows; i++) {
+            mRowProfile[i] = (mRowProfile[i] << 4) / mRowCounts[i];
+        }
+        for (int i = 0; i < columns; i++) {
+            mColumnProfile[i] = (mColumnProfile[i] << 4) / mColumnCounts[i];
+        }
+    }
+
+    /**
+     * Scores a profile for "eyes first, then nose, then mouth", reading it from the start or,
+     * if {@code reversed}, from the end. The result is in luma levels.
+     */
+    private static int scoreProfile(int[] profile, int length, boolean reversed) {
+        int eye = bandMean(profile, length, EYE_BAND_START, EYE_BAND_END, reversed);
+        int nose = bandMean(profile, length, EYE_BAND_END, NOSE_BAND_END, reversed);
+        int mouth = bandMean(profile, length, NOSE_BAND_END, MOUTH_BAND_END, reversed);
+        // A bright nose band between a darker eye band and a less dark mouth band.
+        return (nose - 2 * eye + mouth) >> 4;
+    }
+
+    private static int bandMean(int[] profile, int length, int startPercent, int endPercent,
+            boolean reversed) {
+        int start = startPercent * length / 100;
+        int end = Math.max(start + 1, endPercent * length / 100);
+        int sum = 0;
+        for (int i = start; i < end; i++) {
+            sum += reversed ? profile[length - 1 - i] : profile[i];
+        }
+        return sum / (end - start);
+    }
+
+    private static int spread(int[] profile, int length) {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < length; i++) {
+            min = Math.min(min, profile[i]);
+            max = Math.max(max, profile[i]);
+        }
+        return (max - min) >> 4;
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core;
+
+/**
+ * Streaming vote filter between the per-frame orientation decision and the actual screen
+ * rotation.
+ *
+ * Every decision is a vote weighted by the size and detection score of the face it came
+ * from. Votes older than the window are forgotten. A new orientation is only applied once it
+ * holds at least the minimum share of the total weight in the window, backed by at least
+ * {@link #MIN_VOTES} votes, and has kept the lead for the dwell time. Each vote that disagrees
+ * with the applied orientation without causing a rotation counts as a suppressed rotation.
+ *
+ * Not thread safe; meant to be driven from the UI thread. Does not allocate after
+ * construction.
+ */
+public class RotationFilter {
+
+    public static final long DEFAULT_WINDOW_MS = 1500;
+    public static final long DEFAULT_DWELL_MS = 400;
+    public static final float DEFAULT_MIN_AGREEMENT = 0.7f;
+
+    // Minimum number of agreeing votes in the window before rotating.
+    public static final int MIN_VOTES = 2;
+
+    // Upper bound on the votes kept in the window; older ones are overwritten.
+    private static final int MAX_VOTES = 32;
+
+    // Area of the full camera driver coordinate space, see FaceBatch.
+    private static final float DRIVER_AREA = 2000f * 2000f;
+
+    static final int[] ORIENTATIONS = {
+            Orientation.PORTRAIT, Orientation.LANDSCAPE,
+            Orientation.REVERSE_PORTRAIT, Orientation.REVERSE_LANDSCAPE
+    };
+
+    private final long mWindowMs;
+    private final long mDwellMs;
+    private final float mMinAgreement;
+
+    // Circular list of votes, oldest first. Orientations are stored as ORIENTATIONS indices.
+    private final int[] mVoteSlots = new int[MAX_VOTES];
+    private final float[] mVoteWeights = new float[MAX_VOTES];
+    private final long[] mVoteTimes = new long[MAX_VOTES];
+    private int mVoteHead;
+    private int mVoteCount;
+
+    private final float[] mSlotWeights = new float[ORIENTATIONS.length];
+    private final int[] mSlotVotes = new int[ORIENTATIONS.length];
+
+    private int mApplied = Orientation.UNSPECIFIED;
+    private int mCandidate = Orientation.UNSPECIFIED;
+    private long mCandidateSinceMs;
+    // The last vote left the applied orientation leading.
+    private boolean mSettled = false;
+
+    private long mRotations;
+    private long mSuppressed;
+
+    public RotationFilter() {
+        this(DEFAULT_WINDOW_MS, DEFAULT_DWELL_MS, DEFAULT_MIN_AGREEMENT);
+    }
+
+    /**
+     * @param windowMs     how long a vote is taken into account
+     * @param dwellMs      how long a new orientation must lead before it is applied
+     * @param minAgreement the minimum share, in (0, 1], of the window weight for the leader
+     */
+    public RotationFilter(long windowMs, long dwellMs, float minAgreement) {
+        mWindowMs = windowMs;
+        mDwellMs = dwellMs;
+        mMinAgreement = minAgreement;
+    }
+
+    /**
+     * Returns the weight of a vote based on face i: its share of the field of view, scaled by
+     * its detection score (1..100).
+     */
+    public static float weightOf(FaceBatch faces, int i) {
+        float area = faces.hasRect(i)
+                ? (float) faces.getWidth(i) * faces.getHeight(i) / DRIVER_AREA : 0f;
+        // Faces without a rect still get a small say.
+        area = Math.max(area, 0.01f);
+        return area * Math.max(1, Math.min(100, faces.getScore(i))) / 100f;
+    }
+
+    /**
+     * Adds a vote and returns the orientation to rotate to, or UNSPECIFIED to leave the screen
+     * as it is.
+     *
+     * @param orientation the orientation decided for the current frame; UNSPECIFIED votes
+     *                    only age the window
+     * @param weight      the weight of the vote, see {@link #weightOf}
+     * @param nowMs       a monotonic timestamp in milliseconds
+     */
+    public int offer(int orientation, float weight, long nowMs) {
+        expire(nowMs);
+        int slot = slotOf(orientation);
+        if (slot < 0 || weight <= 0f) {
+            return Orientation.UNSPECIFIED;
+        }
+        addVote(slot, weight, nowMs);
+
+        int leaderSlot = 0;
+        float total = 0f;
+        for (int i = 0; i < ORIENTATIONS.length; i++) {
+            total += mSlotWeights[i];
+            if (mSlotWeights[i] > mSlotWeights[leaderSlot]) {
+                leaderSlot = i;
+            }
+        }
+        int leader = ORIENTATIONS[leaderSlot];
+        mSettled = leader == mApplied;
+
+        if (leader == mApplied) {
+            dropCandidate();
+            return Orientation.UNSPECIFIED;
+        }
+
+        boolean agreed = mSlotVotes[leaderSlot] >= MIN_VOTES
+                && mSlotWeights[leaderSlot] >= mMinAgreement * total;
+        if (!agreed) {
+            dropCandidate();
+        } else if (leader != mCandidate) {
+            dropCandidate();
+            mCandidate = leader;
+            mCandidateSinceMs = nowMs;
+        }
+
+        if (agreed && nowMs - mCandidateSinceMs >= mDwellMs) {
+            mApplied = leader;
+            mCandidate = Orientation.UNSPECIFIED;
+            mSettled = true;
+            mRotations++;
+            return leader;
+        }
+        return Orientation.UNSPECIFIED;
+    }
+
+    /**
+     * Forgets all votes, e.g. when detection stops. The applied orientation is kept since the
+     * screen stays where it is.
+     */
+    public void reset() {
+        mVoteHead = 0;
+        mVoteCount = 0;
+        for (int i = 0; i < ORIENTATIONS.length; i++) {
+            mSlotWeights[i] = 0f;
+            mSlotVotes[i] = 0;
+        }
+        dropCandidate();
+        mSettled = false;
+    }
+
+    /**
+     * Returns true if the votes in the window confirm the applied orientation, false while
+     * another one leads or no vote was cast since the last reset.
+     */
+    public boolean isSettled() {
+        return mSettled;
+    }
+
+    /**
+     * Tells the filter which orientation is currently applied, e.g. after an external change.
+     */
+    public void setApplied(int orientation) {
+        mApplied = orientation;
+    }
+
+    public int getApplied() {
+        return mApplied;
+    }
+
+    public long getRotationCount() {
+        return mRotations;
+    }
+
+    /**
+     * Returns the number of candidate orientations that were dropped before they led for the
+     * dwell time, i.e. rotations the filter held back.
+     */
+    public long getSuppressedCount() {
+        return mSuppressed;
+    }
+
+    private void dropCandidate() {
+        if (mCandidate != Orientation.UNSPECIFIED) {
+            mCandidate = Orientation.UNSPECIFIED;
+            mSuppressed++;
+        }
+    }
+
+    private void addVote(int slot, float weight, long nowMs) {
+        if (mVoteCount == MAX_VOTES) {
+            removeOldest();
+        }
+        int index = (mVoteHead + mVoteCount) % MAX_VOTES;
+        mVoteSlots[index] = slot;
+        mVoteWeights[index] = weight;
+        mVoteTimes[index] = nowMs;
+        mVoteCount++;
+        mSlotWeights[slot] += weight;
+        mSlotVotes[slot]++;
+    }
+
+    private void expire(long nowMs) {
+        while (mVoteCount > 0 && nowMs - mVoteTimes[mVoteHead] > mWindowMs) {
+            removeOldest();
+        }
+    }
+
+    private void removeOldest() {
+        int slot = mVoteSlots[mVoteHead];
+        mSlotWeights[slot] -= mVoteWeights[mVoteHead];
+        mSlotVotes[slot]--;
+        if (mSlotVotes[slot] == 0) {
+            // Avoid accumulating float rounding errors on an empty slot.
+            mSlotWeights[slot] = 0f;
+        }
+        mVoteHead = (mVoteHead + 1) % MAX_VOTES;
+        mVoteCount--;
+    }
+
+    static int slotOf(int orientation) {
+        for (int i = 0; i < ORIENTATIONS.length; i++) {
+            if (ORIENTATIONS[i] == orientation) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return "RotationFilter[applied " + Orientation.toString(mApplied) + ", rotations "
+                + mRotations + ", suppressed " + mSuppressed + "]";
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core.camera;
+
+/**
+ * The camera operations driven by a {@link CameraSessionMachine}, implemented on top of the
+ * Camera2 API on the device and by a fake in tests.
+ *
+ * {@link #open} and {@link #configure} complete asynchronously by calling back into the
+ * machine; all calls and callbacks happen on the same thread.
+ */
+public interface CameraPort {
+
+    /**
+     * Starts opening the camera. Completes with {@link CameraSessionMachine#onOpened} or
+     * {@link CameraSessionMachine#onOpenFailed}.
+     */
+    public void open();
+
+    /**
+     * Starts creating a capture session on the opened camera. Completes with
+     * {@link CameraSessionMachine#onConfigured} or
+     * {@link CameraSessionMachine#onConfigureFailed}.
+     */
+    public void configure();
+
+    /**
+     * Starts the repeating capture request on the configured session.
+     *
+     * @return false if the request could not be submitted
+     */
+    public boolean startRepeating();
+
+    /**
+     * Stops the repeating capture request, if any.
+     */
+    public void stopRepeating();
+
+    /**
+     * Closes the session and the camera, whatever state they are in.
+     */
+    public void close();
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core.camera;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * What a camera start needs to know about the front camera, so that later starts can skip
+ * enumerating the cameras and walking the parameter lists.
+ *
+ * Stored in a small binary format tagged with the build fingerprint it was taken on; a
+ * profile from another build, e.g. before a system update, is not loaded.
+ */
+public final class CameraProfile {
+
+    private static final int MAGIC = 0x46435046; // "FCPF"
+    private static final int VERSION = 1;
+
+    public int cameraId = -1;
+    // The CameraInfo orientation and facing.
+    public int orientation;
+    public int facing;
+    public int previewWidth;
+    public int previewHeight;
+    // In frames per 1000 seconds, as in Camera.Parameters.
+    public int minFps;
+    public int maxFps;
+    // Bytes per preview frame.
+    public int frameSize;
+    public int maxFaces;
+
+    /**
+     * Returns true if the preview part of the profile is filled in.
+     */
+    public boolean hasPreview() {
+        return previewWidth > 0 && previewHeight > 0 && frameSize > 0;
+    }
+
+    public void write(DataOutput out, String fingerprint) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(fingerprint);
+        out.writeInt(cameraId);
+        out.writeInt(orientation);
+        out.writeInt(facing);
+        out.writeInt(previewWidth);
+        out.writeInt(previewHeight);
+        out.writeInt(minFps);
+        out.writeInt(maxFps);
+        out.writeInt(frameSize);
+        out.writeInt(maxFaces);
+    }
+
+    /**
+     * Fills this profile from a stream written by {@link #write}. Returns false, leaving the
+     * profile unchanged, if the data is of another format version or another build.
+     */
+    public boolean read(DataInput in, String fingerprint) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION
+                || !fingerprint.equals(in.readUTF())) {
+            return false;
+        }
+        int[] values = new int[9];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readInt();
+        }
+        if (values[0] < 0) {
+            return false;
+        }
+        cameraId = values[0];
+        orientation = values[1];
+        facing = values[2];
+        previewWidth = values[3];
+        previewHeight = values[4];
+        minFps = values[5];
+        maxFps = values[6];
+        frameSize = values[7];
+        maxFaces = values[8];
+        return true;
+    }
+
+    public void set(CameraProfile other) {
+        cameraId = other.cameraId;
+        orientation = other.orientation;
+        facing = other.facing;
+        previewWidth = other.previewWidth;
+        previewHeight = other.previewHeight;
+        minFps = other.minFps;
+        maxFps = other.maxFps;
+        frameSize = other.frameSize;
+        maxFaces = other.maxFaces;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof CameraProfile)) {
+            return false;
+        }
+        CameraProfile other = (CameraProfile) o;
+        return cameraId == other.cameraId && orientation == other.orientation
+                && facing == other.facing && previewWidth == other.previewWidth
+                && previewHeight == other.previewHeight && minFps == other.minFps
+                && maxFps == other.maxFps && frameSize == other.frameSize
+                && maxFaces == other.maxFaces;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = cameraId;
+        hash = 31 * hash + previewWidth;
+        hash = 31 * hash + previewHeight;
+        hash = 31 * hash + maxFps;
+        return 31 * hash + frameSize;
+    }
+
+    @Override
+    public String toString() {
+        return "CameraProfile[camera " + cameraId + ", orientation " + orientation + ", facing "
+                + facing + ", preview " + previewWidth + "x" + previewHeight + "@" + minFps
+                + "-" + maxFps + ", frame " + frameSize + " bytes, max faces " + maxFaces + "]";
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core.camera;
+
+/**
+ * The open / configure / repeat / close life cycle of an asynchronous camera session.
+ *
+ * The owner asks for the camera with {@link #start} and {@link #stop}; the machine drives a
+ * {@link CameraPort} towards that and reacts to its completion callbacks. Requests that arrive
+ * while an operation is in flight are remembered and applied once it completes, so a stop
+ * during opening closes the camera as soon as it is open instead of racing the HAL.
+ * <pre>
+ *   CLOSED --start--> OPENING --opened--> CONFIGURING --configured--> STREAMING
+ *      ^                 |                     |                          |
+ *      +-- failed -------+---------------------+---- stop / disconnected -+
+ * </pre>
+ * With {@link #setKeepWarm} a stop only ends the repeating request and leaves the camera and
+ * its session in the WARM state, from which a start just repeats again. The owner closes a
+ * warm camera with {@link #release} once it was not needed for a while.
+ * Not thread safe; everything must happen on the camera thread.
+ */
+public class CameraSessionMachine {
+
+    public static final int STATE_CLOSED = 0;
+    public static final int STATE_OPENING = 1;
+    public static final int STATE_CONFIGURING = 2;
+    public static final int STATE_STREAMING = 3;
+    // Opened and configured, but not repeating.
+    public static final int STATE_WARM = 4;
+
+    // Error reasons passed to Listener.onError().
+    public static final int ERROR_OPEN = 1;
+    public static final int ERROR_CONFIGURE = 2;
+    public static final int ERROR_REPEATING = 3;
+    public static final int ERROR_DISCONNECTED = 4;
+
+    /**
+     * Notified of the session life cycle, on the camera thread.
+     */
+    public interface Listener {
+        public void onStreaming();
+
+        public void onClosed();
+
+        public void onError(int reason);
+    }
+
+    private final CameraPort mPort;
+    private final Listener mListener;
+
+    private int mState = STATE_CLOSED;
+    // Whether the owner currently wants the camera streaming.
+    private boolean mWanted = false;
+    private boolean mKeepWarm = false;
+
+    private long mOpens;
+    private long mWarmStarts;
+    private long mErrors;
+
+    public CameraSessionMachine(CameraPort port, Listener listener) {
+        mPort = port;
+        mListener = listener;
+    }
+
+    /**
+     * Sets whether {@link #stop} keeps the camera open and configured. Applies from the next
+     * stop on.
+     */
+    public void setKeepWarm(boolean keepWarm) {
+        mKeepWarm = keepWarm;
+    }
+
+    public boolean isKeepWarm() {
+        return mKeepWarm;
+    }
+
+    /**
+     * Asks for the session to stream.
+     */
+    public void start() {
+        mWanted = true;
+        if (mState == STATE_CLOSED) {
+            mState = STATE_OPENING;
+            mOpens++;
+            mPort.open();
+        } else if (mState == STATE_WARM) {
+            mWarmStarts++;
+            startRepeating();
+        }
+    }
+
+    /**
+     * Asks for the camera to be closed, or only to stop streaming if it is kept warm.
+     */
+    public void stop() {
+        mWanted = false;
+        if (mState == STATE_STREAMING) {
+            mPort.stopRepeating();
+            if (mKeepWarm) {
+                mState = STATE_WARM;
+            } else {
+                close();
+            }
+        }
+    }
+
+    /**
+     * Asks for the camera to be closed, also if it is kept warm. Clears keep-warm, so a session
+     * still configuring is closed once configured too.
+     */
+    public void release() {
+        mWanted = false;
+        mKeepWarm = false;
+        if (mState == STATE_STREAMING) {
+            mPort.stopRepeating();
+            close();
+        } else if (mState == STATE_WARM) {
+            close();
+        }
+    }
+
+    public void onOpened() {
+        if (mState != STATE_OPENING) {
+            return;
+        }
+        if (!mWanted) {
+            close();
+            return;
+        }
+        mState = STATE_CONFIGURING;
+        mPort.configure();
+    }
+
+    public void onOpenFailed() {
+        if (mState != STATE_OPENING) {
+            return;
+        }
+        fail(ERROR_OPEN);
+    }
+
+    public void onConfigured() {
+        if (mState != STATE_CONFIGURING) {
+            return;
+        }
+        if (!mWanted) {
+            if (mKeepWarm) {
+                mState = STATE_WARM;
+            } else {
+                close();
+            }
+            return;
+        }
+        startRepeating();
+    }
+
+    private void startRepeating() {
+        if (!mPort.startRepeating()) {
+            fail(ERROR_REPEATING);
+            return;
+        }
+        mState = STATE_STREAMING;
+        mListener.onStreaming();
+    }
+
+    public void onConfigureFailed() {
+        if (mState != STATE_CONFIGURING) {
+            return;
+        }
+        fail(ERROR_CONFIGURE);
+    }
+
+    /**
+     * Called when the camera was taken away, e.g. by a higher priority client, or had a fatal
+     * error after it was opened.
+     */
+    public void onDisconnected() {
+        if (mState == STATE_CLOSED) {
+            return;
+        }
+        fail(ERROR_DISCONNECTED);
+    }
+
+    private void fail(int reason) {
+        mErrors++;
+        mWanted = false;
+        close();
+        mListener.onError(reason);
+    }
+
+    private void close() {
+        mPort.close();
+        mState = STATE_CLOSED;
+        mListener.onClosed();
+    }
+
+    public int getState() {
+        return mState;
+    }
+
+    /**
+     * Returns true if the owner wants the camera, whether or not it is streaming yet.
+     */
+    public boolean isWanted() {
+        return mWanted;
+    }
+
+    public long getOpenCount() {
+        return mOpens;
+    }
+
+    public long getErrorCount() {
+        return mErrors;
+    }
+
+    /**
+     * Returns how often a start found the camera warm and skipped opening it.
+     */
+    public long getWarmStartCount() {
+        return mWarmStarts;
+    }
+
+    public static String stateToString(int state) {
+        switch (state) {
+            case STATE_CLOSED:
+                return "CLOSED";
+            case STATE_OPENING:
+                return "OPENING";
+            case STATE_CONFIGURING:
+                return "CONFIGURING";
+            case STATE_STREAMING:
+                return "STREAMING";
+            case STATE_WARM:
+                return "WARM";
+            default:
+                return "UNKNOWN(" + state + ")";
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CameraSessionMachine[" + stateToString(mState) + (mWanted ? ", wanted" : "")
+                + ", opens " + mOpens + ", warm starts " + mWarmStarts + ", errors " + mErrors
+                + "]";
+    }
+}
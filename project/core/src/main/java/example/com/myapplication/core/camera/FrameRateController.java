@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core.camera;
+
+import java.util.List;
+
+/**
+ * Decides the frame rate the preview should reach: a high one while the orientation is
+ * uncertain, so a rotation is confirmed quickly, and a low one once it settled, as a few
+ * face results per second are enough to notice the next change.
+ *
+ * The rate goes up as soon as the orientation is in doubt and only comes down after it stayed
+ * settled for a while. {@link #chooseRange} turns a rate into the cheapest supported preview
+ * FPS range that reaches it. Rates are frames per 1000 seconds, as in Camera.Parameters.
+ *
+ * Not thread safe.
+ */
+public class FrameRateController {
+
+    public static final int DEFAULT_UNCERTAIN_FPS = 30000;
+    public static final int DEFAULT_SETTLED_FPS = 10000;
+    // How long the orientation must stay settled before the rate is lowered.
+    public static final long DEFAULT_SETTLE_MS = 2000;
+
+    private final int mUncertainFps;
+    private final int mSettledFps;
+    private final long mSettleMs;
+
+    private int mTargetFps;
+    private long mSettledSinceMs = -1;
+    private long mRaises;
+    private long mLowers;
+
+    public FrameRateController() {
+        this(DEFAULT_UNCERTAIN_FPS, DEFAULT_SETTLED_FPS, DEFAULT_SETTLE_MS);
+    }
+
+    /**
+     * @param uncertainFps the rate while the orientation is uncertain
+     * @param settledFps   the rate once it settled, at most uncertainFps
+     * @param settleMs     how long the orientation must stay settled to lower the rate
+     */
+    public FrameRateController(int uncertainFps, int settledFps, long settleMs) {
+        if (settledFps <= 0 || uncertainFps < settledFps || settleMs < 0) {
+            throw new IllegalArgumentException("invalid frame rates");
+        }
+        mUncertainFps = uncertainFps;
+        mSettledFps = settledFps;
+        mSettleMs = settleMs;
+        mTargetFps = uncertainFps;
+    }
+
+    /**
+     * Feeds whether the orientation is currently settled and returns true if the target rate
+     * changed.
+     *
+     * @param nowMs a monotonic timestamp in milliseconds
+     */
+    public boolean update(boolean settled, long nowMs) {
+        int target;
+        if (!settled) {
+            mSettledSinceMs = -1;
+            target = mUncertainFps;
+        } else {
+            if (mSettledSinceMs < 0) {
+                mSettledSinceMs = nowMs;
+            }
+            target = nowMs - mSettledSinceMs >= mSettleMs ? mSettledFps : mTargetFps;
+        }
+        if (target == mTargetFps) {
+            return false;
+        }
+        if (target > mTargetFps) {
+            mRaises++;
+        } else {
+            mLowers++;
+        }
+        mTargetFps = target;
+        return true;
+    }
+
+    /**
+     * Goes back to the uncertain rate, e.g. when the camera is turned off, so the next start
+     * is at the high rate. Returns true if the target rate changed.
+     */
+    public boolean reset() {
+        mSettledSinceMs = -1;
+        if (mTargetFps == mUncertainFps) {
+            return false;
+        }
+        mTargetFps = mUncertainFps;
+        return true;
+    }
+
+    public int getTargetFps() {
+        return mTargetFps;
+    }
+
+    public boolean isLowered() {
+        return mTargetFps < mUncertainFps;
+    }
+
+    public long getRaiseCount() {
+        return mRaises;
+    }
+
+    public long getLowerCount() {
+        return mLowers;
+    }
+
+    /**
+     * Returns the supported range with the lowest upper bound that still reaches targetFps,
+     * preferring the higher lower bound among equals so the rate does not sag below the
+     * target. If none reaches it, returns the one with the highest upper bound.
+     *
+     * @param ranges    min and max FPS pairs, as from getSupportedPreviewFpsRange()
+     * @param targetFps the rate to reach
+     * @param maxFps    ranges above this are not used, or 0 for no cap
+     * @return one of ranges, or null if none is usable
+     */
+    public static int[] chooseRange(List<int[]> ranges, int targetFps, int maxFps) {
+        int[] best = null;
+        for (int[] range : ranges) {
+            int min = range[0];
+            int max = range[1];
+            if (maxFps > 0 && max > maxFps) {
+                continue;
+            }
+            if (best == null) {
+                best = range;
+                continue;
+            }
+            boolean reaches = max >= targetFps;
+            boolean bestReaches = best[1] >= targetFps;
+            if (reaches != bestReaches) {
+                if (reaches) {
+                    best = range;
+                }
+            } else if (reaches ? (max < best[1] || (max == best[1] && min > best[0]))
+                    : (max > best[1] || (max == best[1] && min > best[0]))) {
+                best = range;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public String toString() {
+        return "FrameRateController[target " + mTargetFps + ", " + mRaises + " raises, "
+                + mLowers + " lowers]";
+    }
+}
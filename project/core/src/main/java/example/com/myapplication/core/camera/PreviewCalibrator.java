@@ -0,0 +1,301 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core.camera;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import example.com.myapplication.core.LatencyHistogram;
+
+/**
+ * Finds the cheapest preview configuration that still detects faces quickly on a device.
+ *
+ * Each camera session measures one candidate preview size and FPS range: the frames
+ * received, the face results and the latency from frame to face callback. Once every
+ * candidate was measured, {@link #getBest} returns the one with the highest score, see
+ * {@link #score}. Sessions that were too short to tell are repeated.
+ *
+ * Not thread safe; meant to be driven from the camera thread.
+ */
+public class PreviewCalibrator {
+
+    public static final int MAX_CANDIDATES = 6;
+    // Frames a session needs to count as a measurement.
+    public static final int MIN_FRAMES = 30;
+
+    // Face results per second beyond which faster detection does not rotate any sooner.
+    static final float MAX_USEFUL_RATE = 10f;
+    // Frame to face latency, in ms, that halves the score.
+    static final float LATENCY_SCALE_MS = 100f;
+    // Pixel throughput, 320x240 at 30 fps, that halves the score.
+    static final float REFERENCE_PIXELS_PER_S = 320f * 240f * 30f;
+
+    private static final class Candidate {
+        final int width;
+        final int height;
+        // In frames per 1000 seconds, as in Camera.Parameters.
+        final int minFps;
+        final int maxFps;
+
+        final LatencyHistogram latency = new LatencyHistogram();
+        long frames;
+        long faceResults;
+        long durationMs;
+        boolean measured;
+
+        Candidate(int width, int height, int minFps, int maxFps) {
+            this.width = width;
+            this.height = height;
+            this.minFps = minFps;
+            this.maxFps = maxFps;
+        }
+
+        long cost() {
+            return (long) width * height * maxFps;
+        }
+    }
+
+    private final List<Candidate> mCandidates = new ArrayList<Candidate>();
+    private int mCurrent = 0;
+    private long mSessionStartMs = -1;
+
+    /**
+     * Adds a configuration to try. Duplicates are ignored.
+     *
+     * @param minFps the lower bound of the FPS range, times 1000
+     * @param maxFps the upper bound of the FPS range, times 1000
+     */
+    public void addCandidate(int width, int height, int minFps, int maxFps) {
+        for (Candidate candidate : mCandidates) {
+            if (candidate.width == width && candidate.height == height
+                    && candidate.minFps == minFps && candidate.maxFps == maxFps) {
+                return;
+            }
+        }
+        mCandidates.add(new Candidate(width, height, minFps, maxFps));
+    }
+
+    /**
+     * Keeps the maxCandidates configurations with the lowest pixel throughput, so calibration
+     * ends after a bounded number of sessions.
+     */
+    public void prune(int maxCandidates) {
+        Collections.sort(mCandidates, new Comparator<Candidate>() {
+            @Override
+            public int compare(Candidate a, Candidate b) {
+                long diff = a.cost() - b.cost();
+                return diff < 0 ? -1 : (diff > 0 ? 1 : 0);
+            }
+        });
+        while (mCandidates.size() > maxCandidates) {
+            mCandidates.remove(mCandidates.size() - 1);
+        }
+        mCurrent = 0;
+    }
+
+    public int getCandidateCount() {
+        return mCandidates.size();
+    }
+
+    /**
+     * Returns the candidate the next session should use, or -1 once all were measured.
+     */
+    public int getCurrent() {
+        return isComplete() ? -1 : mCurrent;
+    }
+
+    public boolean isComplete() {
+        return mCurrent >= mCandidates.size();
+    }
+
+    public int getWidth(int i) {
+        return mCandidates.get(i).width;
+    }
+
+    public int getHeight(int i) {
+        return mCandidates.get(i).height;
+    }
+
+    public int getMinFps(int i) {
+        return mCandidates.get(i).minFps;
+    }
+
+    public int getMaxFps(int i) {
+        return mCandidates.get(i).maxFps;
+    }
+
+    /**
+     * Called when the camera started streaming with the current candidate.
+     */
+    public void beginSession(long nowMs) {
+        if (!isComplete()) {
+            mSessionStartMs = nowMs;
+        }
+    }
+
+    /**
+     * Called for every preview frame of the session.
+     */
+    public void onFrame() {
+        if (mSessionStartMs >= 0) {
+            mCandidates.get(mCurrent).frames++;
+        }
+    }
+
+    /**
+     * Called for every face result of the session.
+     *
+     * @param frameNs    the time of the latest frame, or -1 if unknown
+     * @param callbackNs when the faces were reported
+     */
+    public void onFaces(int faceCount, long frameNs, long callbackNs) {
+        if (mSessionStartMs < 0 || faceCount == 0) {
+            return;
+        }
+        Candidate candidate = mCandidates.get(mCurrent);
+        candidate.faceResults++;
+        if (frameNs >= 0) {
+            candidate.latency.record(callbackNs - frameNs);
+        }
+    }
+
+    /**
+     * Called when the camera stops. Moves on to the next candidate if the session was long
+     * enough, else the current one is measured again, with the samples of both sessions.
+     */
+    public void endSession(long nowMs) {
+        if (mSessionStartMs < 0) {
+            return;
+        }
+        Candidate candidate = mCandidates.get(mCurrent);
+        candidate.durationMs += nowMs - mSessionStartMs;
+        mSessionStartMs = -1;
+        if (candidate.frames >= MIN_FRAMES) {
+            candidate.measured = true;
+            mCurrent++;
+        }
+    }
+
+    /**
+     * Forgets all measurements, e.g. when calibration found no faces at all.
+     */
+    public void restart() {
+        for (Candidate candidate : mCandidates) {
+            candidate.latency.reset();
+            candidate.frames = 0;
+            candidate.faceResults = 0;
+            candidate.durationMs = 0;
+            candidate.measured = false;
+        }
+        mCurrent = 0;
+        mSessionStartMs = -1;
+    }
+
+    /**
+     * Returns the score of candidate i, or 0 if it was not measured.
+     */
+    public float getScore(int i) {
+        Candidate candidate = mCandidates.get(i);
+        if (!candidate.measured || candidate.durationMs <= 0) {
+            return 0f;
+        }
+        float seconds = candidate.durationMs / 1000f;
+        float fps = candidate.frames / seconds;
+        float p90Ms = candidate.latency.getPercentileUs(0.9) / 1000f;
+        return score(candidate.faceResults / seconds, p90Ms, candidate.width,
+                candidate.height, fps);
+    }
+
+    /**
+     * Returns the measured candidate with the highest score, or -1 if none detected any
+     * faces.
+     */
+    public int getBest() {
+        int best = -1;
+        float bestScore = 0f;
+        for (int i = 0; i < mCandidates.size(); i++) {
+            float score = getScore(i);
+            if (score > bestScore) {
+                best = i;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * The cost model: the useful face result rate, discounted by the frame to face latency
+     * and by the pixel throughput the sensor and ISP have to sustain, a proxy for power.
+     *
+     * @param faceRate face results per second
+     * @param p90Ms    the 90th percentile frame to face latency
+     * @param fps      the measured frame rate
+     */
+    static float score(float faceRate, float p90Ms, int width, int height, float fps) {
+        float value = Math.min(faceRate, MAX_USEFUL_RATE);
+        float latencyCost = 1f + Math.max(0f, p90Ms) / LATENCY_SCALE_MS;
+        float powerCost = 1f + (float) width * height * fps / REFERENCE_PIXELS_PER_S;
+        return value / (latencyCost * powerCost);
+    }
+
+    /**
+     * Returns candidate i as a string for {@link #parseConfig}.
+     */
+    public String formatConfig(int i) {
+        Candidate candidate = mCandidates.get(i);
+        return candidate.width + "x" + candidate.height + "@" + candidate.minFps + "-"
+                + candidate.maxFps;
+    }
+
+    /**
+     * Parses a configuration written by {@link #formatConfig} into width, height, minFps and
+     * maxFps. Returns false if the string is malformed.
+     */
+    public static boolean parseConfig(String config, int[] out) {
+        if (config == null) {
+            return false;
+        }
+        int x = config.indexOf('x');
+        int at = config.indexOf('@');
+        int dash = config.indexOf('-', at);
+        if (x <= 0 || at <= x || dash <= at) {
+            return false;
+        }
+        try {
+            out[0] = Integer.parseInt(config.substring(0, x));
+            out[1] = Integer.parseInt(config.substring(x + 1, at));
+            out[2] = Integer.parseInt(config.substring(at + 1, dash));
+            out[3] = Integer.parseInt(config.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        return out[0] > 0 && out[1] > 0 && out[2] <= out[3];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("PreviewCalibrator[");
+        for (int i = 0; i < mCandidates.size(); i++) {
+            Candidate candidate = mCandidates.get(i);
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(formatConfig(i)).append(": ");
+            if (candidate.measured) {
+                sb.append("score ").append(getScore(i)).append(" (").append(candidate.frames)
+                        .append(" frames, ").append(candidate.faceResults).append(" faces, ")
+                        .append(candidate.latency).append(')');
+            } else {
+                sb.append("not measured");
+            }
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core.camera;
+
+/**
+ * Picks how much the camera pipeline may cost from the battery and thermal state.
+ *
+ * There are three predefined tiers, each with a cap on the preview resolution and frame rate
+ * and a minimum time between face detections. The governor escalates to a cheaper tier as
+ * soon as the battery runs low, power save mode is turned on or the device heats up, and only
+ * returns to a more expensive one once the conditions cleared by a margin, so a reading
+ * hovering around a threshold does not flip the camera configuration back and forth. It keeps
+ * the number of transitions and the time spent in each tier.
+ *
+ * Not thread safe.
+ */
+public class QualityGovernor {
+
+    public static final int TIER_FULL = 0;
+    public static final int TIER_REDUCED = 1;
+    public static final int TIER_MINIMAL = 2;
+    public static final int TIER_COUNT = 3;
+
+    private static final String[] TIER_NAMES = {"full", "reduced", "minimal"};
+
+    // Preview pixels, FPS times 1000 as in Camera.Parameters, and detection interval per tier.
+    // 0 leaves the preview configuration as it is.
+    private static final int[] MAX_PREVIEW_PIXELS = {0, 640 * 480, 320 * 240};
+    private static final int[] MAX_FPS = {0, 15000, 10000};
+    private static final long[] DETECTION_INTERVAL_MS = {0, 250, 1000};
+
+    // Battery levels, in percent, below which a discharging device is throttled.
+    static final int LOW_BATTERY_PERCENT = 20;
+    static final int CRITICAL_BATTERY_PERCENT = 10;
+    // Battery temperatures, in tenths of a degree Celsius, as in BatteryManager.
+    static final int WARM_TEMPERATURE = 400;
+    static final int HOT_TEMPERATURE = 450;
+    // How far the conditions must clear before a more expensive tier is used again.
+    static final int BATTERY_HYSTERESIS_PERCENT = 5;
+    static final int TEMPERATURE_HYSTERESIS = 20;
+
+    private int mTier = TIER_FULL;
+    private long mTierStartMs;
+    private final long[] mTierMs = new long[TIER_COUNT];
+    private long mTransitions;
+
+    /**
+     * @param nowMs a monotonic timestamp in milliseconds, the start of the first tier
+     */
+    public QualityGovernor(long nowMs) {
+        mTierStartMs = nowMs;
+    }
+
+    /**
+     * Feeds the current state and returns true if the tier changed.
+     *
+     * @param batteryPercent the battery level, 0 to 100, or -1 if unknown
+     * @param charging       true if the device is plugged in; the battery level is then
+     *                       ignored
+     * @param powerSave      true if the system power save mode is on
+     * @param temperature    the battery temperature in tenths of a degree Celsius, or
+     *                       Integer.MIN_VALUE if unknown
+     */
+    public boolean update(int batteryPercent, boolean charging, boolean powerSave,
+            int temperature, long nowMs) {
+        int battery = charging || batteryPercent < 0 ? Integer.MAX_VALUE : batteryPercent;
+        int tier = tierFor(battery, powerSave, temperature);
+        if (tier < mTier) {
+            // Pessimistic readings, so only conditions that cleared by a margin relax the tier.
+            tier = Math.min(mTier, tierFor(battery - BATTERY_HYSTERESIS_PERCENT, powerSave,
+                    temperature == Integer.MIN_VALUE
+                            ? temperature : temperature + TEMPERATURE_HYSTERESIS));
+        }
+        if (tier == mTier) {
+            return false;
+        }
+        mTierMs[mTier] += nowMs - mTierStartMs;
+        mTierStartMs = nowMs;
+        mTier = tier;
+        mTransitions++;
+        return true;
+    }
+
+    private static int tierFor(int battery, boolean powerSave, int temperature) {
+        if (temperature >= HOT_TEMPERATURE || battery <= CRITICAL_BATTERY_PERCENT) {
+            return TIER_MINIMAL;
+        }
+        if (temperature >= WARM_TEMPERATURE || battery <= LOW_BATTERY_PERCENT || powerSave) {
+            return TIER_REDUCED;
+        }
+        return TIER_FULL;
+    }
+
+    public int getTier() {
+        return mTier;
+    }
+
+    public long getTransitionCount() {
+        return mTransitions;
+    }
+
+    /**
+     * Returns the time spent in a tier so far, including the current stay.
+     */
+    public long getTimeInTierMs(int tier, long nowMs) {
+        return mTierMs[tier] + (tier == mTier ? nowMs - mTierStartMs : 0);
+    }
+
+    /**
+     * Returns the largest preview, in pixels, a tier allows, or 0 for no cap.
+     */
+    public static int getMaxPreviewPixels(int tier) {
+        return MAX_PREVIEW_PIXELS[tier];
+    }
+
+    /**
+     * Returns the highest frame rate, times 1000, a tier allows, or 0 for no cap.
+     */
+    public static int getMaxFps(int tier) {
+        return MAX_FPS[tier];
+    }
+
+    /**
+     * Returns the minimum time between two face detections in a tier.
+     */
+    public static long getDetectionIntervalMs(int tier) {
+        return DETECTION_INTERVAL_MS[tier];
+    }
+
+    public static String getTierName(int tier) {
+        return TIER_NAMES[tier];
+    }
+
+    /**
+     * Returns the tier and the time spent in each one.
+     */
+    public String toString(long nowMs) {
+        StringBuilder sb = new StringBuilder("QualityGovernor[")
+                .append(TIER_NAMES[mTier]).append(", ").append(mTransitions)
+                .append(" transitions");
+        for (int tier = 0; tier < TIER_COUNT; tier++) {
+            sb.append(", ").append(TIER_NAMES[tier]).append(' ')
+                    .append(getTimeInTierMs(tier, nowMs)).append(" ms");
+        }
+        return sb.append(']').toString();
+    }
+}
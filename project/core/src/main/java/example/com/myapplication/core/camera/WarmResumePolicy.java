@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core.camera;
+
+/**
+ * Decides whether a paused camera stays open and configured, so that the next resume, e.g.
+ * when the screen turns back on, only restarts the preview instead of opening the camera and
+ * negotiating its parameters again.
+ *
+ * A warm camera keeps the device from other clients and part of the HAL powered, so it is only
+ * held for {@link #getHoldMs} after the pause; the owner releases it then. The owner reports
+ * every pause, resume and release, and the policy keeps how many resumes found the camera warm.
+ * A warm resume is expected to reach streaming within {@link #TARGET_WARM_RESUME_MS}.
+ *
+ * Not thread safe; meant to be driven from the camera thread.
+ */
+public class WarmResumePolicy {
+
+    // How long a paused camera is kept warm before it is released.
+    public static final long DEFAULT_HOLD_MS = 60000;
+    // Resume to streaming on a warm camera. A cold open and configure takes several times this.
+    public static final long TARGET_WARM_RESUME_MS = 100;
+
+    private final boolean mEnabled;
+    private final long mHoldMs;
+
+    // When the camera was last paused warm, or -1 if it is not warm.
+    private long mWarmSinceMs = -1;
+    private long mWarmResumes;
+    private long mColdResumes;
+    private long mWarmReleases;
+
+    public WarmResumePolicy(boolean enabled) {
+        this(enabled, DEFAULT_HOLD_MS);
+    }
+
+    /**
+     * @param enabled false to always close the camera on pause
+     * @param holdMs  how long a paused camera is kept warm
+     */
+    public WarmResumePolicy(boolean enabled, long holdMs) {
+        if (holdMs < 0) {
+            throw new IllegalArgumentException("negative hold time " + holdMs);
+        }
+        mEnabled = enabled;
+        mHoldMs = holdMs;
+    }
+
+    public boolean isEnabled() {
+        return mEnabled;
+    }
+
+    public long getHoldMs() {
+        return mHoldMs;
+    }
+
+    /**
+     * Called when the owner pauses the camera. Returns true if it should only stop the preview
+     * and keep the camera warm, false if it should close it.
+     *
+     * @param reusable false if the camera configuration can not be used for the next resume,
+     *                 e.g. while calibrating
+     * @param nowMs    a monotonic timestamp in milliseconds
+     */
+    public boolean onPause(boolean reusable, long nowMs) {
+        if (!mEnabled || !reusable || mHoldMs == 0) {
+            mWarmSinceMs = -1;
+            return false;
+        }
+        mWarmSinceMs = nowMs;
+        return true;
+    }
+
+    /**
+     * Called when the owner resumes the camera. Returns true if the camera was kept warm since
+     * the last pause and can be restarted without opening it.
+     */
+    public boolean onResume() {
+        boolean warm = mWarmSinceMs >= 0;
+        mWarmSinceMs = -1;
+        if (warm) {
+            mWarmResumes++;
+        } else {
+            mColdResumes++;
+        }
+        return warm;
+    }
+
+    /**
+     * Called whenever the owner closes the camera, whether because the hold time passed, the
+     * camera failed or it was destroyed.
+     */
+    public void onReleased() {
+        if (mWarmSinceMs >= 0) {
+            mWarmReleases++;
+            mWarmSinceMs = -1;
+        }
+    }
+
+    public boolean isWarm() {
+        return mWarmSinceMs >= 0;
+    }
+
+    /**
+     * Returns true if the camera is warm and was held for the hold time.
+     */
+    public boolean isExpired(long nowMs) {
+        return mWarmSinceMs >= 0 && nowMs - mWarmSinceMs >= mHoldMs;
+    }
+
+    public long getWarmResumeCount() {
+        return mWarmResumes;
+    }
+
+    public long getColdResumeCount() {
+        return mColdResumes;
+    }
+
+    /**
+     * Returns how often a warm camera was closed before it was resumed.
+     */
+    public long getWarmReleaseCount() {
+        return mWarmReleases;
+    }
+
+    @Override
+    public String toString() {
+        return "WarmResumePolicy[" + (mEnabled ? "hold " + mHoldMs + " ms" : "disabled")
+                + (isWarm() ? ", warm" : "") + ", " + mWarmResumes + " warm / " + mColdResumes
+                + " cold resumes, " + mWarmReleases + " warm releases]";
+    }
+}
@@ -0,0 +1,1479 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core.detect;
+
+/**
+ * The built-in frontal face cascade, see {@link FaceCascade#createDefault}.
+ *
+ * Trained offline with Gentle AdaBoost on 24x24 luma windows of rendered frontal faces
+ * (varied in shape, lighting, blur and noise) against windows the detector scanned in
+ * face-free scenes (textures, clutter, and faces turned away from upright). Each stage keeps
+ * about 99.6% of the faces that reach it.
+ */
+final class DefaultFaceCascade {
+
+    static final int WINDOW = 24;
+
+    static final int[] STAGE_SIZES = {
+            6, 9, 9, 13, 14, 20, 22, 29, 31, 34, 37, 51, 59, 61, 69, 84
+    };
+
+    static final float[] STAGE_THRESHOLDS = {
+            -1.607352f, -1.403966f, -1.120789f, -1.166236f, -1.550301f, -1.450731f, -1.346797f,
+            -1.482932f, -1.498465f, -1.271162f, -1.307715f, -1.371595f, -1.367953f, -1.310283f,
+            -1.243477f, -1.314748f
+    };
+
+    static final int[][] RECTS = {
+            // Stage 0.
+            { 7, 11, 12, 4,   7, 7, 12, 4,   7, 15, 12, 4 },
+            { 10, 5, 3, 7,   7, 5, 3, 7,   13, 5, 3, 7 },
+            { 11, 8, 3, 4,   8, 8, 3, 4,   14, 8, 3, 4 },
+            { 6, 8, 5, 2,   6, 10, 5, 2 },
+            { 11, 12, 3, 4,   11, 16, 3, 4 },
+            { 10, 13, 5, 1,   5, 12, 15, 3 },
+            // Stage 1.
+            { 12, 6, 2, 7,   14, 13, 2, 7,   14, 6, 2, 7,   12, 13, 2, 7 },
+            { 6, 7, 5, 4,   6, 11, 5, 4 },
+            { 8, 5, 2, 7,   10, 5, 2, 7 },
+            { 14, 12, 4, 4,   14, 8, 4, 4,   14, 16, 4, 4 },
+            { 10, 12, 3, 4,   10, 16, 3, 4 },
+            { 0, 1, 3, 23,   3, 1, 3, 23 },
+            { 11, 7, 3, 7,   14, 7, 3, 7 },
+            { 11, 12, 4, 2,   7, 10, 12, 6 },
+            { 12, 13, 3, 3,   9, 13, 3, 3,   15, 13, 3, 3 },
+            // Stage 2.
+            { 11, 5, 3, 6,   14, 5, 3, 6 },
+            { 7, 6, 3, 7,   10, 13, 3, 7,   10, 6, 3, 7,   7, 13, 3, 7 },
+            { 3, 8, 14, 2,   3, 10, 14, 2 },
+            { 8, 14, 8, 3,   8, 17, 8, 3 },
+            { 18, 3, 3, 20,   21, 3, 3, 20 },
+            { 18, 7, 3, 11,   21, 7, 3, 11 },
+            { 8, 6, 2, 9,   10, 6, 2, 9 },
+            { 8, 12, 2, 3,   6, 9, 6, 9 },
+            { 8, 12, 3, 2,   5, 12, 3, 2,   11, 12, 3, 2 },
+            // Stage 3.
+            { 12, 6, 2, 6,   14, 6, 2, 6 },
+            { 12, 7, 6, 4,   12, 11, 6, 4 },
+            { 8, 7, 2, 5,   10, 12, 2, 5,   10, 7, 2, 5,   8, 12, 2, 5 },
+            { 10, 12, 3, 4,   10, 16, 3, 4 },
+            { 4, 11, 5, 3,   9, 14, 5, 3,   9, 11, 5, 3,   4, 14, 5, 3 },
+            { 4, 2, 2, 9,   6, 11, 2, 9,   6, 2, 2, 9,   4, 11, 2, 9 },
+            { 12, 13, 2, 3,   10, 10, 6, 9 },
+            { 16, 6, 2, 5,   18, 11, 2, 5,   18, 6, 2, 5,   16, 11, 2, 5 },
+            { 16, 14, 4, 10,   20, 14, 4, 10 },
+            { 18, 7, 3, 16,   21, 7, 3, 16 },
+            { 7, 3, 3, 13,   10, 3, 3, 13 },
+            { 11, 2, 2, 3,   9, 2, 2, 3,   13, 2, 2, 3 },
+            { 12, 6, 2, 7,   14, 13, 2, 7,   14, 6, 2, 7,   12, 13, 2, 7 },
+            // Stage 4.
+            { 11, 2, 2, 11,   9, 2, 2, 11,   13, 2, 2, 11 },
+            { 6, 11, 7, 4,   6, 7, 7, 4,   6, 15, 7, 4 },
+            { 10, 8, 4, 3,   14, 11, 4, 3,   14, 8, 4, 3,   10, 11, 4, 3 },
+            { 11, 13, 4, 4,   11, 17, 4, 4 },
+            { 7, 11, 7, 3,   14, 14, 7, 3,   14, 11, 7, 3,   7, 14, 7, 3 },
+            { 16, 0, 4, 22,   20, 0, 4, 22 },
+            { 7, 6, 3, 7,   10, 13, 3, 7,   10, 6, 3, 7,   7, 13, 3, 7 },
+            { 8, 11, 9, 2,   8, 9, 9, 2,   8, 13, 9, 2 },
+            { 12, 20, 2, 2,   12, 18, 2, 2,   12, 22, 2, 2 },
+            { 5, 0, 15, 5,   5, 5, 15, 5 },
+            { 0, 20, 5, 4,   5, 20, 5, 4 },
+            { 0, 14, 4, 8,   4, 14, 4, 8 },
+            { 5, 12, 7, 2,   12, 14, 7, 2,   12, 12, 7, 2,   5, 14, 7, 2 },
+            { 0, 1, 3, 21,   3, 1, 3, 21 },
+            // Stage 5.
+            { 15, 11, 2, 4,   15, 7, 2, 4,   15, 15, 2, 4 },
+            { 5, 7, 5, 4,   10, 11, 5, 4,   10, 7, 5, 4,   5, 11, 5, 4 },
+            { 14, 0, 5, 4,   19, 4, 5, 4,   19, 0, 5, 4,   14, 4, 5, 4 },
+            { 11, 7, 3, 7,   14, 7, 3, 7 },
+            { 8, 12, 3, 1,   5, 12, 3, 1,   11, 12, 3, 1 },
+            { 0, 6, 3, 15,   3, 6, 3, 15 },
+            { 8, 20, 5, 2,   8, 18, 5, 2,   8, 22, 5, 2 },
+            { 11, 11, 5, 2,   16, 13, 5, 2,   16, 11, 5, 2,   11, 13, 5, 2 },
+            { 7, 8, 3, 2,   7, 10, 3, 2 },
+            { 0, 1, 3, 21,   3, 1, 3, 21 },
+            { 11, 1, 2, 4,   13, 1, 2, 4 },
+            { 6, 3, 6, 9,   12, 12, 6, 9,   12, 3, 6, 9,   6, 12, 6, 9 },
+            { 10, 11, 2, 6,   10, 17, 2, 6 },
+            { 7, 5, 2, 7,   5, 5, 2, 7,   9, 5, 2, 7 },
+            { 12, 13, 4, 2,   8, 11, 12, 6 },
+            { 15, 13, 2, 3,   13, 10, 6, 9 },
+            { 18, 6, 3, 18,   21, 6, 3, 18 },
+            { 17, 12, 3, 12,   20, 12, 3, 12 },
+            { 15, 2, 2, 9,   13, 2, 2, 9,   17, 2, 2, 9 },
+            { 6, 4, 7, 7,   13, 11, 7, 7,   13, 4, 7, 7,   6, 11, 7, 7 },
+            // Stage 6.
+            { 14, 7, 4, 3,   14, 10, 4, 3 },
+            { 10, 3, 4, 9,   6, 3, 4, 9,   14, 3, 4, 9 },
+            { 10, 2, 2, 4,   8, 2, 2, 4,   12, 2, 2, 4 },
+            { 10, 1, 2, 6,   12, 1, 2, 6 },
+            { 11, 12, 3, 4,   11, 16, 3, 4 },
+            { 1, 1, 3, 5,   4, 6, 3, 5,   4, 1, 3, 5,   1, 6, 3, 5 },
+            { 3, 11, 9, 2,   12, 13, 9, 2,   12, 11, 9, 2,   3, 13, 9, 2 },
+            { 16, 4, 2, 3,   18, 7, 2, 3,   18, 4, 2, 3,   16, 7, 2, 3 },
+            { 7, 13, 2, 3,   5, 10, 6, 9 },
+            { 7, 2, 2, 12,   5, 2, 2, 12,   9, 2, 2, 12 },
+            { 5, 12, 7, 2,   12, 14, 7, 2,   12, 12, 7, 2,   5, 14, 7, 2 },
+            { 20, 6, 2, 11,   22, 6, 2, 11 },
+            { 10, 16, 2, 7,   12, 16, 2, 7 },
+            { 11, 5, 2, 6,   9, 5, 2, 6,   13, 5, 2, 6 },
+            { 3, 18, 5, 2,   3, 16, 5, 2,   3, 20, 5, 2 },
+            { 10, 12, 5, 2,   5, 12, 5, 2,   15, 12, 5, 2 },
+            { 16, 4, 2, 8,   18, 12, 2, 8,   18, 4, 2, 8,   16, 12, 2, 8 },
+            { 5, 13, 3, 2,   8, 13, 3, 2 },
+            { 8, 21, 8, 3,   0, 21, 8, 3,   16, 21, 8, 3 },
+            { 1, 20, 6, 4,   7, 20, 6, 4 },
+            { 0, 1, 7, 2,   7, 3, 7, 2,   7, 1, 7, 2,   0, 3, 7, 2 },
+            { 0, 1, 4, 5,   4, 6, 4, 5,   4, 1, 4, 5,   0, 6, 4, 5 },
+            // Stage 7.
+            { 12, 10, 1, 5,   12, 15, 1, 5 },
+            { 8, 7, 2, 5,   10, 12, 2, 5,   10, 7, 2, 5,   8, 12, 2, 5 },
+            { 9, 8, 7, 2,   9, 10, 7, 2 },
+            { 14, 0, 5, 4,   19, 4, 5, 4,   19, 0, 5, 4,   14, 4, 5, 4 },
+            { 15, 7, 2, 8,   13, 7, 2, 8,   17, 7, 2, 8 },
+            { 18, 3, 3, 19,   21, 3, 3, 19 },
+            { 8, 20, 5, 2,   8, 18, 5, 2,   8, 22, 5, 2 },
+            { 15, 15, 2, 2,   13, 13, 6, 6 },
+            { 4, 10, 6, 3,   4, 7, 6, 3,   4, 13, 6, 3 },
+            { 11, 20, 1, 3,   12, 20, 1, 3 },
+            { 8, 6, 2, 9,   10, 6, 2, 9 },
+            { 4, 5, 7, 8,   11, 13, 7, 8,   11, 5, 7, 8,   4, 13, 7, 8 },
+            { 11, 12, 3, 5,   11, 17, 3, 5 },
+            { 15, 14, 5, 3,   15, 11, 5, 3,   15, 17, 5, 3 },
+            { 18, 14, 3, 3,   21, 14, 3, 3 },
+            { 0, 20, 5, 4,   5, 20, 5, 4 },
+            { 6, 2, 6, 11,   12, 13, 6, 11,   12, 2, 6, 11,   6, 13, 6, 11 },
+            { 12, 6, 2, 6,   14, 6, 2, 6 },
+            { 4, 3, 15, 3,   4, 0, 15, 3,   4, 6, 15, 3 },
+            { 4, 5, 2, 2,   6, 7, 2, 2,   6, 5, 2, 2,   4, 7, 2, 2 },
+            { 11, 14, 2, 10,   9, 14, 2, 10,   13, 14, 2, 10 },
+            { 11, 13, 2, 11,   9, 13, 2, 11,   13, 13, 2, 11 },
+            { 4, 3, 15, 3,   4, 0, 15, 3,   4, 6, 15, 3 },
+            { 10, 3, 3, 1,   7, 3, 3, 1,   13, 3, 3, 1 },
+            { 0, 6, 2, 8,   2, 6, 2, 8 },
+            { 0, 6, 2, 8,   2, 6, 2, 8 },
+            { 11, 2, 2, 3,   13, 2, 2, 3 },
+            { 1, 0, 13, 2,   1, 2, 13, 2 },
+            { 13, 12, 5, 4,   13, 8, 5, 4,   13, 16, 5, 4 },
+            // Stage 8.
+            { 13, 12, 3, 2,   10, 12, 3, 2,   16, 12, 3, 2 },
+            { 13, 13, 3, 4,   10, 13, 3, 4,   16, 13, 3, 4 },
+            { 11, 8, 3, 6,   14, 14, 3, 6,   14, 8, 3, 6,   11, 14, 3, 6 },
+            { 5, 9, 5, 3,   10, 12, 5, 3,   10, 9, 5, 3,   5, 12, 5, 3 },
+            { 4, 2, 2, 9,   6, 11, 2, 9,   6, 2, 2, 9,   4, 11, 2, 9 },
+            { 10, 11, 5, 1,   5, 11, 5, 1,   15, 11, 5, 1 },
+            { 9, 8, 4, 8,   5, 8, 4, 8,   13, 8, 4, 8 },
+            { 1, 3, 2, 3,   3, 6, 2, 3,   3, 3, 2, 3,   1, 6, 2, 3 },
+            { 0, 14, 4, 8,   4, 14, 4, 8 },
+            { 0, 14, 3, 5,   3, 14, 3, 5 },
+            { 14, 11, 3, 2,   11, 9, 9, 6 },
+            { 15, 3, 2, 10,   13, 3, 2, 10,   17, 3, 2, 10 },
+            { 7, 14, 4, 3,   7, 17, 4, 3 },
+            { 9, 2, 2, 4,   7, 2, 2, 4,   11, 2, 2, 4 },
+            { 10, 1, 1, 5,   11, 1, 1, 5 },
+            { 11, 7, 2, 4,   9, 7, 2, 4,   13, 7, 2, 4 },
+            { 3, 14, 7, 2,   3, 12, 7, 2,   3, 16, 7, 2 },
+            { 9, 17, 4, 2,   9, 19, 4, 2 },
+            { 7, 7, 7, 5,   14, 12, 7, 5,   14, 7, 7, 5,   7, 12, 7, 5 },
+            { 7, 3, 11, 3,   7, 0, 11, 3,   7, 6, 11, 3 },
+            { 18, 0, 3, 18,   21, 0, 3, 18 },
+            { 13, 14, 7, 3,   13, 11, 7, 3,   13, 17, 7, 3 },
+            { 20, 5, 2, 6,   22, 5, 2, 6 },
+            { 6, 0, 4, 5,   10, 5, 4, 5,   10, 0, 4, 5,   6, 5, 4, 5 },
+            { 8, 16, 1, 5,   7, 16, 1, 5,   9, 16, 1, 5 },
+            { 3, 16, 9, 4,   3, 12, 9, 4,   3, 20, 9, 4 },
+            { 10, 2, 2, 1,   12, 2, 2, 1 },
+            { 2, 6, 2, 6,   0, 6, 2, 6,   4, 6, 2, 6 },
+            { 7, 11, 4, 1,   3, 11, 4, 1,   11, 11, 4, 1 },
+            { 7, 11, 1, 4,   6, 7, 3, 12 },
+            { 13, 19, 5, 5,   18, 19, 5, 5 },
+            // Stage 9.
+            { 6, 13, 7, 2,   6, 11, 7, 2,   6, 15, 7, 2 },
+            { 12, 6, 2, 7,   14, 13, 2, 7,   14, 6, 2, 7,   12, 13, 2, 7 },
+            { 4, 11, 3, 2,   4, 13, 3, 2 },
+            { 7, 5, 2, 5,   5, 5, 2, 5,   9, 5, 2, 5 },
+            { 12, 4, 2, 2,   10, 4, 2, 2,   14, 4, 2, 2 },
+            { 9, 13, 8, 4,   9, 17, 8, 4 },
+            { 14, 8, 6, 2,   14, 10, 6, 2 },
+            { 14, 15, 8, 3,   14, 12, 8, 3,   14, 18, 8, 3 },
+            { 14, 0, 5, 4,   19, 4, 5, 4,   19, 0, 5, 4,   14, 4, 5, 4 },
+            { 12, 11, 4, 4,   8, 11, 4, 4,   16, 11, 4, 4 },
+            { 16, 6, 2, 5,   18, 11, 2, 5,   18, 6, 2, 5,   16, 11, 2, 5 },
+            { 10, 20, 1, 4,   11, 20, 1, 4 },
+            { 8, 8, 3, 8,   11, 16, 3, 8,   11, 8, 3, 8,   8, 16, 3, 8 },
+            { 18, 1, 3, 3,   21, 4, 3, 3,   21, 1, 3, 3,   18, 4, 3, 3 },
+            { 18, 0, 2, 5,   18, 5, 2, 5 },
+            { 0, 23, 7, 1,   7, 23, 7, 1 },
+            { 8, 21, 8, 3,   0, 21, 8, 3,   16, 21, 8, 3 },
+            { 14, 22, 4, 2,   18, 22, 4, 2 },
+            { 11, 4, 3, 19,   8, 4, 3, 19,   14, 4, 3, 19 },
+            { 6, 18, 3, 2,   9, 20, 3, 2,   9, 18, 3, 2,   6, 20, 3, 2 },
+            { 6, 11, 14, 2,   6, 9, 14, 2,   6, 13, 14, 2 },
+            { 14, 12, 2, 3,   16, 12, 2, 3 },
+            { 10, 2, 2, 4,   8, 2, 2, 4,   12, 2, 2, 4 },
+            { 4, 7, 2, 2,   2, 7, 2, 2,   6, 7, 2, 2 },
+            { 0, 1, 3, 17,   3, 1, 3, 17 },
+            { 3, 14, 2, 8,   5, 14, 2, 8 },
+            { 3, 19, 6, 2,   3, 17, 6, 2,   3, 21, 6, 2 },
+            { 11, 9, 1, 6,   11, 15, 1, 6 },
+            { 6, 7, 5, 4,   6, 11, 5, 4 },
+            { 10, 20, 1, 4,   11, 20, 1, 4 },
+            { 5, 2, 8, 11,   13, 13, 8, 11,   13, 2, 8, 11,   5, 13, 8, 11 },
+            { 16, 7, 1, 8,   17, 7, 1, 8 },
+            { 13, 20, 4, 4,   17, 20, 4, 4 },
+            { 18, 14, 3, 6,   21, 14, 3, 6 },
+            // Stage 10.
+            { 9, 7, 5, 4,   14, 11, 5, 4,   14, 7, 5, 4,   9, 11, 5, 4 },
+            { 5, 7, 5, 4,   10, 11, 5, 4,   10, 7, 5, 4,   5, 11, 5, 4 },
+            { 12, 20, 2, 2,   12, 18, 2, 2,   12, 22, 2, 2 },
+            { 7, 1, 5, 6,   12, 1, 5, 6 },
+            { 7, 8, 3, 5,   4, 8, 3, 5,   10, 8, 3, 5 },
+            { 11, 11, 4, 3,   11, 14, 4, 3 },
+            { 10, 12, 3, 4,   10, 16, 3, 4 },
+            { 5, 11, 2, 4,   7, 11, 2, 4 },
+            { 2, 2, 3, 2,   5, 4, 3, 2,   5, 2, 3, 2,   2, 4, 3, 2 },
+            { 9, 2, 3, 2,   12, 2, 3, 2 },
+            { 15, 14, 3, 2,   15, 12, 3, 2,   15, 16, 3, 2 },
+            { 15, 8, 3, 3,   18, 11, 3, 3,   18, 8, 3, 3,   15, 11, 3, 3 },
+            { 20, 5, 2, 11,   18, 5, 2, 11,   22, 5, 2, 11 },
+            { 5, 10, 7, 2,   5, 8, 7, 2,   5, 12, 7, 2 },
+            { 20, 5, 2, 6,   22, 5, 2, 6 },
+            { 13, 17, 5, 7,   18, 17, 5, 7 },
+            { 6, 10, 4, 3,   10, 13, 4, 3,   10, 10, 4, 3,   6, 13, 4, 3 },
+            { 5, 11, 3, 2,   8, 11, 3, 2 },
+            { 2, 6, 7, 5,   9, 11, 7, 5,   9, 6, 7, 5,   2, 11, 7, 5 },
+            { 3, 4, 15, 2,   3, 6, 15, 2 },
+            { 0, 12, 3, 7,   3, 12, 3, 7 },
+            { 0, 14, 4, 8,   4, 14, 4, 8 },
+            { 11, 17, 1, 7,   12, 17, 1, 7 },
+            { 11, 17, 1, 7,   12, 17, 1, 7 },
+            { 12, 2, 2, 5,   14, 7, 2, 5,   14, 2, 2, 5,   12, 7, 2, 5 },
+            { 10, 4, 12, 2,   10, 6, 12, 2 },
+            { 19, 2, 2, 5,   21, 7, 2, 5,   21, 2, 2, 5,   19, 7, 2, 5 },
+            { 17, 9, 3, 3,   17, 12, 3, 3 },
+            { 5, 7, 1, 3,   6, 7, 1, 3 },
+            { 10, 12, 5, 2,   5, 12, 5, 2,   15, 12, 5, 2 },
+            { 10, 12, 4, 3,   6, 12, 4, 3,   14, 12, 4, 3 },
+            { 7, 16, 9, 1,   7, 15, 9, 1,   7, 17, 9, 1 },
+            { 8, 6, 2, 9,   10, 6, 2, 9 },
+            { 10, 0, 6, 3,   16, 3, 6, 3,   16, 0, 6, 3,   10, 3, 6, 3 },
+            { 8, 12, 2, 3,   6, 9, 6, 9 },
+            { 8, 4, 7, 9,   15, 13, 7, 9,   15, 4, 7, 9,   8, 13, 7, 9 },
+            { 10, 11, 3, 2,   10, 13, 3, 2 },
+            // Stage 11.
+            { 10, 15, 3, 5,   7, 15, 3, 5,   13, 15, 3, 5 },
+            { 12, 6, 2, 6,   14, 6, 2, 6 },
+            { 9, 2, 1, 22,   10, 2, 1, 22 },
+            { 13, 11, 4, 2,   17, 13, 4, 2,   17, 11, 4, 2,   13, 13, 4, 2 },
+            { 2, 0, 6, 2,   2, 2, 6, 2 },
+            { 8, 3, 2, 2,   6, 3, 2, 2,   10, 3, 2, 2 },
+            { 13, 14, 5, 3,   13, 17, 5, 3 },
+            { 8, 16, 12, 4,   8, 12, 12, 4,   8, 20, 12, 4 },
+            { 7, 3, 2, 9,   5, 3, 2, 9,   9, 3, 2, 9 },
+            { 2, 15, 14, 4,   2, 11, 14, 4,   2, 19, 14, 4 },
+            { 3, 10, 15, 2,   3, 8, 15, 2,   3, 12, 15, 2 },
+            { 5, 8, 7, 4,   12, 12, 7, 4,   12, 8, 7, 4,   5, 12, 7, 4 },
+            { 7, 3, 3, 4,   10, 7, 3, 4,   10, 3, 3, 4,   7, 7, 3, 4 },
+            { 10, 2, 2, 4,   8, 2, 2, 4,   12, 2, 2, 4 },
+            { 13, 0, 2, 5,   11, 0, 2, 5,   15, 0, 2, 5 },
+            { 7, 14, 4, 3,   7, 17, 4, 3 },
+            { 8, 7, 8, 7,   0, 0, 24, 21 },
+            { 5, 0, 1, 5,   5, 5, 1, 5 },
+            { 5, 6, 6, 8,   11, 14, 6, 8,   11, 6, 6, 8,   5, 14, 6, 8 },
+            { 16, 3, 2, 3,   18, 6, 2, 3,   18, 3, 2, 3,   16, 6, 2, 3 },
+            { 11, 2, 2, 22,   9, 2, 2, 22,   13, 2, 2, 22 },
+            { 20, 6, 2, 12,   22, 6, 2, 12 },
+            { 15, 19, 4, 5,   19, 19, 4, 5 },
+            { 21, 0, 3, 12,   21, 12, 3, 12 },
+            { 11, 9, 3, 4,   14, 13, 3, 4,   14, 9, 3, 4,   11, 13, 3, 4 },
+            { 9, 16, 6, 2,   9, 14, 6, 2,   9, 18, 6, 2 },
+            { 8, 19, 8, 2,   8, 17, 8, 2,   8, 21, 8, 2 },
+            { 4, 14, 8, 2,   4, 12, 8, 2,   4, 16, 8, 2 },
+            { 12, 1, 6, 2,   18, 1, 6, 2 },
+            { 1, 1, 3, 5,   4, 6, 3, 5,   4, 1, 3, 5,   1, 6, 3, 5 },
+            { 1, 2, 2, 5,   3, 7, 2, 5,   3, 2, 2, 5,   1, 7, 2, 5 },
+            { 9, 14, 3, 9,   6, 14, 3, 9,   12, 14, 3, 9 },
+            { 14, 11, 3, 2,   11, 9, 9, 6 },
+            { 13, 9, 4, 4,   9, 9, 4, 4,   17, 9, 4, 4 },
+            { 18, 10, 3, 6,   21, 10, 3, 6 },
+            { 0, 8, 2, 13,   2, 8, 2, 13 },
+            { 0, 20, 7, 2,   0, 18, 7, 2,   0, 22, 7, 2 },
+            { 2, 20, 3, 4,   5, 20, 3, 4 },
+            { 8, 23, 7, 1,   1, 23, 7, 1,   15, 23, 7, 1 },
+            { 4, 17, 5, 3,   9, 20, 5, 3,   9, 17, 5, 3,   4, 20, 5, 3 },
+            { 7, 11, 1, 3,   6, 8, 3, 9 },
+            { 15, 0, 1, 18,   14, 0, 1, 18,   16, 0, 1, 18 },
+            { 10, 11, 3, 2,   10, 13, 3, 2 },
+            { 12, 4, 2, 2,   10, 4, 2, 2,   14, 4, 2, 2 },
+            { 13, 0, 5, 2,   18, 2, 5, 2,   18, 0, 5, 2,   13, 2, 5, 2 },
+            { 9, 22, 3, 1,   12, 22, 3, 1 },
+            { 0, 8, 7, 2,   0, 10, 7, 2 },
+            { 6, 0, 4, 5,   10, 5, 4, 5,   10, 0, 4, 5,   6, 5, 4, 5 },
+            { 1, 0, 1, 5,   2, 5, 1, 5,   2, 0, 1, 5,   1, 5, 1, 5 },
+            { 8, 10, 3, 7,   11, 17, 3, 7,   11, 10, 3, 7,   8, 17, 3, 7 },
+            { 3, 16, 2, 4,   5, 20, 2, 4,   5, 16, 2, 4,   3, 20, 2, 4 },
+            // Stage 12.
+            { 11, 6, 3, 5,   14, 6, 3, 5 },
+            { 10, 15, 3, 5,   7, 15, 3, 5,   13, 15, 3, 5 },
+            { 2, 6, 9, 5,   11, 11, 9, 5,   11, 6, 9, 5,   2, 11, 9, 5 },
+            { 4, 11, 3, 3,   7, 14, 3, 3,   7, 11, 3, 3,   4, 14, 3, 3 },
+            { 14, 11, 4, 3,   14, 8, 4, 3,   14, 14, 4, 3 },
+            { 18, 2, 2, 3,   20, 5, 2, 3,   20, 2, 2, 3,   18, 5, 2, 3 },
+            { 0, 15, 4, 8,   4, 15, 4, 8 },
+            { 13, 17, 2, 3,   15, 20, 2, 3,   15, 17, 2, 3,   13, 20, 2, 3 },
+            { 9, 12, 7, 2,   9, 14, 7, 2 },
+            { 11, 12, 3, 5,   11, 17, 3, 5 },
+            { 7, 11, 2, 2,   5, 9, 6, 6 },
+            { 8, 4, 2, 3,   10, 7, 2, 3,   10, 4, 2, 3,   8, 7, 2, 3 },
+            { 19, 2, 2, 3,   21, 5, 2, 3,   21, 2, 2, 3,   19, 5, 2, 3 },
+            { 21, 0, 1, 5,   22, 5, 1, 5,   22, 0, 1, 5,   21, 5, 1, 5 },
+            { 0, 1, 3, 22,   3, 1, 3, 22 },
+            { 11, 1, 2, 4,   13, 1, 2, 4 },
+            { 14, 2, 3, 13,   11, 2, 3, 13,   17, 2, 3, 13 },
+            { 16, 10, 1, 7,   15, 10, 1, 7,   17, 10, 1, 7 },
+            { 3, 20, 5, 2,   8, 22, 5, 2,   8, 20, 5, 2,   3, 22, 5, 2 },
+            { 1, 17, 5, 2,   1, 15, 5, 2,   1, 19, 5, 2 },
+            { 10, 4, 8, 2,   10, 6, 8, 2 },
+            { 7, 3, 11, 3,   7, 0, 11, 3,   7, 6, 11, 3 },
+            { 13, 14, 2, 8,   11, 14, 2, 8,   15, 14, 2, 8 },
+            { 9, 10, 2, 2,   11, 10, 2, 2 },
+            { 7, 4, 6, 7,   13, 4, 6, 7 },
+            { 6, 7, 5, 3,   6, 10, 5, 3 },
+            { 7, 1, 2, 16,   5, 1, 2, 16,   9, 1, 2, 16 },
+            { 2, 15, 7, 3,   2, 12, 7, 3,   2, 18, 7, 3 },
+            { 3, 13, 13, 3,   3, 10, 13, 3,   3, 16, 13, 3 },
+            { 2, 2, 3, 2,   5, 4, 3, 2,   5, 2, 3, 2,   2, 4, 3, 2 },
+            { 16, 6, 1, 3,   17, 6, 1, 3 },
+            { 13, 11, 2, 5,   11, 11, 2, 5,   15, 11, 2, 5 },
+            { 9, 16, 6, 2,   9, 14, 6, 2,   9, 18, 6, 2 },
+            { 10, 11, 3, 2,   10, 13, 3, 2 },
+            { 15, 20, 3, 4,   18, 20, 3, 4 },
+            { 13, 22, 5, 2,   18, 22, 5, 2 },
+            { 12, 15, 8, 4,   12, 11, 8, 4,   12, 19, 8, 4 },
+            { 12, 7, 7, 4,   12, 11, 7, 4 },
+            { 12, 0, 1, 5,   13, 0, 1, 5 },
+            { 2, 0, 18, 8,   2, 8, 18, 8 },
+            { 10, 5, 5, 9,   5, 5, 5, 9,   15, 5, 5, 9 },
+            { 18, 8, 6, 3,   18, 5, 6, 3,   18, 11, 6, 3 },
+            { 3, 0, 2, 2,   5, 2, 2, 2,   5, 0, 2, 2,   3, 2, 2, 2 },
+            { 0, 0, 2, 9,   0, 9, 2, 9 },
+            { 6, 22, 3, 2,   9, 22, 3, 2 },
+            { 9, 18, 3, 6,   12, 18, 3, 6 },
+            { 9, 18, 4, 2,   9, 16, 4, 2,   9, 20, 4, 2 },
+            { 10, 20, 1, 2,   10, 18, 1, 2,   10, 22, 1, 2 },
+            { 8, 3, 8, 20,   0, 3, 8, 20,   16, 3, 8, 20 },
+            { 6, 12, 7, 4,   6, 16, 7, 4 },
+            { 3, 16, 11, 4,   3, 12, 11, 4,   3, 20, 11, 4 },
+            { 11, 16, 2, 6,   13, 16, 2, 6 },
+            { 12, 2, 2, 5,   14, 7, 2, 5,   14, 2, 2, 5,   12, 7, 2, 5 },
+            { 3, 10, 2, 3,   3, 13, 2, 3 },
+            { 0, 14, 2, 5,   2, 19, 2, 5,   2, 14, 2, 5,   0, 19, 2, 5 },
+            { 15, 1, 8, 1,   15, 2, 8, 1 },
+            { 12, 1, 2, 6,   10, 1, 2, 6,   14, 1, 2, 6 },
+            { 2, 8, 9, 6,   11, 14, 9, 6,   11, 8, 9, 6,   2, 14, 9, 6 },
+            { 7, 13, 2, 3,   5, 10, 6, 9 },
+            // Stage 13.
+            { 12, 6, 2, 7,   14, 13, 2, 7,   14, 6, 2, 7,   12, 13, 2, 7 },
+            { 14, 0, 4, 3,   18, 3, 4, 3,   18, 0, 4, 3,   14, 3, 4, 3 },
+            { 7, 7, 2, 8,   5, 7, 2, 8,   9, 7, 2, 8 },
+            { 7, 11, 2, 5,   5, 11, 2, 5,   9, 11, 2, 5 },
+            { 2, 6, 2, 6,   0, 6, 2, 6,   4, 6, 2, 6 },
+            { 0, 0, 2, 5,   2, 5, 2, 5,   2, 0, 2, 5,   0, 5, 2, 5 },
+            { 15, 15, 4, 3,   15, 12, 4, 3,   15, 18, 4, 3 },
+            { 17, 6, 1, 6,   18, 12, 1, 6,   18, 6, 1, 6,   17, 12, 1, 6 },
+            { 16, 19, 6, 2,   16, 17, 6, 2,   16, 21, 6, 2 },
+            { 12, 20, 2, 2,   12, 18, 2, 2,   12, 22, 2, 2 },
+            { 1, 18, 5, 6,   6, 18, 5, 6 },
+            { 2, 23, 5, 1,   7, 23, 5, 1 },
+            { 7, 0, 1, 6,   6, 0, 1, 6,   8, 0, 1, 6 },
+            { 9, 16, 6, 2,   9, 14, 6, 2,   9, 18, 6, 2 },
+            { 14, 13, 2, 9,   12, 13, 2, 9,   16, 13, 2, 9 },
+            { 7, 11, 4, 3,   7, 8, 4, 3,   7, 14, 4, 3 },
+            { 19, 6, 2, 13,   21, 6, 2, 13 },
+            { 11, 2, 2, 22,   9, 2, 2, 22,   13, 2, 2, 22 },
+            { 11, 14, 3, 5,   8, 14, 3, 5,   14, 14, 3, 5 },
+            { 15, 0, 2, 7,   13, 0, 2, 7,   17, 0, 2, 7 },
+            { 0, 0, 2, 5,   2, 5, 2, 5,   2, 0, 2, 5,   0, 5, 2, 5 },
+            { 19, 7, 2, 7,   21, 7, 2, 7 },
+            { 13, 12, 9, 2,   13, 10, 9, 2,   13, 14, 9, 2 },
+            { 15, 2, 2, 9,   13, 2, 2, 9,   17, 2, 2, 9 },
+            { 11, 18, 3, 1,   11, 17, 3, 1,   11, 19, 3, 1 },
+            { 3, 18, 5, 2,   3, 16, 5, 2,   3, 20, 5, 2 },
+            { 7, 19, 6, 1,   7, 18, 6, 1,   7, 20, 6, 1 },
+            { 9, 19, 2, 5,   11, 19, 2, 5 },
+            { 6, 10, 1, 5,   7, 10, 1, 5 },
+            { 1, 0, 13, 2,   1, 2, 13, 2 },
+            { 8, 5, 2, 7,   10, 5, 2, 7 },
+            { 1, 9, 5, 2,   1, 11, 5, 2 },
+            { 8, 10, 4, 5,   4, 10, 4, 5,   12, 10, 4, 5 },
+            { 10, 13, 6, 4,   10, 9, 6, 4,   10, 17, 6, 4 },
+            { 18, 12, 5, 6,   18, 18, 5, 6 },
+            { 15, 20, 3, 4,   18, 20, 3, 4 },
+            { 1, 22, 20, 1,   1, 21, 20, 1,   1, 23, 20, 1 },
+            { 20, 4, 2, 3,   22, 7, 2, 3,   22, 4, 2, 3,   20, 7, 2, 3 },
+            { 11, 10, 6, 2,   11, 8, 6, 2,   11, 12, 6, 2 },
+            { 9, 6, 9, 3,   9, 3, 9, 3,   9, 9, 9, 3 },
+            { 8, 0, 8, 5,   0, 0, 8, 5,   16, 0, 8, 5 },
+            { 0, 15, 3, 2,   3, 15, 3, 2 },
+            { 1, 14, 2, 3,   3, 14, 2, 3 },
+            { 4, 1, 2, 9,   6, 1, 2, 9 },
+            { 4, 4, 6, 7,   10, 11, 6, 7,   10, 4, 6, 7,   4, 11, 6, 7 },
+            { 10, 10, 5, 3,   15, 13, 5, 3,   15, 10, 5, 3,   10, 13, 5, 3 },
+            { 10, 12, 3, 4,   10, 16, 3, 4 },
+            { 16, 14, 4, 2,   16, 12, 4, 2,   16, 16, 4, 2 },
+            { 15, 13, 2, 3,   13, 10, 6, 9 },
+            { 4, 2, 1, 6,   3, 2, 1, 6,   5, 2, 1, 6 },
+            { 21, 0, 1, 5,   22, 5, 1, 5,   22, 0, 1, 5,   21, 5, 1, 5 },
+            { 11, 17, 1, 7,   12, 17, 1, 7 },
+            { 11, 10, 1, 3,   12, 10, 1, 3 },
+            { 11, 10, 1, 3,   12, 10, 1, 3 },
+            { 23, 10, 1, 6,   23, 4, 1, 6,   23, 16, 1, 6 },
+            { 0, 0, 2, 11,   0, 11, 2, 11 },
+            { 18, 11, 3, 6,   21, 17, 3, 6,   21, 11, 3, 6,   18, 17, 3, 6 },
+            { 14, 18, 4, 3,   18, 21, 4, 3,   18, 18, 4, 3,   14, 21, 4, 3 },
+            { 15, 8, 2, 13,   13, 8, 2, 13,   17, 8, 2, 13 },
+            { 8, 23, 7, 1,   1, 23, 7, 1,   15, 23, 7, 1 },
+            { 6, 16, 16, 4,   6, 20, 16, 4 },
+            // Stage 14.
+            { 10, 15, 3, 5,   7, 15, 3, 5,   13, 15, 3, 5 },
+            { 10, 8, 4, 3,   14, 11, 4, 3,   14, 8, 4, 3,   10, 11, 4, 3 },
+            { 0, 0, 4, 3,   4, 0, 4, 3 },
+            { 5, 7, 5, 4,   10, 11, 5, 4,   10, 7, 5, 4,   5, 11, 5, 4 },
+            { 6, 7, 1, 6,   7, 7, 1, 6 },
+            { 11, 14, 2, 10,   9, 14, 2, 10,   13, 14, 2, 10 },
+            { 9, 12, 2, 2,   11, 14, 2, 2,   11, 12, 2, 2,   9, 14, 2, 2 },
+            { 18, 12, 3, 7,   21, 12, 3, 7 },
+            { 11, 10, 6, 2,   11, 8, 6, 2,   11, 12, 6, 2 },
+            { 18, 6, 3, 18,   21, 6, 3, 18 },
+            { 11, 1, 1, 5,   12, 1, 1, 5 },
+            { 11, 13, 4, 4,   11, 17, 4, 4 },
+            { 11, 1, 1, 5,   12, 1, 1, 5 },
+            { 14, 8, 3, 5,   11, 8, 3, 5,   17, 8, 3, 5 },
+            { 10, 0, 6, 3,   16, 3, 6, 3,   16, 0, 6, 3,   10, 3, 6, 3 },
+            { 6, 7, 5, 4,   6, 11, 5, 4 },
+            { 2, 0, 19, 7,   2, 7, 19, 7 },
+            { 4, 4, 15, 2,   4, 6, 15, 2 },
+            { 13, 17, 2, 3,   15, 20, 2, 3,   15, 17, 2, 3,   13, 20, 2, 3 },
+            { 12, 21, 2, 3,   10, 21, 2, 3,   14, 21, 2, 3 },
+            { 2, 20, 5, 2,   7, 22, 5, 2,   7, 20, 5, 2,   2, 22, 5, 2 },
+            { 0, 23, 7, 1,   7, 23, 7, 1 },
+            { 2, 14, 5, 5,   2, 19, 5, 5 },
+            { 3, 16, 11, 4,   3, 12, 11, 4,   3, 20, 11, 4 },
+            { 12, 17, 11, 3,   12, 14, 11, 3,   12, 20, 11, 3 },
+            { 16, 1, 2, 6,   14, 1, 2, 6,   18, 1, 2, 6 },
+            { 4, 5, 2, 2,   6, 7, 2, 2,   6, 5, 2, 2,   4, 7, 2, 2 },
+            { 18, 15, 4, 2,   18, 13, 4, 2,   18, 17, 4, 2 },
+            { 8, 10, 4, 5,   4, 10, 4, 5,   12, 10, 4, 5 },
+            { 8, 5, 2, 7,   10, 5, 2, 7 },
+            { 1, 3, 2, 3,   3, 6, 2, 3,   3, 3, 2, 3,   1, 6, 2, 3 },
+            { 7, 10, 1, 4,   8, 10, 1, 4 },
+            { 7, 16, 7, 2,   7, 14, 7, 2,   7, 18, 7, 2 },
+            { 9, 17, 5, 2,   9, 19, 5, 2 },
+            { 1, 14, 19, 3,   1, 11, 19, 3,   1, 17, 19, 3 },
+            { 3, 0, 5, 2,   8, 2, 5, 2,   8, 0, 5, 2,   3, 2, 5, 2 },
+            { 3, 0, 5, 2,   8, 2, 5, 2,   8, 0, 5, 2,   3, 2, 5, 2 },
+            { 2, 7, 1, 7,   3, 7, 1, 7 },
+            { 11, 2, 2, 3,   9, 2, 2, 3,   13, 2, 2, 3 },
+            { 15, 5, 2, 6,   17, 11, 2, 6,   17, 5, 2, 6,   15, 11, 2, 6 },
+            { 9, 10, 6, 3,   15, 13, 6, 3,   15, 10, 6, 3,   9, 13, 6, 3 },
+            { 11, 1, 2, 4,   13, 1, 2, 4 },
+            { 18, 1, 3, 3,   21, 4, 3, 3,   21, 1, 3, 3,   18, 4, 3, 3 },
+            { 12, 22, 4, 2,   16, 22, 4, 2 },
+            { 12, 21, 5, 3,   17, 21, 5, 3 },
+            { 16, 19, 6, 2,   16, 17, 6, 2,   16, 21, 6, 2 },
+            { 13, 22, 9, 1,   13, 23, 9, 1 },
+            { 13, 11, 4, 4,   13, 7, 4, 4,   13, 15, 4, 4 },
+            { 17, 1, 3, 1,   20, 2, 3, 1,   20, 1, 3, 1,   17, 2, 3, 1 },
+            { 1, 2, 5, 2,   1, 0, 5, 2,   1, 4, 5, 2 },
+            { 0, 12, 3, 6,   3, 18, 3, 6,   3, 12, 3, 6,   0, 18, 3, 6 },
+            { 1, 15, 3, 4,   4, 19, 3, 4,   4, 15, 3, 4,   1, 19, 3, 4 },
+            { 3, 9, 1, 3,   3, 12, 1, 3 },
+            { 6, 18, 2, 2,   6, 16, 2, 2,   6, 20, 2, 2 },
+            { 11, 2, 2, 11,   9, 2, 2, 11,   13, 2, 2, 11 },
+            { 11, 14, 2, 10,   9, 14, 2, 10,   13, 14, 2, 10 },
+            { 1, 16, 16, 4,   1, 20, 16, 4 },
+            { 6, 4, 7, 7,   13, 11, 7, 7,   13, 4, 7, 7,   6, 11, 7, 7 },
+            { 11, 17, 5, 2,   16, 19, 5, 2,   16, 17, 5, 2,   11, 19, 5, 2 },
+            { 0, 15, 4, 8,   4, 15, 4, 8 },
+            { 1, 12, 6, 2,   7, 14, 6, 2,   7, 12, 6, 2,   1, 14, 6, 2 },
+            { 19, 8, 2, 3,   17, 8, 2, 3,   21, 8, 2, 3 },
+            { 19, 5, 2, 7,   17, 5, 2, 7,   21, 5, 2, 7 },
+            { 3, 4, 20, 4,   3, 0, 20, 4,   3, 8, 20, 4 },
+            { 6, 5, 14, 2,   6, 3, 14, 2,   6, 7, 14, 2 },
+            { 17, 3, 7, 2,   17, 5, 7, 2 },
+            { 13, 4, 2, 17,   15, 4, 2, 17 },
+            { 15, 1, 1, 18,   16, 1, 1, 18 },
+            { 10, 18, 4, 1,   10, 17, 4, 1,   10, 19, 4, 1 },
+            // Stage 15.
+            { 8, 20, 5, 2,   8, 18, 5, 2,   8, 22, 5, 2 },
+            { 7, 8, 3, 5,   4, 8, 3, 5,   10, 8, 3, 5 },
+            { 0, 3, 3, 2,   3, 5, 3, 2,   3, 3, 3, 2,   0, 5, 3, 2 },
+            { 4, 10, 6, 3,   4, 7, 6, 3,   4, 13, 6, 3 },
+            { 10, 8, 4, 3,   14, 11, 4, 3,   14, 8, 4, 3,   10, 11, 4, 3 },
+            { 16, 7, 1, 9,   17, 7, 1, 9 },
+            { 15, 0, 7, 2,   15, 2, 7, 2 },
+            { 11, 2, 2, 3,   9, 2, 2, 3,   13, 2, 2, 3 },
+            { 10, 11, 3, 2,   10, 13, 3, 2 },
+            { 5, 16, 3, 2,   5, 14, 3, 2,   5, 18, 3, 2 },
+            { 7, 0, 5, 1,   12, 0, 5, 1 },
+            { 8, 12, 4, 4,   8, 8, 4, 4,   8, 16, 4, 4 },
+            { 2, 6, 2, 6,   0, 6, 2, 6,   4, 6, 2, 6 },
+            { 0, 9, 2, 2,   2, 9, 2, 2 },
+            { 4, 8, 1, 8,   4, 0, 1, 8,   4, 16, 1, 8 },
+            { 11, 16, 2, 6,   9, 16, 2, 6,   13, 16, 2, 6 },
+            { 0, 18, 7, 2,   0, 16, 7, 2,   0, 20, 7, 2 },
+            { 11, 10, 3, 7,   11, 17, 3, 7 },
+            { 11, 6, 3, 5,   14, 6, 3, 5 },
+            { 4, 20, 4, 2,   4, 18, 4, 2,   4, 22, 4, 2 },
+            { 2, 23, 5, 1,   7, 23, 5, 1 },
+            { 18, 15, 2, 9,   20, 15, 2, 9 },
+            { 20, 5, 2, 6,   22, 5, 2, 6 },
+            { 11, 2, 2, 3,   9, 2, 2, 3,   13, 2, 2, 3 },
+            { 20, 7, 2, 9,   18, 7, 2, 9,   22, 7, 2, 9 },
+            { 11, 17, 2, 1,   11, 16, 2, 1,   11, 18, 2, 1 },
+            { 4, 11, 3, 2,   4, 13, 3, 2 },
+            { 4, 2, 2, 9,   6, 11, 2, 9,   6, 2, 2, 9,   4, 11, 2, 9 },
+            { 6, 0, 6, 9,   12, 0, 6, 9 },
+            { 3, 3, 13, 3,   3, 0, 13, 3,   3, 6, 13, 3 },
+            { 2, 14, 5, 5,   2, 19, 5, 5 },
+            { 20, 12, 2, 4,   22, 12, 2, 4 },
+            { 3, 0, 2, 2,   5, 2, 2, 2,   5, 0, 2, 2,   3, 2, 2, 2 },
+            { 1, 17, 5, 2,   1, 15, 5, 2,   1, 19, 5, 2 },
+            { 11, 18, 3, 1,   11, 17, 3, 1,   11, 19, 3, 1 },
+            { 10, 16, 12, 3,   10, 13, 12, 3,   10, 19, 12, 3 },
+            { 10, 13, 2, 8,   8, 13, 2, 8,   12, 13, 2, 8 },
+            { 19, 6, 4, 3,   19, 9, 4, 3 },
+            { 16, 6, 2, 5,   18, 11, 2, 5,   18, 6, 2, 5,   16, 11, 2, 5 },
+            { 19, 6, 2, 8,   17, 6, 2, 8,   21, 6, 2, 8 },
+            { 11, 11, 2, 1,   13, 11, 2, 1 },
+            { 10, 20, 1, 4,   11, 20, 1, 4 },
+            { 12, 16, 3, 3,   15, 16, 3, 3 },
+            { 10, 18, 5, 3,   15, 21, 5, 3,   15, 18, 5, 3,   10, 21, 5, 3 },
+            { 11, 14, 4, 2,   11, 16, 4, 2 },
+            { 14, 12, 2, 4,   16, 12, 2, 4 },
+            { 10, 0, 6, 3,   16, 3, 6, 3,   16, 0, 6, 3,   10, 3, 6, 3 },
+            { 14, 21, 3, 1,   17, 21, 3, 1 },
+            { 0, 20, 5, 4,   5, 20, 5, 4 },
+            { 4, 20, 4, 2,   8, 22, 4, 2,   8, 20, 4, 2,   4, 22, 4, 2 },
+            { 7, 10, 13, 2,   7, 8, 13, 2,   7, 12, 13, 2 },
+            { 5, 5, 14, 4,   5, 1, 14, 4,   5, 9, 14, 4 },
+            { 2, 20, 6, 2,   8, 22, 6, 2,   8, 20, 6, 2,   2, 22, 6, 2 },
+            { 7, 16, 2, 4,   9, 16, 2, 4 },
+            { 5, 10, 2, 3,   7, 13, 2, 3,   7, 10, 2, 3,   5, 13, 2, 3 },
+            { 2, 22, 9, 1,   2, 23, 9, 1 },
+            { 12, 13, 8, 3,   12, 10, 8, 3,   12, 16, 8, 3 },
+            { 6, 22, 3, 2,   9, 22, 3, 2 },
+            { 3, 12, 1, 6,   4, 18, 1, 6,   4, 12, 1, 6,   3, 18, 1, 6 },
+            { 6, 10, 7, 6,   13, 16, 7, 6,   13, 10, 7, 6,   6, 16, 7, 6 },
+            { 20, 2, 3, 1,   20, 1, 3, 1,   20, 3, 3, 1 },
+            { 3, 16, 9, 4,   3, 12, 9, 4,   3, 20, 9, 4 },
+            { 8, 7, 2, 5,   10, 12, 2, 5,   10, 7, 2, 5,   8, 12, 2, 5 },
+            { 8, 12, 3, 3,   5, 12, 3, 3,   11, 12, 3, 3 },
+            { 18, 3, 5, 2,   18, 5, 5, 2 },
+            { 19, 9, 2, 4,   19, 13, 2, 4 },
+            { 6, 2, 2, 5,   4, 2, 2, 5,   8, 2, 2, 5 },
+            { 14, 8, 6, 2,   14, 10, 6, 2 },
+            { 5, 2, 7, 5,   12, 7, 7, 5,   12, 2, 7, 5,   5, 7, 7, 5 },
+            { 11, 15, 3, 3,   11, 18, 3, 3 },
+            { 12, 19, 2, 2,   12, 17, 2, 2,   12, 21, 2, 2 },
+            { 20, 2, 3, 1,   20, 1, 3, 1,   20, 3, 3, 1 },
+            { 11, 13, 1, 2,   12, 13, 1, 2 },
+            { 16, 15, 1, 6,   15, 15, 1, 6,   17, 15, 1, 6 },
+            { 11, 11, 1, 5,   10, 11, 1, 5,   12, 11, 1, 5 },
+            { 10, 2, 1, 5,   9, 2, 1, 5,   11, 2, 1, 5 },
+            { 9, 18, 3, 6,   12, 18, 3, 6 },
+            { 17, 15, 3, 4,   20, 19, 3, 4,   20, 15, 3, 4,   17, 19, 3, 4 },
+            { 19, 14, 2, 4,   21, 18, 2, 4,   21, 14, 2, 4,   19, 18, 2, 4 },
+            { 23, 10, 1, 6,   23, 4, 1, 6,   23, 16, 1, 6 },
+            { 17, 1, 3, 1,   20, 2, 3, 1,   20, 1, 3, 1,   17, 2, 3, 1 },
+            { 13, 0, 5, 2,   18, 2, 5, 2,   18, 0, 5, 2,   13, 2, 5, 2 },
+            { 6, 5, 3, 7,   3, 5, 3, 7,   9, 5, 3, 7 },
+            { 11, 14, 2, 4,   9, 14, 2, 4,   13, 14, 2, 4 }
+    };
+
+    static final float[][] WEIGHTS = {
+            // Stage 0.
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            // Stage 1.
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            // Stage 2.
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            // Stage 3.
+            { 1f, -1f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            // Stage 4.
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            // Stage 5.
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            // Stage 6.
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            // Stage 7.
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            // Stage 8.
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            // Stage 9.
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            // Stage 10.
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            // Stage 11.
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            // Stage 12.
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            // Stage 13.
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            // Stage 14.
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            // Stage 15.
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -1f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 0.5f, 0.5f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f },
+            { 1f, -0.5f, -0.5f }
+    };
+
+    static final float[] THRESHOLDS = {
+            // Stage 0.
+            0.09375f, 0.0625f, 0.03125f, -0.0625f, 0.03125f, 0.25f,
+            // Stage 1.
+            0.0625f, -0.0625f, -0.03125f, 0.03125f, 0.03125f, 0.46875f, 0.03125f, 0.28125f,
+            -0.21875f,
+            // Stage 2.
+            0.09375f, -0.03125f, -0.0625f, 0.03125f, -0.5625f, 0.4375f, -0.03125f, -0.0625f, 0.25f,
+            // Stage 3.
+            0.0625f, -0.03125f, -0.03125f, 0.03125f, -0.1875f, 0.03125f, 0.3125f, -0.03125f,
+            -0.59375f, 0.5f, 0.0625f, 0.15625f, 0.03125f,
+            // Stage 4.
+            0.03125f, 0.0625f, 0.03125f, 0.03125f, 0.15625f, -0.5625f, -0.0625f, 0f, 0.03125f,
+            -0.875f, 0.90625f, -0.5f, -0.125f, 0.25f,
+            // Stage 5.
+            0.09375f, 0f, -0.28125f, 0.0625f, 0.25f, 0.59375f, 0.0625f, 0.1875f, -0.0625f,
+            -0.65625f, 0.25f, -0.21875f, 0.03125f, -0.03125f, 0.34375f, -0.03125f, -0.40625f,
+            0.375f, -0.03125f, 0.28125f,
+            // Stage 6.
+            -0.125f, 0.09375f, 0.21875f, -0.21875f, 0.0625f, 0.40625f, -0.09375f, 0.09375f,
+            -0.0625f, -0.03125f, 0.09375f, -0.53125f, 0.3125f, 0.03125f, -0.3125f, 0.40625f,
+            -0.0625f, 0.34375f, -1f, -0.4375f, 0.125f, -0.28125f,
+            // Stage 7.
+            0.0625f, -0.03125f, -0.03125f, -0.3125f, 0f, -0.65625f, 0.03125f, -0.0625f, 0.03125f,
+            -0.28125f, -0.0625f, -0.21875f, 0.03125f, 0.25f, 0.53125f, 0.65625f, 0.21875f,
+            0.03125f, -0.375f, -0.0625f, -0.1875f, 0.09375f, 0.21875f, 0.21875f, 0.375f, -0.53125f,
+            -0.375f, 0.125f, 0.0625f,
+            // Stage 8.
+            0.21875f, -0.15625f, 0.0625f, 0f, 0.03125f, 0.5f, 0f, 0.1875f, 0.53125f, -0.4375f,
+            -0.125f, -0.03125f, 0.03125f, 0.21875f, -0.21875f, 0.09375f, 0.1875f, -0.09375f,
+            0.21875f, 0.40625f, -0.40625f, -0.15625f, 0.5f, 0.0625f, -0.1875f, 0.375f, 0.34375f,
+            -0.3125f, 0.34375f, 0f, 0.40625f,
+            // Stage 9.
+            0.21875f, 0.0625f, 0.21875f, -0.0625f, 0.28125f, 0.03125f, -0.0625f, 0.28125f, -0.5f,
+            0.375f, -0.03125f, 0.21875f, 0.0625f, 0.3125f, -0.78125f, 1.125f, 0.84375f, -0.375f,
+            -0.03125f, 0.03125f, 0f, -0.21875f, 0.28125f, 0.09375f, 0.5625f, -0.09375f, -0.3125f,
+            0.0625f, -0.09375f, -0.21875f, -0.3125f, 0.21875f, 0.1875f, -0.3125f,
+            // Stage 10.
+            0f, -0.03125f, 0.0625f, 0.375f, 0.0625f, 0.46875f, 0.0625f, 0.21875f, 0.15625f,
+            -0.21875f, 0.3125f, -0.03125f, -0.15625f, 0.03125f, 0.40625f, -0.71875f, 0f, -0.71875f,
+            -0.28125f, -0.875f, 0.375f, -0.5f, 0.25f, -0.1875f, -0.0625f, 0.0625f, -0.15625f,
+            0.125f, 0.0625f, -0.1875f, 0.4375f, 0.03125f, -0.0625f, -0.15625f, -0.03125f, 0.34375f,
+            0.03125f,
+            // Stage 11.
+            -0.03125f, 0.15625f, 0.0625f, 0.15625f, 0.25f, -0.15625f, 0.03125f, -0.34375f,
+            -0.03125f, 0.25f, 0.03125f, -0.1875f, 0.0625f, -0.21875f, -0.3125f, 0.03125f, -0.375f,
+            -0.5f, 0.09375f, 0.09375f, -0.03125f, -0.28125f, 0.6875f, 0.21875f, 0.03125f, 0.0625f,
+            0.0625f, -0.125f, -0.84375f, -0.34375f, 0.34375f, -0.34375f, -0.0625f, 0.25f, 0.34375f,
+            0.46875f, -0.25f, -0.34375f, -0.65625f, 0.09375f, 0.03125f, -0.1875f, 0.03125f,
+            -0.15625f, 0.28125f, 0.6875f, -0.875f, 0.0625f, 0.15625f, 0.125f, -0.1875f,
+            // Stage 12.
+            0.1875f, 0f, 0.21875f, -0.125f, 0.0625f, -0.28125f, 0.5f, -0.03125f, 0.3125f, 0.0625f,
+            -0.0625f, 0.03125f, 0.28125f, -0.25f, -0.6875f, 0.28125f, 0.03125f, -0.125f, -0.125f,
+            -0.3125f, -1.09375f, 0.5f, -0.15625f, -0.03125f, -0.40625f, -0.0625f, 0f, 0.28125f,
+            -0.0625f, 0.125f, -0.03125f, 0.1875f, 0.09375f, 0.03125f, 0.78125f, -0.40625f,
+            0.34375f, -0.03125f, -0.1875f, 0.8125f, 0.0625f, -0.65625f, -0.21875f, 0.25f, -0.0625f,
+            -0.34375f, 0.125f, 0.0625f, -0.65625f, 0.0625f, -0.40625f, 0.28125f, 0f, -0.46875f,
+            -0.375f, 0.125f, -0.1875f, 0.21875f, 0.03125f,
+            // Stage 13.
+            0.09375f, -0.1875f, -0.03125f, -0.0625f, -0.28125f, 0.3125f, 0.28125f, 0f, 0.28125f,
+            0.0625f, 0.84375f, -0.4375f, -0.15625f, 0.0625f, 0.3125f, 0.03125f, -0.71875f, 0f,
+            -0.03125f, -0.40625f, -0.1875f, 0.28125f, 0.21875f, -0.0625f, 0.1875f, 0.25f, 0.09375f,
+            0.25f, -0.375f, 0.09375f, -0.0625f, -0.78125f, -0.09375f, 0f, -0.3125f, 0.28125f,
+            0.15625f, 0.15625f, 0.0625f, 0.1875f, 1.03125f, 0.34375f, -0.25f, 0.03125f, -0.375f,
+            0f, 0.0625f, 0.1875f, 0f, 0.28125f, -0.40625f, 0.25f, 0.15625f, -0.09375f, 0.15625f,
+            0.125f, -0.15625f, 0.1875f, 0.1875f, 0.90625f, -0.625f,
+            // Stage 14.
+            -0.03125f, 0.03125f, 0.4375f, -0.03125f, -0.09375f, -0.125f, -0.03125f, -0.28125f,
+            0.0625f, 0.78125f, -0.15625f, 0.09375f, 0.21875f, 0.03125f, -0.21875f, -0.09375f,
+            0.75f, -0.875f, -0.03125f, 0.15625f, -0.1875f, -0.625f, -0.3125f, -0.3125f, 0.1875f,
+            -0.5f, -0.0625f, 0.21875f, -0.125f, -0.0625f, -0.21875f, -0.375f, 0.09375f, -0.09375f,
+            -0.15625f, 0.1875f, -0.125f, -0.15625f, 0.15625f, -0.03125f, -0.03125f, -0.34375f,
+            0.3125f, 0.15625f, -1.0625f, -0.34375f, 0.4375f, 0.0625f, -0.09375f, 0.34375f,
+            0.15625f, -0.15625f, 0.59375f, 0.3125f, 0.03125f, 0.125f, -0.53125f, 0.25f, -0.1875f,
+            0.21875f, -0.1875f, 0.1875f, -0.21875f, 0.34375f, -0.28125f, 0.875f, 0f, 0.3125f,
+            0.34375f,
+            // Stage 15.
+            0.0625f, 0f, 0.1875f, 0.0625f, 0.03125f, 0.1875f, 0.15625f, -0.125f, 0.03125f, 0.25f,
+            -0.40625f, 0.03125f, -0.21875f, -0.46875f, -0.53125f, 0.03125f, 0.125f, 0.03125f,
+            0.15625f, 0.5f, -0.59375f, -0.3125f, 0.59375f, 0.28125f, -0.125f, 0.15625f, 0.15625f,
+            0.03125f, 0.3125f, 0.3125f, -0.40625f, 0.40625f, -0.34375f, -0.15625f, 0.15625f,
+            0.21875f, -0.21875f, -0.125f, -0.0625f, -0.1875f, 0.03125f, 0.21875f, -0.03125f,
+            0.15625f, -0.03125f, -0.09375f, 0.25f, 0.15625f, 0.1875f, 0.09375f, 0.03125f, 0.25f,
+            -0.09375f, 0.03125f, -0.0625f, 0.28125f, -0.09375f, -0.09375f, 0.1875f, -0.1875f,
+            -0.3125f, 0.28125f, -0.03125f, 0.3125f, 0.21875f, -0.4375f, -0.46875f, -0.125f,
+            0.34375f, 0.0625f, 0.25f, 0.21875f, -0.125f, 0.1875f, 0.1875f, -0.09375f, -0.375f,
+            -0.21875f, 0.15625f, -0.09375f, 0.125f, -0.1875f, -0.0625f, 0f
+    };
+
+    static final float[] BELOW = {
+            // Stage 0.
+            -0.8616405f, -0.8289557f, -0.8701091f, 0.3067865f, -0.7129863f, 0.2203708f,
+            // Stage 1.
+            -0.729513f, 0.3536683f, 0.230166f, -0.7845449f, -0.7554048f, -0.2544601f, -0.6516042f,
+            0.2002735f, -0.9295304f,
+            // Stage 2.
+            -0.7610565f, 0.2510239f, 0.2630842f, -0.7586006f, 0.7883302f, -0.215051f, 0.2394409f,
+            -0.8366371f, 0.1390569f,
+            // Stage 3.
+            -0.7665398f, 0.1718899f, 0.20733f, -0.7942874f, -0.7795668f, -0.4777993f, 0.1445637f,
+            0.2281513f, 0.6894318f, -0.1800308f, 0.1522333f, 0.1505685f, -0.6491504f,
+            // Stage 4.
+            -0.7260046f, -0.8311361f, -0.5991898f, -0.6711556f, 0.1457688f, 0.6913518f, 0.2430303f,
+            -0.6553138f, -0.3671621f, 0.7063565f, -0.1601348f, 0.5258747f, -0.8131838f,
+            -0.2246077f,
+            // Stage 5.
+            -0.7532553f, 0.1696074f, 0.5414155f, -0.6334093f, 0.1236798f, -0.1793759f, -0.3052659f,
+            0.144079f, 0.1527634f, 0.7116626f, 0.1516914f, -0.8348682f, -0.6523495f, 0.1932765f,
+            0.1115764f, -0.7214939f, 0.5406319f, -0.2046396f, 0.2142734f, 0.09014888f,
+            // Stage 6.
+            0.1833533f, -0.606443f, 0.1047193f, -0.7275385f, -0.6251457f, -0.1645742f, -0.6465534f,
+            -0.2621664f, -0.810513f, 0.2217843f, 0.1161214f, 0.5884584f, 0.09457354f, -0.6315024f,
+            -0.7600524f, 0.0888707f, 0.224971f, 0.07818355f, 0.5293297f, 0.4938329f, -0.1771165f,
+            0.5055673f,
+            // Stage 7.
+            -0.5738562f, 0.127074f, 0.1255527f, 0.4473831f, 0.1994845f, 0.5852585f, -0.3065021f,
+            -0.6221839f, -0.495832f, -0.7924284f, 0.122524f, -0.7009866f, -0.5867462f, 0.1195421f,
+            -0.184553f, -0.163292f, 0.09675657f, -0.6963027f, 0.5406073f, 0.3136344f, -0.7319685f,
+            0.07895019f, -0.1558868f, 0.1156517f, -0.1336839f, 0.5633827f, -0.8333974f, -0.180718f,
+            -0.6096708f,
+            // Stage 8.
+            0.1208179f, -0.8673092f, -0.5447473f, 0.143015f, -0.4212126f, 0.129153f, -0.678672f,
+            -0.186785f, -0.1439323f, 0.3852883f, -0.6483295f, 0.1603214f, -0.488344f, 0.08353581f,
+            -0.6621391f, -0.4420732f, 0.09662121f, 0.3820617f, 0.1167059f, -0.1207473f, 0.4179867f,
+            -0.7892696f, -0.1380634f, -0.373456f, -0.7448894f, 0.05421518f, 0.06733833f, 0.419622f,
+            0.1088812f, -0.6856471f, -0.1619981f,
+            // Stage 9.
+            0.1239407f, -0.5570523f, 0.103209f, 0.1617532f, 0.0947311f, -0.6199791f, 0.1154343f,
+            0.0727189f, 0.5317491f, 0.08549593f, 0.1338748f, 0.07632155f, 0.07643755f, -0.1274121f,
+            0.4160988f, -0.1222346f, -0.1144508f, 0.3430448f, -0.6680868f, -0.2584561f,
+            -0.6467722f, -0.7227907f, 0.04802826f, -0.214961f, -0.1190434f, 0.2341878f,
+            -0.6673496f, -0.4169784f, 0.07945106f, -0.6413859f, -0.8789219f, 0.05954551f,
+            -0.175103f, 0.3498988f,
+            // Stage 10.
+            -0.5734686f, 0.1519918f, -0.2829563f, 0.09438976f, 0.09675769f, 0.08086725f, -0.56946f,
+            0.0605838f, -0.1741138f, -0.5804692f, 0.062875f, 0.1212175f, 0.3336001f, -0.3404044f,
+            -0.1313422f, 0.4659652f, 0.1161595f, -0.8057798f, -0.6721241f, 0.7668203f, -0.1137285f,
+            0.2987286f, 0.05854325f, -0.6741904f, 0.1695543f, -0.1603994f, 0.2799355f, 0.08875752f,
+            -0.214606f, -0.9062264f, 0.03537414f, -0.1870306f, 0.1036915f, 0.2664683f, -0.6001679f,
+            0.0561845f, -0.2281201f,
+            // Stage 11.
+            0.2306036f, -0.4227285f, 0.08737893f, 0.05730766f, -0.1713364f, -0.4610308f,
+            -0.423065f, -0.5836408f, 0.1266549f, 0.08020767f, -0.3675504f, -0.6240286f, -0.312737f,
+            -0.8060139f, -0.8234689f, -0.3866853f, 0.5722991f, 0.300738f, 0.08376218f, -0.1775809f,
+            -0.5965495f, 0.3043914f, -0.1241068f, 0.1440665f, -0.3806255f, -0.1653804f,
+            -0.1759161f, -0.7721005f, 0.2849881f, 0.4023262f, -0.09935491f, -0.8703166f,
+            -0.4735799f, 0.0723348f, -0.1622654f, -0.1000996f, -0.543287f, 0.2823627f, 0.3299413f,
+            -0.1413685f, -0.415073f, -0.7715171f, -0.2117776f, -0.6030977f, -0.08202888f,
+            0.04297845f, -0.6591936f, -0.2826614f, -0.1003818f, 0.05149625f, 0.2544596f,
+            // Stage 12.
+            -0.4554601f, 0.1661475f, 0.08479565f, -0.6448464f, -0.4984984f, 0.3857f, -0.1256273f,
+            0.1989855f, 0.06457364f, -0.4846611f, -0.5573801f, -0.3309023f, -0.09786382f,
+            0.4329967f, 0.4543498f, 0.0642112f, 0.08404386f, -0.5619201f, 0.2613682f, -0.5989301f,
+            0.6691122f, -0.07023094f, -0.6389639f, 0.1282552f, -0.7183492f, 0.06148836f, 0.109007f,
+            0.05016459f, -0.7888638f, -0.131043f, 0.1707086f, 0.04307949f, -0.1391172f,
+            -0.2009146f, -0.07159123f, 0.2660678f, 0.05770967f, 0.05567199f, -0.5394787f,
+            -0.04816483f, -0.4096427f, -0.77742f, 0.3554014f, 0.1103154f, 0.1980026f, -0.6433696f,
+            -0.08608922f, -0.1754454f, 0.6182242f, -0.3117832f, -0.5510912f, 0.03331448f,
+            0.07542735f, -0.5154462f, 0.3871799f, -0.1029877f, -0.8411315f, 0.03823841f,
+            -0.2976389f,
+            // Stage 13.
+            -0.4007227f, 0.2970318f, 0.1488483f, -0.4989232f, 0.34763f, -0.1089275f, 0.07254011f,
+            0.1117239f, 0.05728334f, -0.2245773f, -0.1004403f, 0.3447031f, -0.5347787f,
+            -0.1750162f, 0.04618182f, -0.5257856f, 0.4649607f, -0.3875589f, 0.2111044f,
+            -0.7464007f, 0.2892788f, -0.137235f, 0.08102977f, 0.1369114f, -0.08386982f,
+            0.05889697f, -0.1161102f, 0.05968684f, -0.7479705f, -0.1519f, 0.06968662f, -0.6759191f,
+            -0.5867343f, -0.4447701f, 0.2690422f, -0.1273965f, 0.04792739f, -0.09797381f,
+            -0.2212091f, -0.08240541f, -0.04213399f, -0.1104735f, 0.2162676f, -0.2138491f,
+            -0.7087482f, -0.2992908f, -0.4021391f, 0.06307099f, -0.3975425f, 0.0416847f,
+            0.4817587f, 0.03678213f, -0.07731876f, 0.27084f, 0.1178388f, 0.1174827f, 0.3033633f,
+            -0.1186974f, 0.04549598f, -0.06846835f, -0.8545715f,
+            // Stage 14.
+            0.2101581f, -0.4777977f, -0.1669608f, 0.1172624f, -0.3727683f, -0.495979f, 0.2010555f,
+            0.309273f, -0.2707492f, -0.09584686f, -0.4854447f, -0.3648554f, 0.04712244f,
+            0.07975094f, 0.254561f, 0.0611057f, -0.05739922f, 0.5590844f, 0.1760186f, 0.06932456f,
+            0.2694259f, 0.2861238f, 0.3266336f, -0.4677753f, 0.05699094f, -0.7616453f, 0.1605543f,
+            0.05157978f, -0.6766831f, 0.0576129f, 0.2961964f, -0.6415454f, -0.1174671f, 0.2653353f,
+            -0.8744075f, -0.1040445f, 0.3348617f, 0.2279088f, 0.06204065f, 0.1132892f, -0.3239964f,
+            -0.7624551f, -0.08710805f, -0.1206413f, 0.3963749f, -0.6336263f, 0.03738856f,
+            -0.5203492f, 0.2466863f, 0.04665757f, -0.08808828f, 0.1952766f, 0.04586758f,
+            0.04178429f, -0.3642513f, 0.03500027f, -0.6975579f, 0.0361461f, 0.3347358f,
+            -0.1109941f, -0.5597382f, -0.1264472f, 0.3036231f, -0.05266822f, 0.3675777f,
+            0.03689484f, -0.2804706f, 0.0319795f, -0.05061369f,
+            // Stage 15.
+            -0.2429147f, 0.1075351f, -0.1373469f, -0.3592024f, -0.4122736f, 0.06819809f,
+            -0.1556129f, -0.5361949f, -0.2109598f, 0.05118391f, -0.4535423f, -0.5810065f,
+            0.2564672f, 0.2930906f, 0.4260311f, 0.09429578f, 0.07194953f, -0.5030283f, -0.3613894f,
+            0.03188616f, 0.2655509f, 0.318945f, -0.0846225f, 0.04334578f, 0.2071853f, -0.09088644f,
+            0.07212876f, -0.2850091f, 0.05974428f, -0.08884699f, 0.3389021f, -0.1100889f,
+            0.4323157f, -0.3224944f, -0.08006869f, 0.04933449f, -0.610331f, 0.1436683f, 0.1114619f,
+            0.2708212f, -0.1847608f, 0.03903035f, 0.1474144f, -0.0995001f, 0.3462751f, -0.3889743f,
+            -0.05912146f, -0.1269133f, -0.1245037f, -0.09257194f, -0.2789263f, -0.06775913f,
+            0.1845117f, -0.1512883f, -0.3608886f, 0.05640924f, -0.8012496f, 0.1743727f,
+            -0.06346433f, -0.5916828f, -0.5192755f, 0.04249315f, 0.05585283f, 0.03063135f,
+            -0.09797017f, -0.3780401f, -0.5989882f, 0.07338438f, 0.03143884f, -0.2388107f,
+            -0.07983461f, 0.05586452f, 0.2773829f, 0.04154577f, -0.04936426f, -0.3554854f,
+            -0.6323177f, 0.3136116f, -0.1240166f, -0.2064259f, -0.08065871f, 0.2422128f,
+            0.09785502f, 0.1306359f
+    };
+
+    static final float[] ABOVE = {
+            // Stage 0.
+            0.5642281f, 0.435549f, 0.2158063f, -0.6011857f, 0.2483523f, -0.8301736f,
+            // Stage 1.
+            0.4753444f, -0.842338f, -0.8366188f, 0.2129871f, 0.1836383f, 0.7247531f, 0.2795496f,
+            -0.7645054f, 0.1256517f,
+            // Stage 2.
+            0.3545377f, -0.8280369f, -0.7537053f, 0.264661f, -0.2351056f, 0.6254854f, -0.6065884f,
+            0.1465664f, -0.8357276f,
+            // Stage 3.
+            0.274661f, -0.8100689f, -0.7131195f, 0.204025f, 0.136391f, 0.2524923f, -0.7212328f,
+            -0.463664f, -0.1798194f, 0.5897147f, -0.8005972f, -0.6900951f, 0.1539209f,
+            // Stage 4.
+            0.2573196f, 0.1869127f, 0.1871536f, 0.1825121f, -0.7516702f, -0.2067315f, -0.6057772f,
+            0.1643322f, 0.3010747f, -0.1555046f, 0.6906248f, -0.1867515f, 0.134769f, 0.4615121f,
+            // Stage 5.
+            0.1919183f, -0.6227312f, -0.2179848f, 0.1800933f, -0.7747211f, 0.6376828f, 0.367022f,
+            -0.7886499f, -0.5798392f, -0.1515752f, -0.7116238f, 0.1032186f, 0.134001f, -0.4663495f,
+            -0.7669093f, 0.119904f, -0.1794626f, 0.4189619f, -0.4233846f, -0.8711284f,
+            // Stage 6.
+            -0.657948f, 0.1491996f, -0.785805f, 0.1061427f, 0.1340351f, 0.5565419f, 0.1423151f,
+            0.3692946f, 0.1200649f, -0.4391209f, -0.7062866f, -0.158295f, -0.8829423f, 0.1053354f,
+            0.08127812f, -0.6795898f, -0.3267566f, -0.8639616f, -0.1445819f, -0.1823862f,
+            0.3690744f, -0.1397958f,
+            // Stage 7.
+            0.1847744f, -0.6274869f, -0.6050603f, -0.1918208f, -0.4360872f, -0.1402524f, 0.266365f,
+            0.1337004f, 0.1428272f, 0.08174609f, -0.5142754f, 0.09725887f, 0.1082302f, -0.5726271f,
+            0.3646747f, 0.4641653f, -0.758857f, 0.09128378f, -0.15444f, -0.2279726f, 0.08829645f,
+            -0.6603985f, 0.3997439f, -0.5221718f, 0.4353436f, -0.1324825f, 0.08011881f, 0.3088032f,
+            0.09815737f,
+            // Stage 8.
+            -0.723219f, 0.08810163f, 0.1518069f, -0.5164074f, 0.1735837f, -0.6032327f, 0.09040731f,
+            0.3818829f, 0.5040381f, -0.1743608f, 0.1085255f, -0.3945957f, 0.1339337f, -0.7183085f,
+            0.08135552f, 0.1423082f, -0.5720139f, -0.1730775f, -0.560754f, 0.4836511f, -0.1358006f,
+            0.08011658f, 0.4763509f, 0.1677285f, 0.07307012f, -0.7980731f, -0.6328562f,
+            -0.1272733f, -0.5516045f, 0.07350541f, 0.3204718f,
+            // Stage 9.
+            -0.7419748f, 0.1208579f, -0.6356392f, -0.4035825f, -0.6389617f, 0.09949836f,
+            -0.5160384f, -0.7482023f, -0.1287897f, -0.7548757f, -0.4220562f, -0.7377319f,
+            -0.6972784f, 0.4567071f, -0.1301544f, 0.4348301f, 0.5609801f, -0.1526734f, 0.08879423f,
+            0.2269832f, 0.08550011f, 0.06476599f, -0.8030121f, 0.2188572f, 0.4495103f, -0.2179197f,
+            0.06806498f, 0.1152243f, -0.5327031f, 0.06841285f, 0.03908777f, -0.6166817f,
+            0.2898656f, -0.1496786f,
+            // Stage 10.
+            0.1561024f, -0.4454347f, 0.2438847f, -0.7004167f, -0.5968028f, -0.7018327f, 0.1066897f,
+            -0.8588969f, 0.3518441f, 0.1084974f, -0.6792398f, -0.3764398f, -0.1616915f, 0.1466855f,
+            0.3799486f, -0.1297144f, -0.4681663f, 0.05967715f, 0.0578793f, -0.07055952f,
+            0.3838394f, -0.169001f, -0.8185691f, 0.05760503f, -0.2802112f, 0.2727596f, -0.1582283f,
+            -0.4712987f, 0.2004794f, 0.04204804f, -0.843096f, 0.2241966f, -0.3964077f, -0.1602282f,
+            0.06623237f, -0.6005725f, 0.1951856f,
+            // Stage 11.
+            -0.2989254f, 0.1625266f, -0.665206f, -0.7756186f, 0.3216832f, 0.1062641f, 0.108348f,
+            0.08392338f, -0.3834967f, -0.5615451f, 0.1157523f, 0.06360657f, 0.1282436f,
+            0.05170726f, 0.04014536f, 0.09332005f, -0.07693259f, -0.1565487f, -0.5788416f,
+            0.2237595f, 0.06813223f, -0.1316904f, 0.3797413f, -0.3093266f, 0.09516855f, 0.2365502f,
+            0.277317f, 0.05681367f, -0.1434642f, -0.09245744f, 0.3808706f, 0.04787957f,
+            0.06875356f, -0.5028879f, 0.213991f, 0.4095068f, 0.06345151f, -0.128849f, -0.118346f,
+            0.2504641f, 0.08627471f, 0.04060385f, 0.15841f, 0.05508788f, 0.4348752f, -0.8455369f,
+            0.03607959f, 0.1030301f, 0.3169356f, -0.6650739f, -0.1234016f,
+            // Stage 12.
+            0.1374101f, -0.3690067f, -0.6148178f, 0.07068098f, 0.08042713f, -0.1203503f,
+            0.3469488f, -0.2079124f, -0.6610753f, 0.0793412f, 0.06854778f, 0.1261116f, 0.4102492f,
+            -0.1011309f, -0.08065862f, -0.6521187f, -0.3936673f, 0.0610583f, -0.1370641f,
+            0.06662463f, -0.0578642f, 0.4763901f, 0.05902462f, -0.2676466f, 0.05274865f,
+            -0.5436525f, -0.3196442f, -0.6113125f, 0.03532115f, 0.2497231f, -0.1784307f,
+            -0.6944016f, 0.2257676f, 0.1616093f, 0.3996495f, -0.1578697f, -0.5227437f, -0.5098497f,
+            0.05065032f, 0.650256f, 0.08188726f, 0.03394416f, -0.08798093f, -0.2694695f,
+            -0.1491694f, 0.04798483f, 0.3306078f, 0.1761767f, -0.0492112f, 0.09511968f,
+            0.05535647f, -0.7089531f, -0.3337348f, 0.04954542f, -0.0690782f, 0.242812f,
+            0.03236347f, -0.5830442f, 0.08352059f,
+            // Stage 13.
+            0.1694799f, -0.1655593f, -0.2930789f, 0.09092895f, -0.1249332f, 0.3840566f,
+            -0.5827788f, -0.3391213f, -0.670317f, 0.1730766f, 0.3762784f, -0.1436504f, 0.07484115f,
+            0.236387f, -0.7951812f, 0.0584716f, -0.0850037f, 0.09661411f, -0.214933f, 0.04327995f,
+            -0.1160816f, 0.2457108f, -0.4053158f, -0.2543959f, 0.4120942f, -0.6398329f, 0.3293706f,
+            -0.5854241f, 0.03753767f, 0.2014686f, -0.4407145f, 0.04386473f, 0.0424182f,
+            0.05624385f, -0.1000184f, 0.2576729f, -0.6047128f, 0.2910555f, 0.11859f, 0.3459533f,
+            0.6243861f, 0.2861708f, -0.1301853f, 0.1290753f, 0.0373434f, 0.09355751f, 0.06515142f,
+            -0.4239792f, 0.06207339f, -0.5766458f, -0.05447792f, -0.7010139f, 0.3383889f,
+            -0.08936836f, -0.2197576f, -0.2363562f, -0.08819961f, 0.2257532f, -0.5962499f,
+            0.4575264f, 0.0335568f,
+            // Stage 14.
+            -0.2855734f, 0.1143949f, 0.2704326f, -0.359856f, 0.1028213f, 0.0670704f, -0.1836058f,
+            -0.1223326f, 0.1440635f, 0.3885893f, 0.06995042f, 0.08899227f, -0.6807765f,
+            -0.3952242f, -0.1334363f, -0.5185384f, 0.5786866f, -0.05401076f, -0.1813017f,
+            -0.4316955f, -0.1131534f, -0.1169717f, -0.09095387f, 0.07043011f, -0.4802702f,
+            0.03154046f, -0.1697241f, -0.5192387f, 0.03468978f, -0.4311231f, -0.09148381f,
+            0.04287228f, 0.2318561f, -0.1128344f, 0.03131862f, 0.2598551f, -0.08570584f,
+            -0.1240436f, -0.4622389f, -0.2068081f, 0.08084836f, 0.0309963f, 0.301222f, 0.1938681f,
+            -0.08727826f, 0.04441627f, -0.5857484f, 0.04181863f, -0.1056953f, -0.5009811f,
+            0.2701398f, -0.1309921f, -0.5900744f, -0.4813809f, 0.05865434f, -0.5886626f,
+            0.02779783f, -0.5637702f, -0.08091046f, 0.2084171f, 0.04642921f, 0.1915046f,
+            -0.08933876f, 0.4219033f, -0.07235246f, -0.6648701f, 0.07070477f, -0.6902601f,
+            0.4974732f,
+            // Stage 15.
+            0.2107072f, -0.3934241f, 0.304532f, 0.1104771f, 0.08901177f, -0.5504608f, 0.2353572f,
+            0.06338687f, 0.1458027f, -0.5894282f, 0.0614425f, 0.04756787f, -0.1157458f,
+            -0.1094446f, -0.08018304f, -0.3149868f, -0.3860914f, 0.05674671f, 0.07535372f,
+            -0.8451799f, -0.1096369f, -0.1183229f, 0.339961f, -0.7438567f, -0.1350085f, 0.302857f,
+            -0.3837204f, 0.09961633f, -0.457556f, 0.3272107f, -0.07986499f, 0.264665f,
+            -0.05987831f, 0.07868894f, 0.3258952f, -0.5565925f, 0.03485117f, -0.16287f,
+            -0.2493176f, -0.09273479f, 0.1242299f, -0.5668002f, -0.1482145f, 0.279483f,
+            -0.06751319f, 0.05954182f, 0.4115098f, 0.1819584f, 0.1830769f, 0.2670921f, 0.08724801f,
+            0.3554571f, -0.1205797f, 0.1616391f, 0.0665523f, -0.3966686f, 0.02372802f, -0.1260616f,
+            0.3833912f, 0.04066489f, 0.0364655f, -0.4443572f, -0.3682697f, -0.6530657f, 0.2198058f,
+            0.06185508f, 0.03410264f, -0.2893231f, -0.6718224f, 0.08741575f, 0.2915057f,
+            -0.4234722f, -0.07790958f, -0.5273838f, 0.480906f, 0.06326094f, 0.02884815f,
+            -0.06614663f, 0.2392645f, 0.1110805f, 0.2760043f, -0.08746307f, -0.233046f,
+            -0.1706795f
+    };
+
+    private DefaultFaceCascade() {
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core.detect;
+
+/**
+ * A boosted cascade of Haar-like features over a square base window, laid out like the
+ * stump-based Haar cascades of OpenCV.
+ *
+ * A feature is a weighted sum of the mean luma of a few rects, divided by the standard
+ * deviation of the window. Each weak classifier compares one feature with its threshold and
+ * votes one value below it and another at or above it. A stage sums the votes of its weak
+ * classifiers and passes a window if the sum reaches the stage threshold; a window is a face
+ * if it passes all stages. Rects are given for an upright face (eyes above mouth) in base
+ * window coordinates.
+ */
+public final class FaceCascade {
+
+    final int mWindow;
+    // Per stage: the number of weak classifiers, which follow each other, and the minimum sum
+    // of their votes.
+    final int[] mStageSizes;
+    final float[] mStageThresholds;
+    // Per weak classifier.
+    final int[][] mRects;
+    final float[][] mWeights;
+    final float[] mThresholds;
+    final float[] mBelow;
+    final float[] mAbove;
+
+    /**
+     * @param window          the edge length of the base window
+     * @param stageSizes      per stage, the number of weak classifiers
+     * @param stageThresholds per stage, the minimum sum of the votes
+     * @param rects           per weak classifier, the rects of its feature as consecutive
+     *                        (x, y, width, height) quadruples
+     * @param weights         per weak classifier, one weight per rect
+     * @param thresholds      per weak classifier, the normalized feature threshold
+     * @param below           per weak classifier, the vote for a feature below its threshold
+     * @param above           per weak classifier, the vote otherwise
+     */
+    public FaceCascade(int window, int[] stageSizes, float[] stageThresholds, int[][] rects,
+            float[][] weights, float[] thresholds, float[] below, float[] above) {
+        if (stageSizes.length != stageThresholds.length) {
+            throw new IllegalArgumentException("stage count mismatch");
+        }
+        int weakCount = 0;
+        for (int size : stageSizes) {
+            weakCount += size;
+        }
+        if (rects.length != weakCount || weights.length != weakCount
+                || thresholds.length != weakCount || below.length != weakCount
+                || above.length != weakCount) {
+            throw new IllegalArgumentException("weak classifier count mismatch");
+        }
+        for (int i = 0; i < rects.length; i++) {
+            if (rects[i].length != weights[i].length * 4) {
+                throw new IllegalArgumentException("weak classifier " + i
+                        + ": rect/weight mismatch");
+            }
+        }
+        mWindow = window;
+        mStageSizes = stageSizes;
+        mStageThresholds = stageThresholds;
+        mRects = rects;
+        mWeights = weights;
+        mThresholds = thresholds;
+        mBelow = below;
+        mAbove = above;
+    }
+
+    /**
+     * Returns the built-in frontal face cascade, see {@link DefaultFaceCascade}.
+     */
+    public static FaceCascade createDefault() {
+        return new FaceCascade(DefaultFaceCascade.WINDOW, DefaultFaceCascade.STAGE_SIZES,
+                DefaultFaceCascade.STAGE_THRESHOLDS, DefaultFaceCascade.RECTS,
+                DefaultFaceCascade.WEIGHTS, DefaultFaceCascade.THRESHOLDS,
+                DefaultFaceCascade.BELOW, DefaultFaceCascade.ABOVE);
+    }
+
+    public int getWindow() {
+        return mWindow;
+    }
+
+    public int getStageCount() {
+        return mStageSizes.length;
+    }
+
+    public int getWeakClassifierCount() {
+        return mRects.length;
+    }
+
+    int getRectCount() {
+        int count = 0;
+        for (float[] weights : mWeights) {
+            count += weights.length;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core.detect;
+
+/**
+ * Confirms the faces a {@link SoftwareFaceDetector} found, see
+ * {@link SoftwareFaceDetector#setVerifier}. Called for at most one window per detection.
+ */
+public interface FaceVerifier {
+
+    // Returned by verify when the window holds no face.
+    public static final int REJECTED = -1;
+
+    /**
+     * Looks for a face in a square window of a luma plane, turned the way the cascade found
+     * it.
+     *
+     * @param luma the plane passed to {@link SoftwareFaceDetector#detect}
+     * @param up   the up direction the cascade found, see RectOrientationEstimator.UP_*
+     * @return {@code up} if the window holds a face, or {@link #REJECTED}
+     */
+    public int verify(byte[] luma, int width, int height, int left, int top, int size, int up);
+}
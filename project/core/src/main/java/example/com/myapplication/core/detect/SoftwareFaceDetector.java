@@ -0,0 +1,531 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core.detect;
+
+import example.com.myapplication.core.FaceBatch;
+import example.com.myapplication.core.FaceRecord;
+import example.com.myapplication.core.RectOrientationEstimator;
+
+/**
+ * Face detector on the luma plane of a preview frame, for cameras without hardware face
+ * detection.
+ *
+ * The frame is box-downscaled to at most {@link #WORKING_WIDTH} pixels wide, an integral
+ * image and a squared integral image are built, and a {@link FaceCascade} is evaluated over
+ * a multi-scale grid of windows. The cascade is evaluated in the four 90 degree rotations of
+ * the window, so every detection also tells which way the face is up. Overlapping hits are
+ * grouped and the strongest groups are reported.
+ *
+ * The built-in cascade is trained to tell faces from textured scenes on its own. An optional
+ * {@link FaceVerifier} is asked about the strongest group only, once per detection; if it
+ * rejects that group nothing is reported.
+ *
+ * All buffers are allocated by {@link #configure} for a frame size; {@link #detect} on frames
+ * of that size does not allocate. Not thread safe.
+ */
+public class SoftwareFaceDetector {
+
+    public static final int DEFAULT_MAX_FACES = 4;
+
+    // Frames wider than this are downscaled by an integer factor before scanning.
+    public static final int WORKING_WIDTH = 160;
+
+    // Ratio between two consecutive window sizes.
+    private static final float SCALE_STEP = 1.25f;
+
+    // Windows flatter than this standard deviation, in luma levels, are skipped.
+    private static final float MIN_STD_DEV = 8f;
+
+    // Overlap above which two hits belong to the same face.
+    private static final float GROUP_OVERLAP = 0.3f;
+
+    // Hits needed in a group before it is reported as a face.
+    private static final int MIN_NEIGHBORS = 2;
+
+    private static final int MAX_CANDIDATES = 256;
+
+    // Rotations in which the cascade is evaluated, as up directions of the face.
+    private static final int[] UP_DIRECTIONS = {
+            RectOrientationEstimator.UP_NEGATIVE_Y, RectOrientationEstimator.UP_POSITIVE_X,
+            RectOrientationEstimator.UP_POSITIVE_Y, RectOrientationEstimator.UP_NEGATIVE_X
+    };
+
+    private final FaceCascade mCascade;
+    private final int mMaxFaces;
+    private final int mRectCount;
+    private FaceVerifier mVerifier;
+    private long mRejected;
+
+    private int mFrameWidth = -1;
+    private int mFrameHeight = -1;
+    private int mDownscale;
+    private int mWidth;
+    private int mHeight;
+    private byte[] mWorking;
+    // The plane of the current detection, for the verifier.
+    private byte[] mPlane;
+    private int[] mIntegral;
+    private long[] mIntegralSquared;
+
+    // Per scale: window size and, per rotation, rects as (x, y, w, h) plus 1 / area.
+    private int mScaleCount;
+    private int[] mWindowSizes;
+    private int[][] mScaledRects;
+    private float[][] mScaledInvAreas;
+
+    private final int[] mCandX = new int[MAX_CANDIDATES];
+    private final int[] mCandY = new int[MAX_CANDIDATES];
+    private final int[] mCandSize = new int[MAX_CANDIDATES];
+    private final int[] mCandUp = new int[MAX_CANDIDATES];
+    private final float[] mCandScore = new float[MAX_CANDIDATES];
+    private final boolean[] mCandUsed = new boolean[MAX_CANDIDATES];
+    private int mCandCount;
+
+    private final int[] mFaceLeft;
+    private final int[] mFaceTop;
+    private final int[] mFaceRight;
+    private final int[] mFaceBottom;
+    private final int[] mFaceUp;
+    private final int[] mFaceScore;
+    private int mFaceCount;
+
+    public SoftwareFaceDetector() {
+        this(FaceCascade.createDefault(), DEFAULT_MAX_FACES);
+    }
+
+    public SoftwareFaceDetector(FaceCascade cascade, int maxFaces) {
+        mCascade = cascade;
+        mMaxFaces = maxFaces;
+        mRectCount = cascade.getRectCount();
+        mFaceLeft = new int[maxFaces];
+        mFaceTop = new int[maxFaces];
+        mFaceRight = new int[maxFaces];
+        mFaceBottom = new int[maxFaces];
+        mFaceUp = new int[maxFaces];
+        mFaceScore = new int[maxFaces];
+    }
+
+    /**
+     * Sets the verifier that has to confirm the strongest face before any is reported, or null
+     * to report the groups of the cascade as they are.
+     */
+    public void setVerifier(FaceVerifier verifier) {
+        mVerifier = verifier;
+    }
+
+    /**
+     * Returns the number of groups the verifier rejected.
+     */
+    public long getRejectedCount() {
+        return mRejected;
+    }
+
+    /**
+     * Allocates the buffers for frames of the given size. Called implicitly by
+     * {@link #detect} when the frame size changes.
+     */
+    public void configure(int frameWidth, int frameHeight) {
+        if (frameWidth == mFrameWidth && frameHeight == mFrameHeight) {
+            return;
+        }
+        mFrameWidth = frameWidth;
+        mFrameHeight = frameHeight;
+        mDownscale = Math.max(1, (frameWidth + WORKING_WIDTH - 1) / WORKING_WIDTH);
+        mWidth = frameWidth / mDownscale;
+        mHeight = frameHeight / mDownscale;
+        mWorking = mDownscale > 1 ? new byte[mWidth * mHeight] : null;
+        mIntegral = new int[(mWidth + 1) * (mHeight + 1)];
+        mIntegralSquared = new long[(mWidth + 1) * (mHeight + 1)];
+
+        int base = mCascade.getWindow();
+        int maxWindow = Math.min(mWidth, mHeight);
+        mScaleCount = 0;
+        for (float size = base; size <= maxWindow; size *= SCALE_STEP) {
+            mScaleCount++;
+        }
+        mWindowSizes = new int[mScaleCount];
+        mScaledRects = new int[mScaleCount * UP_DIRECTIONS.length][];
+        mScaledInvAreas = new float[mScaleCount * UP_DIRECTIONS.length][];
+        float size = base;
+        for (int s = 0; s < mScaleCount; s++, size *= SCALE_STEP) {
+            mWindowSizes[s] = (int) size;
+            for (int r = 0; r < UP_DIRECTIONS.length; r++) {
+                scaleRects(s, r, (int) size);
+            }
+        }
+    }
+
+    /**
+     * Detects faces on a luma plane of {@code width * height} bytes (an NV21 frame may be
+     * passed as is) and returns the number of faces found.
+     */
+    public int detect(byte[] luma, int width, int height) {
+        configure(width, height);
+        mPlane = luma;
+        byte[] plane = luma;
+        if (mDownscale > 1) {
+            downscale(luma);
+            plane = mWorking;
+        }
+        buildIntegrals(plane);
+
+        mCandCount = 0;
+        for (int s = 0; s < mScaleCount; s++) {
+            scan(s);
+        }
+        groupCandidates();
+        mPlane = null;
+        return mFaceCount;
+    }
+
+    public int getFaceCount() {
+        return mFaceCount;
+    }
+
+    /**
+     * Returns the up direction of face {@code i}, see RectOrientationEstimator.UP_*.
+     */
+    public int getFaceUpDirection(int i) {
+        return mFaceUp[i];
+    }
+
+    /**
+     * Returns the confidence of face {@code i}, in 1..100 like Camera.Face#score.
+     */
+    public int getFaceScore(int i) {
+        return mFaceScore[i];
+    }
+
+    public int getFaceLeft(int i) {
+        return mFaceLeft[i];
+    }
+
+    public int getFaceTop(int i) {
+        return mFaceTop[i];
+    }
+
+    public int getFaceRight(int i) {
+        return mFaceRight[i];
+    }
+
+    public int getFaceBottom(int i) {
+        return mFaceBottom[i];
+    }
+
+    /**
+     * Copies face {@code i} into {@code record}, in camera driver coordinates, with the
+     * orientation given by its up direction.
+     */
+    public void getFace(int i, FaceRecord record) {
+        record.set(toDriver(mFaceLeft[i], mFrameWidth), toDriver(mFaceTop[i], mFrameHeight),
+                toDriver(mFaceRight[i], mFrameWidth), toDriver(mFaceBottom[i], mFrameHeight),
+                -1, mFaceScore[i]);
+        record.rectOrientation = RectOrientationEstimator.toOrientation(mFaceUp[i]);
+    }
+
+    /**
+     * Replaces the contents of {@code faces} with the faces found by the last detection, like
+     * {@link #getFace}.
+     */
+    public void getFaces(FaceBatch faces) {
+        faces.clear();
+        for (int i = 0; i < mFaceCount; i++) {
+            int index = faces.add(toDriver(mFaceLeft[i], mFrameWidth),
+                    toDriver(mFaceTop[i], mFrameHeight), toDriver(mFaceRight[i], mFrameWidth),
+                    toDriver(mFaceBottom[i], mFrameHeight), -1, mFaceScore[i]);
+            faces.setRectOrientation(index,
+                    RectOrientationEstimator.toOrientation(mFaceUp[i]));
+        }
+    }
+
+    private static int toDriver(int pixel, int size) {
+        return pixel * 2000 / size - 1000;
+    }
+
+    /**
+     * Rotates and scales the cascade rects for window size {@code size}. Rotation r turns the
+     * upright face so that its up direction becomes UP_DIRECTIONS[r].
+     */
+    private void scaleRects(int scale, int rotation, int size) {
+        int[] rects = new int[mRectCount * 4];
+        float[] invAreas = new float[mRectCount];
+        float factor = size / (float) mCascade.getWindow();
+        int k = 0;
+        for (int weak = 0; weak < mCascade.mRects.length; weak++) {
+            int[] weakRects = mCascade.mRects[weak];
+            for (int j = 0; j < weakRects.length; j += 4) {
+                int x = Math.round(weakRects[j] * factor);
+                int y = Math.round(weakRects[j + 1] * factor);
+                int w = Math.max(1, Math.round(weakRects[j + 2] * factor));
+                int h = Math.max(1, Math.round(weakRects[j + 3] * factor));
+                x = Math.min(x, size - w);
+                y = Math.min(y, size - h);
+                int rx;
+                int ry;
+                int rw;
+                int rh;
+                switch (UP_DIRECTIONS[rotation]) {
+                    case RectOrientationEstimator.UP_POSITIVE_X:
+                        rx = size - y - h;
+                        ry = x;
+                        rw = h;
+                        rh = w;
+                        break;
+                    case RectOrientationEstimator.UP_POSITIVE_Y:
+                        rx = size - x - w;
+                        ry = size - y - h;
+                        rw = w;
+                        rh = h;
+                        break;
+                    case RectOrientationEstimator.UP_NEGATIVE_X:
+                        rx = y;
+                        ry = size - x - w;
+                        rw = h;
+                        rh = w;
+                        break;
+                    default:
+                        rx = x;
+                        ry = y;
+                        rw = w;
+                        rh = h;
+                        break;
+                }
+                rects[k * 4] = rx;
+                rects[k * 4 + 1] = ry;
+                rects[k * 4 + 2] = rw;
+                rects[k * 4 + 3] = rh;
+                invAreas[k] = 1f / (rw * rh);
+                k++;
+            }
+        }
+        mScaledRects[scale * UP_DIRECTIONS.length + rotation] = rects;
+        mScaledInvAreas[scale * UP_DIRECTIONS.length + rotation] = invAreas;
+    }
+
+    private void downscale(byte[] luma) {
+        int factor = mDownscale;
+        int shift = Integer.numberOfTrailingZeros(factor * factor);
+        boolean powerOfTwo = (factor & (factor - 1)) == 0;
+        int area = factor * factor;
+        for (int y = 0; y < mHeight; y++) {
+            int out = y * mWidth;
+            for (int x = 0; x < mWidth; x++) {
+                int sum = 0;
+                int row = y * factor * mFrameWidth + x * factor;
+                for (int dy = 0; dy < factor; dy++, row += mFrameWidth) {
+                    for (int dx = 0; dx < factor; dx++) {
+                        sum += luma[row + dx] & 0xFF;
+                    }
+                }
+                mWorking[out + x] = (byte) (powerOfTwo ? sum >> shift : sum / area);
+            }
+        }
+    }
+
+    private void buildIntegrals(byte[] plane) {
+        int stride = mWidth + 1;
+        for (int x = 0; x < stride; x++) {
+            mIntegral[x] = 0;
+            mIntegralSquared[x] = 0;
+        }
+        for (int y = 0; y < mHeight; y++) {
+            int rowSum = 0;
+            long rowSquared = 0;
+            int in = y * mWidth;
+            int out = (y + 1) * stride;
+            mIntegral[out] = 0;
+            mIntegralSquared[out] = 0;
+            for (int x = 0; x < mWidth; x++) {
+                int value = plane[in + x] & 0xFF;
+                rowSum += value;
+                rowSquared += value * value;
+                mIntegral[out + x + 1] = mIntegral[out - stride + x + 1] + rowSum;
+                mIntegralSquared[out + x + 1] = mIntegralSquared[out - stride + x + 1]
+                        + rowSquared;
+            }
+        }
+    }
+
+    private int rectSum(int x, int y, int w, int h) {
+        int stride = mWidth + 1;
+        int top = y * stride + x;
+        int bottom = (y + h) * stride + x;
+        return mIntegral[bottom + w] - mIntegral[top + w] - mIntegral[bottom] + mIntegral[top];
+    }
+
+    private void scan(int scale) {
+        int size = mWindowSizes[scale];
+        int step = Math.max(2, size / 10);
+        float invArea = 1f / (size * size);
+        int stride = mWidth + 1;
+        for (int y = 0; y + size <= mHeight; y += step) {
+            for (int x = 0; x + size <= mWidth; x += step) {
+                int top = y * stride + x;
+                int bottom = (y + size) * stride + x;
+                float mean = rectSum(x, y, size, size) * invArea;
+                float squared = (mIntegralSquared[bottom + size] - mIntegralSquared[top + size]
+                        - mIntegralSquared[bottom] + mIntegralSquared[top]) * invArea;
+                float variance = squared - mean * mean;
+                if (variance < MIN_STD_DEV * MIN_STD_DEV) {
+                    continue;
+                }
+                float stdDev = (float) Math.sqrt(variance);
+                for (int r = 0; r < UP_DIRECTIONS.length; r++) {
+                    float score = evaluate(x, y, scale * UP_DIRECTIONS.length + r, stdDev);
+                    if (score > 0f) {
+                        addCandidate(x, y, size, UP_DIRECTIONS[r], score);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the cascade on one window and returns the summed stage margins, or 0 if the window
+     * is rejected.
+     */
+    private float evaluate(int x, int y, int index, float stdDev) {
+        int[] rects = mScaledRects[index];
+        float[] invAreas = mScaledInvAreas[index];
+        float invStdDev = 1f / stdDev;
+        float margin = 0f;
+        int weak = 0;
+        int k = 0;
+        for (int stage = 0; stage < mCascade.mStageSizes.length; stage++) {
+            float votes = 0f;
+            for (int end = weak + mCascade.mStageSizes[stage]; weak < end; weak++) {
+                float[] weights = mCascade.mWeights[weak];
+                float value = 0f;
+                for (int j = 0; j < weights.length; j++, k++) {
+                    int o = k * 4;
+                    value += weights[j] * invAreas[k] * rectSum(x + rects[o], y + rects[o + 1],
+                            rects[o + 2], rects[o + 3]);
+                }
+                votes += value * invStdDev < mCascade.mThresholds[weak]
+                        ? mCascade.mBelow[weak] : mCascade.mAbove[weak];
+            }
+            float stageMargin = votes - mCascade.mStageThresholds[stage];
+            if (stageMargin < 0f) {
+                return 0f;
+            }
+            margin += stageMargin;
+        }
+        // Never report an accepted window with a zero score.
+        return margin + Float.MIN_VALUE;
+    }
+
+    private void addCandidate(int x, int y, int size, int up, float score) {
+        int slot;
+        if (mCandCount < MAX_CANDIDATES) {
+            slot = mCandCount++;
+        } else {
+            // Replace the weakest candidate if this one is stronger.
+            slot = 0;
+            for (int i = 1; i < MAX_CANDIDATES; i++) {
+                if (mCandScore[i] < mCandScore[slot]) {
+                    slot = i;
+                }
+            }
+            if (mCandScore[slot] >= score) {
+                return;
+            }
+        }
+        mCandX[slot] = x;
+        mCandY[slot] = y;
+        mCandSize[slot] = size;
+        mCandUp[slot] = up;
+        mCandScore[slot] = score;
+    }
+
+    /**
+     * Groups overlapping candidates of the same rotation around the strongest one and keeps
+     * the groups with enough members, strongest first.
+     */
+    private void groupCandidates() {
+        mFaceCount = 0;
+        for (int i = 0; i < mCandCount; i++) {
+            mCandUsed[i] = false;
+        }
+        while (mFaceCount < mMaxFaces) {
+            int best = -1;
+            for (int i = 0; i < mCandCount; i++) {
+                if (!mCandUsed[i] && (best < 0 || mCandScore[i] > mCandScore[best])) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+
+            int members = 0;
+            float total = 0f;
+            for (int i = 0; i < mCandCount; i++) {
+                if (!mCandUsed[i] && mCandUp[i] == mCandUp[best]
+                        && overlap(best, i) > GROUP_OVERLAP) {
+                    members++;
+                    total += mCandScore[i];
+                }
+            }
+            if (members < MIN_NEIGHBORS) {
+                // A lone hit; drop it without taking anything else with it.
+                mCandUsed[best] = true;
+                continue;
+            }
+            for (int i = 0; i < mCandCount; i++) {
+                if (overlap(best, i) > GROUP_OVERLAP || contains(best, i)) {
+                    mCandUsed[i] = true;
+                }
+            }
+
+            int scale = mDownscale;
+            int up = mCandUp[best];
+            if (mVerifier != null && mFaceCount == 0) {
+                // Once per detection; the weaker groups go with its verdict.
+                up = mVerifier.verify(mPlane, mFrameWidth, mFrameHeight, mCandX[best] * scale,
+                        mCandY[best] * scale, mCandSize[best] * scale, up);
+                if (up == FaceVerifier.REJECTED) {
+                    mRejected++;
+                    break;
+                }
+            }
+
+            int f = mFaceCount++;
+            mFaceLeft[f] = mCandX[best] * scale;
+            mFaceTop[f] = mCandY[best] * scale;
+            mFaceRight[f] = (mCandX[best] + mCandSize[best]) * scale;
+            mFaceBottom[f] = (mCandY[best] + mCandSize[best]) * scale;
+            mFaceUp[f] = up;
+            // More agreeing hits and larger margins mean a more certain face.
+            mFaceScore[f] = Math.max(1, Math.min(100, (int) (total / 4f)));
+        }
+    }
+
+    /**
+     * Returns true if the center of candidate b lies inside candidate a; such hits are parts
+     * of the same face (an eye and a brow can pass for a small face).
+     */
+    private boolean contains(int a, int b) {
+        int centerX = mCandX[b] + mCandSize[b] / 2;
+        int centerY = mCandY[b] + mCandSize[b] / 2;
+        return centerX >= mCandX[a] && centerX < mCandX[a] + mCandSize[a]
+                && centerY >= mCandY[a] && centerY < mCandY[a] + mCandSize[a];
+    }
+
+    private float overlap(int a, int b) {
+        int left = Math.max(mCandX[a], mCandX[b]);
+        int top = Math.max(mCandY[a], mCandY[b]);
+        int right = Math.min(mCandX[a] + mCandSize[a], mCandX[b] + mCandSize[b]);
+        int bottom = Math.min(mCandY[a] + mCandSize[a], mCandY[b] + mCandSize[b]);
+        if (right <= left || bottom <= top) {
+            return 0f;
+        }
+        float intersection = (right - left) * (bottom - top);
+        float union = mCandSize[a] * mCandSize[a] + mCandSize[b] * mCandSize[b] - intersection;
+        return intersection / union;
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core.frame;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs frame analysis on its own thread so the thread that receives frames from the camera
+ * only queues them and hands buffers back.
+ *
+ * Frames go to the worker through a {@link SpscFrameQueue}; buffers the analysis is done with
+ * come back through a second one, which the producer drains with {@link #pollReturned}. Apart
+ * from frames, the producer can {@link #signal} the worker, e.g. when the camera reported
+ * faces. The worker parks while there is nothing to do, and is only unparked when it parked;
+ * neither queue locks.
+ *
+ * The worker thread is created by the first {@link #start} and lives until {@link #quit}; in
+ * between sessions it hands the frames still queued back and parks, so a preview that starts
+ * and stops often does not create a thread each time.
+ *
+ * {@link #start}, {@link #stop}, {@link #clear} and {@link #quit} are called from the producer
+ * thread; the counters may be read from any thread.
+ */
+public class FrameAnalysisWorker {
+
+    /**
+     * The analysis, called on the worker thread.
+     */
+    public interface Analyzer {
+        /**
+         * Analyzes the next frame.
+         *
+         * @return a buffer the analysis is done with, to hand back to the producer, or null
+         */
+        public byte[] onFrame(byte[] frame, long timestampNs);
+
+        /**
+         * Called after {@link FrameAnalysisWorker#signal}, once for any number of signals.
+         */
+        public void onSignal();
+    }
+
+    private final String mName;
+    private final Analyzer mAnalyzer;
+    private final SpscFrameQueue mFrames;
+    private final SpscFrameQueue mReturned;
+
+    private final AtomicBoolean mSignaled = new AtomicBoolean(false);
+    private final AtomicBoolean mParked = new AtomicBoolean(false);
+    private volatile boolean mRunning = false;
+    private volatile boolean mQuit = false;
+    private volatile Thread mThread;
+
+    // Stops asked for by the producer, and the latest one the worker has finished.
+    private volatile int mStopRequests;
+    private int mStopsDone;
+    private final Object mStopLock = new Object();
+
+    // Written by the worker thread only.
+    private volatile long mAnalyzed;
+    private volatile long mBusyNs;
+    // Written by the producer thread only.
+    private volatile long mStartNs = -1;
+    private volatile long mRunNs;
+
+    /**
+     * @param name        the name of the worker thread
+     * @param capacity    the number of frames that may wait for the worker
+     * @param bufferCount the number of buffers in circulation, so handing one back never fails
+     */
+    public FrameAnalysisWorker(String name, int capacity, int bufferCount, Analyzer analyzer) {
+        if (bufferCount < capacity) {
+            throw new IllegalArgumentException("fewer buffers than queued frames");
+        }
+        mName = name;
+        mAnalyzer = analyzer;
+        mFrames = new SpscFrameQueue(capacity);
+        mReturned = new SpscFrameQueue(bufferCount);
+    }
+
+    /**
+     * Starts analyzing, if not running. Creates the worker thread the first time.
+     */
+    public void start() {
+        if (mRunning || mQuit) {
+            return;
+        }
+        mRunning = true;
+        mStartNs = System.nanoTime();
+        if (mThread == null) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    loop();
+                }
+            }, mName);
+            thread.setDaemon(true);
+            mThread = thread;
+            thread.start();
+        } else {
+            LockSupport.unpark(mThread);
+        }
+    }
+
+    /**
+     * Stops analyzing and waits up to timeoutMs for the worker to finish the frame it is on,
+     * hand the frames still queued back and park. If stopped already, waits for that stop.
+     *
+     * @return false if the worker is still analyzing, in which case it parks once done
+     */
+    public boolean stop(long timeoutMs) {
+        if (!mRunning) {
+            return awaitStop(mStopRequests, timeoutMs);
+        }
+        mRunning = false;
+        mRunNs += System.nanoTime() - mStartNs;
+        mStartNs = -1;
+        int request = ++mStopRequests;
+        LockSupport.unpark(mThread);
+        return awaitStop(request, timeoutMs);
+    }
+
+    private boolean awaitStop(int request, long timeoutMs) {
+        long deadlineNs = System.nanoTime() + timeoutMs * 1000000L;
+        boolean interrupted = false;
+        synchronized (mStopLock) {
+            long remainingNs;
+            while (mStopsDone != request && (remainingNs = deadlineNs - System.nanoTime()) > 0) {
+                try {
+                    mStopLock.wait(Math.max(1, remainingNs / 1000000L));
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (mStopLock) {
+            return mStopsDone == request;
+        }
+    }
+
+    /**
+     * Stops analyzing and lets the worker thread end, e.g. when the camera is destroyed. Does
+     * not wait for it.
+     */
+    public void quit() {
+        mRunning = false;
+        mQuit = true;
+        LockSupport.unpark(mThread);
+    }
+
+    public boolean isRunning() {
+        return mRunning;
+    }
+
+    /**
+     * Forgets the frames queued for the worker and the buffers queued back, e.g. when the
+     * camera got all its buffers back anyway. Only once {@link #stop} returned true.
+     */
+    public void clear() {
+        mFrames.clear();
+        mReturned.clear();
+        mSignaled.set(false);
+    }
+
+    /**
+     * Queues a frame for analysis. Producer only.
+     *
+     * @return false if the queue is full; the frame stays with the caller
+     */
+    public boolean offer(byte[] frame, long timestampNs) {
+        if (!mFrames.offer(frame, timestampNs)) {
+            return false;
+        }
+        wake();
+        return true;
+    }
+
+    /**
+     * Returns a buffer the analysis is done with, or null if none. Producer only.
+     */
+    public byte[] pollReturned() {
+        return mReturned.poll();
+    }
+
+    /**
+     * Has the worker call {@link Analyzer#onSignal} soon. Producer only.
+     */
+    public void signal() {
+        mSignaled.set(true);
+        wake();
+    }
+
+    private void wake() {
+        // The atomic swap orders it after the store that published the work, so a worker
+        // that parks after this call saw that work first.
+        if (mParked.getAndSet(false)) {
+            LockSupport.unpark(mThread);
+        }
+    }
+
+    private void loop() {
+        while (!mQuit) {
+            if (!mRunning) {
+                idle();
+                continue;
+            }
+            byte[] frame = mFrames.poll();
+            if (frame != null) {
+                long startNs = System.nanoTime();
+                byte[] done = mAnalyzer.onFrame(frame, mFrames.getPolledTimestampNs());
+                if (done != null) {
+                    // Can not fail: there are no more buffers than the queue holds.
+                    mReturned.offer(done, -1);
+                }
+                mAnalyzed++;
+                mBusyNs += System.nanoTime() - startNs;
+                continue;
+            }
+            if (mSignaled.getAndSet(false)) {
+                long startNs = System.nanoTime();
+                mAnalyzer.onSignal();
+                mBusyNs += System.nanoTime() - startNs;
+                continue;
+            }
+            mParked.set(true);
+            if (mRunning && mFrames.isEmpty() && !mSignaled.get()) {
+                LockSupport.park(this);
+            }
+            mParked.set(false);
+        }
+    }
+
+    /**
+     * Hands the frames queued for the worker back unanalyzed, tells a waiting {@link #stop}
+     * and parks until started again or stopped once more.
+     */
+    private void idle() {
+        int request = mStopRequests;
+        byte[] frame;
+        while ((frame = mFrames.poll()) != null) {
+            mReturned.offer(frame, -1);
+        }
+        mSignaled.set(false);
+        synchronized (mStopLock) {
+            mStopsDone = request;
+            mStopLock.notifyAll();
+        }
+        while (!mRunning && !mQuit && mStopRequests == request) {
+            LockSupport.park(this);
+        }
+    }
+
+    /**
+     * Returns the number of frames waiting for the worker.
+     */
+    public int getDepth() {
+        return mFrames.size();
+    }
+
+    public int getMaxDepth() {
+        return mFrames.getMaxDepth();
+    }
+
+    /**
+     * Frames the producer could not queue because the worker was behind.
+     */
+    public long getOfferFailureCount() {
+        return mFrames.getOfferFailureCount();
+    }
+
+    public long getAnalyzedCount() {
+        return mAnalyzed;
+    }
+
+    /**
+     * Returns the share of the time the worker ran that it spent analyzing, 0 to 1.
+     */
+    public float getUtilization() {
+        long startNs = mStartNs;
+        long runNs = mRunNs + (startNs >= 0 ? System.nanoTime() - startNs : 0);
+        return runNs > 0 ? Math.min(1f, (float) mBusyNs / runNs) : 0f;
+    }
+
+    @Override
+    public String toString() {
+        return "FrameAnalysisWorker[" + mName + (mRunning ? ", running" : "") + ", depth "
+                + getDepth() + "/" + mFrames.getCapacity() + ", max depth " + getMaxDepth()
+                + ", analyzed " + mAnalyzed + ", offer failures " + getOfferFailureCount()
+                + ", utilization " + Math.round(getUtilization() * 100) + "%]";
+    }
+}
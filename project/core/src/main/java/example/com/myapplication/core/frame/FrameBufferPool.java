@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core.frame;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A pool of frame buffers keyed by their size in bytes.
+ *
+ * Buffers handed back with {@link #release} are kept for the next {@link #acquire} of the
+ * same size, up to a fixed number per size, so switching preview sizes back and forth does
+ * not reallocate. Not thread safe.
+ */
+public class FrameBufferPool {
+
+    private final int mMaxPerSize;
+    private final Map<Integer, ArrayDeque<byte[]>> mFree = new HashMap<Integer, ArrayDeque<byte[]>>();
+    private long mAllocated;
+    private long mReused;
+
+    /**
+     * @param maxPerSize the maximum number of idle buffers kept for each frame size
+     */
+    public FrameBufferPool(int maxPerSize) {
+        mMaxPerSize = maxPerSize;
+    }
+
+    /**
+     * Returns a buffer of exactly {@code size} bytes, reusing an idle one if possible.
+     */
+    public byte[] acquire(int size) {
+        ArrayDeque<byte[]> free = mFree.get(size);
+        if (free != null && !free.isEmpty()) {
+            mReused++;
+            return free.pop();
+        }
+        mAllocated++;
+        return new byte[size];
+    }
+
+    /**
+     * Hands a buffer back to the pool. It is dropped if the pool for its size is full.
+     */
+    public void release(byte[] buffer) {
+        ArrayDeque<byte[]> free = mFree.get(buffer.length);
+        if (free == null) {
+            free = new ArrayDeque<byte[]>(mMaxPerSize);
+            mFree.put(buffer.length, free);
+        }
+        if (free.size() < mMaxPerSize) {
+            free.push(buffer);
+        }
+    }
+
+    /**
+     * Drops all idle buffers.
+     */
+    public void clear() {
+        mFree.clear();
+    }
+
+    public int getIdleCount(int size) {
+        ArrayDeque<byte[]> free = mFree.get(size);
+        return free == null ? 0 : free.size();
+    }
+
+    public long getAllocatedCount() {
+        return mAllocated;
+    }
+
+    public long getReusedCount() {
+        return mReused;
+    }
+}
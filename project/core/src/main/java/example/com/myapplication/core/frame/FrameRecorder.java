@@ -0,0 +1,357 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core.frame;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import example.com.myapplication.core.FaceBatch;
+
+/**
+ * Records preview frames for offline analysis without slowing down the preview callback.
+ *
+ * {@link #record} copies the frame into one of a fixed number of preallocated slots and
+ * queues it; a background thread appends queued slots to memory-mapped segment files. If
+ * every slot is still waiting to be written the frame is dropped and counted, so the caller
+ * never waits for the disk.
+ *
+ * Segment layout, little endian:
+ * <pre>
+ *   file header:  int SEGMENT_MAGIC, int FORMAT_VERSION
+ *   per frame:    int FRAME_MAGIC, long timestampNs, int width, int height, int format,
+ *                 int dataSize, int faceCount, MAX_FACES x (int left, top, right, bottom,
+ *                 score, id, rectOrientation), dataSize bytes of frame data
+ *   end:          int 0, unless the segment is exactly full
+ * </pre>
+ * Segments are named {@code <prefix>_000.frec}, {@code <prefix>_001.frec} and so on, see
+ * {@link FrameRecordingReader}.
+ *
+ * {@link #record} must be called from one thread; {@link #start} and {@link #stop} from
+ * the owner.
+ */
+public class FrameRecorder {
+
+    public static final int SEGMENT_MAGIC = 0x43455246; // "FREC"
+    public static final int FRAME_MAGIC = 0x314d5246;   // "FRM1"
+    public static final int FORMAT_VERSION = 1;
+    public static final String SEGMENT_SUFFIX = ".frec";
+
+    // Faces stored per frame; more are not recorded.
+    public static final int MAX_FACES = 4;
+    static final int INTS_PER_FACE = 7;
+
+    static final int SEGMENT_HEADER_BYTES = 8;
+    static final int FRAME_HEADER_BYTES = 4 + 8 + 5 * 4 + MAX_FACES * INTS_PER_FACE * 4;
+
+    public static final int DEFAULT_SLOTS = 4;
+    public static final long DEFAULT_SEGMENT_BYTES = 32L * 1024 * 1024;
+
+    // How long the writer waits for a frame before checking whether it should stop.
+    private static final long POLL_MS = 100;
+
+    private static final class Slot {
+        byte[] data;
+        int length;
+        long timestampNs;
+        int width;
+        int height;
+        int format;
+        int faceCount;
+        final int[] faces = new int[MAX_FACES * INTS_PER_FACE];
+    }
+
+    private final File mDir;
+    private final String mPrefix;
+    private final long mSegmentBytes;
+    private final ArrayBlockingQueue<Slot> mFree;
+    private final ArrayBlockingQueue<Slot> mQueued;
+
+    private Thread mWriter;
+    private volatile boolean mRunning = false;
+
+    // Writer thread state.
+    private RandomAccessFile mFile;
+    private FileChannel mChannel;
+    private MappedByteBuffer mSegment;
+    private int mSegmentIndex;
+
+    private volatile long mRecorded;
+    private volatile long mDropped;
+    private volatile long mWritten;
+    private volatile long mBytesWritten;
+    private volatile IOException mError;
+
+    public FrameRecorder(File dir, String prefix) {
+        this(dir, prefix, DEFAULT_SLOTS, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * @param dir          the directory segments are written to, created if needed
+     * @param prefix       the segment file name prefix
+     * @param slots        the number of frames that may wait for the writer
+     * @param segmentBytes the size of one segment file
+     */
+    public FrameRecorder(File dir, String prefix, int slots, long segmentBytes) {
+        if (slots < 1 || segmentBytes <= SEGMENT_HEADER_BYTES + FRAME_HEADER_BYTES
+                || segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("invalid recorder config: " + slots
+                    + " slots, " + segmentBytes + " bytes per segment");
+        }
+        mDir = dir;
+        mPrefix = prefix;
+        mSegmentBytes = segmentBytes;
+        mFree = new ArrayBlockingQueue<Slot>(slots);
+        mQueued = new ArrayBlockingQueue<Slot>(slots);
+        for (int i = 0; i < slots; i++) {
+            mFree.add(new Slot());
+        }
+    }
+
+    /**
+     * Preallocates the slots for frames of {@code frameSize} bytes, so {@link #record} does
+     * not allocate. Slots are otherwise grown on demand.
+     */
+    public void configure(int frameSize) {
+        for (Slot slot : mFree) {
+            if (slot.data == null || slot.data.length < frameSize) {
+                slot.data = new byte[frameSize];
+            }
+        }
+    }
+
+    /**
+     * Starts the writer thread. Segments are numbered from 0 again, overwriting a previous
+     * recording with the same prefix.
+     */
+    public synchronized void start() {
+        if (mRunning) {
+            return;
+        }
+        mError = null;
+        mSegmentIndex = 0;
+        mRunning = true;
+        mWriter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeLoop();
+            }
+        }, "FrameRecorder");
+        mWriter.start();
+    }
+
+    /**
+     * Writes what is queued, closes the current segment and stops the writer thread.
+     */
+    public synchronized void stop() {
+        if (!mRunning) {
+            return;
+        }
+        mRunning = false;
+        try {
+            mWriter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        mWriter = null;
+    }
+
+    public boolean isRunning() {
+        return mRunning;
+    }
+
+    /**
+     * Queues a frame together with the faces known for it. Returns false if the frame was
+     * dropped because the recorder is stopped, failed or too far behind.
+     *
+     * @param frame     the frame data, copied before returning
+     * @param length    the number of bytes of {@code frame} to record
+     * @param format    the image format, e.g. ImageFormat.NV21
+     * @param faces     the faces, in camera driver coordinates; may be null for none. Only
+     *                  the first MAX_FACES are recorded.
+     */
+    public boolean record(byte[] frame, int length, int width, int height, int format,
+            long timestampNs, FaceBatch faces) {
+        if (!mRunning || mError != null) {
+            return false;
+        }
+        Slot slot = mFree.poll();
+        if (slot == null) {
+            mDropped++;
+            return false;
+        }
+        if (slot.data == null || slot.data.length < length) {
+            slot.data = new byte[length];
+        }
+        System.arraycopy(frame, 0, slot.data, 0, length);
+        slot.length = length;
+        slot.timestampNs = timestampNs;
+        slot.width = width;
+        slot.height = height;
+        slot.format = format;
+        slot.faceCount = faces != null ? Math.min(faces.getCount(), MAX_FACES) : 0;
+        for (int i = 0; i < slot.faceCount; i++) {
+            int base = i * INTS_PER_FACE;
+            slot.faces[base] = faces.getLeft(i);
+            slot.faces[base + 1] = faces.getTop(i);
+            slot.faces[base + 2] = faces.getRight(i);
+            slot.faces[base + 3] = faces.getBottom(i);
+            slot.faces[base + 4] = faces.getScore(i);
+            slot.faces[base + 5] = faces.getId(i);
+            slot.faces[base + 6] = faces.getRectOrientation(i);
+        }
+        mQueued.add(slot);
+        mRecorded++;
+        return true;
+    }
+
+    private void writeLoop() {
+        try {
+            while (mRunning || !mQueued.isEmpty()) {
+                Slot slot = mQueued.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (slot == null) {
+                    continue;
+                }
+                try {
+                    if (mError == null) {
+                        write(slot);
+                    }
+                } catch (IOException e) {
+                    mError = e;
+                } finally {
+                    mFree.add(slot);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                closeSegment();
+            } catch (IOException e) {
+                if (mError == null) {
+                    mError = e;
+                }
+            }
+        }
+    }
+
+    private void write(Slot slot) throws IOException {
+        int recordBytes = FRAME_HEADER_BYTES + slot.length;
+        if (SEGMENT_HEADER_BYTES + recordBytes > mSegmentBytes) {
+            throw new IOException("frame of " + slot.length + " bytes does not fit a segment");
+        }
+        if (mSegment != null && mSegment.remaining() < recordBytes) {
+            closeSegment();
+        }
+        if (mSegment == null) {
+            openSegment();
+        }
+        MappedByteBuffer out = mSegment;
+        out.putInt(FRAME_MAGIC);
+        out.putLong(slot.timestampNs);
+        out.putInt(slot.width);
+        out.putInt(slot.height);
+        out.putInt(slot.format);
+        out.putInt(slot.length);
+        out.putInt(slot.faceCount);
+        for (int i = 0; i < slot.faces.length; i++) {
+            out.putInt(i < slot.faceCount * INTS_PER_FACE ? slot.faces[i] : 0);
+        }
+        out.put(slot.data, 0, slot.length);
+        mWritten++;
+        mBytesWritten += recordBytes;
+    }
+
+    private void openSegment() throws IOException {
+        if (!mDir.isDirectory() && !mDir.mkdirs()) {
+            throw new IOException("can not create " + mDir);
+        }
+        File file = getSegmentFile(mDir, mPrefix, mSegmentIndex++);
+        mFile = new RandomAccessFile(file, "rw");
+        mFile.setLength(0);
+        mChannel = mFile.getChannel();
+        mSegment = mChannel.map(FileChannel.MapMode.READ_WRITE, 0, mSegmentBytes);
+        mSegment.order(ByteOrder.LITTLE_ENDIAN);
+        mSegment.putInt(SEGMENT_MAGIC);
+        mSegment.putInt(FORMAT_VERSION);
+    }
+
+    private void closeSegment() throws IOException {
+        if (mSegment == null) {
+            return;
+        }
+        int end = mSegment.position();
+        if (mSegment.remaining() >= 4) {
+            mSegment.putInt(0);
+        }
+        mSegment.force();
+        mSegment = null;
+        try {
+            // Mapped pages stay valid until collected; only the unused tail is cut off.
+            mFile.setLength(Math.min(mSegmentBytes, end + 4));
+        } finally {
+            mChannel.close();
+            mFile.close();
+            mChannel = null;
+            mFile = null;
+        }
+    }
+
+    /**
+     * Returns the file of segment {@code index} of a recording.
+     */
+    public static File getSegmentFile(File dir, String prefix, int index) {
+        return new File(dir, String.format(Locale.US, "%s_%03d%s", prefix, index,
+                SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Frames accepted by {@link #record}.
+     */
+    public long getRecordedCount() {
+        return mRecorded;
+    }
+
+    /**
+     * Frames dropped because no slot was free.
+     */
+    public long getDroppedCount() {
+        return mDropped;
+    }
+
+    /**
+     * Frames written to a segment.
+     */
+    public long getWrittenCount() {
+        return mWritten;
+    }
+
+    public long getBytesWritten() {
+        return mBytesWritten;
+    }
+
+    /**
+     * Returns the error that stopped the writer, or null.
+     */
+    public IOException getError() {
+        return mError;
+    }
+
+    @Override
+    public String toString() {
+        return "FrameRecorder[" + mPrefix + ", recorded " + mRecorded + ", dropped " + mDropped
+                + ", written " + mWritten + " (" + mBytesWritten + " bytes)"
+                + (mError != null ? ", failed: " + mError.getMessage() : "") + "]";
+    }
+}
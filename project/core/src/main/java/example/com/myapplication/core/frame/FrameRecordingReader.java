@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core.frame;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import example.com.myapplication.core.FaceBatch;
+import example.com.myapplication.core.FaceRecord;
+
+/**
+ * Reads a recording written by {@link FrameRecorder}, frame by frame across all of its
+ * segments. Not thread safe.
+ */
+public class FrameRecordingReader {
+
+    private final File mDir;
+    private final String mPrefix;
+    private int mSegmentIndex = 0;
+    private MappedByteBuffer mSegment;
+
+    private long mTimestampNs;
+    private int mWidth;
+    private int mHeight;
+    private int mFormat;
+    private int mDataSize;
+    private int mDataPosition;
+    private int mFaceCount;
+    private final int[] mFaces = new int[FrameRecorder.MAX_FACES * FrameRecorder.INTS_PER_FACE];
+
+    public FrameRecordingReader(File dir, String prefix) {
+        mDir = dir;
+        mPrefix = prefix;
+    }
+
+    /**
+     * Advances to the next frame. Returns false at the end of the recording.
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            if (mSegment == null && !openNextSegment()) {
+                return false;
+            }
+            if (mSegment.remaining() >= FrameRecorder.FRAME_HEADER_BYTES) {
+                int magic = mSegment.getInt();
+                if (magic == FrameRecorder.FRAME_MAGIC) {
+                    readFrameHeader();
+                    return true;
+                }
+                if (magic != 0) {
+                    throw new IOException("corrupt frame header in segment "
+                            + (mSegmentIndex - 1));
+                }
+            }
+            mSegment = null;
+        }
+    }
+
+    private void readFrameHeader() throws IOException {
+        mTimestampNs = mSegment.getLong();
+        mWidth = mSegment.getInt();
+        mHeight = mSegment.getInt();
+        mFormat = mSegment.getInt();
+        mDataSize = mSegment.getInt();
+        mFaceCount = mSegment.getInt();
+        for (int i = 0; i < mFaces.length; i++) {
+            mFaces[i] = mSegment.getInt();
+        }
+        if (mDataSize < 0 || mDataSize > mSegment.remaining()
+                || mFaceCount < 0 || mFaceCount > FrameRecorder.MAX_FACES) {
+            throw new IOException("corrupt frame in segment " + (mSegmentIndex - 1));
+        }
+        mDataPosition = mSegment.position();
+        mSegment.position(mDataPosition + mDataSize);
+    }
+
+    private boolean openNextSegment() throws IOException {
+        File file = FrameRecorder.getSegmentFile(mDir, mPrefix, mSegmentIndex);
+        if (!file.isFile()) {
+            return false;
+        }
+        mSegmentIndex++;
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            mSegment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            raf.close();
+        }
+        mSegment.order(ByteOrder.LITTLE_ENDIAN);
+        if (mSegment.remaining() < FrameRecorder.SEGMENT_HEADER_BYTES
+                || mSegment.getInt() != FrameRecorder.SEGMENT_MAGIC
+                || mSegment.getInt() != FrameRecorder.FORMAT_VERSION) {
+            throw new IOException("not a frame recording: " + file);
+        }
+        return true;
+    }
+
+    public long getTimestampNs() {
+        return mTimestampNs;
+    }
+
+    public int getWidth() {
+        return mWidth;
+    }
+
+    public int getHeight() {
+        return mHeight;
+    }
+
+    public int getFormat() {
+        return mFormat;
+    }
+
+    public int getDataSize() {
+        return mDataSize;
+    }
+
+    /**
+     * Copies the data of the current frame into {@code dst}, which must hold
+     * {@link #getDataSize} bytes.
+     */
+    public void readData(byte[] dst) {
+        int next = mSegment.position();
+        mSegment.position(mDataPosition);
+        mSegment.get(dst, 0, mDataSize);
+        mSegment.position(next);
+    }
+
+    public int getFaceCount() {
+        return mFaceCount;
+    }
+
+    /**
+     * Copies face {@code i} of the current frame into {@code record}.
+     */
+    public void getFace(int i, FaceRecord record) {
+        int base = i * FrameRecorder.INTS_PER_FACE;
+        record.set(mFaces[base], mFaces[base + 1], mFaces[base + 2], mFaces[base + 3],
+                mFaces[base + 5], mFaces[base + 4]);
+        record.rectOrientation = mFaces[base + 6];
+    }
+
+    /**
+     * Replaces the contents of {@code batch} with the faces of the current frame.
+     */
+    public void getFaces(FaceBatch batch) {
+        batch.clear();
+        for (int i = 0; i < mFaceCount; i++) {
+            int base = i * FrameRecorder.INTS_PER_FACE;
+            int index = batch.add(mFaces[base], mFaces[base + 1], mFaces[base + 2],
+                    mFaces[base + 3], mFaces[base + 5], mFaces[base + 4]);
+            batch.setRectOrientation(index, mFaces[base + 6]);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core.frame;
+
+/**
+ * A fixed set of preview buffers shared between the camera HAL and frame analysis.
+ *
+ * All buffers start out with the HAL. Every delivered frame is held by the ring so analysis
+ * can read it in place; once more than {@code maxHeld} frames are held, the oldest one is
+ * evicted and its buffer goes back to the HAL (drop-oldest / keep-latest). Since at most
+ * {@code bufferCount - 1} frames are ever held, the HAL always owns at least one buffer and
+ * never stalls waiting for us.
+ *
+ * The ring is used from one thread at a time: the one that receives the frames, or the
+ * analysis thread they are handed to, see FrameAnalysisWorker. Handing the ring over between
+ * the two must happen-before its next use, e.g. by starting or joining the worker. The
+ * counters may be read from any thread.
+ */
+public class FrameRing {
+
+    private final FrameBufferPool mPool;
+    private final int mBufferCount;
+    private final int mMaxHeld;
+    private final byte[][] mBuffers;
+
+    // Circular list of held frames, oldest first.
+    private final byte[][] mHeld;
+    private final long[] mHeldTimestamps;
+    private final boolean[] mHeldConsumed;
+    private int mHeldHead;
+    private int mHeldCount;
+
+    private int mFrameSize = -1;
+
+    private volatile long mDelivered;
+    private volatile long mDropped;
+    private volatile long mRecycled;
+
+    /**
+     * @param bufferCount the number of buffers shared with the HAL, at least 2
+     * @param maxHeld     the number of latest frames kept for analysis, at most
+     *                    {@code bufferCount - 1}
+     */
+    public FrameRing(int bufferCount, int maxHeld, FrameBufferPool pool) {
+        if (bufferCount < 2 || maxHeld < 1 || maxHeld > bufferCount - 1) {
+            throw new IllegalArgumentException("invalid ring config: " + bufferCount
+                    + " buffers, " + maxHeld + " held");
+        }
+        mPool = pool;
+        mBufferCount = bufferCount;
+        mMaxHeld = maxHeld;
+        mBuffers = new byte[bufferCount][];
+        mHeld = new byte[maxHeld][];
+        mHeldTimestamps = new long[maxHeld];
+        mHeldConsumed = new boolean[maxHeld];
+    }
+
+    /**
+     * Makes sure the ring holds buffers of {@code frameSize} bytes and forgets every held
+     * frame. Buffers of a previous size go back to the pool. Afterwards all buffers are
+     * owned by the HAL again and must be handed to it, see {@link #getBuffer}.
+     */
+    public void configure(int frameSize) {
+        clearHeld();
+        if (frameSize == mFrameSize) {
+            return;
+        }
+        for (int i = 0; i < mBufferCount; i++) {
+            if (mBuffers[i] != null) {
+                mPool.release(mBuffers[i]);
+            }
+            mBuffers[i] = mPool.acquire(frameSize);
+        }
+        mFrameSize = frameSize;
+    }
+
+    public int getFrameSize() {
+        return mFrameSize;
+    }
+
+    public int getBufferCount() {
+        return mBufferCount;
+    }
+
+    public byte[] getBuffer(int index) {
+        return mBuffers[index];
+    }
+
+    /**
+     * Records a frame delivered by the HAL.
+     *
+     * @return the buffer to hand back to the HAL now, or null if none. Frames that do not
+     *         belong to the current configuration are dropped and not returned.
+     */
+    public byte[] onFrameDelivered(byte[] frame, long timestampNs) {
+        if (frame == null || frame.length != mFrameSize) {
+            return null;
+        }
+        mDelivered++;
+
+        byte[] evicted = null;
+        if (mHeldCount == mMaxHeld) {
+            evicted = evictOldest();
+        }
+        int slot = (mHeldHead + mHeldCount) % mMaxHeld;
+        mHeld[slot] = frame;
+        mHeldTimestamps[slot] = timestampNs;
+        mHeldConsumed[slot] = false;
+        mHeldCount++;
+        return evicted;
+    }
+
+    /**
+     * Returns the most recent held frame, or null if none, and marks it as consumed. The
+     * buffer stays valid until the next {@link #onFrameDelivered} or {@link #configure}.
+     */
+    public byte[] latest() {
+        if (mHeldCount == 0) {
+            return null;
+        }
+        int slot = (mHeldHead + mHeldCount - 1) % mMaxHeld;
+        mHeldConsumed[slot] = true;
+        return mHeld[slot];
+    }
+
+    /**
+     * Returns the timestamp of the most recent held frame, or -1 if none.
+     */
+    public long latestTimestamp() {
+        if (mHeldCount == 0) {
+            return -1;
+        }
+        return mHeldTimestamps[(mHeldHead + mHeldCount - 1) % mMaxHeld];
+    }
+
+    public int getHeldCount() {
+        return mHeldCount;
+    }
+
+    /**
+     * Frames received from the HAL.
+     */
+    public long getDeliveredCount() {
+        return mDelivered;
+    }
+
+    /**
+     * Frames evicted before anybody looked at them.
+     */
+    public long getDroppedCount() {
+        return mDropped;
+    }
+
+    /**
+     * Buffers handed back to the HAL after being held.
+     */
+    public long getRecycledCount() {
+        return mRecycled;
+    }
+
+    public void resetCounters() {
+        mDelivered = 0;
+        mDropped = 0;
+        mRecycled = 0;
+    }
+
+    private byte[] evictOldest() {
+        byte[] frame = mHeld[mHeldHead];
+        if (!mHeldConsumed[mHeldHead]) {
+            mDropped++;
+        }
+        mRecycled++;
+        mHeld[mHeldHead] = null;
+        mHeldHead = (mHeldHead + 1) % mMaxHeld;
+        mHeldCount--;
+        return frame;
+    }
+
+    private void clearHeld() {
+        for (int i = 0; i < mMaxHeld; i++) {
+            mHeld[i] = null;
+        }
+        mHeldHead = 0;
+        mHeldCount = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "FrameRing[" + mBufferCount + " x " + mFrameSize + " bytes, delivered "
+                + mDelivered + ", dropped " + mDropped + ", recycled " + mRecycled + "]";
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core.frame;
+
+/**
+ * Half, quarter and eighth scale grayscale copies of a preview frame.
+ *
+ * Level 0 is the luma plane of the NV21 frame itself and is never copied; level {@code n}
+ * is the 2x2 box average of level {@code n - 1}, computed in a single pass with integer
+ * arithmetic. The planes are allocated by {@link #configure} for a preview size, so
+ * {@link #build} on frames of that size does not allocate. Any level can be read through a
+ * rotated or transposed {@link LumaView}.
+ *
+ * Used from the camera thread only.
+ */
+public class LumaPyramid {
+
+    public static final int DEFAULT_LEVELS = 4;
+
+    // View transforms, rotations are clockwise.
+    public static final int ROTATE_0 = 0;
+    public static final int ROTATE_90 = 1;
+    public static final int ROTATE_180 = 2;
+    public static final int ROTATE_270 = 3;
+    public static final int TRANSPOSE = 4;
+
+    private final int mMaxLevels;
+
+    private int mWidth = -1;
+    private int mHeight = -1;
+    private int mLevelCount;
+    private final int[] mLevelWidths;
+    private final int[] mLevelHeights;
+    // mPlanes[0] is the last frame passed to build().
+    private final byte[][] mPlanes;
+
+    public LumaPyramid() {
+        this(DEFAULT_LEVELS);
+    }
+
+    /**
+     * @param maxLevels the number of levels including the full resolution one
+     */
+    public LumaPyramid(int maxLevels) {
+        if (maxLevels < 1) {
+            throw new IllegalArgumentException("invalid level count " + maxLevels);
+        }
+        mMaxLevels = maxLevels;
+        mLevelWidths = new int[maxLevels];
+        mLevelHeights = new int[maxLevels];
+        mPlanes = new byte[maxLevels][];
+    }
+
+    /**
+     * Allocates the planes for frames of the given size. Levels that would be narrower or
+     * lower than 1 pixel are left out. Does nothing if the size did not change.
+     */
+    public void configure(int width, int height) {
+        if (width == mWidth && height == mHeight) {
+            return;
+        }
+        mWidth = width;
+        mHeight = height;
+        mLevelWidths[0] = width;
+        mLevelHeights[0] = height;
+        mPlanes[0] = null;
+        mLevelCount = 1;
+        while (mLevelCount < mMaxLevels) {
+            int w = mLevelWidths[mLevelCount - 1] / 2;
+            int h = mLevelHeights[mLevelCount - 1] / 2;
+            if (w < 1 || h < 1) {
+                break;
+            }
+            mLevelWidths[mLevelCount] = w;
+            mLevelHeights[mLevelCount] = h;
+            mPlanes[mLevelCount] = new byte[w * h];
+            mLevelCount++;
+        }
+        for (int i = mLevelCount; i < mMaxLevels; i++) {
+            mPlanes[i] = null;
+        }
+    }
+
+    /**
+     * Fills every level from {@code frame}, whose first {@code width * height} bytes are the
+     * luma plane of the configured size. The frame is referenced, not copied, as level 0.
+     */
+    public void build(byte[] frame) {
+        if (mWidth < 0 || frame.length < mWidth * mHeight) {
+            throw new IllegalStateException("pyramid configured for " + mWidth + "x" + mHeight
+                    + ", frame has " + frame.length + " bytes");
+        }
+        mPlanes[0] = frame;
+        for (int level = 1; level < mLevelCount; level++) {
+            halve(mPlanes[level - 1], mLevelWidths[level - 1], mPlanes[level],
+                    mLevelWidths[level], mLevelHeights[level]);
+        }
+    }
+
+    private static void halve(byte[] src, int srcWidth, byte[] dst, int width, int height) {
+        int out = 0;
+        for (int y = 0; y < height; y++) {
+            int top = 2 * y * srcWidth;
+            int bottom = top + srcWidth;
+            for (int x = 0; x < width; x++, top += 2, bottom += 2) {
+                int sum = (src[top] & 0xFF) + (src[top + 1] & 0xFF)
+                        + (src[bottom] & 0xFF) + (src[bottom + 1] & 0xFF);
+                dst[out++] = (byte) ((sum + 2) >> 2);
+            }
+        }
+    }
+
+    public int getLevelCount() {
+        return mLevelCount;
+    }
+
+    public int getWidth(int level) {
+        return mLevelWidths[level];
+    }
+
+    public int getHeight(int level) {
+        return mLevelHeights[level];
+    }
+
+    /**
+     * Returns the plane of {@code level}, {@code getWidth(level)} bytes per row. Level 0 is
+     * the frame passed to {@link #build}, including its chroma.
+     */
+    public byte[] getPlane(int level) {
+        return mPlanes[level];
+    }
+
+    /**
+     * Returns the finest level that is at most {@code maxWidth} pixels wide, or the coarsest
+     * level if none is.
+     */
+    public int levelForWidth(int maxWidth) {
+        for (int level = 0; level < mLevelCount; level++) {
+            if (mLevelWidths[level] <= maxWidth) {
+                return level;
+            }
+        }
+        return mLevelCount - 1;
+    }
+
+    /**
+     * Points {@code view} at {@code level}, transformed by one of ROTATE_* or TRANSPOSE, and
+     * returns it. Rotated by 90 or 270 degrees and transposed views swap width and height.
+     */
+    public LumaView view(int level, int transform, LumaView view) {
+        byte[] data = mPlanes[level];
+        int w = mLevelWidths[level];
+        int h = mLevelHeights[level];
+        int stride = w;
+        switch (transform) {
+            case ROTATE_0:
+                view.set(data, 0, 1, stride, w, h);
+                break;
+            case ROTATE_90:
+                view.set(data, (h - 1) * stride, -stride, 1, h, w);
+                break;
+            case ROTATE_180:
+                view.set(data, (h - 1) * stride + w - 1, -1, -stride, w, h);
+                break;
+            case ROTATE_270:
+                view.set(data, w - 1, stride, -1, h, w);
+                break;
+            case TRANSPOSE:
+                view.set(data, 0, stride, 1, h, w);
+                break;
+            default:
+                throw new IllegalArgumentException("unknown transform " + transform);
+        }
+        return view;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("LumaPyramid[");
+        for (int level = 0; level < mLevelCount; level++) {
+            if (level > 0) {
+                sb.append(", ");
+            }
+            sb.append(mLevelWidths[level]).append('x').append(mLevelHeights[level]);
+        }
+        return sb.append(']').toString();
+    }
+}
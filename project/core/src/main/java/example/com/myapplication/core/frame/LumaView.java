@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core.frame;
+
+/**
+ * A read-only, possibly rotated or transposed, window onto a luma plane without copying it.
+ *
+ * Pixel (x, y) of the view is {@code data[offset + x * xStep + y * yStep]}; the steps may be
+ * negative. Views are filled in place by {@link LumaPyramid#view} so they can be reused
+ * frame after frame.
+ */
+public final class LumaView {
+
+    private byte[] mData;
+    private int mOffset;
+    private int mXStep;
+    private int mYStep;
+    private int mWidth;
+    private int mHeight;
+
+    void set(byte[] data, int offset, int xStep, int yStep, int width, int height) {
+        mData = data;
+        mOffset = offset;
+        mXStep = xStep;
+        mYStep = yStep;
+        mWidth = width;
+        mHeight = height;
+    }
+
+    /**
+     * Returns the luma at (x, y), 0..255.
+     */
+    public int get(int x, int y) {
+        return mData[mOffset + x * mXStep + y * mYStep] & 0xFF;
+    }
+
+    /**
+     * Returns the index of (x, y) in {@link #getData}, for callers walking the plane with
+     * the steps themselves.
+     */
+    public int indexOf(int x, int y) {
+        return mOffset + x * mXStep + y * mYStep;
+    }
+
+    public byte[] getData() {
+        return mData;
+    }
+
+    public int getXStep() {
+        return mXStep;
+    }
+
+    public int getYStep() {
+        return mYStep;
+    }
+
+    public int getWidth() {
+        return mWidth;
+    }
+
+    public int getHeight() {
+        return mHeight;
+    }
+}
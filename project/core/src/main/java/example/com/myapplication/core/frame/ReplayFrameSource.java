@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core.frame;
+
+import java.io.File;
+import java.io.IOException;
+
+import example.com.myapplication.core.FaceBatch;
+import example.com.myapplication.core.FrameSource;
+import example.com.myapplication.core.Orientation;
+import example.com.myapplication.core.RectOrientationEstimator;
+
+/**
+ * A {@link FrameSource} that replays a recording made by {@link FrameRecorder}, either at the
+ * pace it was recorded or as fast as possible.
+ *
+ * Faces are delivered as recorded. Like the camera source, the orientation of the first face
+ * is estimated from its rect and the frame if the recording does not have one. A paused
+ * replay resumes where it stopped; the listener is called on the replay thread, or on the
+ * caller's thread for {@link #replay}.
+ */
+public class ReplayFrameSource implements FrameSource {
+
+    private final File mDir;
+    private final String mPrefix;
+    private final boolean mRealTime;
+    private final Listener mListener;
+
+    private final RectOrientationEstimator mEstimator = new RectOrientationEstimator();
+    private final FaceBatch mFaces = new FaceBatch(FrameRecorder.MAX_FACES);
+    private byte[] mFrame = new byte[0];
+
+    private FrameRecordingReader mReader;
+    // Recording and wall clock time of the first frame replayed since the last resume.
+    private long mPaceStartNs = -1;
+    private long mWallStartNs;
+
+    private Thread mThread;
+    private volatile boolean mStopRequested = false;
+
+    private volatile long mFrames;
+    private volatile long mFaceFrames;
+
+    /**
+     * @param realTime true to wait between frames as long as during the recording, false to
+     *                 replay as fast as the listener allows
+     */
+    public ReplayFrameSource(File dir, String prefix, boolean realTime, Listener listener) {
+        mDir = dir;
+        mPrefix = prefix;
+        mRealTime = realTime;
+        mListener = listener;
+    }
+
+    @Override
+    public synchronized void resume() {
+        if (mThread != null) {
+            return;
+        }
+        mStopRequested = false;
+        mThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    replay();
+                } catch (IOException e) {
+                    mListener.onSourceError();
+                }
+            }
+        }, "ReplayFrameSource");
+        mThread.start();
+    }
+
+    @Override
+    public synchronized void pause() {
+        if (mThread == null) {
+            return;
+        }
+        mStopRequested = true;
+        mThread.interrupt();
+        if (mThread != Thread.currentThread()) {
+            try {
+                mThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        mThread = null;
+    }
+
+    @Override
+    public void setDetectionInterval(long intervalMs) {
+        // The faces are part of the recording.
+    }
+
+    @Override
+    public void setQualityTier(int tier) {
+        // The frames are part of the recording.
+    }
+
+    @Override
+    public void setTargetFrameRate(int fps) {
+        // Frames are replayed at their recorded times.
+    }
+
+    @Override
+    public void suspend() {
+        pause();
+    }
+
+    @Override
+    public void destroy() {
+        pause();
+    }
+
+    /**
+     * Goes back to the start of the recording. Must not be called while replaying.
+     */
+    public void rewind() {
+        mReader = null;
+    }
+
+    /**
+     * Replays on the calling thread until the end of the recording or until paused, and
+     * returns the number of frames replayed by this call.
+     */
+    public long replay() throws IOException {
+        if (mReader == null) {
+            mReader = new FrameRecordingReader(mDir, mPrefix);
+        }
+        mPaceStartNs = -1;
+        long frames = 0;
+        while (!mStopRequested && mReader.next()) {
+            if (mRealTime && !waitForFrame(mReader.getTimestampNs())) {
+                break;
+            }
+            deliver(mReader);
+            frames++;
+        }
+        return frames;
+    }
+
+    /**
+     * Sleeps until a frame recorded at {@code timestampNs} is due. Returns false if
+     * interrupted.
+     */
+    private boolean waitForFrame(long timestampNs) {
+        long now = System.nanoTime();
+        if (mPaceStartNs < 0) {
+            mPaceStartNs = timestampNs;
+            mWallStartNs = now;
+            return true;
+        }
+        long delayNs = (timestampNs - mPaceStartNs) - (now - mWallStartNs);
+        if (delayNs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(delayNs / 1000000L, (int) (delayNs % 1000000L));
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    private void deliver(FrameRecordingReader reader) {
+        mFrames++;
+        if (reader.getFaceCount() == 0) {
+            return;
+        }
+        reader.getFaces(mFaces);
+        // Like the camera thread, estimate every face with a rect only, so that consensus
+        // mode votes over the same faces as on the device.
+        boolean hasData = false;
+        for (int i = 0; i < mFaces.getCount(); i++) {
+            if (mFaces.getRectOrientation(i) != Orientation.UNSPECIFIED || !mFaces.hasRect(i)
+                    || mFaces.hasLandmarks(i)) {
+                continue;
+            }
+            if (!hasData) {
+                if (mFrame.length < reader.getDataSize()) {
+                    mFrame = new byte[reader.getDataSize()];
+                }
+                reader.readData(mFrame);
+                hasData = true;
+            }
+            mFaces.setRectOrientation(i, mEstimator.estimate(mFrame, reader.getWidth(),
+                    reader.getHeight(), mFaces.getLeft(i), mFaces.getTop(i),
+                    mFaces.getRight(i), mFaces.getBottom(i)));
+        }
+        mFaceFrames++;
+        mListener.onFaces(mFaces, reader.getTimestampNs());
+    }
+
+    /**
+     * Frames read from the recording.
+     */
+    public long getFrameCount() {
+        return mFrames;
+    }
+
+    /**
+     * Frames delivered to the listener, i.e. with at least one face.
+     */
+    public long getFaceFrameCount() {
+        return mFaceFrames;
+    }
+}
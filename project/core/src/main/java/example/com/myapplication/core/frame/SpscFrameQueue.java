@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2014 Motorola, Inc.
+ * All Rights Reserved.
+ *
+ * The contents of this file are Motorola Confidential Restricted (MCR).
+ */
+
+package example.com.myapplication.core.frame;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded queue of frame buffers and their timestamps from one producer thread to one
+ * consumer thread.
+ *
+ * Neither side locks or allocates. Each side only writes its own index, publishing a slot with
+ * an ordered store, and caches the other side's index so the shared one is only read when
+ * the cached value says the queue is full or empty. {@link #offer} fails rather than waits
+ * when the queue is full; the producer decides what to do with the frame.
+ *
+ * The counters may be read from any thread.
+ */
+public class SpscFrameQueue {
+
+    private final int mCapacity;
+    private final int mMask;
+    private final byte[][] mFrames;
+    private final long[] mTimestamps;
+
+    // Sequence of the next slot to write, written by the producer only.
+    private final AtomicLong mTail = new AtomicLong();
+    // Sequence of the next slot to read, written by the consumer only.
+    private final AtomicLong mHead = new AtomicLong();
+    // The producer's last view of mHead, and the consumer's last view of mTail.
+    private long mHeadCache;
+    private long mTailCache;
+    // Consumer only: the timestamp of the frame last polled.
+    private long mPolledTimestampNs = -1;
+
+    // Written by the producer only.
+    private volatile long mOffered;
+    private volatile long mOfferFailures;
+    private volatile int mMaxDepth;
+
+    /**
+     * @param capacity the number of frames the queue holds, at least 1
+     */
+    public SpscFrameQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("invalid capacity " + capacity);
+        }
+        mCapacity = capacity;
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        mMask = size - 1;
+        mFrames = new byte[size][];
+        mTimestamps = new long[size];
+    }
+
+    /**
+     * Appends a frame. Producer only.
+     *
+     * @return false if the queue is full; the frame was not taken
+     */
+    public boolean offer(byte[] frame, long timestampNs) {
+        long tail = mTail.get();
+        if (tail - mHeadCache >= mCapacity) {
+            mHeadCache = mHead.get();
+            if (tail - mHeadCache >= mCapacity) {
+                mOfferFailures++;
+                return false;
+            }
+        }
+        int slot = (int) tail & mMask;
+        mFrames[slot] = frame;
+        mTimestamps[slot] = timestampNs;
+        mTail.lazySet(tail + 1);
+        mOffered++;
+        // The cached head may be behind; the depth is reported exactly.
+        int depth = (int) (tail + 1 - mHead.get());
+        if (depth > mMaxDepth) {
+            mMaxDepth = depth;
+        }
+        return true;
+    }
+
+    /**
+     * Removes the oldest frame, or returns null if the queue is empty. Its timestamp is then
+     * returned by {@link #getPolledTimestampNs}. Consumer only.
+     */
+    public byte[] poll() {
+        long head = mHead.get();
+        if (head >= mTailCache) {
+            mTailCache = mTail.get();
+            if (head >= mTailCache) {
+                return null;
+            }
+        }
+        int slot = (int) head & mMask;
+        byte[] frame = mFrames[slot];
+        mPolledTimestampNs = mTimestamps[slot];
+        mFrames[slot] = null;
+        mHead.lazySet(head + 1);
+        return frame;
+    }
+
+    /**
+     * Returns the timestamp of the frame last returned by {@link #poll}. Consumer only.
+     */
+    public long getPolledTimestampNs() {
+        return mPolledTimestampNs;
+    }
+
+    /**
+     * Returns true if nothing is queued. Consumer only.
+     */
+    public boolean isEmpty() {
+        return mHead.get() >= mTail.get();
+    }
+
+    /**
+     * Returns the number of queued frames. May be called from any thread, for reporting.
+     */
+    public int size() {
+        long head = mHead.get();
+        long tail = mTail.get();
+        return (int) Math.max(0, Math.min(mCapacity, tail - head));
+    }
+
+    public int getCapacity() {
+        return mCapacity;
+    }
+
+    public long getOfferCount() {
+        return mOffered;
+    }
+
+    /**
+     * Frames the producer could not queue because the queue was full.
+     */
+    public long getOfferFailureCount() {
+        return mOfferFailures;
+    }
+
+    /**
+     * Returns the most frames that were queued at once.
+     */
+    public int getMaxDepth() {
+        return mMaxDepth;
+    }
+
+    /**
+     * Forgets all queued frames. Only while neither the producer nor the consumer uses the
+     * queue.
+     */
+    public void clear() {
+        for (int i = 0; i < mFrames.length; i++) {
+            mFrames[i] = null;
+        }
+        long tail = mTail.get();
+        mHead.set(tail);
+        mHeadCache = tail;
+        mTailCache = tail;
+    }
+
+    @Override
+    public String toString() {
+        return "SpscFrameQueue[" + size() + "/" + mCapacity + ", offered " + mOffered
+                + ", failed " + mOfferFailures + ", max depth " + mMaxDepth + "]";
+    }
+}
@@ -0,0 +1,103 @@
+package example.com.myapplication.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AngleOrientationClassifierTest {
+
+    private static final int RADIUS = 1000;
+    // Rounding the axis to integer coordinates and the atan approximation.
+    private static final double TOLERANCE_DEG = 0.5;
+
+    // The coordinate comparisons the classifier replaced.
+    private static int quadrant(int dx, int dy) {
+        if (dx > 0 && dy > 0) {
+            return Orientation.PORTRAIT;
+        } else if (dx > 0 && dy < 0) {
+            return Orientation.LANDSCAPE;
+        } else if (dx < 0 && dy < 0) {
+            return Orientation.REVERSE_PORTRAIT;
+        } else if (dx < 0 && dy > 0) {
+            return Orientation.REVERSE_LANDSCAPE;
+        }
+        return Orientation.UNSPECIFIED;
+    }
+
+    // Degrees from the axis at the given angle to the nearest quadrant boundary.
+    private static double boundaryDistance(double deg) {
+        double inQuadrant = ((deg % 90) + 90) % 90;
+        return Math.min(inQuadrant, 90 - inQuadrant);
+    }
+
+    @Test
+    public void noDeadZoneMatchesCoordinateComparison() throws Exception {
+        AngleOrientationClassifier classifier = new AngleOrientationClassifier(0f);
+        for (int dx = -60; dx <= 60; dx++) {
+            for (int dy = -60; dy <= 60; dy++) {
+                assertEquals(dx + "," + dy, quadrant(dx, dy), classifier.classify(dx, dy));
+            }
+        }
+    }
+
+    @Test
+    public void sweepsTheAngleSpace() throws Exception {
+        float[] deadZones = {0f, 5f, AngleOrientationClassifier.DEFAULT_DEAD_ZONE_DEG, 30f};
+        for (float deadZone : deadZones) {
+            AngleOrientationClassifier classifier = new AngleOrientationClassifier(deadZone);
+            for (int tenth = 0; tenth < 3600; tenth++) {
+                double deg = tenth / 10.0;
+                int dx = (int) Math.round(RADIUS * Math.cos(Math.toRadians(deg)));
+                int dy = (int) Math.round(RADIUS * Math.sin(Math.toRadians(deg)));
+                int orientation = classifier.classify(dx, dy);
+                float confidence = classifier.getLastConfidence();
+                double distance = boundaryDistance(deg);
+                String where = deg + " deg, dead zone " + deadZone;
+
+                assertTrue(where, confidence >= 0f && confidence <= 1f);
+                if (distance < deadZone - TOLERANCE_DEG || distance == 0) {
+                    assertEquals(where, Orientation.UNSPECIFIED, orientation);
+                    assertEquals(where, 0f, confidence, 0f);
+                } else if (distance > deadZone + TOLERANCE_DEG) {
+                    assertEquals(where, quadrant(dx, dy), orientation);
+                    double expected = (distance - deadZone) / (45 - deadZone);
+                    assertEquals(where, expected, confidence, 0.02);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void confidenceGrowsTowardsTheDiagonal() throws Exception {
+        AngleOrientationClassifier classifier = new AngleOrientationClassifier();
+        float last = 0f;
+        for (int dy = 1; dy <= RADIUS; dy++) {
+            classifier.classify(RADIUS, dy);
+            assertTrue("dy " + dy, classifier.getLastConfidence() >= last);
+            last = classifier.getLastConfidence();
+        }
+        assertEquals(1f, last, 0.01f);
+    }
+
+    @Test
+    public void centeredAxesAreUnspecified() throws Exception {
+        AngleOrientationClassifier classifier = new AngleOrientationClassifier(0f);
+        assertEquals(Orientation.UNSPECIFIED, classifier.classify(0, 0));
+        assertEquals(Orientation.UNSPECIFIED, classifier.classify(100, 0));
+        assertEquals(Orientation.UNSPECIFIED, classifier.classify(0, -100));
+    }
+
+    @Test
+    public void jitterAcrossABoundaryIsUnspecified() throws Exception {
+        AngleOrientationClassifier classifier = new AngleOrientationClassifier();
+        assertEquals(Orientation.UNSPECIFIED, classifier.classify(100, 3));
+        assertEquals(Orientation.UNSPECIFIED, classifier.classify(100, -3));
+        assertEquals(Orientation.UNSPECIFIED, classifier.classify(3, 100));
+        assertEquals(Orientation.UNSPECIFIED, classifier.classify(-3, 100));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsDeadZoneCoveringTheQuadrant() throws Exception {
+        new AngleOrientationClassifier(45f);
+    }
+}
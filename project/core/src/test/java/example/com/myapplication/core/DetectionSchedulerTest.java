@@ -0,0 +1,68 @@
+package example.com.myapplication.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DetectionSchedulerTest {
+
+    private final DetectionScheduler mScheduler = new DetectionScheduler(1000, 500, 4000, 2);
+
+    private long burst(long startMs, int orientation) {
+        mScheduler.beginBurst(startMs);
+        mScheduler.onOrientation(orientation);
+        return mScheduler.endBurst(startMs + mScheduler.getBurstMs());
+    }
+
+    @Test
+    public void backsOffWhileStable() throws Exception {
+        assertEquals(500, burst(0, Orientation.PORTRAIT));
+        assertEquals(1000, burst(10000, Orientation.PORTRAIT));
+        assertEquals(2000, burst(20000, Orientation.PORTRAIT));
+        assertEquals(4000, burst(30000, Orientation.PORTRAIT));
+        assertEquals(4000, burst(40000, Orientation.PORTRAIT));
+    }
+
+    @Test
+    public void resetsOnChange() throws Exception {
+        burst(0, Orientation.PORTRAIT);
+        burst(10000, Orientation.PORTRAIT);
+        assertEquals(2000, burst(20000, Orientation.PORTRAIT));
+        assertEquals(500, burst(30000, Orientation.LANDSCAPE));
+    }
+
+    @Test
+    public void burstWithoutResultCountsAsStable() throws Exception {
+        burst(0, Orientation.PORTRAIT);
+        assertEquals(1000, burst(10000, Orientation.UNSPECIFIED));
+    }
+
+    @Test
+    public void resetBackoffShortensNextGap() throws Exception {
+        burst(0, Orientation.PORTRAIT);
+        burst(10000, Orientation.PORTRAIT);
+        mScheduler.resetBackoff();
+        assertEquals(1000, burst(20000, Orientation.PORTRAIT));
+    }
+
+    @Test
+    public void skippedBurstBacksOffWithoutCameraTime() throws Exception {
+        burst(0, Orientation.PORTRAIT);
+        assertEquals(1000, mScheduler.skipBurst());
+        assertEquals(1000, mScheduler.getCameraOnMs(50000));
+        assertEquals(1, mScheduler.getSkippedCount());
+        assertEquals(1, mScheduler.getBurstCount());
+    }
+
+    @Test
+    public void accountsCameraOnTime() throws Exception {
+        burst(0, Orientation.PORTRAIT);
+        burst(10000, Orientation.PORTRAIT);
+        mScheduler.beginBurst(20000);
+        assertEquals(2300, mScheduler.getCameraOnMs(20300));
+        mScheduler.stop(20500);
+        assertEquals(2500, mScheduler.getCameraOnMs(99999));
+        assertEquals(3, mScheduler.getBurstCount());
+        assertFalse(mScheduler.isInBurst());
+    }
+}
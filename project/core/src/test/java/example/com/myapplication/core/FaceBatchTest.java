@@ -0,0 +1,67 @@
+package example.com.myapplication.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FaceBatchTest {
+
+    @Test
+    public void addsFacesByIndex() throws Exception {
+        FaceBatch faces = new FaceBatch();
+        assertEquals(0, faces.add(-100, -200, 300, 400, 7, 88));
+        assertEquals(1, faces.addWithoutRect(-1, 50));
+        faces.setLandmarks(1, 1, 2, 3, 4, 5, 6);
+        faces.setRectOrientation(0, Orientation.LANDSCAPE);
+
+        assertEquals(2, faces.getCount());
+        assertTrue(faces.hasRect(0));
+        assertFalse(faces.hasLandmarks(0));
+        assertEquals(400, faces.getWidth(0));
+        assertEquals(600, faces.getHeight(0));
+        assertEquals(7, faces.getId(0));
+        assertEquals(88, faces.getScore(0));
+        assertEquals(Orientation.LANDSCAPE, faces.getRectOrientation(0));
+
+        assertFalse(faces.hasRect(1));
+        assertTrue(faces.hasLandmarks(1));
+        assertEquals(3, faces.getRightEyeX(1));
+        assertEquals(6, faces.getMouthY(1));
+        assertEquals(Orientation.UNSPECIFIED, faces.getRectOrientation(1));
+    }
+
+    @Test
+    public void growsAndKeepsFaces() throws Exception {
+        FaceBatch faces = new FaceBatch(1);
+        for (int i = 0; i < 10; i++) {
+            faces.add(i, 0, i + 10, 10, i, 50);
+        }
+        assertTrue(faces.getCapacity() >= 10);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, faces.getLeft(i));
+            assertEquals(i, faces.getId(i));
+        }
+
+        faces.clear();
+        assertEquals(0, faces.getCount());
+        assertTrue(faces.getCapacity() >= 10);
+    }
+
+    @Test
+    public void convertsFromAndToRecords() throws Exception {
+        FaceRecord face = new FaceRecord();
+        face.set(-10, -20, 30, 40, 3, 70);
+        face.setLandmarks(-5, 0, 5, 0, 0, 20);
+        face.rectOrientation = Orientation.PORTRAIT;
+        FaceBatch faces = new FaceBatch();
+        faces.add(face);
+
+        FaceBatch copy = new FaceBatch(1);
+        copy.copyFrom(faces);
+        FaceRecord read = new FaceRecord();
+        copy.get(0, read);
+        assertEquals(face.toString(), read.toString());
+        assertEquals(Orientation.PORTRAIT, read.rectOrientation);
+        assertTrue(read.hasLandmarks);
+    }
+}
@@ -0,0 +1,88 @@
+package example.com.myapplication.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FaceTrackerTest {
+
+    private final FaceTracker mTracker = new FaceTracker();
+    private final FaceBatch mFaces = new FaceBatch();
+
+    private void detect(long nowMs, int left, int top, int id, int orientation) {
+        mFaces.clear();
+        int i = mFaces.add(left, top, left + 200, top + 200, id, 90);
+        mFaces.setRectOrientation(i, orientation);
+        mTracker.update(mFaces, nowMs);
+    }
+
+    @Test
+    public void followsMovingFaceByOverlap() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            detect(i * 100, -100 + i * 40, -100, -1, Orientation.PORTRAIT);
+        }
+        assertEquals(1, mTracker.getTrackCount());
+        assertEquals(1, mTracker.getStartedCount());
+        assertEquals(5, mTracker.getTrackHits(0));
+
+        // Moving 0.4 units per ms, the face is expected 200 units further 500 ms later.
+        float predicted = mTracker.predictCenterX(0, 900);
+        assertEquals(160 + 200, predicted, 20);
+
+        // Too far from the prediction to be the same face.
+        detect(500, -900, 500, -1, Orientation.PORTRAIT);
+        assertEquals(2, mTracker.getTrackCount());
+    }
+
+    @Test
+    public void halIdKeepsTrackAcrossJumps() throws Exception {
+        detect(0, -800, -800, 5, Orientation.PORTRAIT);
+        detect(100, 500, 500, 5, Orientation.PORTRAIT);
+        assertEquals(1, mTracker.getTrackCount());
+        assertEquals(2, mTracker.getTrackHits(0));
+    }
+
+    @Test
+    public void locksOnStableOrientation() throws Exception {
+        detect(0, 0, 0, -1, Orientation.LANDSCAPE);
+        detect(100, 0, 0, -1, Orientation.LANDSCAPE);
+        assertEquals(-1, mTracker.getLockedTrack());
+
+        // A detection without an orientation neither breaks nor extends the streak.
+        detect(200, 0, 0, -1, Orientation.UNSPECIFIED);
+        assertEquals(-1, mTracker.getLockedTrack());
+        detect(300, 0, 0, -1, Orientation.LANDSCAPE);
+        assertEquals(0, mTracker.getLockedTrack());
+        assertEquals(Orientation.LANDSCAPE, mTracker.getLockedOrientation());
+
+        detect(400, 0, 0, -1, Orientation.PORTRAIT);
+        assertEquals(Orientation.UNSPECIFIED, mTracker.getLockedOrientation());
+        assertEquals(Orientation.PORTRAIT, mTracker.getTrackOrientation(0));
+    }
+
+    @Test
+    public void reportsLifetimesAndLockedTime() throws Exception {
+        for (int i = 0; i <= 4; i++) {
+            detect(i * 100, 0, 0, -1, Orientation.PORTRAIT);
+        }
+        assertTrue(mTracker.expire(1000));
+        assertFalse(mTracker.expire(400 + FaceTracker.DEFAULT_MAX_COAST_MS + 1));
+        assertEquals(0, mTracker.getTrackCount());
+        assertEquals(1, mTracker.getLostCount());
+        assertEquals(400, mTracker.getMeanLifetimeMs());
+        assertEquals(400, mTracker.getMaxLifetimeMs());
+        // Locked from the third detection until the track was dropped.
+        assertEquals(FaceTracker.DEFAULT_MAX_COAST_MS + 201, mTracker.getLockedMs());
+    }
+
+    @Test
+    public void resetEndsAllTracks() throws Exception {
+        mFaces.add(-500, -500, -300, -300, -1, 90);
+        mFaces.add(300, 300, 500, 500, -1, 90);
+        mTracker.update(mFaces, 0);
+        assertEquals(2, mTracker.getTrackCount());
+        mTracker.reset(100);
+        assertEquals(0, mTracker.getTrackCount());
+        assertEquals(2, mTracker.getLostCount());
+    }
+}
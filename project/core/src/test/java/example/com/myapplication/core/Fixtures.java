@@ -0,0 +1,103 @@
+package example.com.myapplication.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+/**
+ * Loads the NV21 frames stored under src/test/resources/frames. The synthetic faces are
+ * centred at (80, 60) with a 80x80 box, i.e. the driver rect (-500, -667, 500, 667).
+ * Also makes face-free textured frames of any size.
+ */
+public final class Fixtures {
+
+    public static final int WIDTH = 160;
+    public static final int HEIGHT = 120;
+
+    public static final int FACE_LEFT = -500;
+    public static final int FACE_TOP = -667;
+    public static final int FACE_RIGHT = 500;
+    public static final int FACE_BOTTOM = 667;
+
+    // Kinds of texture.
+    public static final int NOISE = 0;
+    public static final int STRIPES = 1;
+    public static final int CHECKERBOARD = 2;
+    public static final int BLOTCHES = 3;
+
+    private Fixtures() {
+    }
+
+    public static byte[] loadFrame(String name) throws IOException {
+        InputStream in = Fixtures.class.getResourceAsStream("/frames/" + name);
+        if (in == null) {
+            throw new IOException("missing fixture " + name);
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Returns a textured NV21 frame without a face.
+     */
+    public static byte[] texture(int kind, int width, int height, Random random) {
+        int[] luma = new int[width * height];
+        int period = 6 + random.nextInt(12);
+        boolean vertical = random.nextBoolean();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int band = (vertical ? x : y) / period;
+                switch (kind) {
+                    case STRIPES:
+                        luma[y * width + x] = (band % 2 == 0 ? 60 : 190) + random.nextInt(20);
+                        break;
+                    case CHECKERBOARD:
+                        luma[y * width + x] = ((x / period + y / period) % 2 == 0 ? 50 : 200)
+                                + random.nextInt(20);
+                        break;
+                    default:
+                        luma[y * width + x] = random.nextInt(256);
+                        break;
+                }
+            }
+        }
+        if (kind == BLOTCHES) {
+            // Smoothed, high contrast noise: dark and bright patches of about face feature size.
+            int[] smooth = new int[luma.length];
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    int sum = 0;
+                    int count = 0;
+                    for (int dy = -5; dy <= 5; dy++) {
+                        for (int dx = -5; dx <= 5; dx++) {
+                            if (x + dx >= 0 && x + dx < width && y + dy >= 0 && y + dy < height) {
+                                sum += luma[(y + dy) * width + x + dx];
+                                count++;
+                            }
+                        }
+                    }
+                    smooth[y * width + x] = 128 + (sum / count - 128) * 8;
+                }
+            }
+            luma = smooth;
+        }
+        byte[] frame = new byte[width * height * 3 / 2];
+        for (int i = 0; i < luma.length; i++) {
+            frame[i] = (byte) Math.max(0, Math.min(255, luma[i]));
+        }
+        for (int i = luma.length; i < frame.length; i++) {
+            frame[i] = (byte) 128;
+        }
+        return frame;
+    }
+}
@@ -0,0 +1,76 @@
+package example.com.myapplication.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    private final LatencyHistogram mHistogram = new LatencyHistogram();
+
+    @Test
+    public void bucketsCoverValuesWithBoundedError() throws Exception {
+        long previousUpper = -1;
+        for (int bucket = 0; bucket < LatencyHistogram.BUCKET_COUNT; bucket++) {
+            long upper = LatencyHistogram.upperBoundOf(bucket);
+            // Buckets are contiguous and map back to themselves.
+            assertEquals(bucket, LatencyHistogram.bucketOf(previousUpper + 1));
+            assertEquals(bucket, LatencyHistogram.bucketOf(upper));
+            assertTrue(upper - previousUpper <= Math.max(1, (previousUpper + 1) / 8));
+            previousUpper = upper;
+        }
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void reportsPercentiles() throws Exception {
+        // 1..100 ms.
+        for (int ms = 1; ms <= 100; ms++) {
+            mHistogram.record(ms * 1000000L);
+        }
+        assertEquals(100, mHistogram.getCount());
+        assertEquals(100000, mHistogram.getMaxUs());
+        assertBetween(50000, 50000 * 9 / 8, mHistogram.getPercentileUs(0.5));
+        assertBetween(90000, 90000 * 9 / 8, mHistogram.getPercentileUs(0.9));
+        assertBetween(99000, 100000, mHistogram.getPercentileUs(0.99));
+        assertEquals(100000, mHistogram.getPercentileUs(1.0));
+    }
+
+    private static void assertBetween(long min, long max, long actual) {
+        assertTrue(actual + " not in [" + min + ", " + max + "]", actual >= min && actual <= max);
+    }
+
+    @Test
+    public void ignoresNegativeAndResets() throws Exception {
+        mHistogram.record(-5);
+        assertEquals(0, mHistogram.getCount());
+        assertEquals(0, mHistogram.getPercentileUs(0.5));
+
+        mHistogram.record(3000);
+        mHistogram.reset();
+        assertEquals(0, mHistogram.getCount());
+        assertEquals(0, mHistogram.getMaxUs());
+    }
+
+    @Test
+    public void countsConcurrentRecords() throws Exception {
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final long value = (t + 1) * 1000000L;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 10000; i++) {
+                        mHistogram.record(value);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40000, mHistogram.getCount());
+        assertEquals(4000, mHistogram.getMaxUs());
+    }
+}
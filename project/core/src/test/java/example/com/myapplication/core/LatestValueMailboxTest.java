@@ -0,0 +1,76 @@
+package example.com.myapplication.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatestValueMailboxTest {
+
+    private static class Value {
+        long mSequence;
+    }
+
+    private final LatestValueMailbox<Value> mMailbox =
+            new LatestValueMailbox<Value>(new Value(), new Value(), new Value());
+
+    private boolean publish(long sequence) {
+        mMailbox.getWriteSlot().mSequence = sequence;
+        return mMailbox.publish();
+    }
+
+    @Test
+    public void keepsNewestValue() throws Exception {
+        assertNull(mMailbox.take());
+
+        assertTrue(publish(1));
+        assertFalse(publish(2));
+        assertFalse(publish(3));
+        assertEquals(2, mMailbox.getOverwrittenCount());
+
+        assertEquals(3, mMailbox.drain().mSequence);
+        assertNull(mMailbox.take());
+        assertEquals(3, mMailbox.getPublishedCount());
+    }
+
+    @Test
+    public void schedulesOneDrainAtATime() throws Exception {
+        assertTrue(publish(1));
+        assertFalse(publish(2));
+        Value value = mMailbox.drain();
+        assertEquals(2, value.mSequence);
+
+        // The taken holder is not handed back to the producer until the next take.
+        assertTrue(publish(3));
+        assertNotSame(value, mMailbox.getWriteSlot());
+        assertEquals(2, value.mSequence);
+        assertEquals(3, mMailbox.drain().mSequence);
+    }
+
+    @Test
+    public void consumerOnlySeesIncreasingValues() throws Exception {
+        final long count = 200000;
+        Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (long i = 1; i <= count; i++) {
+                    publish(i);
+                }
+            }
+        });
+        producer.start();
+
+        long last = 0;
+        long taken = 0;
+        while (last < count) {
+            Value value = mMailbox.take();
+            if (value != null) {
+                assertTrue(value.mSequence > last);
+                last = value.mSequence;
+                taken++;
+            }
+        }
+        producer.join();
+        assertEquals(count, mMailbox.getPublishedCount());
+        assertEquals(count, taken + mMailbox.getOverwrittenCount());
+    }
+}
@@ -0,0 +1,101 @@
+package example.com.myapplication.core;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LowPassMotionGateTest {
+
+    // A scheduled burst is due this often while replaying a trace.
+    private static final long ACTIVATION_PERIOD_MS = 2000;
+
+    private final LowPassMotionGate mGate = new LowPassMotionGate();
+
+    /**
+     * Replays a trace from src/test/resources/traces and returns the number of triggers.
+     * Scheduled activations are asked for every ACTIVATION_PERIOD_MS.
+     */
+    private int replay(String name) throws Exception {
+        List<float[]> samples = new ArrayList<float[]>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                getClass().getResourceAsStream("/traces/" + name), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("#") || line.trim().isEmpty()) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                samples.add(new float[] { Float.parseFloat(fields[0]),
+                        Float.parseFloat(fields[1]), Float.parseFloat(fields[2]),
+                        Float.parseFloat(fields[3]) });
+            }
+        } finally {
+            reader.close();
+        }
+
+        int triggers = 0;
+        long nextActivationMs = ACTIVATION_PERIOD_MS;
+        for (float[] sample : samples) {
+            long timestampMs = (long) sample[0];
+            if (timestampMs >= nextActivationMs) {
+                mGate.shouldActivate();
+                nextActivationMs += ACTIVATION_PERIOD_MS;
+            }
+            if (mGate.onSample(sample[1], sample[2], sample[3], timestampMs * 1000000L)) {
+                triggers++;
+            }
+        }
+        return triggers;
+    }
+
+    @Test
+    public void stillDeviceNeverActivates() throws Exception {
+        assertEquals(0, replay("still_on_table.csv"));
+        // 20 s of trace with a scheduled activation every 2 s, none of which is needed.
+        assertEquals(9, mGate.getAvoidedCount());
+    }
+
+    @Test
+    public void steadyHandNeverTriggers() throws Exception {
+        assertEquals(0, replay("reading_in_hand.csv"));
+    }
+
+    @Test
+    public void pickupTriggersOnce() throws Exception {
+        int triggers = replay("pickup.csv");
+        assertTrue("triggers " + triggers, triggers >= 1 && triggers <= 2);
+        assertEquals(triggers, mGate.getTriggerCount());
+    }
+
+    @Test
+    public void activatesWithoutSamples() throws Exception {
+        assertTrue(mGate.shouldActivate());
+        assertEquals(0, mGate.getAvoidedCount());
+    }
+
+    @Test
+    public void tiltIsMeasuredFromLastActivation() throws Exception {
+        LowPassMotionGate gate = new LowPassMotionGate(20f, 100f, 0);
+        long t = 0;
+        for (int i = 0; i < 20; i++) {
+            gate.onSample(0f, 0f, 9.81f, t += 50000000L);
+        }
+        assertFalse(gate.shouldActivate());
+
+        // Slowly turn to landscape; the shake threshold is out of reach, tilt alone triggers.
+        boolean triggered = false;
+        for (int i = 1; i <= 90; i++) {
+            double angle = Math.toRadians(i);
+            triggered |= gate.onSample((float) (9.81 * Math.sin(angle)), 0f,
+                    (float) (9.81 * Math.cos(angle)), t += 50000000L);
+        }
+        assertTrue(triggered);
+        assertTrue(gate.shouldActivate());
+    }
+}
@@ -0,0 +1,138 @@
+package example.com.myapplication.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OrientationEngineTest {
+
+    private final OrientationEngine mEngine = new OrientationEngine();
+    private final FaceBatch mFaces = new FaceBatch();
+
+    private static FaceBatch landmarkFace(FaceBatch faces, int rightEyeX, int rightEyeY,
+            int mouthX, int mouthY) {
+        int i = faces.addWithoutRect(1, 0);
+        faces.setLandmarks(i, 0, 0, rightEyeX, rightEyeY, mouthX, mouthY);
+        return faces;
+    }
+
+    private int decideLandmarks(int rightEyeX, int rightEyeY, int mouthX, int mouthY) {
+        mFaces.clear();
+        return mEngine.decide(landmarkFace(mFaces, rightEyeX, rightEyeY, mouthX, mouthY));
+    }
+
+    @Test
+    public void landmarkQuadrants() throws Exception {
+        assertEquals(Orientation.PORTRAIT, decideLandmarks(100, 100, 0, 0));
+        assertEquals(Orientation.LANDSCAPE, decideLandmarks(100, -100, 0, 0));
+        assertEquals(Orientation.REVERSE_PORTRAIT, decideLandmarks(-100, -100, 0, 0));
+        assertEquals(Orientation.REVERSE_LANDSCAPE, decideLandmarks(-100, 100, 0, 0));
+    }
+
+    @Test
+    public void alignedLandmarksAreUnspecified() throws Exception {
+        assertEquals(Orientation.UNSPECIFIED, decideLandmarks(100, 0, 0, 0));
+    }
+
+    @Test
+    public void landmarksNearABoundaryAreUnspecified() throws Exception {
+        assertEquals(Orientation.UNSPECIFIED, decideLandmarks(100, 2, 0, 0));
+        assertEquals(0f, mEngine.getLastWeight(), 0f);
+        assertEquals(Orientation.UNSPECIFIED, decideLandmarks(100, -2, 0, 0));
+    }
+
+    @Test
+    public void landmarkWeightFollowsConfidence() throws Exception {
+        decideLandmarks(100, 100, 0, 0);
+        float diagonal = mEngine.getLastWeight();
+        assertEquals(Orientation.PORTRAIT, decideLandmarks(100, 30, 0, 0));
+        assertTrue(mEngine.getLastWeight() > 0f);
+        assertTrue(mEngine.getLastWeight() < diagonal);
+    }
+
+    @Test
+    public void rectOnlyFaceIsUnspecified() throws Exception {
+        mFaces.add(-100, -100, 100, 100, -1, 80);
+        assertEquals(Orientation.UNSPECIFIED, mEngine.decide(mFaces));
+    }
+
+    @Test
+    public void rectOnlyFaceUsesRectEstimate() throws Exception {
+        int i = mFaces.add(-100, -100, 100, 100, -1, 80);
+        mFaces.setRectOrientation(i, Orientation.REVERSE_LANDSCAPE);
+        assertEquals(Orientation.REVERSE_LANDSCAPE, mEngine.decide(mFaces));
+    }
+
+    @Test
+    public void rectFaceEndsTheScan() throws Exception {
+        mFaces.add(-100, -100, 100, 100, 2, 80);
+        landmarkFace(mFaces, 100, 100, 0, 0);
+        assertEquals(Orientation.UNSPECIFIED, mEngine.decide(mFaces));
+        assertEquals(0, mEngine.getLastFaceIndex());
+    }
+
+    @Test
+    public void rectFaceWithLandmarksUsesClassifier() throws Exception {
+        int i = mFaces.add(-100, -100, 100, 100, 2, 80);
+        mFaces.setLandmarks(i, 0, 0, 100, -100, 0, 0);
+        assertEquals(Orientation.LANDSCAPE, mEngine.decide(mFaces));
+        assertEquals(0, mEngine.getLastFaceIndex());
+        assertTrue(mEngine.getLastWeight() > 0f);
+    }
+
+    @Test
+    public void countLimitsScannedFaces() throws Exception {
+        assertEquals(Orientation.PORTRAIT, decideLandmarks(100, 100, 0, 0));
+        mFaces.clear();
+        assertEquals(Orientation.UNSPECIFIED, mEngine.decide(mFaces));
+        assertEquals(-1, mEngine.getLastFaceIndex());
+    }
+
+    private static void rectFace(FaceBatch faces, int left, int top, int right, int bottom,
+            int orientation) {
+        int i = faces.add(left, top, right, bottom, -1, 90);
+        faces.setRectOrientation(i, orientation);
+    }
+
+    @Test
+    public void consensusIgnoresSmallBystander() throws Exception {
+        mEngine.setConsensus(true, OrientationEngine.DEFAULT_MIN_CONSENSUS);
+        // A small face in the corner comes first, the user fills the center.
+        rectFace(mFaces, 700, 700, 800, 800, Orientation.LANDSCAPE);
+        rectFace(mFaces, -400, -400, 400, 400, Orientation.PORTRAIT);
+        assertEquals(Orientation.PORTRAIT, mEngine.decide(mFaces));
+        assertEquals(1, mEngine.getLastFaceIndex());
+        assertTrue(mEngine.getLastWeight() > 0f);
+    }
+
+    @Test
+    public void consensusAddsUpAgreeingFaces() throws Exception {
+        mEngine.setConsensus(true, OrientationEngine.DEFAULT_MIN_CONSENSUS);
+        rectFace(mFaces, -300, -300, 300, 300, Orientation.LANDSCAPE);
+        rectFace(mFaces, -500, -200, -300, 0, Orientation.REVERSE_PORTRAIT);
+        landmarkFace(mFaces, 100, -100, 0, 0);
+        assertEquals(Orientation.LANDSCAPE, mEngine.decide(mFaces));
+        assertEquals(0, mEngine.getLastFaceIndex());
+    }
+
+    @Test
+    public void consensusRejectsConflicts() throws Exception {
+        mEngine.setConsensus(true, OrientationEngine.DEFAULT_MIN_CONSENSUS);
+        rectFace(mFaces, -500, -300, -100, 100, Orientation.PORTRAIT);
+        rectFace(mFaces, 100, -300, 500, 100, Orientation.REVERSE_PORTRAIT);
+        assertEquals(Orientation.UNSPECIFIED, mEngine.decide(mFaces));
+        assertEquals(0f, mEngine.getLastWeight(), 0f);
+        assertEquals(1, mEngine.getConflictCount());
+    }
+
+    @Test
+    public void consensusSkipsUndecidedFaces() throws Exception {
+        mEngine.setConsensus(true, OrientationEngine.DEFAULT_MIN_CONSENSUS);
+        rectFace(mFaces, -500, -500, 500, 500, Orientation.UNSPECIFIED);
+        assertEquals(Orientation.UNSPECIFIED, mEngine.decide(mFaces));
+        assertEquals(0, mEngine.getConflictCount());
+
+        rectFace(mFaces, 600, 600, 700, 700, Orientation.REVERSE_LANDSCAPE);
+        assertEquals(Orientation.REVERSE_LANDSCAPE, mEngine.decide(mFaces));
+    }
+}
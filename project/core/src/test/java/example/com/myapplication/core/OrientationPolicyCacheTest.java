@@ -0,0 +1,105 @@
+package example.com.myapplication.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+import static org.junit.Assert.*;
+
+public class OrientationPolicyCacheTest {
+
+    private static final String GAME = "com.example.game";
+    private static final String BROWSER = "com.example.browser";
+    private static final long HOUR_MS = 60 * 60 * 1000L;
+
+    private final OrientationPolicyCache mCache = new OrientationPolicyCache(3, 3, HOUR_MS);
+
+    private void ignore(String packageName, int times, long nowMs) {
+        for (int i = 0; i < times; i++) {
+            mCache.onRotation(packageName, false, nowMs);
+        }
+    }
+
+    @Test
+    public void learnsIgnoringAppAfterRepeatedFailures() throws Exception {
+        assertFalse(mCache.shouldSuspend(GAME, 0));
+        ignore(GAME, 2, 0);
+        assertFalse(mCache.shouldSuspend(GAME, 0));
+        ignore(GAME, 1, 0);
+        assertTrue(mCache.shouldSuspend(GAME, 0));
+        assertEquals(OrientationPolicyCache.POLICY_IGNORES, mCache.getPolicy(GAME, 0));
+    }
+
+    @Test
+    public void followedRotationResetsTheCount() throws Exception {
+        ignore(BROWSER, 2, 0);
+        mCache.onRotation(BROWSER, true, 0);
+        ignore(BROWSER, 2, 0);
+        assertEquals(OrientationPolicyCache.POLICY_FOLLOWS, mCache.getPolicy(BROWSER, 0));
+        assertFalse(mCache.shouldSuspend(BROWSER, 0));
+    }
+
+    @Test
+    public void ignoringVerdictIsRechecked() throws Exception {
+        ignore(GAME, 3, 1000);
+        assertTrue(mCache.shouldSuspend(GAME, 1000 + HOUR_MS - 1));
+        assertFalse(mCache.shouldSuspend(GAME, 1000 + HOUR_MS));
+        // It takes the full count again to suspend.
+        ignore(GAME, 2, 1000 + HOUR_MS);
+        assertFalse(mCache.shouldSuspend(GAME, 1000 + HOUR_MS));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() throws Exception {
+        ignore("a", 3, 0);
+        ignore("b", 3, 0);
+        ignore("c", 3, 0);
+        assertTrue(mCache.shouldSuspend("a", 0));
+        ignore("d", 3, 0);
+        assertEquals(3, mCache.size());
+        assertEquals(1, mCache.getEvictionCount());
+        assertTrue(mCache.shouldSuspend("a", 0));
+        assertFalse(mCache.shouldSuspend("b", 0));
+    }
+
+    @Test
+    public void countsHitsAndMisses() throws Exception {
+        mCache.getPolicy(GAME, 0);
+        ignore(GAME, 1, 0);
+        mCache.getPolicy(GAME, 0);
+        mCache.onRotation(BROWSER, true, 0);
+        mCache.getPolicy(BROWSER, 0);
+        assertEquals(1, mCache.getHitCount());
+        assertEquals(2, mCache.getMissCount());
+    }
+
+    @Test
+    public void roundTrips() throws Exception {
+        ignore(GAME, 3, 500);
+        mCache.onRotation(BROWSER, true, 600);
+        assertTrue(mCache.isDirty());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        mCache.write(new DataOutputStream(bytes));
+        assertFalse(mCache.isDirty());
+
+        OrientationPolicyCache read = new OrientationPolicyCache(3, 3, HOUR_MS);
+        assertTrue(read.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+        assertEquals(2, read.size());
+        assertTrue(read.shouldSuspend(GAME, 500 + HOUR_MS - 1));
+        assertEquals(OrientationPolicyCache.POLICY_FOLLOWS, read.getPolicy(BROWSER, 600));
+    }
+
+    @Test
+    public void ignoresOtherFormat() throws Exception {
+        ignore(GAME, 3, 0);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        mCache.write(new DataOutputStream(bytes));
+        byte[] data = bytes.toByteArray();
+        data[7]++;
+        assertFalse(mCache.read(new DataInputStream(new ByteArrayInputStream(data))));
+        assertEquals(0, mCache.size());
+    }
+}
@@ -0,0 +1,44 @@
+package example.com.myapplication.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RateMeterTest {
+
+    private static final long MS = 1000000L;
+
+    private final RateMeter mMeter = new RateMeter(1000 * MS);
+
+    private long markEvery(long startNs, long intervalNs, int count) {
+        long nowNs = startNs;
+        for (int i = 0; i < count; i++) {
+            mMeter.mark(nowNs);
+            nowNs += intervalNs;
+        }
+        return nowNs - intervalNs;
+    }
+
+    @Test
+    public void reportsCompletedWindows() throws Exception {
+        assertEquals(0f, mMeter.getRate(0), 0f);
+        long lastNs = markEvery(0, 100 * MS, 11);
+        assertEquals(10f, mMeter.getRate(lastNs), 0.01f);
+    }
+
+    @Test
+    public void readsZeroOnceEventsStop() throws Exception {
+        long lastNs = markEvery(0, 50 * MS, 30);
+        assertEquals(20f, mMeter.getRate(lastNs), 0.01f);
+        assertEquals(0f, mMeter.getRate(lastNs + 1001 * MS), 0f);
+    }
+
+    @Test
+    public void startsOverAfterAGap() throws Exception {
+        long lastNs = markEvery(0, 50 * MS, 30);
+        markEvery(lastNs + 5000 * MS, 200 * MS, 3);
+        assertEquals(0f, mMeter.getRate(lastNs + 5400 * MS), 0f);
+        lastNs = markEvery(lastNs + 5600 * MS, 200 * MS, 3);
+        assertEquals(5f, mMeter.getRate(lastNs), 0.01f);
+    }
+}
@@ -0,0 +1,79 @@
+package example.com.myapplication.core;
+
+import org.junit.Test;
+
+import static example.com.myapplication.core.Fixtures.*;
+import static org.junit.Assert.*;
+
+public class RectOrientationEstimatorTest {
+
+    private final RectOrientationEstimator mEstimator = new RectOrientationEstimator();
+
+    private int estimate(String fixture) throws Exception {
+        byte[] frame = loadFrame(fixture);
+        return mEstimator.estimate(frame, WIDTH, HEIGHT,
+                FACE_LEFT, FACE_TOP, FACE_RIGHT, FACE_BOTTOM);
+    }
+
+    @Test
+    public void upPositiveX() throws Exception {
+        assertEquals(Orientation.PORTRAIT, estimate("face_up_pos_x_160x120.nv21"));
+        assertEquals(RectOrientationEstimator.UP_POSITIVE_X, mEstimator.getLastUpDirection());
+    }
+
+    @Test
+    public void upNegativeX() throws Exception {
+        assertEquals(Orientation.REVERSE_PORTRAIT, estimate("face_up_neg_x_160x120.nv21"));
+        assertEquals(RectOrientationEstimator.UP_NEGATIVE_X, mEstimator.getLastUpDirection());
+    }
+
+    @Test
+    public void upPositiveY() throws Exception {
+        assertEquals(Orientation.REVERSE_LANDSCAPE, estimate("face_up_pos_y_160x120.nv21"));
+        assertEquals(RectOrientationEstimator.UP_POSITIVE_Y, mEstimator.getLastUpDirection());
+    }
+
+    @Test
+    public void upNegativeY() throws Exception {
+        assertEquals(Orientation.LANDSCAPE, estimate("face_up_neg_y_160x120.nv21"));
+        assertEquals(RectOrientationEstimator.UP_NEGATIVE_Y, mEstimator.getLastUpDirection());
+        assertTrue(mEstimator.getLastConfidence() > 0f);
+    }
+
+    @Test
+    public void flatFrameIsUnspecified() throws Exception {
+        assertEquals(Orientation.UNSPECIFIED, estimate("flat_160x120.nv21"));
+        assertEquals(0f, mEstimator.getLastConfidence(), 0f);
+    }
+
+    @Test
+    public void tinyOrMissingFaceIsUnspecified() throws Exception {
+        byte[] frame = loadFrame("face_up_pos_x_160x120.nv21");
+        assertEquals(Orientation.UNSPECIFIED,
+                mEstimator.estimate(frame, WIDTH, HEIGHT, -10, -10, 10, 10));
+        assertEquals(Orientation.UNSPECIFIED,
+                mEstimator.estimate(null, WIDTH, HEIGHT, FACE_LEFT, FACE_TOP, FACE_RIGHT,
+                        FACE_BOTTOM));
+    }
+
+    @Test
+    public void rectIsClippedToTheFrame() throws Exception {
+        byte[] frame = loadFrame("face_up_neg_y_160x120.nv21");
+        // A rect hanging off the left edge must not read outside the luma plane.
+        int orientation = mEstimator.estimate(frame, WIDTH, HEIGHT, -1400, FACE_TOP, 0,
+                FACE_BOTTOM);
+        assertTrue(orientation == Orientation.UNSPECIFIED
+                || orientation == Orientation.LANDSCAPE
+                || orientation == Orientation.PORTRAIT
+                || orientation == Orientation.REVERSE_LANDSCAPE
+                || orientation == Orientation.REVERSE_PORTRAIT);
+
+        // A rect still mostly inside the frame reads the same as the face rect.
+        assertEquals(Orientation.LANDSCAPE,
+                mEstimator.estimate(frame, WIDTH, HEIGHT, FACE_LEFT, -1200, FACE_RIGHT,
+                        FACE_BOTTOM));
+        assertEquals(Orientation.LANDSCAPE,
+                mEstimator.estimate(frame, WIDTH, HEIGHT, -600, FACE_TOP, FACE_RIGHT,
+                        FACE_BOTTOM));
+    }
+}
@@ -0,0 +1,136 @@
+package example.com.myapplication.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RotationFilterTest {
+
+    private final RotationFilter mFilter = new RotationFilter(1000, 300, 0.7f);
+
+    @Test
+    public void rotatesAfterDwell() throws Exception {
+        assertEquals(Orientation.UNSPECIFIED, mFilter.offer(Orientation.LANDSCAPE, 1f, 0));
+        assertEquals(Orientation.UNSPECIFIED, mFilter.offer(Orientation.LANDSCAPE, 1f, 100));
+        assertEquals(Orientation.UNSPECIFIED, mFilter.offer(Orientation.LANDSCAPE, 1f, 200));
+        assertEquals(Orientation.LANDSCAPE, mFilter.offer(Orientation.LANDSCAPE, 1f, 400));
+        assertEquals(Orientation.LANDSCAPE, mFilter.getApplied());
+        // Further agreeing votes do not rotate again.
+        assertEquals(Orientation.UNSPECIFIED, mFilter.offer(Orientation.LANDSCAPE, 1f, 500));
+        assertEquals(1, mFilter.getRotationCount());
+    }
+
+    @Test
+    public void settlesOnceTheAppliedOrientationLeads() throws Exception {
+        assertFalse(mFilter.isSettled());
+        mFilter.offer(Orientation.LANDSCAPE, 1f, 0);
+        assertFalse(mFilter.isSettled());
+        mFilter.offer(Orientation.LANDSCAPE, 1f, 100);
+        mFilter.offer(Orientation.LANDSCAPE, 1f, 400);
+        assertTrue(mFilter.isSettled());
+        // A single differing vote does not take the lead.
+        mFilter.offer(Orientation.PORTRAIT, 1f, 500);
+        assertTrue(mFilter.isSettled());
+        mFilter.offer(Orientation.PORTRAIT, 1f, 600);
+        mFilter.offer(Orientation.PORTRAIT, 1f, 700);
+        mFilter.offer(Orientation.PORTRAIT, 1f, 800);
+        assertFalse(mFilter.isSettled());
+        mFilter.reset();
+        assertFalse(mFilter.isSettled());
+    }
+
+    @Test
+    public void singleNoisyFrameIsNotACandidate() throws Exception {
+        mFilter.setApplied(Orientation.PORTRAIT);
+        for (int t = 0; t < 1000; t += 100) {
+            assertEquals(Orientation.UNSPECIFIED, mFilter.offer(Orientation.PORTRAIT, 1f, t));
+        }
+        assertEquals(Orientation.UNSPECIFIED, mFilter.offer(Orientation.LANDSCAPE, 1f, 1000));
+        assertEquals(Orientation.UNSPECIFIED, mFilter.offer(Orientation.PORTRAIT, 1f, 1100));
+        assertEquals(0, mFilter.getSuppressedCount());
+        assertEquals(0, mFilter.getRotationCount());
+    }
+
+    @Test
+    public void shortBurstIsSuppressedOnce() throws Exception {
+        mFilter.setApplied(Orientation.PORTRAIT);
+        // Two agreeing votes make LANDSCAPE a candidate, but it is outvoted before the dwell.
+        mFilter.offer(Orientation.LANDSCAPE, 1f, 0);
+        mFilter.offer(Orientation.LANDSCAPE, 1f, 100);
+        for (int t = 150; t < 1000; t += 50) {
+            assertEquals(Orientation.UNSPECIFIED, mFilter.offer(Orientation.PORTRAIT, 1f, t));
+        }
+        assertEquals(1, mFilter.getSuppressedCount());
+        assertEquals(0, mFilter.getRotationCount());
+    }
+
+    @Test
+    public void replacedCandidateIsSuppressed() throws Exception {
+        mFilter.offer(Orientation.LANDSCAPE, 1f, 0);
+        mFilter.offer(Orientation.LANDSCAPE, 1f, 100);
+        int applied = Orientation.UNSPECIFIED;
+        for (int t = 150; t < 1000 && applied == Orientation.UNSPECIFIED; t += 50) {
+            applied = mFilter.offer(Orientation.REVERSE_LANDSCAPE, 1f, t);
+        }
+        assertEquals(Orientation.REVERSE_LANDSCAPE, applied);
+        assertEquals(1, mFilter.getSuppressedCount());
+    }
+
+    @Test
+    public void resetDropsTheCandidate() throws Exception {
+        mFilter.offer(Orientation.LANDSCAPE, 1f, 0);
+        mFilter.offer(Orientation.LANDSCAPE, 1f, 100);
+        mFilter.reset();
+        assertEquals(1, mFilter.getSuppressedCount());
+        mFilter.reset();
+        assertEquals(1, mFilter.getSuppressedCount());
+    }
+
+    @Test
+    public void conflictingVotesDoNotRotate() throws Exception {
+        for (int t = 0; t < 2000; t += 100) {
+            int orientation = (t / 100) % 2 == 0 ? Orientation.LANDSCAPE
+                    : Orientation.REVERSE_LANDSCAPE;
+            assertEquals(Orientation.UNSPECIFIED, mFilter.offer(orientation, 1f, t));
+        }
+        assertEquals(0, mFilter.getRotationCount());
+        // Neither orientation ever gets the agreement to become a candidate.
+        assertEquals(0, mFilter.getSuppressedCount());
+    }
+
+    @Test
+    public void largeFaceOutweighsSmallOnes() throws Exception {
+        mFilter.offer(Orientation.LANDSCAPE, 0.05f, 0);
+        mFilter.offer(Orientation.PORTRAIT, 1f, 10);
+        mFilter.offer(Orientation.LANDSCAPE, 0.05f, 20);
+        mFilter.offer(Orientation.PORTRAIT, 1f, 30);
+        assertEquals(Orientation.PORTRAIT, mFilter.offer(Orientation.PORTRAIT, 1f, 400));
+    }
+
+    @Test
+    public void oldVotesExpire() throws Exception {
+        mFilter.offer(Orientation.LANDSCAPE, 1f, 0);
+        // The first vote is out of the window, so this is again a lone vote.
+        assertEquals(Orientation.UNSPECIFIED, mFilter.offer(Orientation.LANDSCAPE, 1f, 1500));
+        assertEquals(Orientation.UNSPECIFIED, mFilter.offer(Orientation.LANDSCAPE, 1f, 1600));
+        assertEquals(Orientation.LANDSCAPE, mFilter.offer(Orientation.LANDSCAPE, 1f, 1900));
+    }
+
+    @Test
+    public void unspecifiedVotesAreIgnored() throws Exception {
+        assertEquals(Orientation.UNSPECIFIED, mFilter.offer(Orientation.UNSPECIFIED, 1f, 0));
+        assertEquals(0, mFilter.getSuppressedCount());
+    }
+
+    @Test
+    public void weightGrowsWithFaceSizeAndScore() throws Exception {
+        FaceBatch faces = new FaceBatch();
+        int small = faces.add(-100, -100, 100, 100, 1, 100);
+        int large = faces.add(-500, -500, 500, 500, 1, 100);
+        int unsure = faces.add(-500, -500, 500, 500, 1, 20);
+        assertTrue(RotationFilter.weightOf(faces, large)
+                > RotationFilter.weightOf(faces, small));
+        assertTrue(RotationFilter.weightOf(faces, large)
+                > RotationFilter.weightOf(faces, unsure));
+    }
+}
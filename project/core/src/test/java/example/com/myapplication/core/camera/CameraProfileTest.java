@@ -0,0 +1,64 @@
+package example.com.myapplication.core.camera;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+import static org.junit.Assert.*;
+
+public class CameraProfileTest {
+
+    private static CameraProfile profile() {
+        CameraProfile profile = new CameraProfile();
+        profile.cameraId = 1;
+        profile.orientation = 270;
+        profile.facing = 1;
+        profile.previewWidth = 320;
+        profile.previewHeight = 240;
+        profile.minFps = 15000;
+        profile.maxFps = 30000;
+        profile.frameSize = 320 * 240 * 3 / 2;
+        profile.maxFaces = 5;
+        return profile;
+    }
+
+    private static byte[] write(CameraProfile profile, String fingerprint) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        profile.write(new DataOutputStream(bytes), fingerprint);
+        return bytes.toByteArray();
+    }
+
+    private static boolean read(CameraProfile profile, byte[] data, String fingerprint)
+            throws Exception {
+        return profile.read(new DataInputStream(new ByteArrayInputStream(data)), fingerprint);
+    }
+
+    @Test
+    public void roundTrips() throws Exception {
+        CameraProfile read = new CameraProfile();
+        assertTrue(read(read, write(profile(), "build/1"), "build/1"));
+        assertEquals(profile(), read);
+        assertTrue(read.hasPreview());
+    }
+
+    @Test
+    public void ignoresOtherBuild() throws Exception {
+        CameraProfile read = new CameraProfile();
+        assertFalse(read(read, write(profile(), "build/1"), "build/2"));
+        assertEquals(-1, read.cameraId);
+        assertFalse(read.hasPreview());
+    }
+
+    @Test
+    public void ignoresOtherFormat() throws Exception {
+        byte[] data = write(profile(), "build/1");
+        data[7]++;
+        assertFalse(read(new CameraProfile(), data, "build/1"));
+        data[7]--;
+        data[0]++;
+        assertFalse(read(new CameraProfile(), data, "build/1"));
+    }
+}
@@ -0,0 +1,239 @@
+package example.com.myapplication.core.camera;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static example.com.myapplication.core.camera.CameraSessionMachine.*;
+import static org.junit.Assert.*;
+
+public class CameraSessionMachineTest {
+
+    /**
+     * Records the port calls and lifecycle callbacks in order; completions are driven by the
+     * test.
+     */
+    private static class FakeCamera implements CameraPort, CameraSessionMachine.Listener {
+        final List<String> mCalls = new ArrayList<String>();
+        boolean mRepeatingFails = false;
+
+        @Override
+        public void open() {
+            mCalls.add("open");
+        }
+
+        @Override
+        public void configure() {
+            mCalls.add("configure");
+        }
+
+        @Override
+        public boolean startRepeating() {
+            mCalls.add("repeat");
+            return !mRepeatingFails;
+        }
+
+        @Override
+        public void stopRepeating() {
+            mCalls.add("stopRepeating");
+        }
+
+        @Override
+        public void close() {
+            mCalls.add("close");
+        }
+
+        @Override
+        public void onStreaming() {
+            mCalls.add("onStreaming");
+        }
+
+        @Override
+        public void onClosed() {
+            mCalls.add("onClosed");
+        }
+
+        @Override
+        public void onError(int reason) {
+            mCalls.add("onError " + reason);
+        }
+
+        String drain() {
+            String calls = mCalls.toString();
+            mCalls.clear();
+            return calls;
+        }
+    }
+
+    private final FakeCamera mCamera = new FakeCamera();
+    private final CameraSessionMachine mMachine = new CameraSessionMachine(mCamera, mCamera);
+
+    @Test
+    public void opensConfiguresAndStreams() throws Exception {
+        mMachine.start();
+        assertEquals(STATE_OPENING, mMachine.getState());
+        mMachine.onOpened();
+        assertEquals(STATE_CONFIGURING, mMachine.getState());
+        mMachine.onConfigured();
+        assertEquals(STATE_STREAMING, mMachine.getState());
+        assertEquals("[open, configure, repeat, onStreaming]", mCamera.drain());
+
+        mMachine.stop();
+        assertEquals(STATE_CLOSED, mMachine.getState());
+        assertEquals("[stopRepeating, close, onClosed]", mCamera.drain());
+    }
+
+    @Test
+    public void repeatedStartOpensOnce() throws Exception {
+        mMachine.start();
+        mMachine.start();
+        mMachine.onOpened();
+        mMachine.start();
+        mMachine.onConfigured();
+        mMachine.start();
+        assertEquals("[open, configure, repeat, onStreaming]", mCamera.drain());
+        assertEquals(1, mMachine.getOpenCount());
+    }
+
+    @Test
+    public void stopWhileOpeningClosesOnceOpened() throws Exception {
+        mMachine.start();
+        mMachine.stop();
+        assertEquals(STATE_OPENING, mMachine.getState());
+        assertEquals("[open]", mCamera.drain());
+
+        mMachine.onOpened();
+        assertEquals(STATE_CLOSED, mMachine.getState());
+        assertEquals("[close, onClosed]", mCamera.drain());
+    }
+
+    @Test
+    public void stopWhileConfiguringClosesOnceConfigured() throws Exception {
+        mMachine.start();
+        mMachine.onOpened();
+        mMachine.stop();
+        mMachine.onConfigured();
+        assertEquals(STATE_CLOSED, mMachine.getState());
+        assertEquals("[open, configure, close, onClosed]", mCamera.drain());
+    }
+
+    @Test
+    public void restartWhileOpeningKeepsGoing() throws Exception {
+        mMachine.start();
+        mMachine.stop();
+        mMachine.start();
+        mMachine.onOpened();
+        mMachine.onConfigured();
+        assertEquals(STATE_STREAMING, mMachine.getState());
+        assertEquals(1, mMachine.getOpenCount());
+    }
+
+    @Test
+    public void failuresCloseAndReport() throws Exception {
+        mMachine.start();
+        mMachine.onOpenFailed();
+        assertEquals(STATE_CLOSED, mMachine.getState());
+        assertEquals("[open, close, onClosed, onError " + ERROR_OPEN + "]", mCamera.drain());
+        assertFalse(mMachine.isWanted());
+
+        mMachine.start();
+        mMachine.onOpened();
+        mMachine.onConfigureFailed();
+        assertEquals("[open, configure, close, onClosed, onError " + ERROR_CONFIGURE + "]",
+                mCamera.drain());
+
+        mCamera.mRepeatingFails = true;
+        mMachine.start();
+        mMachine.onOpened();
+        mMachine.onConfigured();
+        assertEquals(STATE_CLOSED, mMachine.getState());
+        assertEquals("[open, configure, repeat, close, onClosed, onError " + ERROR_REPEATING
+                + "]", mCamera.drain());
+        assertEquals(3, mMachine.getErrorCount());
+    }
+
+    @Test
+    public void disconnectWhileStreamingCloses() throws Exception {
+        mMachine.start();
+        mMachine.onOpened();
+        mMachine.onConfigured();
+        mCamera.drain();
+
+        mMachine.onDisconnected();
+        assertEquals(STATE_CLOSED, mMachine.getState());
+        assertEquals("[close, onClosed, onError " + ERROR_DISCONNECTED + "]", mCamera.drain());
+
+        // Late callbacks of the closed session are ignored.
+        mMachine.onConfigured();
+        mMachine.onDisconnected();
+        assertEquals("[]", mCamera.drain());
+    }
+
+    @Test
+    public void keptWarmStopOnlyStopsRepeating() throws Exception {
+        mMachine.setKeepWarm(true);
+        mMachine.start();
+        mMachine.onOpened();
+        mMachine.onConfigured();
+        mCamera.drain();
+
+        mMachine.stop();
+        assertEquals(STATE_WARM, mMachine.getState());
+        assertFalse(mMachine.isWanted());
+        assertEquals("[stopRepeating]", mCamera.drain());
+
+        mMachine.start();
+        assertEquals(STATE_STREAMING, mMachine.getState());
+        assertEquals("[repeat, onStreaming]", mCamera.drain());
+        assertEquals(1, mMachine.getOpenCount());
+        assertEquals(1, mMachine.getWarmStartCount());
+    }
+
+    @Test
+    public void releaseClosesWarmCamera() throws Exception {
+        mMachine.setKeepWarm(true);
+        mMachine.start();
+        mMachine.onOpened();
+        mMachine.stop();
+        mMachine.onConfigured();
+        assertEquals(STATE_WARM, mMachine.getState());
+        assertEquals("[open, configure]", mCamera.drain());
+
+        mMachine.release();
+        assertEquals(STATE_CLOSED, mMachine.getState());
+        assertEquals("[close, onClosed]", mCamera.drain());
+
+        mMachine.start();
+        assertEquals("[open]", mCamera.drain());
+        assertEquals(0, mMachine.getWarmStartCount());
+    }
+
+    @Test
+    public void releaseWhileConfiguringClosesWarmCamera() throws Exception {
+        mMachine.setKeepWarm(true);
+        mMachine.start();
+        mMachine.onOpened();
+        mMachine.release();
+        assertFalse(mMachine.isKeepWarm());
+        assertEquals(STATE_CONFIGURING, mMachine.getState());
+
+        mMachine.onConfigured();
+        assertEquals(STATE_CLOSED, mMachine.getState());
+        assertEquals("[open, configure, close, onClosed]", mCamera.drain());
+    }
+
+    @Test
+    public void disconnectWhileWarmCloses() throws Exception {
+        mMachine.setKeepWarm(true);
+        mMachine.start();
+        mMachine.onOpened();
+        mMachine.onConfigured();
+        mMachine.stop();
+        mCamera.drain();
+
+        mMachine.onDisconnected();
+        assertEquals(STATE_CLOSED, mMachine.getState());
+        assertEquals("[close, onClosed, onError " + ERROR_DISCONNECTED + "]", mCamera.drain());
+    }
+}
@@ -0,0 +1,75 @@
+package example.com.myapplication.core.camera;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FrameRateControllerTest {
+
+    private static final List<int[]> RANGES = Arrays.asList(
+            new int[] {7000, 30000}, new int[] {15000, 15000}, new int[] {8000, 15000},
+            new int[] {30000, 30000}, new int[] {10000, 24000});
+
+    private final FrameRateController mController = new FrameRateController(30000, 10000, 2000);
+
+    @Test
+    public void choosesLowestRangeReachingTheTarget() throws Exception {
+        assertArrayEquals(new int[] {15000, 15000},
+                FrameRateController.chooseRange(RANGES, 10000, 0));
+        assertArrayEquals(new int[] {10000, 24000},
+                FrameRateController.chooseRange(RANGES, 20000, 0));
+        assertArrayEquals(new int[] {30000, 30000},
+                FrameRateController.chooseRange(RANGES, 30000, 0));
+    }
+
+    @Test
+    public void fallsBackToFastestRangeUnderTheCap() throws Exception {
+        assertArrayEquals(new int[] {30000, 30000},
+                FrameRateController.chooseRange(RANGES, 60000, 0));
+        assertArrayEquals(new int[] {15000, 15000},
+                FrameRateController.chooseRange(RANGES, 30000, 15000));
+        assertNull(FrameRateController.chooseRange(RANGES, 30000, 5000));
+    }
+
+    @Test
+    public void startsUncertain() throws Exception {
+        assertEquals(30000, mController.getTargetFps());
+        assertFalse(mController.isLowered());
+    }
+
+    @Test
+    public void lowersOnlyAfterSettling() throws Exception {
+        assertFalse(mController.update(true, 0));
+        assertFalse(mController.update(true, 1999));
+        assertTrue(mController.update(true, 2000));
+        assertEquals(10000, mController.getTargetFps());
+        assertEquals(1, mController.getLowerCount());
+    }
+
+    @Test
+    public void raisesRightAway() throws Exception {
+        mController.update(true, 0);
+        mController.update(true, 2000);
+        assertTrue(mController.update(false, 2100));
+        assertEquals(30000, mController.getTargetFps());
+        assertEquals(1, mController.getRaiseCount());
+
+        // Settling starts over.
+        assertFalse(mController.update(true, 2200));
+        assertFalse(mController.update(true, 4100));
+        assertTrue(mController.update(true, 4200));
+    }
+
+    @Test
+    public void resetGoesBackToTheHighRate() throws Exception {
+        assertFalse(mController.reset());
+        mController.update(true, 0);
+        mController.update(true, 2000);
+        assertTrue(mController.reset());
+        assertEquals(30000, mController.getTargetFps());
+        assertFalse(mController.update(true, 2500));
+    }
+}
@@ -0,0 +1,114 @@
+package example.com.myapplication.core.camera;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PreviewCalibratorTest {
+
+    private final PreviewCalibrator mCalibrator = new PreviewCalibrator();
+
+    /**
+     * Runs one session of durationMs at 30 fps with a face result every resultEvery frames,
+     * each latencyMs after its frame.
+     */
+    private void session(long startMs, long durationMs, int resultEvery, long latencyMs) {
+        mCalibrator.beginSession(startMs);
+        long frames = durationMs * 30 / 1000;
+        for (long i = 0; i < frames; i++) {
+            mCalibrator.onFrame();
+            if (i % resultEvery == 0) {
+                long frameNs = (startMs + i * 33) * 1000000L;
+                mCalibrator.onFaces(1, frameNs, frameNs + latencyMs * 1000000L);
+            }
+        }
+        mCalibrator.endSession(startMs + durationMs);
+    }
+
+    @Test
+    public void scorePrefersFastCheapDetection() throws Exception {
+        float base = PreviewCalibrator.score(5f, 50f, 320, 240, 30f);
+        assertTrue(PreviewCalibrator.score(5f, 150f, 320, 240, 30f) < base);
+        assertTrue(PreviewCalibrator.score(5f, 50f, 640, 480, 30f) < base);
+        assertTrue(PreviewCalibrator.score(2f, 50f, 320, 240, 30f) < base);
+        assertTrue(PreviewCalibrator.score(5f, 50f, 320, 240, 15f) > base);
+        // Results beyond the useful rate buy nothing.
+        assertEquals(PreviewCalibrator.score(PreviewCalibrator.MAX_USEFUL_RATE, 50f, 320, 240,
+                30f), PreviewCalibrator.score(30f, 50f, 320, 240, 30f), 0f);
+        assertEquals(0f, PreviewCalibrator.score(0f, 50f, 320, 240, 30f), 0f);
+    }
+
+    @Test
+    public void pruneKeepsCheapestCandidates() throws Exception {
+        mCalibrator.addCandidate(1280, 720, 15000, 30000);
+        mCalibrator.addCandidate(320, 240, 15000, 30000);
+        mCalibrator.addCandidate(640, 480, 15000, 30000);
+        mCalibrator.addCandidate(320, 240, 15000, 30000);
+        mCalibrator.addCandidate(320, 240, 7000, 15000);
+        assertEquals(4, mCalibrator.getCandidateCount());
+
+        mCalibrator.prune(3);
+        assertEquals(3, mCalibrator.getCandidateCount());
+        assertEquals(15000, mCalibrator.getMaxFps(0));
+        assertEquals(320, mCalibrator.getWidth(1));
+        assertEquals(640, mCalibrator.getWidth(2));
+    }
+
+    @Test
+    public void measuresEachCandidateAndPicksBest() throws Exception {
+        mCalibrator.addCandidate(320, 240, 15000, 30000);
+        mCalibrator.addCandidate(640, 480, 15000, 30000);
+        mCalibrator.prune(PreviewCalibrator.MAX_CANDIDATES);
+        assertEquals(0, mCalibrator.getCurrent());
+
+        // The small size detects rarely, the large one on every other frame.
+        session(0, 3000, 30, 60);
+        assertEquals(1, mCalibrator.getCurrent());
+        session(10000, 3000, 2, 60);
+        assertTrue(mCalibrator.isComplete());
+        assertEquals(-1, mCalibrator.getCurrent());
+        assertEquals(1, mCalibrator.getBest());
+        assertTrue(mCalibrator.getScore(1) > mCalibrator.getScore(0));
+    }
+
+    @Test
+    public void shortSessionIsRepeated() throws Exception {
+        mCalibrator.addCandidate(320, 240, 15000, 30000);
+        session(0, 500, 1, 60);
+        assertEquals(0, mCalibrator.getCurrent());
+        assertEquals(0f, mCalibrator.getScore(0), 0f);
+        session(1000, 1000, 1, 60);
+        assertTrue(mCalibrator.isComplete());
+        assertEquals(0, mCalibrator.getBest());
+    }
+
+    @Test
+    public void noFacesMeansNoBest() throws Exception {
+        mCalibrator.addCandidate(320, 240, 15000, 30000);
+        mCalibrator.beginSession(0);
+        for (int i = 0; i < PreviewCalibrator.MIN_FRAMES; i++) {
+            mCalibrator.onFrame();
+            mCalibrator.onFaces(0, i, i + 1);
+        }
+        mCalibrator.endSession(2000);
+        assertTrue(mCalibrator.isComplete());
+        assertEquals(-1, mCalibrator.getBest());
+
+        mCalibrator.restart();
+        assertEquals(0, mCalibrator.getCurrent());
+    }
+
+    @Test
+    public void configRoundTrips() throws Exception {
+        mCalibrator.addCandidate(640, 480, 7500, 30000);
+        String config = mCalibrator.formatConfig(0);
+        int[] parsed = new int[4];
+        assertTrue(PreviewCalibrator.parseConfig(config, parsed));
+        assertArrayEquals(new int[] { 640, 480, 7500, 30000 }, parsed);
+
+        assertFalse(PreviewCalibrator.parseConfig(null, parsed));
+        assertFalse(PreviewCalibrator.parseConfig("640x480", parsed));
+        assertFalse(PreviewCalibrator.parseConfig("ax480@1-2", parsed));
+        assertFalse(PreviewCalibrator.parseConfig("640x480@30000-7500", parsed));
+    }
+}
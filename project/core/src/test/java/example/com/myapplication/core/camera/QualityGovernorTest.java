@@ -0,0 +1,84 @@
+package example.com.myapplication.core.camera;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class QualityGovernorTest {
+
+    private static final int COOL = 300;
+
+    private final QualityGovernor mGovernor = new QualityGovernor(0);
+
+    @Test
+    public void startsAtFullQuality() throws Exception {
+        assertFalse(mGovernor.update(80, false, false, COOL, 10));
+        assertEquals(QualityGovernor.TIER_FULL, mGovernor.getTier());
+    }
+
+    @Test
+    public void escalatesRightAway() throws Exception {
+        assertTrue(mGovernor.update(80, false, true, COOL, 10));
+        assertEquals(QualityGovernor.TIER_REDUCED, mGovernor.getTier());
+        assertTrue(mGovernor.update(80, false, true, QualityGovernor.HOT_TEMPERATURE, 20));
+        assertEquals(QualityGovernor.TIER_MINIMAL, mGovernor.getTier());
+        assertEquals(2, mGovernor.getTransitionCount());
+    }
+
+    @Test
+    public void lowBatteryOnlyCountsWhileDischarging() throws Exception {
+        assertFalse(mGovernor.update(5, true, false, COOL, 10));
+        assertTrue(mGovernor.update(5, false, false, COOL, 20));
+        assertEquals(QualityGovernor.TIER_MINIMAL, mGovernor.getTier());
+        assertTrue(mGovernor.update(5, true, false, COOL, 30));
+        assertEquals(QualityGovernor.TIER_FULL, mGovernor.getTier());
+    }
+
+    @Test
+    public void relaxesOnlyPastTheHysteresis() throws Exception {
+        int warm = QualityGovernor.WARM_TEMPERATURE;
+        mGovernor.update(80, false, false, warm, 10);
+        assertEquals(QualityGovernor.TIER_REDUCED, mGovernor.getTier());
+        assertFalse(mGovernor.update(80, false, false, warm - 1, 20));
+        assertFalse(mGovernor.update(80, false, false,
+                warm - QualityGovernor.TEMPERATURE_HYSTERESIS, 30));
+        assertTrue(mGovernor.update(80, false, false,
+                warm - QualityGovernor.TEMPERATURE_HYSTERESIS - 1, 40));
+        assertEquals(QualityGovernor.TIER_FULL, mGovernor.getTier());
+
+        int low = QualityGovernor.LOW_BATTERY_PERCENT;
+        mGovernor.update(low, false, false, COOL, 50);
+        assertFalse(mGovernor.update(low + QualityGovernor.BATTERY_HYSTERESIS_PERCENT, false,
+                false, COOL, 60));
+        assertTrue(mGovernor.update(low + QualityGovernor.BATTERY_HYSTERESIS_PERCENT + 1,
+                false, false, COOL, 70));
+    }
+
+    @Test
+    public void relaxesOneConditionAtATime() throws Exception {
+        mGovernor.update(80, false, true, QualityGovernor.HOT_TEMPERATURE, 10);
+        assertEquals(QualityGovernor.TIER_MINIMAL, mGovernor.getTier());
+        assertTrue(mGovernor.update(80, false, true, COOL, 20));
+        assertEquals(QualityGovernor.TIER_REDUCED, mGovernor.getTier());
+    }
+
+    @Test
+    public void keepsTimeInTier() throws Exception {
+        mGovernor.update(80, false, true, COOL, 100);
+        mGovernor.update(80, false, false, COOL, 350);
+        assertEquals(100 + 50, mGovernor.getTimeInTierMs(QualityGovernor.TIER_FULL, 400));
+        assertEquals(250, mGovernor.getTimeInTierMs(QualityGovernor.TIER_REDUCED, 400));
+        assertEquals(0, mGovernor.getTimeInTierMs(QualityGovernor.TIER_MINIMAL, 400));
+    }
+
+    @Test
+    public void cheaperTiersCapMore() throws Exception {
+        assertEquals(0, QualityGovernor.getMaxPreviewPixels(QualityGovernor.TIER_FULL));
+        assertTrue(QualityGovernor.getMaxPreviewPixels(QualityGovernor.TIER_MINIMAL)
+                < QualityGovernor.getMaxPreviewPixels(QualityGovernor.TIER_REDUCED));
+        assertTrue(QualityGovernor.getMaxFps(QualityGovernor.TIER_MINIMAL)
+                < QualityGovernor.getMaxFps(QualityGovernor.TIER_REDUCED));
+        assertTrue(QualityGovernor.getDetectionIntervalMs(QualityGovernor.TIER_MINIMAL)
+                > QualityGovernor.getDetectionIntervalMs(QualityGovernor.TIER_REDUCED));
+    }
+}
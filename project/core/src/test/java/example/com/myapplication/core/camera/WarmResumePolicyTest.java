@@ -0,0 +1,174 @@
+package example.com.myapplication.core.camera;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class WarmResumePolicyTest {
+
+    /**
+     * A camera backend that completes every operation right away and advances a clock by a
+     * rough HAL cost for each, so resume latencies can be checked without a device.
+     */
+    private static class TimedFakeCamera implements CameraPort, CameraSessionMachine.Listener {
+        static final long OPEN_MS = 250;
+        static final long CONFIGURE_MS = 150;
+        static final long REPEAT_MS = 30;
+        static final long STOP_MS = 10;
+        static final long CLOSE_MS = 50;
+
+        final List<String> mCalls = new ArrayList<String>();
+        CameraSessionMachine mMachine;
+        long mNowMs = 0;
+        long mStreamingMs = -1;
+
+        @Override
+        public void open() {
+            mCalls.add("open");
+            mNowMs += OPEN_MS;
+            mMachine.onOpened();
+        }
+
+        @Override
+        public void configure() {
+            mCalls.add("configure");
+            mNowMs += CONFIGURE_MS;
+            mMachine.onConfigured();
+        }
+
+        @Override
+        public boolean startRepeating() {
+            mCalls.add("repeat");
+            mNowMs += REPEAT_MS;
+            return true;
+        }
+
+        @Override
+        public void stopRepeating() {
+            mCalls.add("stopRepeating");
+            mNowMs += STOP_MS;
+        }
+
+        @Override
+        public void close() {
+            mCalls.add("close");
+            mNowMs += CLOSE_MS;
+        }
+
+        @Override
+        public void onStreaming() {
+            mStreamingMs = mNowMs;
+        }
+
+        @Override
+        public void onClosed() {
+        }
+
+        @Override
+        public void onError(int reason) {
+            mCalls.add("onError " + reason);
+        }
+
+        String drain() {
+            String calls = mCalls.toString();
+            mCalls.clear();
+            return calls;
+        }
+    }
+
+    private final TimedFakeCamera mCamera = new TimedFakeCamera();
+    private final CameraSessionMachine mMachine = new CameraSessionMachine(mCamera, mCamera);
+
+    public WarmResumePolicyTest() {
+        mCamera.mMachine = mMachine;
+    }
+
+    /**
+     * Pauses the camera as a screen off would, then resumes it after offMs and returns the
+     * time from the resume to streaming.
+     */
+    private long screenOffAndOn(WarmResumePolicy policy, long offMs) {
+        mMachine.setKeepWarm(policy.onPause(true, mCamera.mNowMs));
+        mMachine.stop();
+        mCamera.mNowMs += offMs;
+        if (policy.isExpired(mCamera.mNowMs)) {
+            mMachine.release();
+            policy.onReleased();
+        }
+        mCamera.drain();
+
+        long resumeMs = mCamera.mNowMs;
+        policy.onResume();
+        mMachine.start();
+        assertEquals(CameraSessionMachine.STATE_STREAMING, mMachine.getState());
+        return mCamera.mStreamingMs - resumeMs;
+    }
+
+    @Test
+    public void warmResumeMeetsTarget() throws Exception {
+        WarmResumePolicy policy = new WarmResumePolicy(true);
+        mMachine.start();
+        mCamera.drain();
+
+        long latencyMs = screenOffAndOn(policy, 5000);
+        assertTrue(latencyMs + " ms", latencyMs <= WarmResumePolicy.TARGET_WARM_RESUME_MS);
+        assertEquals("[repeat]", mCamera.drain());
+        assertEquals(1, mMachine.getOpenCount());
+        assertEquals(1, policy.getWarmResumeCount());
+        assertEquals(0, policy.getColdResumeCount());
+    }
+
+    @Test
+    public void coldResumeMissesTarget() throws Exception {
+        WarmResumePolicy policy = new WarmResumePolicy(false);
+        mMachine.start();
+        mCamera.drain();
+
+        long latencyMs = screenOffAndOn(policy, 5000);
+        assertTrue(latencyMs + " ms", latencyMs > WarmResumePolicy.TARGET_WARM_RESUME_MS);
+        assertEquals("[open, configure, repeat]", mCamera.drain());
+        assertEquals(2, mMachine.getOpenCount());
+        assertEquals(1, policy.getColdResumeCount());
+    }
+
+    @Test
+    public void heldPastHoldTimeIsReleased() throws Exception {
+        WarmResumePolicy policy = new WarmResumePolicy(true, 1000);
+        mMachine.start();
+        mCamera.drain();
+
+        long latencyMs = screenOffAndOn(policy, 1000);
+        assertTrue(latencyMs + " ms", latencyMs > WarmResumePolicy.TARGET_WARM_RESUME_MS);
+        assertEquals("[open, configure, repeat]", mCamera.drain());
+        assertEquals(1, policy.getWarmReleaseCount());
+        assertEquals(1, policy.getColdResumeCount());
+
+        latencyMs = screenOffAndOn(policy, 900);
+        assertTrue(latencyMs + " ms", latencyMs <= WarmResumePolicy.TARGET_WARM_RESUME_MS);
+        assertEquals(1, policy.getWarmResumeCount());
+    }
+
+    @Test
+    public void unreusablePauseIsCold() throws Exception {
+        WarmResumePolicy policy = new WarmResumePolicy(true);
+        assertFalse(policy.onPause(false, 0));
+        assertFalse(policy.isWarm());
+        assertFalse(policy.onResume());
+
+        assertTrue(policy.onPause(true, 0));
+        assertFalse(policy.isExpired(WarmResumePolicy.DEFAULT_HOLD_MS - 1));
+        assertTrue(policy.isExpired(WarmResumePolicy.DEFAULT_HOLD_MS));
+        assertTrue(policy.onResume());
+        assertFalse(policy.isWarm());
+
+        assertFalse(new WarmResumePolicy(true, 0).onPause(true, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeHoldTime() throws Exception {
+        new WarmResumePolicy(true, -1);
+    }
+}
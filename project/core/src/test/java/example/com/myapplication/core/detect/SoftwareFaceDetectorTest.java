@@ -0,0 +1,148 @@
+package example.com.myapplication.core.detect;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import example.com.myapplication.core.FaceBatch;
+import example.com.myapplication.core.FaceRecord;
+import example.com.myapplication.core.Orientation;
+import example.com.myapplication.core.RectOrientationEstimator;
+
+import static example.com.myapplication.core.Fixtures.*;
+import static org.junit.Assert.*;
+
+public class SoftwareFaceDetectorTest {
+
+    private final SoftwareFaceDetector mDetector = new SoftwareFaceDetector();
+
+    /**
+     * Asserts that the strongest face covers the centre of the synthetic face and is up in
+     * the expected direction.
+     */
+    private void assertFace(String fixture, int width, int height, int upDirection)
+            throws Exception {
+        byte[] frame = loadFrame(fixture);
+        assertTrue(mDetector.detect(frame, width, height) >= 1);
+        assertEquals(upDirection, mDetector.getFaceUpDirection(0));
+        int centerX = width / 2;
+        int centerY = height / 2;
+        assertTrue(mDetector.getFaceLeft(0) < centerX && centerX < mDetector.getFaceRight(0));
+        assertTrue(mDetector.getFaceTop(0) < centerY && centerY < mDetector.getFaceBottom(0));
+        assertTrue(mDetector.getFaceScore(0) >= 1 && mDetector.getFaceScore(0) <= 100);
+    }
+
+    @Test
+    public void detectsAllRotations() throws Exception {
+        assertFace("face_up_pos_x_160x120.nv21", WIDTH, HEIGHT,
+                RectOrientationEstimator.UP_POSITIVE_X);
+        assertFace("face_up_neg_x_160x120.nv21", WIDTH, HEIGHT,
+                RectOrientationEstimator.UP_NEGATIVE_X);
+        assertFace("face_up_pos_y_160x120.nv21", WIDTH, HEIGHT,
+                RectOrientationEstimator.UP_POSITIVE_Y);
+        assertFace("face_up_neg_y_160x120.nv21", WIDTH, HEIGHT,
+                RectOrientationEstimator.UP_NEGATIVE_Y);
+    }
+
+    @Test
+    public void detectsOnDownscaledFrame() throws Exception {
+        assertFace("face_up_pos_x_320x240.nv21", 320, 240, RectOrientationEstimator.UP_POSITIVE_X);
+    }
+
+    @Test
+    public void flatFrameHasNoFace() throws Exception {
+        assertEquals(0, mDetector.detect(loadFrame("flat_160x120.nv21"), WIDTH, HEIGHT));
+    }
+
+    @Test
+    public void texturedFramesHaveNoFace() throws Exception {
+        Random random = new Random(1);
+        for (int i = 0; i < 10; i++) {
+            for (int kind : new int[] { NOISE, STRIPES, CHECKERBOARD, BLOTCHES }) {
+                assertEquals(0, mDetector.detect(texture(kind, WIDTH, HEIGHT, random), WIDTH,
+                        HEIGHT));
+            }
+        }
+    }
+
+    /**
+     * Rejects every window and counts the calls.
+     */
+    private static class RejectingVerifier implements FaceVerifier {
+        int mCalls;
+
+        @Override
+        public int verify(byte[] luma, int width, int height, int left, int top, int size,
+                int up) {
+            mCalls++;
+            return REJECTED;
+        }
+    }
+
+    @Test
+    public void rejectedFaceIsNotReported() throws Exception {
+        RejectingVerifier verifier = new RejectingVerifier();
+        mDetector.setVerifier(verifier);
+        assertEquals(0, mDetector.detect(loadFrame("face_up_neg_y_160x120.nv21"), WIDTH,
+                HEIGHT));
+        assertEquals(1, verifier.mCalls);
+        assertEquals(1, mDetector.getRejectedCount());
+    }
+
+    @Test
+    public void verifierSeesCascadeWindow() throws Exception {
+        final int[] window = new int[4];
+        mDetector.setVerifier(new FaceVerifier() {
+            @Override
+            public int verify(byte[] luma, int width, int height, int left, int top, int size,
+                    int up) {
+                window[0] = left;
+                window[1] = top;
+                window[2] = size;
+                window[3] = up;
+                return up;
+            }
+        });
+        assertEquals(1, mDetector.detect(loadFrame("face_up_neg_y_160x120.nv21"), WIDTH,
+                HEIGHT));
+        assertEquals(RectOrientationEstimator.UP_NEGATIVE_Y, window[3]);
+        assertTrue(window[0] < WIDTH / 2 && WIDTH / 2 < window[0] + window[2]);
+        assertTrue(window[1] < HEIGHT / 2 && HEIGHT / 2 < window[1] + window[2]);
+        assertEquals(RectOrientationEstimator.UP_NEGATIVE_Y, mDetector.getFaceUpDirection(0));
+    }
+
+    @Test
+    public void reportsDriverCoordinates() throws Exception {
+        mDetector.detect(loadFrame("face_up_neg_y_160x120.nv21"), WIDTH, HEIGHT);
+        FaceRecord record = new FaceRecord();
+        mDetector.getFace(0, record);
+        assertTrue(record.hasRect);
+        assertTrue(record.left < 0 && record.right > 0);
+        assertTrue(record.top < 0 && record.bottom > 0);
+        assertEquals(Orientation.LANDSCAPE, record.rectOrientation);
+    }
+
+    @Test
+    public void batchMatchesRecords() throws Exception {
+        int count = mDetector.detect(loadFrame("face_up_pos_x_160x120.nv21"), WIDTH, HEIGHT);
+        FaceBatch faces = new FaceBatch(1);
+        mDetector.getFaces(faces);
+        assertEquals(count, faces.getCount());
+        FaceRecord record = new FaceRecord();
+        FaceRecord fromBatch = new FaceRecord();
+        for (int i = 0; i < count; i++) {
+            mDetector.getFace(i, record);
+            faces.get(i, fromBatch);
+            assertEquals(record.toString(), fromBatch.toString());
+            assertEquals(record.rectOrientation, fromBatch.rectOrientation);
+        }
+    }
+
+    @Test
+    public void reusesBuffersAcrossFrames() throws Exception {
+        byte[] frame = loadFrame("face_up_pos_y_160x120.nv21");
+        int first = mDetector.detect(frame, WIDTH, HEIGHT);
+        assertEquals(first, mDetector.detect(frame, WIDTH, HEIGHT));
+        assertEquals(RectOrientationEstimator.UP_POSITIVE_Y, mDetector.getFaceUpDirection(0));
+    }
+}
@@ -0,0 +1,194 @@
+package example.com.myapplication.core.frame;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class FrameAnalysisWorkerTest {
+
+    /**
+     * Holds the latest frame, like a FrameRing of one, and hands the previous one back.
+     */
+    private static class HoldLatest implements FrameAnalysisWorker.Analyzer {
+        final AtomicInteger mFrames = new AtomicInteger();
+        final AtomicInteger mSignals = new AtomicInteger();
+        volatile CountDownLatch mSignalLatch = new CountDownLatch(1);
+        byte[] mHeld;
+        long mLastTimestampNs = -1;
+        boolean mInOrder = true;
+
+        @Override
+        public byte[] onFrame(byte[] frame, long timestampNs) {
+            if (timestampNs <= mLastTimestampNs) {
+                mInOrder = false;
+            }
+            mLastTimestampNs = timestampNs;
+            mFrames.incrementAndGet();
+            byte[] done = mHeld;
+            mHeld = frame;
+            return done;
+        }
+
+        @Override
+        public void onSignal() {
+            mSignals.incrementAndGet();
+            mSignalLatch.countDown();
+        }
+    }
+
+    @Test
+    public void analyzesFramesAndHandsBuffersBack() throws Exception {
+        int bufferCount = 4;
+        HoldLatest analyzer = new HoldLatest();
+        FrameAnalysisWorker worker = new FrameAnalysisWorker("test", 2, bufferCount, analyzer);
+        byte[][] buffers = new byte[bufferCount][];
+        Set<byte[]> free = new HashSet<byte[]>();
+        for (int i = 0; i < bufferCount; i++) {
+            buffers[i] = new byte[1];
+            free.add(buffers[i]);
+        }
+        worker.start();
+
+        // Plays the camera: a frame goes out in a free buffer, returned ones are free again.
+        int offered = 0;
+        long deadline = System.currentTimeMillis() + 10000;
+        while (offered < 10000 && System.currentTimeMillis() < deadline) {
+            byte[] returned;
+            while ((returned = worker.pollReturned()) != null) {
+                assertTrue(free.add(returned));
+            }
+            if (free.isEmpty()) {
+                Thread.yield();
+                continue;
+            }
+            byte[] frame = free.iterator().next();
+            free.remove(frame);
+            if (worker.offer(frame, offered)) {
+                offered++;
+            } else {
+                free.add(frame);
+                Thread.yield();
+            }
+        }
+        while (analyzer.mFrames.get() < offered && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+        assertTrue(worker.stop(5000));
+
+        assertEquals(10000, offered);
+        assertEquals(offered, worker.getAnalyzedCount());
+        assertTrue(analyzer.mInOrder);
+        byte[] returned;
+        while ((returned = worker.pollReturned()) != null) {
+            assertTrue(free.add(returned));
+        }
+        // Every buffer is free again except the one the analysis holds.
+        assertEquals(bufferCount - 1, free.size());
+        assertFalse(free.contains(analyzer.mHeld));
+        assertTrue(worker.getMaxDepth() <= 2);
+        assertTrue(worker.getUtilization() >= 0f && worker.getUtilization() <= 1f);
+    }
+
+    @Test
+    public void signalWakesParkedWorker() throws Exception {
+        HoldLatest analyzer = new HoldLatest();
+        FrameAnalysisWorker worker = new FrameAnalysisWorker("test", 1, 2, analyzer);
+        worker.start();
+        for (int i = 0; i < 100; i++) {
+            analyzer.mSignalLatch = new CountDownLatch(1);
+            worker.signal();
+            assertTrue(analyzer.mSignalLatch.await(5, TimeUnit.SECONDS));
+        }
+        assertTrue(worker.stop(5000));
+        assertFalse(worker.isRunning());
+        assertEquals(100, analyzer.mSignals.get());
+    }
+
+    @Test
+    public void fullQueueRefusesFrames() throws Exception {
+        HoldLatest analyzer = new HoldLatest();
+        FrameAnalysisWorker worker = new FrameAnalysisWorker("test", 1, 3, analyzer);
+        // Not started: nothing drains the queue.
+        assertTrue(worker.offer(new byte[1], 1));
+        assertFalse(worker.offer(new byte[1], 2));
+        assertEquals(1, worker.getDepth());
+        assertEquals(1, worker.getOfferFailureCount());
+
+        worker.clear();
+        assertEquals(0, worker.getDepth());
+        worker.start();
+        assertTrue(worker.stop(5000));
+        assertEquals(0, worker.getAnalyzedCount());
+    }
+
+    @Test
+    public void workerThreadOutlivesSessions() throws Exception {
+        HoldLatest analyzer = new HoldLatest();
+        FrameAnalysisWorker worker = new FrameAnalysisWorker("test", 1, 2, analyzer);
+        int threads = Thread.activeCount();
+        for (int i = 0; i < 50; i++) {
+            worker.start();
+            analyzer.mSignalLatch = new CountDownLatch(1);
+            worker.signal();
+            assertTrue(analyzer.mSignalLatch.await(5, TimeUnit.SECONDS));
+            assertTrue(worker.stop(5000));
+        }
+        assertEquals(threads + 1, Thread.activeCount());
+        worker.quit();
+    }
+
+    @Test
+    public void stopHandsQueuedFramesBack() throws Exception {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        FrameAnalysisWorker worker = new FrameAnalysisWorker("test", 1, 2,
+                new FrameAnalysisWorker.Analyzer() {
+                    @Override
+                    public byte[] onFrame(byte[] frame, long timestampNs) {
+                        entered.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return frame;
+                    }
+
+                    @Override
+                    public void onSignal() {
+                    }
+                });
+        byte[] analyzed = new byte[1];
+        byte[] queued = new byte[1];
+        worker.start();
+        assertTrue(worker.offer(analyzed, 1));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        assertTrue(worker.offer(queued, 2));
+
+        // The analysis is stuck, so the stop gives up waiting.
+        assertFalse(worker.stop(50));
+        release.countDown();
+        assertTrue(worker.stop(5000));
+
+        Set<byte[]> returned = new HashSet<byte[]>();
+        byte[] buffer;
+        while ((buffer = worker.pollReturned()) != null) {
+            returned.add(buffer);
+        }
+        assertTrue(returned.contains(analyzed));
+        assertTrue(returned.contains(queued));
+        assertEquals(1, worker.getAnalyzedCount());
+        worker.quit();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMoreQueuedFramesThanBuffers() throws Exception {
+        new FrameAnalysisWorker("test", 3, 2, new HoldLatest());
+    }
+}
@@ -0,0 +1,123 @@
+package example.com.myapplication.core.frame;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import example.com.myapplication.core.FaceBatch;
+import example.com.myapplication.core.FaceRecord;
+import example.com.myapplication.core.Orientation;
+
+import static org.junit.Assert.*;
+
+public class FrameRecorderTest {
+
+    private static final int NV21 = 17;
+    private static final int WIDTH = 8;
+    private static final int HEIGHT = 4;
+    private static final int FRAME_SIZE = WIDTH * HEIGHT * 3 / 2;
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    private static byte[] frame(int value) {
+        byte[] frame = new byte[FRAME_SIZE];
+        for (int i = 0; i < frame.length; i++) {
+            frame[i] = (byte) (value + i);
+        }
+        return frame;
+    }
+
+    @Test
+    public void roundTripsFramesAcrossSegments() throws Exception {
+        File dir = mFolder.newFolder();
+        // Room for two frames per segment.
+        long segmentBytes = FrameRecorder.SEGMENT_HEADER_BYTES
+                + 2 * (FrameRecorder.FRAME_HEADER_BYTES + FRAME_SIZE) + 4;
+        FrameRecorder recorder = new FrameRecorder(dir, "rec", 8, segmentBytes);
+        recorder.configure(FRAME_SIZE);
+        recorder.start();
+
+        FaceBatch faces = new FaceBatch();
+        faces.add(-100, -200, 300, 400, 7, 88);
+        faces.setRectOrientation(0, Orientation.REVERSE_LANDSCAPE);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(recorder.record(frame(i), FRAME_SIZE, WIDTH, HEIGHT, NV21, 1000 + i,
+                    i % 2 == 1 ? faces : null));
+        }
+        recorder.stop();
+        assertNull(recorder.getError());
+        assertEquals(5, recorder.getWrittenCount());
+        assertTrue(FrameRecorder.getSegmentFile(dir, "rec", 2).isFile());
+        assertFalse(FrameRecorder.getSegmentFile(dir, "rec", 3).exists());
+
+        FrameRecordingReader reader = new FrameRecordingReader(dir, "rec");
+        byte[] data = new byte[FRAME_SIZE];
+        FaceRecord read = new FaceRecord();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(reader.next());
+            assertEquals(1000 + i, reader.getTimestampNs());
+            assertEquals(WIDTH, reader.getWidth());
+            assertEquals(HEIGHT, reader.getHeight());
+            assertEquals(NV21, reader.getFormat());
+            assertEquals(FRAME_SIZE, reader.getDataSize());
+            reader.readData(data);
+            assertArrayEquals(frame(i), data);
+            assertEquals(i % 2, reader.getFaceCount());
+            if (reader.getFaceCount() > 0) {
+                reader.getFace(0, read);
+                assertEquals(-100, read.left);
+                assertEquals(400, read.bottom);
+                assertEquals(7, read.id);
+                assertEquals(88, read.score);
+                assertEquals(Orientation.REVERSE_LANDSCAPE, read.rectOrientation);
+            }
+        }
+        assertFalse(reader.next());
+    }
+
+    @Test
+    public void dropsFramesWhenBacklogIsFull() throws Exception {
+        File dir = mFolder.newFolder();
+        FrameRecorder recorder = new FrameRecorder(dir, "rec", 2,
+                FrameRecorder.DEFAULT_SEGMENT_BYTES);
+        recorder.configure(FRAME_SIZE);
+
+        // Not started: nothing is queued.
+        assertFalse(recorder.record(frame(0), FRAME_SIZE, WIDTH, HEIGHT, NV21, 0, null));
+        assertEquals(0, recorder.getDroppedCount());
+
+        // Fill the backlog faster than any disk: at most two frames wait, the rest drop.
+        recorder.start();
+        int accepted = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (recorder.record(frame(i), FRAME_SIZE, WIDTH, HEIGHT, NV21, i, null)) {
+                accepted++;
+            }
+        }
+        recorder.stop();
+        assertEquals(1000, accepted + recorder.getDroppedCount());
+        assertEquals(accepted, recorder.getWrittenCount());
+        assertEquals(accepted, recorder.getRecordedCount());
+    }
+
+    @Test
+    public void restartOverwritesPreviousRecording() throws Exception {
+        File dir = mFolder.newFolder();
+        FrameRecorder recorder = new FrameRecorder(dir, "rec");
+        recorder.start();
+        recorder.record(frame(1), FRAME_SIZE, WIDTH, HEIGHT, NV21, 1, null);
+        recorder.record(frame(2), FRAME_SIZE, WIDTH, HEIGHT, NV21, 2, null);
+        recorder.stop();
+        recorder.start();
+        recorder.record(frame(3), FRAME_SIZE, WIDTH, HEIGHT, NV21, 3, null);
+        recorder.stop();
+
+        FrameRecordingReader reader = new FrameRecordingReader(dir, "rec");
+        assertTrue(reader.next());
+        assertEquals(3, reader.getTimestampNs());
+        assertFalse(reader.next());
+    }
+}
@@ -0,0 +1,78 @@
+package example.com.myapplication.core.frame;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FrameRingTest {
+
+    private static final int FRAME_SIZE = 64;
+
+    private FrameRing newRing(int buffers, int held) {
+        FrameRing ring = new FrameRing(buffers, held, new FrameBufferPool(buffers));
+        ring.configure(FRAME_SIZE);
+        return ring;
+    }
+
+    @Test
+    public void keepsLatestAndRecyclesOldest() throws Exception {
+        FrameRing ring = newRing(3, 1);
+        byte[] first = ring.getBuffer(0);
+        byte[] second = ring.getBuffer(1);
+
+        assertNull(ring.onFrameDelivered(first, 1));
+        assertSame(first, ring.latest());
+        assertEquals(1, ring.latestTimestamp());
+
+        // The consumed frame is recycled, not counted as dropped.
+        assertSame(first, ring.onFrameDelivered(second, 2));
+        assertSame(second, ring.latest());
+        assertEquals(2, ring.getDeliveredCount());
+        assertEquals(0, ring.getDroppedCount());
+        assertEquals(1, ring.getRecycledCount());
+    }
+
+    @Test
+    public void countsUnreadFramesAsDropped() throws Exception {
+        FrameRing ring = newRing(3, 2);
+        assertNull(ring.onFrameDelivered(ring.getBuffer(0), 1));
+        assertNull(ring.onFrameDelivered(ring.getBuffer(1), 2));
+        assertSame(ring.getBuffer(0), ring.onFrameDelivered(ring.getBuffer(2), 3));
+        assertEquals(2, ring.getHeldCount());
+        assertEquals(1, ring.getDroppedCount());
+        assertSame(ring.getBuffer(2), ring.latest());
+    }
+
+    @Test
+    public void ignoresForeignFrames() throws Exception {
+        FrameRing ring = newRing(2, 1);
+        assertNull(ring.onFrameDelivered(new byte[FRAME_SIZE + 1], 1));
+        assertNull(ring.onFrameDelivered(null, 1));
+        assertEquals(0, ring.getDeliveredCount());
+        assertNull(ring.latest());
+    }
+
+    @Test
+    public void reconfigureReusesPooledBuffers() throws Exception {
+        FrameBufferPool pool = new FrameBufferPool(2);
+        FrameRing ring = new FrameRing(2, 1, pool);
+        ring.configure(FRAME_SIZE);
+        byte[] original = ring.getBuffer(0);
+        ring.onFrameDelivered(original, 1);
+
+        ring.configure(FRAME_SIZE * 2);
+        assertEquals(FRAME_SIZE * 2, ring.getBuffer(0).length);
+        assertEquals(0, ring.getHeldCount());
+        assertEquals(2, pool.getIdleCount(FRAME_SIZE));
+
+        ring.configure(FRAME_SIZE);
+        assertEquals(4, pool.getAllocatedCount());
+        assertEquals(2, pool.getReusedCount());
+        assertTrue(ring.getBuffer(0) == original || ring.getBuffer(1) == original);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsHoldingEveryBuffer() throws Exception {
+        new FrameRing(2, 2, new FrameBufferPool(2));
+    }
+}
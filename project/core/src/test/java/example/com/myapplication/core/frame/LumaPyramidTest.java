@@ -0,0 +1,106 @@
+package example.com.myapplication.core.frame;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LumaPyramidTest {
+
+    private static final int WIDTH = 8;
+    private static final int HEIGHT = 6;
+
+    // An NV21 frame whose luma is x + 10 * y, followed by a chroma plane of 0xFF.
+    private static byte[] gradientFrame() {
+        byte[] frame = new byte[WIDTH * HEIGHT * 3 / 2];
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                frame[y * WIDTH + x] = (byte) (x + 10 * y);
+            }
+        }
+        for (int i = WIDTH * HEIGHT; i < frame.length; i++) {
+            frame[i] = (byte) 0xFF;
+        }
+        return frame;
+    }
+
+    @Test
+    public void halvesEachLevel() throws Exception {
+        LumaPyramid pyramid = new LumaPyramid();
+        pyramid.configure(WIDTH, HEIGHT);
+        byte[] frame = gradientFrame();
+        pyramid.build(frame);
+
+        // 8x6 -> 4x3 -> 2x1; a 1x0 level is left out.
+        assertEquals(3, pyramid.getLevelCount());
+        assertSame(frame, pyramid.getPlane(0));
+        assertEquals(4, pyramid.getWidth(1));
+        assertEquals(3, pyramid.getHeight(1));
+        assertEquals(2, pyramid.getWidth(2));
+        assertEquals(1, pyramid.getHeight(2));
+
+        // (0 + 1 + 10 + 11 + 2) / 4, rounded.
+        assertEquals(6, pyramid.getPlane(1)[0]);
+        // (22 + 23 + 32 + 33 + 2) / 4 at (1, 1).
+        assertEquals(28, pyramid.getPlane(1)[1 * 4 + 1]);
+        // (6 + 8 + 26 + 28 + 2) / 4 from level 1.
+        assertEquals(17, pyramid.getPlane(2)[0]);
+    }
+
+    @Test
+    public void reusesPlanesAcrossFrames() throws Exception {
+        LumaPyramid pyramid = new LumaPyramid();
+        pyramid.configure(WIDTH, HEIGHT);
+        pyramid.build(gradientFrame());
+        byte[] level1 = pyramid.getPlane(1);
+
+        pyramid.configure(WIDTH, HEIGHT);
+        pyramid.build(new byte[WIDTH * HEIGHT]);
+        assertSame(level1, pyramid.getPlane(1));
+        assertEquals(0, level1[0]);
+
+        pyramid.configure(2 * WIDTH, 2 * HEIGHT);
+        assertNotSame(level1, pyramid.getPlane(1));
+    }
+
+    @Test
+    public void viewsMapToSourcePixels() throws Exception {
+        LumaPyramid pyramid = new LumaPyramid();
+        pyramid.configure(WIDTH, HEIGHT);
+        pyramid.build(gradientFrame());
+        LumaView view = new LumaView();
+
+        pyramid.view(0, LumaPyramid.ROTATE_0, view);
+        assertEquals(WIDTH, view.getWidth());
+        assertEquals(3 + 20, view.get(3, 2));
+
+        // Clockwise: the bottom-left source pixel becomes the top-left one.
+        pyramid.view(0, LumaPyramid.ROTATE_90, view);
+        assertEquals(HEIGHT, view.getWidth());
+        assertEquals(WIDTH, view.getHeight());
+        assertEquals(50, view.get(0, 0));
+        assertEquals(0, view.get(HEIGHT - 1, 0));
+        assertEquals(57, view.get(0, WIDTH - 1));
+
+        pyramid.view(0, LumaPyramid.ROTATE_180, view);
+        assertEquals(57, view.get(0, 0));
+        assertEquals(0, view.get(WIDTH - 1, HEIGHT - 1));
+
+        pyramid.view(0, LumaPyramid.ROTATE_270, view);
+        assertEquals(7, view.get(0, 0));
+        assertEquals(50, view.get(HEIGHT - 1, WIDTH - 1));
+
+        pyramid.view(0, LumaPyramid.TRANSPOSE, view);
+        assertEquals(2 + 30, view.get(3, 2));
+        assertEquals(32, view.getData()[view.indexOf(3, 2)]);
+    }
+
+    @Test
+    public void picksLevelForWidth() throws Exception {
+        LumaPyramid pyramid = new LumaPyramid();
+        pyramid.configure(640, 480);
+        assertEquals(4, pyramid.getLevelCount());
+        assertEquals(0, pyramid.levelForWidth(640));
+        assertEquals(2, pyramid.levelForWidth(160));
+        assertEquals(3, pyramid.levelForWidth(10));
+    }
+}
@@ -0,0 +1,161 @@
+package example.com.myapplication.core.frame;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import example.com.myapplication.core.FaceBatch;
+import example.com.myapplication.core.FrameSource;
+import example.com.myapplication.core.Orientation;
+import example.com.myapplication.core.OrientationPipeline;
+
+import static example.com.myapplication.core.Fixtures.*;
+import static org.junit.Assert.*;
+
+public class ReplayFrameSourceTest {
+
+    private static final int NV21 = 17;
+    private static final long FRAME_INTERVAL_NS = 33000000L;
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    /**
+     * Feeds replayed faces through the orientation pipeline and keeps every rotation.
+     */
+    private static class PipelineListener implements FrameSource.Listener {
+        final OrientationPipeline mPipeline = new OrientationPipeline();
+        final List<Integer> mRotations = new ArrayList<Integer>();
+        int mErrors;
+
+        @Override
+        public void onSourceError() {
+            mErrors++;
+        }
+
+        @Override
+        public void onFaces(FaceBatch faces, long timestampNs) {
+            int orientation = mPipeline.onFaces(faces, timestampNs / 1000000L);
+            if (orientation != Orientation.UNSPECIFIED) {
+                mRotations.add(orientation);
+            }
+        }
+    }
+
+    /**
+     * Records {@code frames} copies of each fixture with the face rect of the fixtures but no
+     * orientation, like a camera that reports rects only.
+     */
+    private File record(int frames, String... fixtures) throws Exception {
+        return record(1, frames, fixtures);
+    }
+
+    /**
+     * Like {@link #record(int, String...)}, with {@code faceCount} copies of the face rect.
+     */
+    private File record(int faceCount, int frames, String... fixtures) throws Exception {
+        File dir = mFolder.newFolder();
+        FrameRecorder recorder = new FrameRecorder(dir, "rec", frames * fixtures.length,
+                FrameRecorder.DEFAULT_SEGMENT_BYTES);
+        recorder.start();
+        FaceBatch faces = new FaceBatch();
+        for (int i = 0; i < faceCount; i++) {
+            faces.add(FACE_LEFT, FACE_TOP, FACE_RIGHT, FACE_BOTTOM, i + 1, 90);
+        }
+        long timestampNs = 0;
+        for (String fixture : fixtures) {
+            byte[] frame = loadFrame(fixture);
+            for (int i = 0; i < frames; i++) {
+                assertTrue(recorder.record(frame, frame.length, WIDTH, HEIGHT, NV21,
+                        timestampNs, faces));
+                timestampNs += FRAME_INTERVAL_NS;
+            }
+        }
+        recorder.stop();
+        assertNull(recorder.getError());
+        return dir;
+    }
+
+    @Test
+    public void replaysThroughPipeline() throws Exception {
+        // Long enough per orientation to win the vote and outlast the dwell time.
+        File dir = record(40, "face_up_pos_x_160x120.nv21", "face_up_pos_y_160x120.nv21");
+        PipelineListener listener = new PipelineListener();
+        ReplayFrameSource source = new ReplayFrameSource(dir, "rec", false, listener);
+
+        assertEquals(80, source.replay());
+        assertEquals(80, source.getFaceFrameCount());
+        assertEquals(0, listener.mErrors);
+        assertEquals(2, listener.mRotations.size());
+        assertEquals(Orientation.PORTRAIT, (int) listener.mRotations.get(0));
+        assertEquals(Orientation.REVERSE_LANDSCAPE, (int) listener.mRotations.get(1));
+
+        // At the end until rewound.
+        assertEquals(0, source.replay());
+        source.rewind();
+        assertEquals(80, source.replay());
+    }
+
+    @Test
+    public void estimatesEveryFace() throws Exception {
+        File dir = record(3, 1, "face_up_pos_x_160x120.nv21");
+        final FaceBatch replayed = new FaceBatch();
+        ReplayFrameSource source = new ReplayFrameSource(dir, "rec", false,
+                new FrameSource.Listener() {
+                    @Override
+                    public void onSourceError() {
+                    }
+
+                    @Override
+                    public void onFaces(FaceBatch faces, long timestampNs) {
+                        replayed.copyFrom(faces);
+                    }
+                });
+
+        assertEquals(1, source.replay());
+        assertEquals(3, replayed.getCount());
+        for (int i = 0; i < replayed.getCount(); i++) {
+            assertEquals(Orientation.PORTRAIT, replayed.getRectOrientation(i));
+        }
+    }
+
+    @Test
+    public void realTimeReplayKeepsRecordedPace() throws Exception {
+        File dir = record(4, "face_up_neg_y_160x120.nv21");
+        PipelineListener listener = new PipelineListener();
+        ReplayFrameSource source = new ReplayFrameSource(dir, "rec", true, listener);
+
+        long start = System.nanoTime();
+        assertEquals(4, source.replay());
+        assertTrue(System.nanoTime() - start >= 3 * FRAME_INTERVAL_NS);
+    }
+
+    @Test
+    public void replaysOnOwnThread() throws Exception {
+        File dir = record(20, "face_up_neg_x_160x120.nv21");
+        PipelineListener listener = new PipelineListener();
+        ReplayFrameSource source = new ReplayFrameSource(dir, "rec", false, listener);
+
+        source.resume();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (source.getFrameCount() < 20 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        source.pause();
+        assertEquals(20, source.getFrameCount());
+        assertEquals(Orientation.REVERSE_PORTRAIT, listener.mPipeline.getApplied());
+    }
+
+    @Test
+    public void missingRecordingIsEmpty() throws Exception {
+        PipelineListener listener = new PipelineListener();
+        ReplayFrameSource source = new ReplayFrameSource(mFolder.newFolder(), "none", false,
+                listener);
+        assertEquals(0, source.replay());
+        assertTrue(listener.mRotations.isEmpty());
+    }
+}
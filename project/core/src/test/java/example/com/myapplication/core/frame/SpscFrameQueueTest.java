@@ -0,0 +1,110 @@
+package example.com.myapplication.core.frame;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SpscFrameQueueTest {
+
+    @Test
+    public void pollsInOrderWithTimestamps() throws Exception {
+        SpscFrameQueue queue = new SpscFrameQueue(3);
+        byte[] first = new byte[1];
+        byte[] second = new byte[1];
+        assertTrue(queue.offer(first, 10));
+        assertTrue(queue.offer(second, 20));
+        assertEquals(2, queue.size());
+
+        assertSame(first, queue.poll());
+        assertEquals(10, queue.getPolledTimestampNs());
+        assertSame(second, queue.poll());
+        assertEquals(20, queue.getPolledTimestampNs());
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void failsWhenFull() throws Exception {
+        // Not a power of two, so the capacity is enforced below the slot count.
+        SpscFrameQueue queue = new SpscFrameQueue(3);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(queue.offer(new byte[1], i));
+        }
+        assertFalse(queue.offer(new byte[1], 3));
+        assertEquals(1, queue.getOfferFailureCount());
+        assertEquals(3, queue.getMaxDepth());
+
+        queue.poll();
+        assertTrue(queue.offer(new byte[1], 4));
+        assertEquals(4, queue.getOfferCount());
+        assertEquals(3, queue.size());
+    }
+
+    @Test
+    public void wrapsAround() throws Exception {
+        SpscFrameQueue queue = new SpscFrameQueue(2);
+        for (int i = 0; i < 100; i++) {
+            byte[] frame = new byte[1];
+            assertTrue(queue.offer(frame, i));
+            assertSame(frame, queue.poll());
+            assertEquals(i, queue.getPolledTimestampNs());
+        }
+        assertEquals(1, queue.getMaxDepth());
+    }
+
+    @Test
+    public void clearDropsQueuedFrames() throws Exception {
+        SpscFrameQueue queue = new SpscFrameQueue(2);
+        queue.offer(new byte[1], 1);
+        queue.offer(new byte[1], 2);
+        queue.clear();
+        assertEquals(0, queue.size());
+        assertNull(queue.poll());
+        assertTrue(queue.offer(new byte[1], 3));
+        assertTrue(queue.offer(new byte[1], 4));
+    }
+
+    @Test
+    public void handsFramesAcrossThreadsInOrder() throws Exception {
+        final int count = 10000;
+        final SpscFrameQueue queue = new SpscFrameQueue(4);
+        final long[] lastSeen = {-1};
+        final boolean[] inOrder = {true};
+        Thread consumer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                long received = 0;
+                while (received < count) {
+                    if (queue.poll() != null) {
+                        long timestamp = queue.getPolledTimestampNs();
+                        if (timestamp != lastSeen[0] + 1) {
+                            inOrder[0] = false;
+                        }
+                        lastSeen[0] = timestamp;
+                        received++;
+                    } else {
+                        Thread.yield();
+                    }
+                }
+            }
+        });
+        consumer.start();
+        byte[] frame = new byte[1];
+        for (int i = 0; i < count; ) {
+            if (queue.offer(frame, i)) {
+                i++;
+            } else {
+                Thread.yield();
+            }
+        }
+        consumer.join(10000);
+        assertFalse(consumer.isAlive());
+        assertTrue(inOrder[0]);
+        assertEquals(count - 1, lastSeen[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyCapacity() throws Exception {
+        new SpscFrameQueue(0);
+    }
+}